@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.util.function.LongSupplier;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: A small timing harness shared by the benchmarks. Each
+ *          benchmark body is warmed up, timed several times, and the best run
+ *          is reported so JIT and GC noise affect the numbers as little as
+ *          possible. Run the benchmarks from the Spectrum directory so the CSVs
+ *          in res/ can be found.
+ */
+public final class Benchmarks
+{
+	private static final int WARMUP_RUNS = 5; // Untimed runs before measuring.
+	private static final int TIMED_RUNS = 7; // Timed runs; the best is kept.
+
+	/**
+	 * Collects the results of every run so the JIT cannot remove the work.
+	 */
+	public static volatile long sink;
+
+	/**
+	 * No instances.
+	 */
+	private Benchmarks()
+	{
+	}
+
+	/**
+	 * Runs the body repeatedly and returns the best time per operation.
+	 *
+	 * @param operations the number of operations one call of the body performs.
+	 * @param body       the work to time. Its result is consumed.
+	 * @return the best observed nanoseconds per operation.
+	 */
+	public static double nanosPerOp(long operations, LongSupplier body)
+	{
+		for (int i = 0; i < WARMUP_RUNS; i++)
+			sink += body.getAsLong();
+
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < TIMED_RUNS; i++)
+		{
+			long start = System.nanoTime();
+			sink += body.getAsLong();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+
+		return (double) best / operations;
+	}
+
+	/**
+	 * Prints one line of a benchmark report.
+	 *
+	 * @param label      the name of what was measured.
+	 * @param nanosPerOp the time per operation in nanoseconds.
+	 */
+	public static void report(String label, double nanosPerOp)
+	{
+		System.out.printf("%-40s %12.1f ns/op %14.0f ops/s%n", label, nanosPerOp, 1e9 / nanosPerOp);
+	}
+
+	/**
+	 * Prints a throughput for image work.
+	 *
+	 * @param label         what was measured.
+	 * @param nanosPerPixel the time per pixel in nanoseconds.
+	 */
+	public static void reportMegapixels(String label, double nanosPerPixel)
+	{
+		System.out.printf("%-40s %12.1f ns/px %14.1f MP/s%n", label, nanosPerPixel, 1e3 / nanosPerPixel);
+	}
+}
@@ -0,0 +1,69 @@
+package benchmarks;
+
+import java.util.Random;
+
+import model.StandardColorMetric;
+import util.CIELab;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Measures the cost per pair of each color metric, both
+ *          from packed RGB (which for the Lab metrics includes converting both
+ *          colors) and from Lab colors converted up front, as Palette and the
+ *          solver use them, along with the cost of one Lab conversion.
+ */
+public class ColorMetricBenchmark
+{
+	private static final int PAIRS = 1 << 20; // Pairs measured per timed run.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args unused.
+	 */
+	public static void main(String[] args)
+	{
+		Random random = new Random(7);
+		int[] colors = new int[PAIRS + 1];
+		for (int i = 0; i < colors.length; i++)
+			colors[i] = random.nextInt(1 << 24);
+
+		double[] lab = new double[colors.length * 3];
+		for (int i = 0; i < colors.length; i++)
+			CIELab.toLab(colors[i], lab, i * 3);
+
+		Benchmarks.report("CIELab.toLab", Benchmarks.nanosPerOp(PAIRS, () -> {
+			double[] out = new double[3];
+			double total = 0;
+			for (int i = 0; i < PAIRS; i++)
+			{
+				CIELab.toLab(colors[i], out, 0);
+				total += out[0];
+			}
+			return (long) total;
+		}));
+
+		for (StandardColorMetric metric : StandardColorMetric.values())
+		{
+			Benchmarks.report(metric + " distance(rgb, rgb)", Benchmarks.nanosPerOp(PAIRS, () -> {
+				double total = 0;
+				for (int i = 0; i < PAIRS; i++)
+					total += metric.distance(colors[i], colors[i + 1]);
+				return (long) total;
+			}));
+
+			if (metric.isLab())
+			{
+				Benchmarks.report(metric + " labDistance", Benchmarks.nanosPerOp(PAIRS, () -> {
+					double total = 0;
+					for (int i = 0; i < PAIRS; i++)
+						total += metric.labDistance(lab, i * 3, lab, i * 3 + 3);
+					return (long) total;
+				}));
+			}
+		}
+	}
+}
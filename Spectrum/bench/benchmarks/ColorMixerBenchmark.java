@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.Random;
+
+import model.AverageColorMixer;
+import model.ColorMixer;
+import model.KubelkaMunkMixer;
+import model.MixingSolver;
+import model.StandardColorMetric;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Measures the mixes per second of the averaging and
+ *          Kubelka-Munk mixers on a random palette, and the time the solver
+ *          takes to find weights with each of them. The first argument sets the
+ *          palette size (default 10).
+ */
+public class ColorMixerBenchmark
+{
+	private static final int MIXES = 1 << 20; // Mixes per timed run.
+	private static final int SOLVES = 16; // Solves per timed run.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the palette size.
+	 */
+	public static void main(String[] args)
+	{
+		int colors = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+		Random random = new Random(7);
+		int[] palette = new int[colors];
+		for (int i = 0; i < colors; i++)
+			palette[i] = random.nextInt(1 << 24);
+
+		int[] wanted = new int[SOLVES];
+		for (int i = 0; i < SOLVES; i++)
+			wanted[i] = random.nextInt(1 << 24);
+
+		System.out.printf("%d colors%n", colors);
+
+		ColorMixer[] mixers = { new AverageColorMixer(palette), new KubelkaMunkMixer(palette) };
+		for (ColorMixer mixer : mixers)
+		{
+			String name = mixer.getClass().getSimpleName();
+			double[] weights = new double[colors];
+			for (int i = 0; i < colors; i++)
+				weights[i] = 1;
+
+			Benchmarks.report(name + " mix", Benchmarks.nanosPerOp(MIXES, () -> {
+				long total = 0;
+				for (int i = 0; i < MIXES; i++)
+				{
+					weights[i % colors] = i & 7;
+					total += mixer.mix(weights);
+				}
+				return total;
+			}));
+
+			for (StandardColorMetric metric : new StandardColorMetric[] { StandardColorMetric.RGB,
+					StandardColorMetric.CIEDE2000 })
+			{
+				Benchmarks.report(name + " solve " + metric, Benchmarks.nanosPerOp(SOLVES, () -> {
+					long total = 0;
+					for (int color : wanted)
+					{
+						MixingSolver.solve(mixer, color, weights, metric);
+						total += Double.doubleToLongBits(weights[0]);
+					}
+					return total;
+				}));
+			}
+		}
+	}
+}
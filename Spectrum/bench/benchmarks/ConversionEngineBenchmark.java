@@ -0,0 +1,78 @@
+package benchmarks;
+
+import java.util.Random;
+
+import util.ColorConverter;
+import util.ColorConverter.RGBLookup;
+import util.ConversionEngine;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Measures how the parallel conversion engine scales.
+ *          Converts one large random image at parallelism 1, 2, 4 and so on up
+ *          to the number of cores, and prints the throughput and the speedup
+ *          over a single worker. The first argument sets the image size in
+ *          megapixels (default 16) and the second the lookup to use (default
+ *          DENSE_TABLE). Give the JVM enough heap for the image, e.g. -Xmx2g for
+ *          50 megapixels.
+ */
+public class ConversionEngineBenchmark
+{
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the image size in megapixels, then the RGBLookup to use.
+	 */
+	public static void main(String[] args)
+	{
+		int pixels = (args.length > 0 ? Integer.parseInt(args[0]) : 16) * 1_000_000;
+		RGBLookup lookup = args.length > 1 ? RGBLookup.valueOf(args[1]) : RGBLookup.DENSE_TABLE;
+
+		ColorConverter.setRGBLookup(lookup);
+		ColorConverter.fromRGB(java.awt.Color.black); // Build any lazy tables up front.
+
+		Random random = new Random(7);
+		int[] image = new int[pixels];
+		int[] indices = new int[pixels];
+		for (int i = 0; i < pixels; i++)
+			image[i] = random.nextInt(1 << 24);
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		System.out.printf("%d megapixels, %s lookup, %d cores%n", pixels / 1_000_000, lookup, cores);
+
+		double single = 0;
+		for (int parallelism = 1; parallelism <= cores; parallelism = nextParallelism(parallelism, cores))
+		{
+			try (ConversionEngine engine = new ConversionEngine(parallelism))
+			{
+				double nanos = Benchmarks.nanosPerOp(pixels, () -> {
+					engine.fromRGB(image, 0, pixels, indices);
+					return indices[pixels - 1];
+				});
+
+				if (parallelism == 1)
+					single = nanos;
+
+				System.out.printf("parallelism %3d: %8.1f MP/s, speedup %5.2fx%n", parallelism, 1000 / nanos,
+						single / nanos);
+			}
+		}
+	}
+
+	/**
+	 * @param parallelism the parallelism just measured.
+	 * @param cores       the number of cores.
+	 * @return the next parallelism to measure: double the last, ending exactly at
+	 *         the number of cores, or past it once that has been measured.
+	 */
+	private static int nextParallelism(int parallelism, int cores)
+	{
+		if (parallelism == cores)
+			return cores + 1;
+
+		return Math.min(parallelism * 2, cores);
+	}
+}
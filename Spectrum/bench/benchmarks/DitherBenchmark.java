@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import model.DitherMode;
+import model.Hue;
+import model.MunsellColor;
+import model.Palette;
+import model.PosterizePipeline;
+import model.StandardColorMetric;
+import util.ColorConverter;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Measures posterizing a photo-like image in memory
+ *          against a ten color palette with each dither mode, in megapixels
+ *          per second. Every timed run makes a fresh palette cache, so the
+ *          misses are counted too.
+ */
+public class DitherBenchmark
+{
+	private static final int WIDTH = 1024; // Width of the image.
+	private static final int HEIGHT = 768; // Height of the image.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args unused.
+	 */
+	public static void main(String[] args)
+	{
+		ColorConverter.buildCSVMaps();
+
+		Palette palette = new Palette();
+		String[] hues = { "R", "YR", "Y", "GY", "G", "BG", "B", "PB", "P", "RP" };
+		for (String hue : hues)
+			palette.addColor(new MunsellColor(new Hue(hue, 5f), 5f, 8f));
+
+		Random random = new Random(7);
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < HEIGHT; y++)
+		{
+			for (int x = 0; x < WIDTH; x++)
+			{
+				int red = Math.min(255, x * 256 / WIDTH + random.nextInt(4));
+				int green = Math.min(255, y * 256 / HEIGHT + random.nextInt(4));
+				int blue = Math.min(255, (x + y) * 128 / (WIDTH + HEIGHT) + 64 + random.nextInt(4));
+				image.setRGB(x, y, (red << 16) | (green << 8) | blue);
+			}
+		}
+
+		for (DitherMode mode : DitherMode.values())
+		{
+			PosterizePipeline pipeline = new PosterizePipeline(palette, StandardColorMetric.RGB, false);
+			pipeline.setDitherMode(mode);
+			Benchmarks.reportMegapixels(mode.toString(), Benchmarks.nanosPerOp(WIDTH * HEIGHT,
+					() -> pipeline.posterize(image).getRGB(WIDTH - 1, HEIGHT - 1)));
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import java.nio.charset.StandardCharsets;
+
+import model.Hue;
+import model.HueParser;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Compares ways of parsing the hue names of the RGB ->
+ *          Munsell CSV. The baseline is the old Hue(String) parsing, which
+ *          built the hue number by String concatenation before calling
+ *          Float.parseFloat. It is reproduced here since Hue no longer works
+ *          that way.
+ */
+public class HueParserBenchmark
+{
+	private static final String[] NAMES = { "1.36G", "3.05BG", "7.5PB", "10RP", "2.5R", "8.71YR", "4.2GY",
+			"0.53R" }; // Hue names in the style of the CSV.
+	private static final int REPEATS = 100_000; // Passes over NAMES per timed run.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args unused.
+	 */
+	public static void main(String[] args)
+	{
+		long operations = (long) REPEATS * NAMES.length;
+
+		// One row of ASCII bytes holding every name, as the CSV scanner sees them.
+		StringBuilder joined = new StringBuilder();
+		int[] starts = new int[NAMES.length + 1];
+		for (int i = 0; i < NAMES.length; i++)
+		{
+			starts[i] = joined.length();
+			joined.append(NAMES[i]);
+		}
+		starts[NAMES.length] = joined.length();
+		byte[] bytes = joined.toString().getBytes(StandardCharsets.US_ASCII);
+
+		Benchmarks.report("old Hue(String) parsing", Benchmarks.nanosPerOp(operations, () -> {
+			long hash = 0;
+			for (int r = 0; r < REPEATS; r++)
+				for (String name : NAMES)
+					hash += legacyParse(name).hashCode();
+			return hash;
+		}));
+
+		Benchmarks.report("new Hue(String)", Benchmarks.nanosPerOp(operations, () -> {
+			long hash = 0;
+			for (int r = 0; r < REPEATS; r++)
+				for (String name : NAMES)
+					hash += new Hue(name).hashCode();
+			return hash;
+		}));
+
+		Benchmarks.report("Hue.parse (shared)", Benchmarks.nanosPerOp(operations, () -> {
+			long hash = 0;
+			for (int r = 0; r < REPEATS; r++)
+				for (String name : NAMES)
+					hash += Hue.parse(name).hashCode();
+			return hash;
+		}));
+
+		Benchmarks.report("HueParser.parsePacked chars", Benchmarks.nanosPerOp(operations, () -> {
+			long hash = 0;
+			for (int r = 0; r < REPEATS; r++)
+				for (int i = 0; i < NAMES.length; i++)
+					hash += HueParser.parsePacked(joined, starts[i], starts[i + 1]);
+			return hash;
+		}));
+
+		Benchmarks.report("HueParser.parsePacked bytes", Benchmarks.nanosPerOp(operations, () -> {
+			long hash = 0;
+			for (int r = 0; r < REPEATS; r++)
+				for (int i = 0; i < NAMES.length; i++)
+					hash += HueParser.parsePacked(bytes, starts[i], starts[i + 1]);
+			return hash;
+		}));
+	}
+
+	/**
+	 * The old Hue(String) parsing.
+	 *
+	 * @param hueName the hueName to use.
+	 * @return the hue.
+	 */
+	private static Hue legacyParse(String hueName)
+	{
+		// Gather the numbers from the hueName.
+		String hueNum = "";
+		int i;
+		for (i = 0; i < hueName.length(); i++)
+		{
+			char c = hueName.charAt(i);
+			if (!(Character.isDigit(c) || c == '.'))
+			{
+				break;
+			}
+
+			hueNum += c;
+		}
+
+		return new Hue(hueName.substring(i), Float.parseFloat(hueNum));
+	}
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import model.LatticeMixingSearch;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Measures how the branch-and-bound mixing search scales.
+ *          Solves the same set of random wanted colors against a random
+ *          palette at parallelism 1, 2, 4 and so on up to the number of cores,
+ *          and prints the time per solve and the speedup over a single worker.
+ *          The first argument sets the palette size (default 10) and the second
+ *          the lattice resolution (default DEFAULT_RESOLUTION).
+ */
+public class LatticeMixingBenchmark
+{
+	private static final int WANTED_COLORS = 16; // Solves per timed run.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the palette size, then the resolution.
+	 */
+	public static void main(String[] args)
+	{
+		int colors = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int resolution = args.length > 1 ? Integer.parseInt(args[1]) : LatticeMixingSearch.DEFAULT_RESOLUTION;
+
+		Random random = new Random(7);
+		int[] palette = new int[colors];
+		for (int i = 0; i < colors; i++)
+			palette[i] = random.nextInt(1 << 24);
+
+		int[] wanted = new int[WANTED_COLORS];
+		for (int i = 0; i < WANTED_COLORS; i++)
+			wanted[i] = random.nextInt(1 << 24);
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		System.out.printf("%d colors, resolution %d, %d cores%n", colors, resolution, cores);
+
+		double single = 0;
+		for (int parallelism = 1; parallelism <= cores; parallelism = parallelism == cores ? cores + 1
+				: Math.min(parallelism * 2, cores))
+		{
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			double[] weights = new double[colors];
+			double nanos = Benchmarks.nanosPerOp(WANTED_COLORS, () -> {
+				long total = 0;
+				for (int color : wanted)
+				{
+					LatticeMixingSearch.solve(pool, palette, color, resolution, weights);
+					total += Double.doubleToLongBits(weights[0]);
+				}
+				return total;
+			});
+			pool.shutdown();
+
+			if (parallelism == 1)
+				single = nanos;
+
+			System.out.printf("parallelism %3d: %10.3f ms/solve, speedup %5.2fx%n", parallelism, nanos / 1e6,
+					single / nanos);
+		}
+	}
+}
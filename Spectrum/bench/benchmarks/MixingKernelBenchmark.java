@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.MunsellColor;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Compares mixing a palette and measuring the distance
+ *          to a wanted color through the List and Color API against the packed
+ *          int[] and double[] kernels that the mixing searches use.
+ */
+public class MixingKernelBenchmark
+{
+	private static final int MIXES = 1_000_000; // Mixes per timed run.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the palette size (default 10).
+	 */
+	public static void main(String[] args)
+	{
+		int colors = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+		Random random = new Random(7);
+		int[] packedColors = new int[colors];
+		double[] weights = new double[colors];
+		List<Color> colorList = new ArrayList<>();
+		List<Double> weightList = new ArrayList<>();
+		for (int i = 0; i < colors; i++)
+		{
+			packedColors[i] = random.nextInt(1 << 24);
+			weights[i] = random.nextInt(15);
+			colorList.add(new Color(packedColors[i]));
+			weightList.add(weights[i]);
+		}
+
+		int wanted = random.nextInt(1 << 24);
+		Color wantedColor = new Color(wanted);
+
+		System.out.printf("%d colors%n", colors);
+
+		Benchmarks.report("mixRGB(List) + getColorDistance", Benchmarks.nanosPerOp(MIXES, () -> {
+			double total = 0;
+			for (int i = 0; i < MIXES; i++)
+			{
+				weightList.set(i % colors, (double) (i & 15));
+				total += MunsellColor.getColorDistance(wantedColor, MunsellColor.mixRGB(colorList, weightList));
+			}
+			return (long) total;
+		}));
+
+		Benchmarks.report("mixRGB(int[]) + getSquaredColorDistance", Benchmarks.nanosPerOp(MIXES, () -> {
+			long total = 0;
+			for (int i = 0; i < MIXES; i++)
+			{
+				weights[i % colors] = i & 15;
+				int mixed = MunsellColor.mixRGB(packedColors, weights);
+				if (mixed != MunsellColor.NO_MIX)
+					total += MunsellColor.getSquaredColorDistance(wanted, mixed);
+			}
+			return total;
+		}));
+	}
+}
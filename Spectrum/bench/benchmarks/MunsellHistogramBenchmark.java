@@ -0,0 +1,75 @@
+package benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import model.MunsellHistogram;
+import util.ColorConverter;
+import util.RGBRaster;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Measures counting the Munsell histogram of a 24
+ *          megapixel photo-like image in memory, one pass on one thread
+ *          against parallel bands, and of the same image streamed in strips
+ *          from a TIFF file.
+ */
+public class MunsellHistogramBenchmark
+{
+	private static final int WIDTH = 6000; // Width of the image.
+	private static final int HEIGHT = 4000; // Height of the image.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args unused.
+	 * @throws IOException if the temporary file cannot be written or read.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		ColorConverter.buildCSVMaps();
+
+		Random random = new Random(7);
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		int[] data = RGBRaster.getData(image);
+		for (int y = 0; y < HEIGHT; y++)
+		{
+			for (int x = 0; x < WIDTH; x++)
+			{
+				int red = Math.min(255, x * 256 / WIDTH + random.nextInt(8));
+				int green = Math.min(255, y * 256 / HEIGHT + random.nextInt(8));
+				int blue = Math.min(255, (x + y) * 128 / (WIDTH + HEIGHT) + 64 + random.nextInt(8));
+				data[y * WIDTH + x] = (red << 16) | (green << 8) | blue;
+			}
+		}
+
+		long pixels = (long) WIDTH * HEIGHT;
+		Benchmarks.reportMegapixels("add, one pass", Benchmarks.nanosPerOp(pixels, () -> {
+			MunsellHistogram histogram = new MunsellHistogram();
+			histogram.add(data, 0, data.length);
+			return histogram.getTotal();
+		}));
+		Benchmarks.reportMegapixels("of(BufferedImage)", Benchmarks.nanosPerOp(pixels,
+				() -> MunsellHistogram.of(image).getTotal()));
+
+		File file = File.createTempFile("histogram", ".tif");
+		file.deleteOnExit();
+		ImageIO.write(image, "tiff", file);
+		Benchmarks.reportMegapixels("of(File), TIFF strips", Benchmarks.nanosPerOp(pixels, () -> {
+			try
+			{
+				return MunsellHistogram.of(file, MunsellHistogram.DEFAULT_STRIP_HEIGHT).getTotal();
+			} catch (IOException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}));
+	}
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.Random;
+
+import model.BoundedPaletteCache;
+import model.DensePaletteCache;
+import model.Hue;
+import model.MunsellColor;
+import model.Palette;
+import model.PaletteCache;
+import model.StandardColorMetric;
+import util.ColorConverter;
+
+/**
+ * 
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Measures posterizing a photo-like image (smooth
+ *          gradients with a little noise, so neighbouring pixels often repeat
+ *          colors) against a ten color palette, as the Image tab does, with no
+ *          cache, a bounded cache and a dense cache. Each timed run uses a
+ *          fresh cache, so the misses are counted too.
+ */
+public class PaletteCacheBenchmark
+{
+	private static final int WIDTH = 1024; // Width of the image.
+	private static final int HEIGHT = 768; // Height of the image.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args unused.
+	 */
+	public static void main(String[] args)
+	{
+		ColorConverter.buildCSVMaps();
+
+		Palette palette = new Palette();
+		String[] hues = { "R", "YR", "Y", "GY", "G", "BG", "B", "PB", "P", "RP" };
+		for (String hue : hues)
+			palette.addColor(new MunsellColor(new Hue(hue, 5f), 5f, 8f));
+
+		Random random = new Random(7);
+		int[] pixels = new int[WIDTH * HEIGHT];
+		for (int y = 0; y < HEIGHT; y++)
+		{
+			for (int x = 0; x < WIDTH; x++)
+			{
+				int red = Math.min(255, x * 256 / WIDTH + random.nextInt(4));
+				int green = Math.min(255, y * 256 / HEIGHT + random.nextInt(4));
+				int blue = Math.min(255, (x + y) * 128 / (WIDTH + HEIGHT) + 64 + random.nextInt(4));
+				pixels[y * WIDTH + x] = (red << 16) | (green << 8) | blue;
+			}
+		}
+
+		Benchmarks.report("no cache", Benchmarks.nanosPerOp(pixels.length, () -> {
+			long total = 0;
+			for (int pixel : pixels)
+				total += palette.getClosestColor(MunsellColor.fromRGB(new Color(pixel))).hashCode();
+			return total;
+		}));
+
+		Benchmarks.report("BoundedPaletteCache", Benchmarks.nanosPerOp(pixels.length, () -> {
+			PaletteCache cache = new BoundedPaletteCache(palette, StandardColorMetric.MANHATTAN, true,
+					BoundedPaletteCache.DEFAULT_CAPACITY);
+			long total = 0;
+			for (int pixel : pixels)
+				total += cache.getClosestIndex(pixel);
+			return total;
+		}));
+
+		Benchmarks.report("DensePaletteCache", Benchmarks.nanosPerOp(pixels.length, () -> {
+			PaletteCache cache = new DensePaletteCache(palette, StandardColorMetric.MANHATTAN, true);
+			long total = 0;
+			for (int pixel : pixels)
+				total += cache.getClosestIndex(pixel);
+			return total;
+		}));
+	}
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import model.PaletteExtractor;
+import model.PaletteExtractor.Method;
+import model.PaletteExtractor.Space;
+import util.ColorConverter;
+import util.RGBHistogram;
+import util.RGBRaster;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Measures finding a 16 color palette for a 50 megapixel
+ *          photo-like image: counting the histogram, then each method in each
+ *          space on the histogram, and the whole of one extraction.
+ */
+public class PaletteExtractorBenchmark
+{
+	private static final int WIDTH = 8660; // Width of the image.
+	private static final int HEIGHT = 5774; // Height of the image, for 50 megapixels.
+	private static final int COLORS = 16; // Colors in each palette.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args unused.
+	 */
+	public static void main(String[] args)
+	{
+		ColorConverter.buildCSVMaps();
+
+		Random random = new Random(7);
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		int[] data = RGBRaster.getData(image);
+		for (int y = 0; y < HEIGHT; y++)
+		{
+			for (int x = 0; x < WIDTH; x++)
+			{
+				int red = Math.min(255, x * 256 / WIDTH + random.nextInt(8));
+				int green = Math.min(255, y * 256 / HEIGHT + random.nextInt(8));
+				int blue = Math.min(255, (x + y) * 128 / (WIDTH + HEIGHT) + 64 + random.nextInt(8));
+				data[y * WIDTH + x] = (red << 16) | (green << 8) | blue;
+			}
+		}
+
+		long pixels = (long) WIDTH * HEIGHT;
+		Benchmarks.reportMegapixels("RGBHistogram.of", Benchmarks.nanosPerOp(pixels,
+				() -> RGBHistogram.of(image).getTotal()));
+
+		RGBHistogram histogram = RGBHistogram.of(image);
+		for (Method method : Method.values())
+		{
+			for (Space space : Space.values())
+			{
+				PaletteExtractor extractor = new PaletteExtractor(method, space);
+				Benchmarks.report(method + " " + space + " on histogram", Benchmarks.nanosPerOp(1,
+						() -> extractor.extract(histogram, COLORS).getColors().size()));
+			}
+		}
+
+		PaletteExtractor extractor = new PaletteExtractor(Method.K_MEANS, Space.LAB);
+		Benchmarks.report("K_MEANS LAB, 50MP image", Benchmarks.nanosPerOp(1,
+				() -> extractor.extract(image, COLORS).getColors().size()));
+	}
+}
@@ -0,0 +1,73 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.MunsellColor;
+import model.Palette;
+import model.StandardColorMetric;
+import util.ColorConverter;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Measures the closest palette color lookup for a
+ *          hand-sized palette of ten colors and a generated one of hundreds,
+ *          by each metric, from packed RGB and from a MunsellColor (which adds
+ *          converting the query).
+ */
+public class PaletteLookupBenchmark
+{
+	private static final int QUERIES = 100_000; // Random colors per timed run.
+	private static final int[] SIZES = { 10, 256 }; // Palette sizes measured.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args unused.
+	 */
+	public static void main(String[] args)
+	{
+		ColorConverter.buildCSVMaps();
+
+		Random random = new Random(7);
+		int[] packed = new int[QUERIES];
+		MunsellColor[] queries = new MunsellColor[QUERIES];
+		for (int i = 0; i < QUERIES; i++)
+		{
+			packed[i] = random.nextInt(1 << 24);
+			queries[i] = MunsellColor.fromRGB(new Color(packed[i]));
+		}
+
+		for (int size : SIZES)
+		{
+			List<MunsellColor> colors = new ArrayList<>();
+			for (int i = 0; i < size; i++)
+				colors.add(MunsellColor.fromRGB(new Color(random.nextInt(1 << 24))));
+			Palette palette = new Palette(colors);
+			int actual = palette.getColors().size();
+
+			for (StandardColorMetric metric : StandardColorMetric.values())
+			{
+				Benchmarks.report(actual + " colors, " + metric + " getClosestIndex",
+						Benchmarks.nanosPerOp(QUERIES, () -> {
+							long total = 0;
+							for (int rgb : packed)
+								total += palette.getClosestIndex(rgb, metric);
+							return total;
+						}));
+			}
+
+			Benchmarks.report(actual + " colors, MANHATTAN getClosestColor", Benchmarks.nanosPerOp(QUERIES, () -> {
+				long total = 0;
+				for (MunsellColor query : queries)
+					total += palette.getClosestColor(query).hashCode();
+				return total;
+			}));
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+import model.MunsellColor;
+import util.ColorConverter;
+import util.ColorConverter.RGBLookup;
+import util.RGBSampleIndex;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Compares the RGB -> Munsell lookups. Reports the
+ *          latency of each lookup, one color at a time and through the batch
+ *          API, and how far the greedy per-channel match of
+ *          the nested maps lands from the true nearest sample in the CSV.
+ */
+public class RGBLookupBenchmark
+{
+	private static final int QUERIES = 100_000; // Random colors per timed run.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args unused.
+	 */
+	public static void main(String[] args)
+	{
+		ColorConverter.buildCSVMaps();
+
+		Random random = new Random(7);
+		Color[] queries = new Color[QUERIES];
+		int[] packed = new int[QUERIES];
+		int[] indices = new int[QUERIES];
+		for (int i = 0; i < QUERIES; i++)
+		{
+			queries[i] = new Color(random.nextInt(1 << 24));
+			packed[i] = queries[i].getRGB();
+		}
+
+		// Latency of each lookup.
+		for (RGBLookup lookup : RGBLookup.values())
+		{
+			ColorConverter.setRGBLookup(lookup);
+			ColorConverter.fromRGB(Color.black); // Build any lazy tables up front.
+
+			double nanos = Benchmarks.nanosPerOp(QUERIES, () -> {
+				long hash = 0;
+				for (Color query : queries)
+					hash += ColorConverter.fromRGB(query).hashCode();
+				return hash;
+			});
+			Benchmarks.report("fromRGB " + lookup, nanos);
+
+			double batchNanos = Benchmarks.nanosPerOp(QUERIES, () -> {
+				ColorConverter.fromRGB(packed, 0, QUERIES, indices);
+				return indices[QUERIES - 1];
+			});
+			Benchmarks.report("batch fromRGB " + lookup, batchNanos);
+		}
+		ColorConverter.setRGBLookup(RGBLookup.NESTED_MAPS);
+
+		// Accuracy of the greedy match against the true nearest sample.
+		RGBSampleIndex samples = ColorConverter.getRGBSampleIndex();
+		IdentityHashMap<MunsellColor, Integer> sampleRGB = new IdentityHashMap<>();
+		for (int i = 0; i < samples.getSampleCount(); i++)
+			sampleRGB.put(samples.getSample(i), samples.getSampleRGB(i));
+
+		int mismatches = 0;
+		double greedyError = 0;
+		double nearestError = 0;
+		double worstExtraError = 0;
+
+		for (Color query : queries)
+		{
+			double greedy = distance(query.getRGB(), sampleRGB.get(ColorConverter.fromRGB(query)));
+			double nearest = distance(query.getRGB(), samples.getSampleRGB(samples.nearestIndex(query.getRGB())));
+
+			if (greedy > nearest)
+				mismatches++;
+
+			greedyError += greedy;
+			nearestError += nearest;
+			worstExtraError = Math.max(worstExtraError, greedy - nearest);
+		}
+
+		System.out.printf("greedy lookup missed the nearest sample %.2f%% of the time%n",
+				100.0 * mismatches / QUERIES);
+		System.out.printf("mean RGB error: greedy %.2f, nearest %.2f; worst extra greedy error %.2f%n",
+				greedyError / QUERIES, nearestError / QUERIES, worstExtraError);
+	}
+
+	/**
+	 * @param rgb1 the first packed RGB value.
+	 * @param rgb2 the second packed RGB value.
+	 * @return the Euclidean RGB distance between the two.
+	 */
+	private static double distance(int rgb1, int rgb2)
+	{
+		int dr = ((rgb1 >> 16) & 0xFF) - ((rgb2 >> 16) & 0xFF);
+		int dg = ((rgb1 >> 8) & 0xFF) - ((rgb2 >> 8) & 0xFF);
+		int db = (rgb1 & 0xFF) - (rgb2 & 0xFF);
+
+		return Math.sqrt(dr * dr + dg * dg + db * db);
+	}
+}
@@ -0,0 +1,73 @@
+package benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import util.RGBRaster;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Measures copying every pixel of an image into another,
+ *          as posterizing does around its lookups: one pixel at a time with
+ *          getRGB and setRGB in column order, as the Image tab used to, and a
+ *          row strip at a time through RGBRaster, for a TYPE_INT_RGB source and
+ *          a TYPE_3BYTE_BGR one (as PNG and JPEG files decode).
+ */
+public class RasterAccessBenchmark
+{
+	private static final int WIDTH = 2048; // Width of the images.
+	private static final int HEIGHT = 1536; // Height of the images.
+	private static final int STRIP_HEIGHT = 64; // Rows copied at a time.
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args unused.
+	 */
+	public static void main(String[] args)
+	{
+		Random random = new Random(7);
+		BufferedImage direct = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		BufferedImage bytes = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+		for (int y = 0; y < HEIGHT; y++)
+		{
+			for (int x = 0; x < WIDTH; x++)
+			{
+				int rgb = random.nextInt(1 << 24);
+				direct.setRGB(x, y, rgb);
+				bytes.setRGB(x, y, rgb);
+			}
+		}
+
+		BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		int[] strip = new int[WIDTH * STRIP_HEIGHT];
+		int pixels = WIDTH * HEIGHT;
+
+		for (BufferedImage source : new BufferedImage[] { direct, bytes })
+		{
+			String name = source == direct ? "INT_RGB" : "3BYTE_BGR";
+
+			Benchmarks.report(name + " getRGB/setRGB per pixel", Benchmarks.nanosPerOp(pixels, () -> {
+				for (int x = 0; x < WIDTH; x++)
+				{
+					for (int y = 0; y < HEIGHT; y++)
+						target.setRGB(x, y, source.getRGB(x, y));
+				}
+				return target.getRGB(WIDTH - 1, HEIGHT - 1);
+			}));
+
+			Benchmarks.report(name + " RGBRaster strips", Benchmarks.nanosPerOp(pixels, () -> {
+				for (int y = 0; y < HEIGHT; y += STRIP_HEIGHT)
+				{
+					int rows = Math.min(STRIP_HEIGHT, HEIGHT - y);
+					RGBRaster.getRows(source, y, rows, strip);
+					RGBRaster.setRows(target, y, rows, strip);
+				}
+				return target.getRGB(WIDTH - 1, HEIGHT - 1);
+			}));
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package model;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Mixes colors by averaging their sRGB values, like
+ *          mixing colored light on a screen. The same as MunsellColor.mixRGB.
+ */
+public class AverageColorMixer implements ColorMixer
+{
+	private final int[] colorRGB; // The packed RGB value of each palette color.
+
+	/**
+	 * Creates a mixer for a palette.
+	 *
+	 * @param colorRGB the packed 0xRRGGBB value of each palette color. Copied.
+	 */
+	public AverageColorMixer(int[] colorRGB)
+	{
+		if (colorRGB.length == 0)
+			throw new IllegalArgumentException("Cannot mix an empty palette!");
+
+		this.colorRGB = colorRGB.clone();
+	}
+
+	@Override
+	public int getColorCount()
+	{
+		return colorRGB.length;
+	}
+
+	@Override
+	public int getColor(int index)
+	{
+		return colorRGB[index];
+	}
+
+	@Override
+	public int mix(double[] weights)
+	{
+		return MunsellColor.mixRGB(colorRGB, weights);
+	}
+}
@@ -0,0 +1,69 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: A PaletteCache of a fixed number of entries, so a
+ *          small image does not pay for the 16MB table of a DensePaletteCache.
+ *          Each color has one slot, picked by hashing it, and a new color
+ *          evicts whatever was in its slot. An entry is a single long holding
+ *          the color, the index of its closest palette color and the palette's
+ *          modification count when it was found, so that threads can share
+ *          the cache without locks and a change to the palette makes every
+ *          older entry miss without clearing anything.
+ */
+public class BoundedPaletteCache extends PaletteCache
+{
+	/**
+	 * The number of entries forPixels gives a bounded cache, 512KB of them.
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	private static final int KEY_SHIFT = 16; // Where the color is in an entry.
+	private static final int GENERATION_SHIFT = 40; // Where the modification count is.
+	private static final int MAX_STORED = 0xFFFF; // The largest index plus one that fits.
+
+	private final AtomicLongArray entries; // The entries, 0 where empty.
+	private final int shift; // Turns a hash into a slot.
+
+	/**
+	 * Creates a bounded cache for a palette.
+	 *
+	 * @param palette        the palette to find colors in.
+	 * @param metric         how to measure the difference between colors.
+	 * @param throughMunsell whether to convert each pixel to its Munsell color
+	 *                       and back first.
+	 * @param capacity       the number of entries. A power of two.
+	 */
+	public BoundedPaletteCache(Palette palette, ColorMetric metric, boolean throughMunsell, int capacity)
+	{
+		super(palette, metric, throughMunsell);
+
+		if (capacity < 2 || Integer.bitCount(capacity) != 1)
+			throw new IllegalArgumentException("Capacity must be a power of two of at least 2!");
+
+		entries = new AtomicLongArray(capacity);
+		shift = Integer.numberOfLeadingZeros(capacity) + 1;
+	}
+
+	@Override
+	public int getClosestIndex(int rgb)
+	{
+		int key = rgb & 0xFFFFFF;
+		long tag = (long) (palette.getModificationCount() & 0xFFFFFF) << GENERATION_SHIFT | (long) key << KEY_SHIFT;
+		int slot = (key * 0x9E3779B1) >>> shift;
+
+		long entry = entries.getOpaque(slot);
+		if ((entry & ~MAX_STORED) == tag && entry != 0)
+			return (int) (entry & MAX_STORED) - 1;
+
+		int index = lookUp(key);
+		if (index >= 0 && index < MAX_STORED)
+			entries.setOpaque(slot, tag | (index + 1));
+		return index;
+	}
+}
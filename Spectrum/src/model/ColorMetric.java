@@ -0,0 +1,54 @@
+package model;
+
+import util.CIELab;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: A way of measuring how different two colors are.
+ *          StandardColorMetric has the usual RGB and CIE metrics. A metric
+ *          that works on Lab colors says so with isLab, so that code comparing
+ *          many colors can convert each one to Lab once with CIELab.toLab and
+ *          call labDistance, rather than converting on every comparison. Every
+ *          metric can measure Lab colors; the others convert them back to RGB
+ *          first.
+ */
+public interface ColorMetric
+{
+	/**
+	 * Measures the difference between two colors.
+	 *
+	 * @param rgb1 the packed 0xRRGGBB value of the first color. Any alpha is
+	 *             ignored.
+	 * @param rgb2 the packed 0xRRGGBB value of the second color.
+	 * @return the difference, 0 if the colors are the same.
+	 */
+	double distance(int rgb1, int rgb2);
+
+	/**
+	 * @return true if the metric works on Lab colors, so labDistance is its
+	 *         quickest method.
+	 */
+	default boolean isLab()
+	{
+		return false;
+	}
+
+	/**
+	 * Measures the difference between two colors already converted to Lab. By
+	 * default the colors are converted back to RGB with CIELab.fromLab and
+	 * measured with distance; Lab metrics measure them as they are.
+	 *
+	 * @param lab1    holds the L, a and b of the first color.
+	 * @param offset1 where the first color's L is in lab1.
+	 * @param lab2    holds the L, a and b of the second color.
+	 * @param offset2 where the second color's L is in lab2.
+	 * @return the difference, the same as distance gives for the RGB colors.
+	 */
+	default double labDistance(double[] lab1, int offset1, double[] lab2, int offset2)
+	{
+		return distance(CIELab.fromLab(lab1, offset1), CIELab.fromLab(lab2, offset2));
+	}
+}
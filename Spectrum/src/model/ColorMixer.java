@@ -0,0 +1,35 @@
+package model;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Mixes a fixed set of palette colors by weight. A mixer
+ *          is made once for a palette, so anything it needs about each color
+ *          can be worked out up front, and then mixes many weightings cheaply,
+ *          as the mixing solver does. Mixers keep scratch space between mixes,
+ *          so one mixer should only be used by one thread at a time.
+ */
+public interface ColorMixer
+{
+	/**
+	 * @return the number of palette colors.
+	 */
+	int getColorCount();
+
+	/**
+	 * @param index the index of a palette color.
+	 * @return the packed 0xRRGGBB value of the color.
+	 */
+	int getColor(int index);
+
+	/**
+	 * Mixes the palette colors by weight.
+	 *
+	 * @param weights the weight of each palette color. Need not sum to one.
+	 * @return the packed 0xRRGGBB value of the mix, or MunsellColor.NO_MIX if
+	 *         there is a negative weight or the total weight is 0.
+	 */
+	int mix(double[] weights);
+}
@@ -0,0 +1,133 @@
+package model;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: A PaletteCache with an entry for each of the 16M
+ *          24-bit colors, so every pixel color after the first of its kind is
+ *          a single array read. The table takes a byte per color (16MB) for
+ *          palettes of up to 254 colors and a short per color (32MB) for
+ *          larger ones. It is allocated on the first lookup and again after
+ *          each change to the palette, so lookups racing with a change can
+ *          only ever write into a table that is about to be thrown away.
+ */
+public class DensePaletteCache extends PaletteCache
+{
+	private static final int COLORS = 1 << 24; // Entries in a table.
+
+	private volatile Table table; // The entries for the palette as it is now, or null.
+
+	/**
+	 * Creates a dense cache for a palette.
+	 *
+	 * @param palette        the palette to find colors in.
+	 * @param metric         how to measure the difference between colors.
+	 * @param throughMunsell whether to convert each pixel to its Munsell color
+	 *                       and back first.
+	 */
+	public DensePaletteCache(Palette palette, ColorMetric metric, boolean throughMunsell)
+	{
+		super(palette, metric, throughMunsell);
+	}
+
+	@Override
+	public int getClosestIndex(int rgb)
+	{
+		int key = rgb & 0xFFFFFF;
+		Table current = currentTable();
+
+		int stored = current.get(key);
+		if (stored != 0)
+			return stored - 1;
+
+		int index = lookUp(key);
+		if (index >= 0)
+			current.put(key, index + 1);
+		return index;
+	}
+
+	/**
+	 * @return the table for the palette as it is now, made if needed.
+	 */
+	private Table currentTable()
+	{
+		Table current = table;
+		if (current != null && current.generation == palette.getModificationCount())
+			return current;
+
+		synchronized (this)
+		{
+			int generation = palette.getModificationCount();
+			current = table;
+			if (current == null || current.generation != generation)
+			{
+				table = null; // Let the old table go before making the new one.
+				current = new Table(generation, palette.getColors().size());
+				table = current;
+			}
+			return current;
+		}
+	}
+
+	/**
+	 * The entries for one version of the palette. Each entry is one more than
+	 * the index of the closest color, or 0 if it is not known yet.
+	 */
+	private static final class Table
+	{
+		private final int generation; // The palette's modification count.
+		private final byte[] bytes; // The entries, if the palette is small.
+		private final short[] shorts; // The entries, if not.
+		private final int limit; // One more than the largest entry that fits.
+
+		/**
+		 * Creates an empty table.
+		 *
+		 * @param generation the palette's modification count.
+		 * @param size       the number of colors in the palette.
+		 */
+		Table(int generation, int size)
+		{
+			this.generation = generation;
+			if (size < 0xFF)
+			{
+				bytes = new byte[COLORS];
+				shorts = null;
+				limit = 0x100;
+			} else
+			{
+				bytes = null;
+				shorts = new short[COLORS];
+				limit = 0x10000;
+			}
+		}
+
+		/**
+		 * @param key a 24-bit color.
+		 * @return the entry for the color.
+		 */
+		int get(int key)
+		{
+			return bytes != null ? bytes[key] & 0xFF : shorts[key] & 0xFFFF;
+		}
+
+		/**
+		 * Sets the entry for a color, unless it does not fit.
+		 *
+		 * @param key   a 24-bit color.
+		 * @param entry the entry.
+		 */
+		void put(int key, int entry)
+		{
+			if (entry >= limit)
+				return;
+
+			if (bytes != null)
+				bytes[key] = (byte) entry;
+			else
+				shorts[key] = (short) entry;
+		}
+	}
+}
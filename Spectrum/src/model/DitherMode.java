@@ -0,0 +1,79 @@
+package model;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: How posterizing spreads the difference between each
+ *          pixel and its palette color, so that gradients come out as a mix of
+ *          palette colors rather than bands. The error diffusion modes push
+ *          each pixel's error onto the pixels to its right and below, and so
+ *          must go through the image in order; the ordered mode nudges each
+ *          pixel by a fixed pattern, so any part of the image can be done on
+ *          its own.
+ */
+public enum DitherMode
+{
+	/**
+	 * Each pixel becomes its closest palette color.
+	 */
+	NONE(null, 0),
+
+	/**
+	 * Floyd-Steinberg error diffusion: all of the error, over the pixel to the
+	 * right and the three below.
+	 */
+	FLOYD_STEINBERG(new int[][] { { 1, 0, 7 }, { -1, 1, 3 }, { 0, 1, 5 }, { 1, 1, 1 } }, 4),
+
+	/**
+	 * Atkinson error diffusion: three quarters of the error, over two pixels to
+	 * the right, three below and one two rows down, which keeps more contrast.
+	 */
+	ATKINSON(new int[][] { { 1, 0, 1 }, { 2, 0, 1 }, { -1, 1, 1 }, { 0, 1, 1 }, { 1, 1, 1 }, { 0, 2, 1 } }, 3),
+
+	/**
+	 * Ordered dithering with an 8x8 Bayer matrix.
+	 */
+	BAYER(null, 0);
+
+	private final int[][] kernel; // Each {dx, dy, weight} the error goes to, or null.
+	private final int shift; // The weights are in units of 1 / 2^shift.
+
+	/**
+	 * @param kernel each {dx, dy, weight} the error goes to, or null if the
+	 *               mode does not diffuse error.
+	 * @param shift  the weights are in units of 1 / 2^shift.
+	 */
+	DitherMode(int[][] kernel, int shift)
+	{
+		this.kernel = kernel;
+		this.shift = shift;
+	}
+
+	/**
+	 * @return true if each pixel's error goes to the pixels after it, so the
+	 *         image must be done in order.
+	 */
+	public boolean isErrorDiffusion()
+	{
+		return kernel != null;
+	}
+
+	/**
+	 * @return each {dx, dy, weight} the error goes to. Null if the mode does
+	 *         not diffuse error.
+	 */
+	int[][] getKernel()
+	{
+		return kernel;
+	}
+
+	/**
+	 * @return the weights are in units of 1 / 2^shift.
+	 */
+	int getShift()
+	{
+		return shift;
+	}
+}
@@ -3,23 +3,38 @@ package model;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * @author Jake Boychenko
  * @version 1, (10/23/2019)
  * 
  *          Description: Represents a hue by either a hue value (0-100) or a hue
- *          prefix followed by a hue number (RP 5).
+ *          prefix followed by a hue number (RP 5). Hues are immutable, and the
+ *          of factories return a shared instance for every hue whose number is
+ *          a whole number of hundredths, so common hues are never allocated
+ *          twice.
  */
 public class Hue
 {
-	private String prefix; // The prefix of the hue.
-	private float hue; // The hue value (from 0-10).
+	private final HuePrefix prefix; // The prefix of the hue.
+	private final float hue; // The hue value (from 0-10).
 
 	// Valid hue prefixes
 	public static final ArrayList<String> huePrefixes = new ArrayList<>(
 			Arrays.asList("R", "YR", "Y", "GY", "G", "BG", "B", "PB", "P", "RP", "N"));
 
+	private static final int CACHED_STEPS = 1001; // Hue numbers 0-10 in hundredths.
+
+	// The shared hues, indexed by prefix ordinal and hue number in hundredths.
+	private static final AtomicReferenceArray<Hue> cache = new AtomicReferenceArray<>(
+			HuePrefix.values().length * CACHED_STEPS);
+
+	/**
+	 * The hue of the neutral grays.
+	 */
+	public static final Hue NEUTRAL = of(HuePrefix.N, 0);
+
 	/**
 	 * Creates a hue with the given prefix and hue value.
 	 * 
@@ -27,6 +42,17 @@ public class Hue
 	 * @param hue    the hue value. Must be between 0-100.
 	 */
 	public Hue(String prefix, float hue)
+	{
+		this(toPrefix(prefix), hue);
+	}
+
+	/**
+	 * Creates a hue with the given prefix and hue value.
+	 * 
+	 * @param prefix the prefix of the color.
+	 * @param hue    the hue value. Must be at most 10.
+	 */
+	public Hue(HuePrefix prefix, float hue)
 	{
 		if (prefix == null)
 			throw new NullPointerException("Hue prefix cannot be null!");
@@ -48,10 +74,7 @@ public class Hue
 	 */
 	public Hue(float totalHue)
 	{
-		if (totalHue < 0 || totalHue > 100)
-			throw new IllegalArgumentException("Total hue should be between 0 and 100!");
-		prefix = huePrefixes.get((int) (totalHue - 0.1) / 10);
-		hue = (totalHue - 0.5f) % 10 + 0.5f;
+		this(totalHuePrefix(totalHue), totalHueNumber(totalHue));
 	}
 
 	/**
@@ -64,22 +87,12 @@ public class Hue
 		if (hueName == null)
 			throw new NullPointerException("Hue prefix cannot be null!");
 
-		// Gather the numbers from the hueName.
-		String hueNum = "";
-		int i;
-		for (i = 0; i < hueName.length(); i++)
-		{
-			char c = hueName.charAt(i);
-			if (!(Character.isDigit(c) || c == '.'))
-			{
-				break;
-			}
+		// The numbers at the start of the hueName are the hue number, and the
+		// prefix is the rest of the string.
+		long packed = HueParser.parsePacked(hueName, 0, hueName.length());
 
-			hueNum += c;
-		}
-
-		hue = Float.parseFloat(hueNum);
-		prefix = hueName.substring(i); // The prefix is the rest of the string.
+		prefix = packed == HueParser.INVALID ? null : HueParser.prefixOf(packed);
+		hue = HueParser.numberOf(packed);
 
 		if (!isValidHue())
 		{
@@ -87,21 +100,83 @@ public class Hue
 		}
 	}
 
+	/**
+	 * Returns the shared hue with the given prefix and hue value. Hue values that
+	 * are not a whole number of hundredths get a new hue instead.
+	 * 
+	 * @param prefix the prefix of the color.
+	 * @param hue    the hue value. Must be at most 10.
+	 * @return the hue.
+	 */
+	public static Hue of(HuePrefix prefix, float hue)
+	{
+		if (prefix == null)
+			throw new NullPointerException("Hue prefix cannot be null!");
+
+		int hundredths = Math.round(hue * 100);
+		if (hundredths < 0 || hundredths >= CACHED_STEPS || hundredths / 100f != hue)
+			return new Hue(prefix, hue);
+
+		int slot = prefix.ordinal() * CACHED_STEPS + hundredths;
+		Hue cached = cache.get(slot);
+
+		if (cached == null)
+		{
+			// If another thread got there first, use its hue so there is only one.
+			cached = new Hue(prefix, hue);
+			if (!cache.compareAndSet(slot, null, cached))
+				cached = cache.get(slot);
+		}
+
+		return cached;
+	}
+
+	/**
+	 * Returns the shared hue with the given prefix and hue value.
+	 * 
+	 * @param prefix the prefix of the color.
+	 * @param hue    the hue value. Must be at most 10.
+	 * @return the hue.
+	 */
+	public static Hue of(String prefix, float hue)
+	{
+		return of(toPrefix(prefix), hue);
+	}
+
+	/**
+	 * Returns the shared hue with the given total hue (0-100).
+	 * 
+	 * @param totalHue the total hue.
+	 * @return the hue.
+	 */
+	public static Hue of(float totalHue)
+	{
+		return of(totalHuePrefix(totalHue), totalHueNumber(totalHue));
+	}
+
+	/**
+	 * Returns the shared hue with the given hueName (i.e. 1.36G).
+	 * 
+	 * @param hueName the hueName to use.
+	 * @return the hue.
+	 */
+	public static Hue parse(String hueName)
+	{
+		if (hueName == null)
+			throw new NullPointerException("Hue prefix cannot be null!");
+
+		return HueParser.parse(hueName, 0, hueName.length());
+	}
+
 	/**
 	 * @return the hue's value from 0-100. Hues with 'N' prefix are given 0.
 	 */
 	public float getHueTotalValue()
 	{
-		if (prefix.equals("N"))
+		if (prefix == HuePrefix.N)
 			return 0;
 
-		int index = huePrefixes.indexOf(prefix);
-
-		// If the hue prefix was not found, throw an exception.
-		if (index == -1)
-			throw new IllegalArgumentException("Invalid hue!");
-
-		return index * 10 + hue;
+		return prefix.ordinal() * 10 + hue;
 
 	}
 	
@@ -114,7 +189,7 @@ public class Hue
 		
 		if (hue == 0) {
 			
-			result = new Hue("N", 0);
+			result = NEUTRAL;
 			return result;
 			
 		} else {
@@ -126,7 +201,7 @@ public class Hue
 				
 				String huePrefix = huePrefixes.get(i);
 				float hueNum = (float) 2.5;
-				result = new Hue(huePrefix, hueNum);
+				result = of(huePrefix, hueNum);
 				return result;
 
 			}
@@ -135,7 +210,7 @@ public class Hue
 				
 				String huePrefix = huePrefixes.get(i);
 				float hueNum = (float) 5.0;
-				result = new Hue(huePrefix, hueNum);
+				result = of(huePrefix, hueNum);
 				return result;
 
 			}
@@ -144,7 +219,7 @@ public class Hue
 				
 				String huePrefix = huePrefixes.get(i);
 				float hueNum = (float) 7.5;
-				result = new Hue(huePrefix, hueNum);
+				result = of(huePrefix, hueNum);
 				return result;
 				
 			}
@@ -153,7 +228,7 @@ public class Hue
 				
 				String huePrefix = huePrefixes.get(i);
 				float hueNum = (float) 10.0;
-				result = new Hue(huePrefix, hueNum);
+				result = of(huePrefix, hueNum);
 				return result;
 
 			}
@@ -171,6 +246,14 @@ public class Hue
 	 * @return the hue prefix.
 	 */
 	public String getHuePrefix()
+	{
+		return prefix.name();
+	}
+
+	/**
+	 * @return the hue prefix.
+	 */
+	public HuePrefix getPrefix()
 	{
 		return prefix;
 	}
@@ -204,7 +287,7 @@ public class Hue
 	 */
 	public boolean isGrayscale()
 	{
-		return prefix.equals("N");
+		return prefix == HuePrefix.N;
 	}
 
 	/**
@@ -218,7 +301,7 @@ public class Hue
 
 		// If the object is a hue, check if its values are the same.
 		Hue h = (Hue) o;
-		return prefix.equals(h.prefix) && hue == h.hue;
+		return prefix == h.prefix && hue == h.hue;
 	}
 
 	/**
@@ -230,7 +313,7 @@ public class Hue
 	public int hashCode()
 	{
 		int result = 17;
-		result = 31 * result + prefix.hashCode();
+		result = 31 * result + prefix.ordinal();
 		result = 31 * result + (int) hue * 100;
 		return result;
 	}
@@ -242,6 +325,43 @@ public class Hue
 	 */
 	public boolean isValidHue()
 	{
-		return huePrefixes.contains(prefix) && hue <= 10;
+		return prefix != null && hue <= 10;
+	}
+
+	/**
+	 * @param prefix the name of a hue prefix.
+	 * @return the prefix with that name.
+	 */
+	private static HuePrefix toPrefix(String prefix)
+	{
+		if (prefix == null)
+			throw new NullPointerException("Hue prefix cannot be null!");
+
+		HuePrefix result = HuePrefix.fromString(prefix);
+		if (result == null)
+			throw new IllegalArgumentException("Created hue was not valid!");
+
+		return result;
+	}
+
+	/**
+	 * @param totalHue the total hue (0-100).
+	 * @return the prefix of the total hue.
+	 */
+	private static HuePrefix totalHuePrefix(float totalHue)
+	{
+		if (totalHue < 0 || totalHue > 100)
+			throw new IllegalArgumentException("Total hue should be between 0 and 100!");
+
+		return HuePrefix.fromOrdinal((int) (totalHue - 0.1) / 10);
+	}
+
+	/**
+	 * @param totalHue the total hue (0-100).
+	 * @return the hue value (0-10) of the total hue.
+	 */
+	private static float totalHueNumber(float totalHue)
+	{
+		return (totalHue - 0.5f) % 10 + 0.5f;
 	}
 }
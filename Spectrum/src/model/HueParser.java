@@ -0,0 +1,313 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Parses hue names such as "1.36G" straight from a range
+ *          of characters or ASCII bytes, without creating any Strings. A parsed
+ *          hue is returned either as a shared Hue or packed into a long (the
+ *          prefix ordinal in the high 32 bits and the float bits of the hue
+ *          number in the low 32), so a CSV can be read without allocating per
+ *          row. The hue numbers match what Float.parseFloat gives for the same
+ *          digits.
+ */
+public final class HueParser
+{
+	/**
+	 * Returned by the packed parsers for a range that is not a valid hue name.
+	 */
+	public static final long INVALID = -1L;
+
+	private static final int MAX_EXACT_MANTISSA = 1 << 24; // Larger digit runs are not exact as floats.
+	private static final float[] POWERS_OF_TEN = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f,
+			1e10f }; // Every one is exact as a float.
+	private static final HuePrefix[] PREFIXES = HuePrefix.values(); // Shared copy of values().
+
+	/**
+	 * No instances.
+	 */
+	private HueParser()
+	{
+	}
+
+	/**
+	 * Parses a hue name into a shared Hue.
+	 *
+	 * @param name  the characters to read.
+	 * @param start the index of the first character of the hue name.
+	 * @param end   one past the index of the last character.
+	 * @return the hue.
+	 */
+	public static Hue parse(CharSequence name, int start, int end)
+	{
+		long packed = parsePacked(name, start, end);
+		if (packed == INVALID)
+			throw new IllegalArgumentException("Created hue was not valid!");
+
+		return toHue(packed);
+	}
+
+	/**
+	 * Parses a hue name into a shared Hue.
+	 *
+	 * @param name  the ASCII bytes to read.
+	 * @param start the index of the first byte of the hue name.
+	 * @param end   one past the index of the last byte.
+	 * @return the hue.
+	 */
+	public static Hue parse(byte[] name, int start, int end)
+	{
+		long packed = parsePacked(name, start, end);
+		if (packed == INVALID)
+			throw new IllegalArgumentException("Created hue was not valid!");
+
+		return toHue(packed);
+	}
+
+	/**
+	 * Parses a hue name into a packed hue.
+	 *
+	 * @param name  the characters to read.
+	 * @param start the index of the first character of the hue name.
+	 * @param end   one past the index of the last character.
+	 * @return the packed hue, or INVALID.
+	 */
+	public static long parsePacked(CharSequence name, int start, int end)
+	{
+		int split = start;
+		while (split < end && isNumberChar(name.charAt(split)))
+			split++;
+
+		float number = parseDecimal(name, start, split);
+		if (Float.isNaN(number) || number > 10)
+			return INVALID;
+
+		// The prefix is the rest of the characters.
+		HuePrefix prefix = parsePrefix(name, split, end);
+		return prefix == null ? INVALID : pack(prefix, number);
+	}
+
+	/**
+	 * Parses a hue name into a packed hue.
+	 *
+	 * @param name  the ASCII bytes to read.
+	 * @param start the index of the first byte of the hue name.
+	 * @param end   one past the index of the last byte.
+	 * @return the packed hue, or INVALID.
+	 */
+	public static long parsePacked(byte[] name, int start, int end)
+	{
+		int split = start;
+		while (split < end && isNumberChar((char) name[split]))
+			split++;
+
+		float number = parseDecimal(name, start, split);
+		if (Float.isNaN(number) || number > 10)
+			return INVALID;
+
+		// The prefix is the rest of the bytes.
+		HuePrefix prefix = parsePrefix(name, split, end);
+		return prefix == null ? INVALID : pack(prefix, number);
+	}
+
+	/**
+	 * Finds the hue prefix spelled by a range of characters.
+	 *
+	 * @param name  the characters to read.
+	 * @param start the index of the first character of the prefix.
+	 * @param end   one past the index of the last character.
+	 * @return the prefix, or null if the range is not a prefix.
+	 */
+	public static HuePrefix parsePrefix(CharSequence name, int start, int end)
+	{
+		for (HuePrefix prefix : PREFIXES)
+		{
+			String prefixName = prefix.name();
+			if (prefixName.length() != end - start)
+				continue;
+
+			int i = 0;
+			while (i < prefixName.length() && prefixName.charAt(i) == name.charAt(start + i))
+				i++;
+
+			if (i == prefixName.length())
+				return prefix;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Finds the hue prefix spelled by a range of ASCII bytes.
+	 *
+	 * @param name  the ASCII bytes to read.
+	 * @param start the index of the first byte of the prefix.
+	 * @param end   one past the index of the last byte.
+	 * @return the prefix, or null if the range is not a prefix.
+	 */
+	public static HuePrefix parsePrefix(byte[] name, int start, int end)
+	{
+		for (HuePrefix prefix : PREFIXES)
+		{
+			String prefixName = prefix.name();
+			if (prefixName.length() != end - start)
+				continue;
+
+			int i = 0;
+			while (i < prefixName.length() && prefixName.charAt(i) == name[start + i])
+				i++;
+
+			if (i == prefixName.length())
+				return prefix;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Parses an unsigned decimal number such as "1.36", ".5" or "10".
+	 *
+	 * @param text  the characters to read.
+	 * @param start the index of the first character.
+	 * @param end   one past the index of the last character.
+	 * @return the number, the same as Float.parseFloat would give, or NaN if the
+	 *         range is not a number.
+	 */
+	public static float parseDecimal(CharSequence text, int start, int end)
+	{
+		long mantissa = 0;
+		int digits = 0;
+		int decimals = -1; // Digits after the point, or -1 before it.
+
+		for (int i = start; i < end; i++)
+		{
+			char c = text.charAt(i);
+			if (c == '.' && decimals == -1)
+			{
+				decimals = 0;
+			} else if (c >= '0' && c <= '9')
+			{
+				mantissa = mantissa * 10 + (c - '0');
+				digits++;
+				if (decimals >= 0)
+					decimals++;
+				if (mantissa >= MAX_EXACT_MANTISSA || decimals >= POWERS_OF_TEN.length)
+					return Float.parseFloat(text.subSequence(start, end).toString());
+			} else
+			{
+				return Float.NaN;
+			}
+		}
+
+		return toDecimal(mantissa, digits, decimals);
+	}
+
+	/**
+	 * Parses an unsigned decimal number such as "1.36", ".5" or "10".
+	 *
+	 * @param text  the ASCII bytes to read.
+	 * @param start the index of the first byte.
+	 * @param end   one past the index of the last byte.
+	 * @return the number, the same as Float.parseFloat would give, or NaN if the
+	 *         range is not a number.
+	 */
+	public static float parseDecimal(byte[] text, int start, int end)
+	{
+		long mantissa = 0;
+		int digits = 0;
+		int decimals = -1; // Digits after the point, or -1 before it.
+
+		for (int i = start; i < end; i++)
+		{
+			byte c = text[i];
+			if (c == '.' && decimals == -1)
+			{
+				decimals = 0;
+			} else if (c >= '0' && c <= '9')
+			{
+				mantissa = mantissa * 10 + (c - '0');
+				digits++;
+				if (decimals >= 0)
+					decimals++;
+				if (mantissa >= MAX_EXACT_MANTISSA || decimals >= POWERS_OF_TEN.length)
+					return Float.parseFloat(new String(text, start, end - start, StandardCharsets.US_ASCII));
+			} else
+			{
+				return Float.NaN;
+			}
+		}
+
+		return toDecimal(mantissa, digits, decimals);
+	}
+
+	/**
+	 * @param packed a packed hue.
+	 * @return the prefix of the hue.
+	 */
+	public static HuePrefix prefixOf(long packed)
+	{
+		return PREFIXES[(int) (packed >>> 32)];
+	}
+
+	/**
+	 * @param packed a packed hue.
+	 * @return the hue number (0-10) of the hue.
+	 */
+	public static float numberOf(long packed)
+	{
+		return Float.intBitsToFloat((int) packed);
+	}
+
+	/**
+	 * @param packed a packed hue.
+	 * @return the shared Hue of the packed hue.
+	 */
+	public static Hue toHue(long packed)
+	{
+		return Hue.of(prefixOf(packed), numberOf(packed));
+	}
+
+	/**
+	 * @param prefix the prefix of the hue.
+	 * @param number the hue number.
+	 * @return the packed hue.
+	 */
+	private static long pack(HuePrefix prefix, float number)
+	{
+		return ((long) prefix.ordinal() << 32) | (Float.floatToRawIntBits(number) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * @param c a character.
+	 * @return true if c can be part of the hue number.
+	 */
+	private static boolean isNumberChar(char c)
+	{
+		return (c >= '0' && c <= '9') || c == '.';
+	}
+
+	/**
+	 * Divides the digits by the power of ten of the decimal places. Both are
+	 * exact floats, so the division is rounded once, like Float.parseFloat.
+	 *
+	 * @param mantissa the digits as a whole number. Less than 2^24.
+	 * @param digits   the number of digits read.
+	 * @param decimals the number of digits after the point, or -1 if there was no
+	 *                 point. Less than the number of exact powers of ten.
+	 * @return the number, or NaN if no digits were read.
+	 */
+	private static float toDecimal(long mantissa, int digits, int decimals)
+	{
+		if (digits == 0)
+			return Float.NaN;
+
+		if (decimals <= 0)
+			return mantissa;
+
+		return mantissa / POWERS_OF_TEN[decimals];
+	}
+}
@@ -0,0 +1,60 @@
+package model;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: The hue prefixes, in the same order as
+ *          Hue.huePrefixes. A prefix's ordinal is its position on the hue
+ *          circle, so the total hue value of a hue is ordinal * 10 plus its
+ *          hue number. N is the neutral grays and has no place on the circle.
+ */
+public enum HuePrefix
+{
+	R, YR, Y, GY, G, BG, B, PB, P, RP, N;
+
+	private static final HuePrefix[] VALUES = values(); // Shared copy of values().
+
+	/**
+	 * Returns the prefix with the given name, without allocating.
+	 *
+	 * @param name the name of the prefix, such as "YR".
+	 * @return the prefix, or null if there is no prefix with that name.
+	 */
+	public static HuePrefix fromString(String name)
+	{
+		if (name == null)
+			return null;
+
+		for (HuePrefix prefix : VALUES)
+		{
+			if (prefix.name().equals(name))
+				return prefix;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the prefix with the given ordinal.
+	 *
+	 * @param ordinal the ordinal, which is also the index in Hue.huePrefixes.
+	 * @return the prefix.
+	 */
+	public static HuePrefix fromOrdinal(int ordinal)
+	{
+		if (ordinal < 0 || ordinal >= VALUES.length)
+			throw new IllegalArgumentException("Invalid hue prefix!");
+
+		return VALUES[ordinal];
+	}
+
+	/**
+	 * @return true if this is the prefix of the neutral grays.
+	 */
+	public boolean isGrayscale()
+	{
+		return this == N;
+	}
+}
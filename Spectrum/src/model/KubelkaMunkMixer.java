@@ -0,0 +1,208 @@
+package model;
+
+import java.util.Arrays;
+
+import util.CIELab;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Mixes colors the way paints mix, with the single
+ *          constant Kubelka-Munk model. Each palette color is given a
+ *          reflectance curve over a fixed grid of wavelengths, made from its
+ *          linear RGB and a smooth red, green and blue reflectance basis. Each
+ *          curve is turned into its absorption to scattering ratio K/S once,
+ *          when the mixer is made. A mix adds up the K/S curves by weight,
+ *          turns the sum back into a reflectance curve, and projects the curve
+ *          back onto the basis to get its RGB. So blue and yellow make a dull
+ *          green rather than the gray of averaging, and a little of a dark
+ *          color darkens a mix much more than its weight alone would. Every
+ *          step is a plain loop over primitive arrays of one value per
+ *          wavelength, which the JIT can vectorize.
+ */
+public class KubelkaMunkMixer implements ColorMixer
+{
+	/**
+	 * The number of wavelengths, every 20nm from 400nm to 700nm.
+	 */
+	public static final int BANDS = 16;
+
+	private static final double FIRST_WAVELENGTH = 400; // The first wavelength in nm.
+	private static final double WAVELENGTH_STEP = 20; // The step between wavelengths in nm.
+	private static final double BLUE_EDGE = 510; // Where blue reflectance falls to half, in nm.
+	private static final double RED_EDGE = 600; // Where red reflectance rises to half, in nm.
+	private static final double EDGE_WIDTH = 15; // How gradual the edges are, in nm.
+	private static final double BASIS_FLOOR = 0.02; // Reflectance every basis curve has at every wavelength.
+	private static final double MIN_REFLECTANCE = 0.001; // Keeps K/S finite for black.
+
+	private static final double[] RED_BASIS = new double[BANDS]; // Reflectance of linear red at each band.
+	private static final double[] GREEN_BASIS = new double[BANDS]; // Reflectance of linear green.
+	private static final double[] BLUE_BASIS = new double[BANDS]; // Reflectance of linear blue.
+	private static final double[] RED_PROJECTION = new double[BANDS]; // Gives linear red from a curve.
+	private static final double[] GREEN_PROJECTION = new double[BANDS]; // Gives linear green from a curve.
+	private static final double[] BLUE_PROJECTION = new double[BANDS]; // Gives linear blue from a curve.
+
+	static
+	{
+		// The three curves add up to one everywhere, so white reflects fully and
+		// every in-gamut color has a reflectance between 0 and 1. The floor keeps
+		// pure primaries from absorbing everything outside their own band.
+		for (int b = 0; b < BANDS; b++)
+		{
+			double wavelength = FIRST_WAVELENGTH + b * WAVELENGTH_STEP;
+			double blue = 1 - logistic((wavelength - BLUE_EDGE) / EDGE_WIDTH);
+			double red = logistic((wavelength - RED_EDGE) / EDGE_WIDTH);
+			BLUE_BASIS[b] = BASIS_FLOOR + (1 - 3 * BASIS_FLOOR) * blue;
+			RED_BASIS[b] = BASIS_FLOOR + (1 - 3 * BASIS_FLOOR) * red;
+			GREEN_BASIS[b] = 1 - BLUE_BASIS[b] - RED_BASIS[b];
+		}
+
+		// The least squares inverse of the basis, (B^T B)^-1 B^T.
+		double[][] basis = { RED_BASIS, GREEN_BASIS, BLUE_BASIS };
+		double[][] gram = new double[3][3];
+		for (int i = 0; i < 3; i++)
+		{
+			for (int j = 0; j < 3; j++)
+			{
+				for (int b = 0; b < BANDS; b++)
+					gram[i][j] += basis[i][b] * basis[j][b];
+			}
+		}
+
+		double[][] inverse = invert(gram);
+		double[][] projection = { RED_PROJECTION, GREEN_PROJECTION, BLUE_PROJECTION };
+		for (int i = 0; i < 3; i++)
+		{
+			for (int b = 0; b < BANDS; b++)
+			{
+				for (int j = 0; j < 3; j++)
+					projection[i][b] += inverse[i][j] * basis[j][b];
+			}
+		}
+	}
+
+	private final int[] colorRGB; // The packed RGB value of each palette color.
+	private final double[] ratios; // The K/S curve of each palette color, one after another.
+	private final double[] mixed = new double[BANDS]; // Scratch space for the curve of a mix.
+
+	/**
+	 * Creates a mixer for a palette, working out the K/S curve of each color.
+	 *
+	 * @param colorRGB the packed 0xRRGGBB value of each palette color. Copied.
+	 */
+	public KubelkaMunkMixer(int[] colorRGB)
+	{
+		if (colorRGB.length == 0)
+			throw new IllegalArgumentException("Cannot mix an empty palette!");
+
+		this.colorRGB = colorRGB.clone();
+		ratios = new double[colorRGB.length * BANDS];
+
+		for (int i = 0; i < colorRGB.length; i++)
+		{
+			double red = CIELab.toLinear((colorRGB[i] >> 16) & 0xFF);
+			double green = CIELab.toLinear((colorRGB[i] >> 8) & 0xFF);
+			double blue = CIELab.toLinear(colorRGB[i] & 0xFF);
+
+			for (int b = 0; b < BANDS; b++)
+			{
+				double reflectance = red * RED_BASIS[b] + green * GREEN_BASIS[b] + blue * BLUE_BASIS[b];
+				reflectance = Math.min(1, Math.max(MIN_REFLECTANCE, reflectance));
+				ratios[i * BANDS + b] = (1 - reflectance) * (1 - reflectance) / (2 * reflectance);
+			}
+		}
+	}
+
+	@Override
+	public int getColorCount()
+	{
+		return colorRGB.length;
+	}
+
+	@Override
+	public int getColor(int index)
+	{
+		return colorRGB[index];
+	}
+
+	@Override
+	public int mix(double[] weights)
+	{
+		double total = 0;
+		for (int i = 0; i < colorRGB.length; i++)
+		{
+			if (weights[i] < 0)
+				return MunsellColor.NO_MIX;
+			total += weights[i];
+		}
+
+		if (total == 0)
+			return MunsellColor.NO_MIX;
+
+		// The K/S of a mix is the weighted average of the K/S of its colors.
+		Arrays.fill(mixed, 0);
+		for (int i = 0; i < colorRGB.length; i++)
+		{
+			double weight = weights[i] / total;
+			if (weight == 0)
+				continue;
+
+			int offset = i * BANDS;
+			for (int b = 0; b < BANDS; b++)
+				mixed[b] += weight * ratios[offset + b];
+		}
+
+		// Back to reflectance, and onto the basis.
+		double red = 0;
+		double green = 0;
+		double blue = 0;
+		for (int b = 0; b < BANDS; b++)
+		{
+			double ratio = mixed[b];
+			double reflectance = 1 + ratio - Math.sqrt(ratio * ratio + 2 * ratio);
+			red += RED_PROJECTION[b] * reflectance;
+			green += GREEN_PROJECTION[b] * reflectance;
+			blue += BLUE_PROJECTION[b] * reflectance;
+		}
+
+		return (CIELab.fromLinear(red) << 16) | (CIELab.fromLinear(green) << 8) | CIELab.fromLinear(blue);
+	}
+
+	/**
+	 * @param x any number.
+	 * @return the logistic function of x, rising from 0 to 1 around x = 0.
+	 */
+	private static double logistic(double x)
+	{
+		return 1 / (1 + Math.exp(-x));
+	}
+
+	/**
+	 * @param m a 3x3 invertible matrix.
+	 * @return the inverse of m.
+	 */
+	private static double[][] invert(double[][] m)
+	{
+		double det = m[0][0] * (m[1][1] * m[2][2] - m[1][2] * m[2][1])
+				- m[0][1] * (m[1][0] * m[2][2] - m[1][2] * m[2][0])
+				+ m[0][2] * (m[1][0] * m[2][1] - m[1][1] * m[2][0]);
+
+		double[][] inverse = new double[3][3];
+		for (int i = 0; i < 3; i++)
+		{
+			for (int j = 0; j < 3; j++)
+			{
+				// The cofactor of m[j][i], over the determinant.
+				int r1 = (j + 1) % 3;
+				int r2 = (j + 2) % 3;
+				int c1 = (i + 1) % 3;
+				int c2 = (i + 2) % 3;
+				inverse[i][j] = (m[r1][c1] * m[r2][c2] - m[r1][c2] * m[r2][c1]) / det;
+			}
+		}
+
+		return inverse;
+	}
+}
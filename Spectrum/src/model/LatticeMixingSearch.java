@@ -0,0 +1,511 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Finds the exact best mix of a palette among the weights
+ *          that are whole multiples of 1 / resolution, the discrete grid that
+ *          the brute force search samples only a few points of. The weights are
+ *          chosen one color at a time, and each partly chosen mix is bounded
+ *          from below by the box of RGB values its remaining colors could still
+ *          reach; a branch whose bound is worse than the best mix found so far
+ *          is skipped. The top of the search tree is split into ForkJoin tasks,
+ *          so the branches run across every worker and share the best distance
+ *          through a lock-free atomic. The search starts from the rounded
+ *          MixingSolver weights, so most branches are cut off at once, and the
+ *          inner loop works on primitive channel sums without allocating. Ties
+ *          go to the first mix in lattice order, so the result does not depend
+ *          on the number of workers.
+ */
+public final class LatticeMixingSearch
+{
+	/**
+	 * The resolution getMixingWeights uses: weights in steps of 5%.
+	 */
+	public static final int DEFAULT_RESOLUTION = 20;
+
+	/**
+	 * The largest resolution allowed, which keeps the channel sums in an int.
+	 */
+	public static final int MAX_RESOLUTION = 10_000;
+
+	private static final double SEQUENTIAL_MIXES = 1 << 15; // Branches with fewer mixes are not split.
+	private static final int CHECK_INTERVAL = 1 << 12; // Mixes tried between checks for a stop.
+
+	private final int count; // The number of palette colors.
+	private final int resolution; // The sum of the whole number weights.
+	private final int[] reds; // The red of each color.
+	private final int[] greens; // The green of each color.
+	private final int[] blues; // The blue of each color.
+	private final int[] minReds; // The least red of the colors from each index on.
+	private final int[] maxReds; // The greatest red of the colors from each index on.
+	private final int[] minGreens; // The least green of the colors from each index on.
+	private final int[] maxGreens; // The greatest green of the colors from each index on.
+	private final int[] minBlues; // The least blue of the colors from each index on.
+	private final int[] maxBlues; // The greatest blue of the colors from each index on.
+	private final int wantedRed; // The red of the wanted color.
+	private final int wantedGreen; // The green of the wanted color.
+	private final int wantedBlue; // The blue of the wanted color.
+	private final MixingProgress progress; // Told of better mixes and asked whether to stop, or null.
+
+	private final AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE); // Squared distance of the best mix.
+	private volatile boolean stopped; // Whether the progress asked to stop.
+	private long mixes; // The number of mixes tried, guarded by this.
+
+	/**
+	 * Sets up a search.
+	 *
+	 * @param colorRGB   the packed 0xRRGGBB value of each palette color.
+	 * @param wanted     the packed 0xRRGGBB value of the wanted color.
+	 * @param resolution the sum of the whole number weights.
+	 * @param progress   told of better mixes and asked whether to stop, or null.
+	 */
+	private LatticeMixingSearch(int[] colorRGB, int wanted, int resolution, MixingProgress progress)
+	{
+		this.count = colorRGB.length;
+		this.resolution = resolution;
+		this.progress = progress;
+
+		reds = new int[count];
+		greens = new int[count];
+		blues = new int[count];
+		for (int i = 0; i < count; i++)
+		{
+			reds[i] = (colorRGB[i] >> 16) & 0xFF;
+			greens[i] = (colorRGB[i] >> 8) & 0xFF;
+			blues[i] = colorRGB[i] & 0xFF;
+		}
+
+		minReds = suffixExtremes(reds, true);
+		maxReds = suffixExtremes(reds, false);
+		minGreens = suffixExtremes(greens, true);
+		maxGreens = suffixExtremes(greens, false);
+		minBlues = suffixExtremes(blues, true);
+		maxBlues = suffixExtremes(blues, false);
+
+		wantedRed = (wanted >> 16) & 0xFF;
+		wantedGreen = (wanted >> 8) & 0xFF;
+		wantedBlue = wanted & 0xFF;
+	}
+
+	/**
+	 * Finds the best weights in steps of 1 / resolution, using the common
+	 * ForkJoin pool.
+	 *
+	 * @param colorRGB   the packed 0xRRGGBB value of each palette color.
+	 * @param wanted     the packed 0xRRGGBB value of the wanted color.
+	 * @param resolution the number of steps the weights are split into, from 1
+	 *                   to MAX_RESOLUTION.
+	 * @param weights    receives the weight of each color, summing to one. Must
+	 *                   be at least as long as colorRGB.
+	 */
+	public static void solve(int[] colorRGB, int wanted, int resolution, double[] weights)
+	{
+		solve(ForkJoinPool.commonPool(), colorRGB, wanted, resolution, weights, null);
+	}
+
+	/**
+	 * Finds the best weights in steps of 1 / resolution, using the given pool.
+	 *
+	 * @param pool       the pool to search in.
+	 * @param colorRGB   the packed 0xRRGGBB value of each palette color.
+	 * @param wanted     the packed 0xRRGGBB value of the wanted color.
+	 * @param resolution the number of steps the weights are split into, from 1
+	 *                   to MAX_RESOLUTION.
+	 * @param weights    receives the weight of each color, summing to one. Must
+	 *                   be at least as long as colorRGB.
+	 */
+	public static void solve(ForkJoinPool pool, int[] colorRGB, int wanted, int resolution, double[] weights)
+	{
+		solve(pool, colorRGB, wanted, resolution, weights, null);
+	}
+
+	/**
+	 * Finds the best weights in steps of 1 / resolution, reporting each better
+	 * mix and stopping early if asked to. The progress is only called by one
+	 * worker at a time, and its iterations count the mixes tried.
+	 *
+	 * @param pool       the pool to search in.
+	 * @param colorRGB   the packed 0xRRGGBB value of each palette color.
+	 * @param wanted     the packed 0xRRGGBB value of the wanted color.
+	 * @param resolution the number of steps the weights are split into, from 1
+	 *                   to MAX_RESOLUTION.
+	 * @param weights    receives the weight of each color, summing to one.
+	 * @param progress   told of better mixes and asked whether to stop, or null.
+	 */
+	static void solve(ForkJoinPool pool, int[] colorRGB, int wanted, int resolution, double[] weights,
+			MixingProgress progress)
+	{
+		if (colorRGB.length == 0)
+			throw new IllegalArgumentException("Cannot mix an empty palette!");
+		if (resolution < 1 || resolution > MAX_RESOLUTION)
+			throw new IllegalArgumentException("Resolution must be from 1 to " + MAX_RESOLUTION + "!");
+
+		LatticeMixingSearch search = new LatticeMixingSearch(colorRGB, wanted, resolution, progress);
+
+		// Start from the rounded solver weights, which are usually close to the best.
+		int[] seed = search.seed(colorRGB, wanted);
+		int seedDistance = search.distance(seed);
+		search.improve(seedDistance, seed);
+
+		LatticeTask root = new LatticeTask(search, new int[colorRGB.length], 0, resolution, 0, 0, 0);
+		pool.invoke(root);
+
+		int[] found = seed;
+		if (root.bestMix != null && (root.bestDistance < seedDistance
+				|| (root.bestDistance == seedDistance && compare(root.bestMix, seed) < 0)))
+			found = root.bestMix;
+
+		for (int i = 0; i < colorRGB.length; i++)
+			weights[i] = found[i] / (double) resolution;
+	}
+
+	/**
+	 * Rounds the solver's weights to whole multiples of 1 / resolution, giving
+	 * the leftover steps to the weights that lost the most in rounding.
+	 *
+	 * @param colorRGB the packed 0xRRGGBB value of each palette color.
+	 * @param wanted   the packed 0xRRGGBB value of the wanted color.
+	 * @return the whole number weights, summing to the resolution.
+	 */
+	private int[] seed(int[] colorRGB, int wanted)
+	{
+		double[] solved = new double[count];
+		MixingSolver.solve(colorRGB, wanted, solved);
+
+		int[] mix = new int[count];
+		int left = resolution;
+		for (int i = 0; i < count; i++)
+		{
+			mix[i] = (int) Math.floor(solved[i] * resolution);
+			left -= mix[i];
+		}
+
+		for (; left > 0; left--)
+		{
+			int most = 0;
+			for (int i = 1; i < count; i++)
+			{
+				if (solved[i] * resolution - mix[i] > solved[most] * resolution - mix[most])
+					most = i;
+			}
+			mix[most]++;
+		}
+
+		return mix;
+	}
+
+	/**
+	 * Mixes whole number weights with the same truncation as mixRGB.
+	 *
+	 * @param mix the whole number weights, summing to the resolution.
+	 * @return the squared RGB distance of the mix from the wanted color.
+	 */
+	private int distance(int[] mix)
+	{
+		int red = 0;
+		int green = 0;
+		int blue = 0;
+		for (int i = 0; i < count; i++)
+		{
+			red += reds[i] * mix[i];
+			green += greens[i] * mix[i];
+			blue += blues[i] * mix[i];
+		}
+
+		return distance(red, green, blue);
+	}
+
+	/**
+	 * @param red   the weighted red sum of a complete mix.
+	 * @param green the weighted green sum of a complete mix.
+	 * @param blue  the weighted blue sum of a complete mix.
+	 * @return the squared RGB distance of the mix from the wanted color.
+	 */
+	private int distance(int red, int green, int blue)
+	{
+		int dr = red / resolution - wantedRed;
+		int dg = green / resolution - wantedGreen;
+		int db = blue / resolution - wantedBlue;
+		return dr * dr + dg * dg + db * db;
+	}
+
+	/**
+	 * Bounds every mix that completes a partly chosen one. The colors not yet
+	 * weighted can only add channel values between their least and greatest,
+	 * so the mix lies in a box, and no mix is closer than the box is.
+	 *
+	 * @param color     the first color without a weight yet.
+	 * @param remaining the steps of weight left for it and the colors after it.
+	 * @param red       the weighted red sum so far.
+	 * @param green     the weighted green sum so far.
+	 * @param blue      the weighted blue sum so far.
+	 * @return a lower bound on the squared distance of any completed mix.
+	 */
+	private int bound(int color, int remaining, int red, int green, int blue)
+	{
+		int dr = gap(red + remaining * minReds[color], red + remaining * maxReds[color], wantedRed);
+		int dg = gap(green + remaining * minGreens[color], green + remaining * maxGreens[color], wantedGreen);
+		int db = gap(blue + remaining * minBlues[color], blue + remaining * maxBlues[color], wantedBlue);
+		return dr * dr + dg * dg + db * db;
+	}
+
+	/**
+	 * @param low    the least weighted sum a channel can reach.
+	 * @param high   the greatest weighted sum a channel can reach.
+	 * @param wanted the wanted channel value.
+	 * @return how far the wanted value is outside the reachable channel values.
+	 */
+	private int gap(int low, int high, int wanted)
+	{
+		int lowest = low / resolution;
+		int highest = high / resolution;
+		if (wanted < lowest)
+			return lowest - wanted;
+
+		return wanted > highest ? wanted - highest : 0;
+	}
+
+	/**
+	 * @param color     the first color without a weight yet.
+	 * @param remaining the steps of weight left for it and the colors after it.
+	 * @return the number of ways to finish the mix, capped at a large number.
+	 */
+	private double completions(int color, int remaining)
+	{
+		// Choose(remaining + k - 1, k - 1) for k colors left.
+		double ways = 1;
+		for (int i = 1; i < count - color && ways < SEQUENTIAL_MIXES; i++)
+			ways = ways * (remaining + i) / i;
+
+		return ways;
+	}
+
+	/**
+	 * Lowers the shared best distance and reports the mix, if the mix is better.
+	 *
+	 * @param distance the squared distance of the mix.
+	 * @param mix      the whole number weights of the mix.
+	 */
+	private void improve(int distance, int[] mix)
+	{
+		int current;
+		do
+		{
+			current = best.get();
+			if (distance >= current)
+				return;
+		} while (!best.compareAndSet(current, distance));
+
+		if (progress != null)
+		{
+			double[] weights = new double[count];
+			for (int i = 0; i < count; i++)
+				weights[i] = mix[i] / (double) resolution;
+
+			synchronized (this)
+			{
+				progress.improved(weights, mixes);
+			}
+		}
+	}
+
+	/**
+	 * Counts mixes tried and asks the progress whether to stop.
+	 *
+	 * @param tried the mixes tried since the last check.
+	 */
+	private synchronized void check(long tried)
+	{
+		mixes += tried;
+		if (progress != null && progress.isStopped(mixes))
+			stopped = true;
+	}
+
+	/**
+	 * Compares mixes by their weights in lattice order.
+	 *
+	 * @param a the whole number weights of one mix.
+	 * @param b the whole number weights of another mix.
+	 * @return negative if a comes first, positive if b does, 0 if they are the
+	 *         same.
+	 */
+	private static int compare(int[] a, int[] b)
+	{
+		for (int i = 0; i < a.length; i++)
+		{
+			if (a[i] != b[i])
+				return Integer.compare(a[i], b[i]);
+		}
+
+		return 0;
+	}
+
+	/**
+	 * @param channel a channel of each color.
+	 * @param least   true for the least values, false for the greatest.
+	 * @return the least or greatest of the channel from each index to the end.
+	 */
+	private static int[] suffixExtremes(int[] channel, boolean least)
+	{
+		int[] result = new int[channel.length];
+		for (int i = channel.length - 1; i >= 0; i--)
+		{
+			result[i] = channel[i];
+			if (i + 1 < channel.length)
+				result[i] = least ? Math.min(result[i], result[i + 1]) : Math.max(result[i], result[i + 1]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Searches the mixes that complete one partly chosen mix. Large branches are
+	 * split into a task for each weight of the next color; small ones are
+	 * searched depth first on one worker.
+	 */
+	private static class LatticeTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final LatticeMixingSearch search; // The search this is part of.
+		private final int[] mix; // The weights chosen so far, and the scratch space for the rest.
+		private final int color; // The first color without a weight yet.
+		private final int remaining; // The steps of weight left to give out.
+		private final int red; // The weighted red sum so far.
+		private final int green; // The weighted green sum so far.
+		private final int blue; // The weighted blue sum so far.
+
+		private int bestDistance = Integer.MAX_VALUE; // The squared distance of the best mix in this branch.
+		private int[] bestMix; // The first best mix in this branch, or null.
+		private long tried; // Mixes tried since the last check.
+
+		/**
+		 * Creates a task for one branch.
+		 *
+		 * @param search    the search this is part of.
+		 * @param mix       the weights chosen so far. Owned by the task.
+		 * @param color     the first color without a weight yet.
+		 * @param remaining the steps of weight left to give out.
+		 * @param red       the weighted red sum so far.
+		 * @param green     the weighted green sum so far.
+		 * @param blue      the weighted blue sum so far.
+		 */
+		LatticeTask(LatticeMixingSearch search, int[] mix, int color, int remaining, int red, int green, int blue)
+		{
+			this.search = search;
+			this.mix = mix;
+			this.color = color;
+			this.remaining = remaining;
+			this.red = red;
+			this.green = green;
+			this.blue = blue;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (search.stopped || search.bound(color, remaining, red, green, blue) > search.best.get())
+				return;
+
+			if (color == search.count - 1 || search.completions(color, remaining) < SEQUENTIAL_MIXES)
+			{
+				descend(color, remaining, red, green, blue);
+				search.check(tried);
+				return;
+			}
+
+			LatticeTask[] branches = new LatticeTask[remaining + 1];
+			for (int weight = 0; weight <= remaining; weight++)
+			{
+				int[] branchMix = mix.clone();
+				branchMix[color] = weight;
+				branches[weight] = new LatticeTask(search, branchMix, color + 1, remaining - weight,
+						red + search.reds[color] * weight, green + search.greens[color] * weight,
+						blue + search.blues[color] * weight);
+			}
+
+			invokeAll(branches);
+
+			// In lattice order, so ties go to the first branch.
+			for (LatticeTask branch : branches)
+			{
+				if (branch.bestDistance < bestDistance)
+				{
+					bestDistance = branch.bestDistance;
+					bestMix = branch.bestMix;
+				}
+			}
+		}
+
+		/**
+		 * Tries every way to finish the mix, depth first, skipping branches that
+		 * cannot beat the best mix.
+		 *
+		 * @param next the first color without a weight yet.
+		 * @param left the steps of weight left to give out.
+		 * @param r    the weighted red sum so far.
+		 * @param g    the weighted green sum so far.
+		 * @param b    the weighted blue sum so far.
+		 */
+		private void descend(int next, int left, int r, int g, int b)
+		{
+			int[] reds = search.reds;
+			int[] greens = search.greens;
+			int[] blues = search.blues;
+
+			// The last color takes whatever weight is left.
+			if (next == search.count - 1)
+			{
+				mix[next] = left;
+				tryMix(r + reds[next] * left, g + greens[next] * left, b + blues[next] * left);
+				return;
+			}
+
+			if (search.bound(next, left, r, g, b) > search.best.get())
+				return;
+
+			for (int weight = 0; weight <= left && !search.stopped; weight++)
+			{
+				mix[next] = weight;
+				descend(next + 1, left - weight, r + reds[next] * weight, g + greens[next] * weight,
+						b + blues[next] * weight);
+			}
+
+			mix[next] = 0;
+		}
+
+		/**
+		 * Keeps the mix now in the scratch space if it is the best so far.
+		 *
+		 * @param r the weighted red sum of the mix.
+		 * @param g the weighted green sum of the mix.
+		 * @param b the weighted blue sum of the mix.
+		 */
+		private void tryMix(int r, int g, int b)
+		{
+			if (++tried == CHECK_INTERVAL)
+			{
+				search.check(tried);
+				tried = 0;
+			}
+
+			int distance = search.distance(r, g, b);
+			if (distance >= bestDistance || distance > search.best.get())
+				return;
+
+			bestDistance = distance;
+			if (bestMix == null)
+				bestMix = new int[mix.length];
+			System.arraycopy(mix, 0, bestMix, 0, mix.length);
+
+			search.improve(distance, mix);
+		}
+	}
+}
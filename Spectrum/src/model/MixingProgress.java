@@ -0,0 +1,31 @@
+package model;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Lets a long-running mixing search report the mixes it
+ *          finds as it goes and be stopped part way through. Both methods are
+ *          called on the thread running the search.
+ */
+interface MixingProgress
+{
+	/**
+	 * Called when the search has a mix that may be better than the last one it
+	 * reported.
+	 *
+	 * @param weights   the weights of the mix. Only valid during the call; they
+	 *                  may not sum to one.
+	 * @param iteration the number of steps the search has taken.
+	 */
+	void improved(double[] weights, long iteration);
+
+	/**
+	 * Called between steps of the search.
+	 *
+	 * @param iteration the number of steps the search has taken.
+	 * @return true if the search should stop now and return its best mix.
+	 */
+	boolean isStopped(long iteration);
+}
@@ -0,0 +1,95 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: One answer from a MixingSearchTask: the best mixing
+ *          weights found so far, how close they mix to the wanted color, and
+ *          whether the search has finished. Immutable, so it can be handed to
+ *          another thread.
+ */
+public final class MixingResult
+{
+	private final double[] weights; // The weight of each palette color, summing to one.
+	private final double distance; // The RGB distance of the mix from the wanted color.
+	private final long iteration; // The number of steps the search had taken.
+	private final boolean last; // Whether the search has finished.
+	private final boolean complete; // Whether the search ran to the end.
+
+	/**
+	 * Creates a result.
+	 *
+	 * @param weights   the weight of each palette color. Copied.
+	 * @param distance  the RGB distance of the mix from the wanted color.
+	 * @param iteration the number of steps the search had taken.
+	 * @param last      whether the search has finished.
+	 * @param complete  whether the search ran to the end rather than being
+	 *                  cancelled or running out of budget.
+	 */
+	MixingResult(double[] weights, double distance, long iteration, boolean last, boolean complete)
+	{
+		this.weights = weights.clone();
+		this.distance = distance;
+		this.iteration = iteration;
+		this.last = last;
+		this.complete = complete;
+	}
+
+	/**
+	 * @return a copy of the weight of each palette color.
+	 */
+	public double[] getWeights()
+	{
+		return weights.clone();
+	}
+
+	/**
+	 * @return the weights as a list, in the form getMixingWeights returns.
+	 */
+	public List<Double> getWeightList()
+	{
+		List<Double> result = new ArrayList<>(weights.length);
+		for (double weight : weights)
+			result.add(weight);
+
+		return result;
+	}
+
+	/**
+	 * @return the RGB distance of the mix from the wanted color.
+	 */
+	public double getDistance()
+	{
+		return distance;
+	}
+
+	/**
+	 * @return the number of steps the search had taken.
+	 */
+	public long getIteration()
+	{
+		return iteration;
+	}
+
+	/**
+	 * @return true if this is the last result of the search.
+	 */
+	public boolean isLast()
+	{
+		return last;
+	}
+
+	/**
+	 * @return true if the search ran to the end, so no better result was cut
+	 *         off by cancelling or by its budget.
+	 */
+	public boolean isComplete()
+	{
+		return complete;
+	}
+}
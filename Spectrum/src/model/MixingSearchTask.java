@@ -0,0 +1,324 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import model.MunsellColor.MixingModel;
+import model.MunsellColor.MixingSearch;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Runs a mixing weight search in the background. Each
+ *          time the search finds a closer mix, the listener is given a
+ *          MixingResult, and the final result is given to the listener and to
+ *          getResult once the search ends. The search ends when it runs out of
+ *          work, when it is cancelled, or when it runs past its time or
+ *          iteration budget, whichever comes first; the best mix so far is
+ *          always kept. Mixes are measured with the chosen MixingModel; the
+ *          searches themselves assume averaging, so for any other model the
+ *          search's weights are refined with the model's mixer at the end.
+ *          The listener is called on the search thread, so Swing code should
+ *          pass the result on with SwingUtilities.invokeLater.
+ */
+public final class MixingSearchTask
+{
+	/**
+	 * A budget that never runs out.
+	 */
+	public static final long UNLIMITED = Long.MAX_VALUE;
+
+	// Runs searches that are not given an executor. Daemon threads, so a running
+	// search never keeps the program open.
+	private static final ExecutorService defaultExecutor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "Mixing search");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final List<MunsellColor> colors; // The palette colors to mix.
+	private final MunsellColor wanted; // The color to mix toward.
+	private final MixingSearch search; // How to search.
+	private final MixingModel model; // How the colors mix.
+	private final long deadline; // The System.nanoTime at which to stop, or UNLIMITED.
+	private final long iterationBudget; // The number of steps after which to stop.
+	private final Consumer<MixingResult> listener; // Told of every better result.
+	private final CompletableFuture<MixingResult> result = new CompletableFuture<>();
+
+	private final int[] rgbColors; // The packed RGB value of each palette color.
+	private final int rgbWanted; // The packed RGB value of the wanted color.
+	private final ColorMixer mixer; // Mixes rgbColors the way model does, on the search thread only.
+	private volatile boolean cancelled; // Whether cancel has been called.
+	private volatile MixingResult best; // The best result so far, or null.
+
+	/**
+	 * Creates a search. Use start to create and run one.
+	 *
+	 * @param colors           the palette colors to mix.
+	 * @param wanted           the color to mix toward.
+	 * @param search           how to search.
+	 * @param model            how the colors mix.
+	 * @param timeBudgetMillis the time after which to stop, or UNLIMITED.
+	 * @param iterationBudget  the number of steps after which to stop, or
+	 *                         UNLIMITED.
+	 * @param listener         told of every better result, or null.
+	 */
+	private MixingSearchTask(List<MunsellColor> colors, MunsellColor wanted, MixingSearch search, MixingModel model,
+			long timeBudgetMillis, long iterationBudget, Consumer<MixingResult> listener)
+	{
+		if (colors == null || wanted == null || search == null || model == null)
+			throw new NullPointerException("Mixing search arguments cannot be null!");
+		if (colors.isEmpty())
+			throw new IllegalArgumentException("Cannot mix an empty palette!");
+		if (timeBudgetMillis <= 0 || iterationBudget <= 0)
+			throw new IllegalArgumentException("Mixing search budgets must be positive!");
+
+		this.colors = new ArrayList<>(colors);
+		this.wanted = wanted;
+		this.search = search;
+		this.model = model;
+		this.iterationBudget = iterationBudget;
+		this.listener = listener;
+
+		// Compared by difference, so the deadline may wrap around like nanoTime.
+		deadline = timeBudgetMillis >= UNLIMITED / 1_000_000 ? UNLIMITED
+				: System.nanoTime() + timeBudgetMillis * 1_000_000;
+
+		rgbColors = new int[this.colors.size()];
+		for (int i = 0; i < rgbColors.length; i++)
+			rgbColors[i] = this.colors.get(i).toColor().getRGB();
+		rgbWanted = wanted.toColor().getRGB();
+		mixer = model.createMixer(rgbColors);
+	}
+
+	/**
+	 * Starts a search on a shared background thread pool.
+	 *
+	 * @param colors           the palette colors to mix.
+	 * @param wanted           the color to mix toward.
+	 * @param search           how to search.
+	 * @param timeBudgetMillis the time after which to stop, or UNLIMITED.
+	 * @param iterationBudget  the number of steps after which to stop, or
+	 *                         UNLIMITED.
+	 * @param listener         told of every better result, or null.
+	 * @return the running search.
+	 */
+	public static MixingSearchTask start(List<MunsellColor> colors, MunsellColor wanted, MixingSearch search,
+			long timeBudgetMillis, long iterationBudget, Consumer<MixingResult> listener)
+	{
+		return start(defaultExecutor, colors, wanted, search, MixingModel.AVERAGE, timeBudgetMillis,
+				iterationBudget, listener);
+	}
+
+	/**
+	 * Starts a search for colors that mix the given way on a shared background
+	 * thread pool.
+	 *
+	 * @param colors           the palette colors to mix.
+	 * @param wanted           the color to mix toward.
+	 * @param search           how to search.
+	 * @param model            how the colors mix.
+	 * @param timeBudgetMillis the time after which to stop, or UNLIMITED.
+	 * @param iterationBudget  the number of steps after which to stop, or
+	 *                         UNLIMITED.
+	 * @param listener         told of every better result, or null.
+	 * @return the running search.
+	 */
+	public static MixingSearchTask start(List<MunsellColor> colors, MunsellColor wanted, MixingSearch search,
+			MixingModel model, long timeBudgetMillis, long iterationBudget, Consumer<MixingResult> listener)
+	{
+		return start(defaultExecutor, colors, wanted, search, model, timeBudgetMillis, iterationBudget, listener);
+	}
+
+	/**
+	 * Starts a search on the given executor.
+	 *
+	 * @param executor         the executor to run the search on.
+	 * @param colors           the palette colors to mix.
+	 * @param wanted           the color to mix toward.
+	 * @param search           how to search.
+	 * @param timeBudgetMillis the time after which to stop, or UNLIMITED.
+	 * @param iterationBudget  the number of steps after which to stop, or
+	 *                         UNLIMITED.
+	 * @param listener         told of every better result, or null.
+	 * @return the running search.
+	 */
+	public static MixingSearchTask start(ExecutorService executor, List<MunsellColor> colors, MunsellColor wanted,
+			MixingSearch search, long timeBudgetMillis, long iterationBudget, Consumer<MixingResult> listener)
+	{
+		return start(executor, colors, wanted, search, MixingModel.AVERAGE, timeBudgetMillis, iterationBudget,
+				listener);
+	}
+
+	/**
+	 * Starts a search for colors that mix the given way on the given executor.
+	 *
+	 * @param executor         the executor to run the search on.
+	 * @param colors           the palette colors to mix.
+	 * @param wanted           the color to mix toward.
+	 * @param search           how to search.
+	 * @param model            how the colors mix.
+	 * @param timeBudgetMillis the time after which to stop, or UNLIMITED.
+	 * @param iterationBudget  the number of steps after which to stop, or
+	 *                         UNLIMITED.
+	 * @param listener         told of every better result, or null.
+	 * @return the running search.
+	 */
+	public static MixingSearchTask start(ExecutorService executor, List<MunsellColor> colors, MunsellColor wanted,
+			MixingSearch search, MixingModel model, long timeBudgetMillis, long iterationBudget,
+			Consumer<MixingResult> listener)
+	{
+		MixingSearchTask task = new MixingSearchTask(colors, wanted, search, model, timeBudgetMillis,
+				iterationBudget, listener);
+		executor.execute(task::run);
+		return task;
+	}
+
+	/**
+	 * Asks the search to stop. It finishes with the best mix found so far.
+	 */
+	public void cancel()
+	{
+		cancelled = true;
+	}
+
+	/**
+	 * @return true if cancel has been called.
+	 */
+	public boolean isCancelled()
+	{
+		return cancelled;
+	}
+
+	/**
+	 * @return the best result so far, or null if there is none yet.
+	 */
+	public MixingResult getBest()
+	{
+		return best;
+	}
+
+	/**
+	 * @return the final result, available once the search ends.
+	 */
+	public CompletableFuture<MixingResult> getResult()
+	{
+		return result;
+	}
+
+	/**
+	 * Runs the search on the current thread.
+	 */
+	private void run()
+	{
+		try
+		{
+			Progress progress = new Progress();
+
+			double[] weights;
+			if (search == MixingSearch.BRUTE_FORCE)
+			{
+				List<Double> found = MunsellColor.bruteForceMixingWeights(colors, wanted, progress);
+				weights = new double[found.size()];
+				for (int i = 0; i < weights.length; i++)
+					weights[i] = found.get(i);
+			} else
+			{
+				weights = new double[rgbColors.length];
+				if (search == MixingSearch.BRANCH_AND_BOUND)
+					LatticeMixingSearch.solve(ForkJoinPool.commonPool(), rgbColors, rgbWanted,
+							LatticeMixingSearch.DEFAULT_RESOLUTION, weights, progress);
+				else
+					MixingSolver.solve(rgbColors, rgbWanted, weights, progress);
+			}
+
+			offer(weights, progress.iterations);
+
+			// The searches mix by averaging, so refine their weights for any other
+			// model, unless the search was stopped.
+			if (model != MixingModel.AVERAGE && !progress.stopped && best != null)
+			{
+				double[] refined = best.getWeights();
+				MixingSolver.refine(mixer, rgbWanted, refined, StandardColorMetric.RGB);
+				offer(refined, progress.iterations);
+			}
+
+			MixingResult last = null;
+			if (best != null)
+			{
+				last = new MixingResult(best.getWeights(), best.getDistance(), progress.iterations, true,
+						!progress.stopped);
+				best = last;
+
+				if (listener != null)
+					listener.accept(last);
+			}
+
+			result.complete(last);
+		} catch (RuntimeException e)
+		{
+			result.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Passes the search's mixes on to offer and stops it when asked to or out of
+	 * budget.
+	 */
+	private class Progress implements MixingProgress
+	{
+		private long iterations; // The number of steps the search has taken.
+		private boolean stopped; // Whether the search was told to stop.
+
+		@Override
+		public void improved(double[] weights, long iteration)
+		{
+			iterations = iteration;
+			offer(weights, iteration);
+		}
+
+		@Override
+		public boolean isStopped(long iteration)
+		{
+			iterations = iteration;
+			stopped = cancelled || iteration >= iterationBudget
+					|| (deadline != UNLIMITED && System.nanoTime() - deadline > 0);
+			return stopped;
+		}
+	}
+
+	/**
+	 * Keeps a mix if it is closer than the best so far, and tells the listener.
+	 *
+	 * @param weights   the weights of the mix. Need not sum to one.
+	 * @param iteration the number of steps the search has taken.
+	 */
+	private void offer(double[] weights, long iteration)
+	{
+		double total = 0;
+		for (double weight : weights)
+			total += weight;
+
+		if (!(total > 0))
+			return;
+
+		double[] normalized = new double[weights.length];
+		for (int i = 0; i < weights.length; i++)
+			normalized[i] = weights[i] / total;
+
+		double distance = MunsellColor.getColorDistance(rgbWanted, mixer.mix(normalized));
+		if (best != null && distance >= best.getDistance())
+			return;
+
+		best = new MixingResult(normalized, distance, iteration, false, false);
+		if (listener != null)
+			listener.accept(best);
+	}
+}
@@ -0,0 +1,402 @@
+package model;
+
+import util.CIELab;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Finds the mixing weights of a palette that come closest
+ *          to a wanted color. Mixing is a weighted average of RGB values, so
+ *          the best mix is the point of the palette's convex hull nearest the
+ *          wanted color. This is found as a non-negative least squares problem,
+ *          solved with the Lawson-Hanson active set method, with an extra
+ *          heavily weighted row that makes the weights sum to one. Unlike a
+ *          search over a grid of weights, the work grows only polynomially with
+ *          the palette size, and any palette solves in well under a
+ *          millisecond.
+ */
+public final class MixingSolver
+{
+	private static final int ROWS = 4; // Red, green, blue and the sum row.
+	private static final double SUM_ROW_WEIGHT = 100; // How strongly the weights are pushed to sum to one.
+	private static final double TOLERANCE = 1e-12; // Below this, a gradient or weight counts as zero.
+	private static final double FIRST_STEP = 0.25; // The first weight moved when refining for a metric.
+	private static final double LAST_STEP = 1.0 / 1024; // The smallest weight moved when refining.
+
+	/**
+	 * No instances.
+	 */
+	private MixingSolver()
+	{
+	}
+
+	/**
+	 * Finds the weights that mix the given colors closest to the wanted color.
+	 *
+	 * @param colorRGB the packed 0xRRGGBB value of each palette color.
+	 * @param wanted   the packed 0xRRGGBB value of the wanted color.
+	 * @param weights  receives the weight of each color. The weights are
+	 *                 non-negative and sum to one. Must be at least as long as
+	 *                 colorRGB.
+	 */
+	public static void solve(int[] colorRGB, int wanted, double[] weights)
+	{
+		solve(colorRGB, wanted, weights, (MixingProgress) null);
+	}
+
+	/**
+	 * Finds the weights that mix the given colors closest to the wanted color by
+	 * the given metric. The least squares solution is the closest in straight
+	 * line RGB distance; for any other metric it is refined by moving weight from
+	 * one color to another for as long as the mix gets closer by the metric, in
+	 * ever smaller steps. The result is never further by the metric than the
+	 * least squares weights.
+	 *
+	 * @param colorRGB the packed 0xRRGGBB value of each palette color.
+	 * @param wanted   the packed 0xRRGGBB value of the wanted color.
+	 * @param weights  receives the weight of each color, non-negative and summing
+	 *                 to one.
+	 * @param metric   how to measure the difference between the mix and the
+	 *                 wanted color.
+	 */
+	public static void solve(int[] colorRGB, int wanted, double[] weights, ColorMetric metric)
+	{
+		solve(new AverageColorMixer(colorRGB), wanted, weights, metric);
+	}
+
+	/**
+	 * Finds the weights that mix the mixer's colors closest to the wanted color
+	 * by the given metric. The least squares solution, which assumes colors mix
+	 * by averaging RGB, is the starting point; unless that is exactly how the
+	 * mixer mixes and the metric is RGB distance, it is then refined in the same
+	 * way as for a metric, using the mixer for every mix.
+	 *
+	 * @param mixer   mixes the palette colors.
+	 * @param wanted  the packed 0xRRGGBB value of the wanted color.
+	 * @param weights receives the weight of each color, non-negative and summing
+	 *                to one.
+	 * @param metric  how to measure the difference between the mix and the
+	 *                wanted color.
+	 */
+	public static void solve(ColorMixer mixer, int wanted, double[] weights, ColorMetric metric)
+	{
+		int[] colorRGB = new int[mixer.getColorCount()];
+		for (int i = 0; i < colorRGB.length; i++)
+			colorRGB[i] = mixer.getColor(i);
+
+		solve(colorRGB, wanted, weights, (MixingProgress) null);
+
+		if (metric != StandardColorMetric.RGB || !(mixer instanceof AverageColorMixer))
+			refine(mixer, wanted, weights, metric);
+	}
+
+	/**
+	 * Finds the weights that mix the given colors closest to the wanted color,
+	 * reporting each step of the solver and stopping early if asked to. Each
+	 * step is a valid mix that is no worse than the one before it, although its
+	 * weights may not yet sum to one.
+	 *
+	 * @param colorRGB the packed 0xRRGGBB value of each palette color.
+	 * @param wanted   the packed 0xRRGGBB value of the wanted color.
+	 * @param weights  receives the weight of each color, non-negative and summing
+	 *                 to one.
+	 * @param progress told of each step and asked whether to stop, or null.
+	 */
+	static void solve(int[] colorRGB, int wanted, double[] weights, MixingProgress progress)
+	{
+		int n = colorRGB.length;
+		if (n == 0)
+			throw new IllegalArgumentException("Cannot mix an empty palette!");
+
+		// The system, one column per color, with channels scaled to 0-1.
+		double[] matrix = new double[n * ROWS];
+		for (int j = 0; j < n; j++)
+		{
+			matrix[j * ROWS] = ((colorRGB[j] >> 16) & 0xFF) / 255.0;
+			matrix[j * ROWS + 1] = ((colorRGB[j] >> 8) & 0xFF) / 255.0;
+			matrix[j * ROWS + 2] = (colorRGB[j] & 0xFF) / 255.0;
+			matrix[j * ROWS + 3] = SUM_ROW_WEIGHT;
+		}
+
+		double[] target = { ((wanted >> 16) & 0xFF) / 255.0, ((wanted >> 8) & 0xFF) / 255.0, (wanted & 0xFF) / 255.0,
+				SUM_ROW_WEIGHT };
+
+		nonNegativeLeastSquares(matrix, n, target, weights, progress);
+
+		// Remove what is left of the sum error.
+		double total = 0;
+		for (int j = 0; j < n; j++)
+			total += weights[j];
+
+		for (int j = 0; j < n; j++)
+			weights[j] = total > 0 ? weights[j] / total : 1.0 / n;
+	}
+
+	/**
+	 * Moves weight between pairs of colors while the mix gets closer to the
+	 * wanted color by the metric, halving the step whenever no move helps.
+	 *
+	 * @param mixer   mixes the palette colors.
+	 * @param wanted  the packed 0xRRGGBB value of the wanted color.
+	 * @param weights the weights to refine, summing to one.
+	 * @param metric  how to measure the difference between colors.
+	 */
+	static void refine(ColorMixer mixer, int wanted, double[] weights, ColorMetric metric)
+	{
+		int n = mixer.getColorCount();
+		double[] lab = null; // The Lab of the wanted color, then of each mix.
+		if (metric.isLab())
+		{
+			lab = new double[6];
+			CIELab.toLab(wanted, lab, 0);
+		}
+
+		double best = mixDistance(mixer, wanted, weights, metric, lab);
+		double step = FIRST_STEP;
+		while (step >= LAST_STEP)
+		{
+			boolean improved = false;
+			for (int from = 0; from < n; from++)
+			{
+				for (int to = 0; to < n && weights[from] > 0; to++)
+				{
+					if (to == from)
+						continue;
+
+					double fromWeight = weights[from];
+					double toWeight = weights[to];
+					double moved = Math.min(step, fromWeight);
+					weights[from] = fromWeight - moved;
+					weights[to] = toWeight + moved;
+
+					double distance = mixDistance(mixer, wanted, weights, metric, lab);
+					if (distance < best)
+					{
+						best = distance;
+						improved = true;
+					} else
+					{
+						weights[from] = fromWeight;
+						weights[to] = toWeight;
+					}
+				}
+			}
+
+			if (!improved)
+				step /= 2;
+		}
+	}
+
+	/**
+	 * @param mixer   mixes the palette colors.
+	 * @param wanted  the packed 0xRRGGBB value of the wanted color.
+	 * @param weights the weight of each color.
+	 * @param metric  how to measure the difference between colors.
+	 * @param lab     the Lab of the wanted color followed by room for the mix's,
+	 *                or null if the metric is not a Lab metric.
+	 * @return the difference between the mix and the wanted color.
+	 */
+	private static double mixDistance(ColorMixer mixer, int wanted, double[] weights, ColorMetric metric,
+			double[] lab)
+	{
+		int mixed = mixer.mix(weights);
+		if (mixed == MunsellColor.NO_MIX)
+			return Double.POSITIVE_INFINITY;
+
+		if (lab == null)
+			return metric.distance(wanted, mixed);
+
+		CIELab.toLab(mixed, lab, 3);
+		return metric.labDistance(lab, 0, lab, 3);
+	}
+
+	/**
+	 * Solves min |Ax - b| subject to x >= 0 with the Lawson-Hanson method.
+	 *
+	 * @param matrix   the ROWS x n matrix A, stored one column after another.
+	 * @param n        the number of columns.
+	 * @param target   the ROWS long vector b.
+	 * @param x        receives the solution.
+	 * @param progress told of each step and asked whether to stop, or null.
+	 */
+	static void nonNegativeLeastSquares(double[] matrix, int n, double[] target, double[] x,
+			MixingProgress progress)
+	{
+		boolean[] passive = new boolean[n]; // Columns free to be non-zero.
+		int[] passiveColumns = new int[n]; // The passive columns, in order.
+		double[] z = new double[n]; // The unconstrained solution over the passive columns.
+		double[] gradient = new double[n]; // A^T (b - Ax).
+		double[] residual = new double[ROWS];
+
+		for (int j = 0; j < n; j++)
+			x[j] = 0;
+
+		int maxIterations = 3 * n + 10;
+		for (int iteration = 0; iteration < maxIterations; iteration++)
+		{
+			computeGradient(matrix, n, target, x, residual, gradient);
+
+			// Free the constrained column whose weight would most reduce the error.
+			int best = -1;
+			for (int j = 0; j < n; j++)
+			{
+				if (!passive[j] && gradient[j] > TOLERANCE && (best == -1 || gradient[j] > gradient[best]))
+					best = j;
+			}
+
+			if (best == -1)
+				return;
+
+			passive[best] = true;
+
+			while (true)
+			{
+				int count = 0;
+				for (int j = 0; j < n; j++)
+				{
+					if (passive[j])
+						passiveColumns[count++] = j;
+				}
+
+				solvePassive(matrix, target, passiveColumns, count, z);
+
+				// Step toward z, stopping where the first passive weight reaches zero.
+				double alpha = 1;
+				for (int k = 0; k < count; k++)
+				{
+					int j = passiveColumns[k];
+					if (z[j] <= TOLERANCE)
+						alpha = Math.min(alpha, x[j] > z[j] ? x[j] / (x[j] - z[j]) : 0);
+				}
+
+				for (int k = 0; k < count; k++)
+				{
+					int j = passiveColumns[k];
+					x[j] += alpha * (z[j] - x[j]);
+				}
+
+				if (alpha == 1)
+					break;
+
+				// Constrain the columns that reached zero again.
+				for (int k = 0; k < count; k++)
+				{
+					int j = passiveColumns[k];
+					if (x[j] <= TOLERANCE)
+					{
+						x[j] = 0;
+						passive[j] = false;
+					}
+				}
+			}
+
+			if (progress != null)
+			{
+				progress.improved(x, iteration + 1);
+				if (progress.isStopped(iteration + 1))
+					return;
+			}
+		}
+	}
+
+	/**
+	 * Computes the residual b - Ax and the gradient A^T (b - Ax).
+	 *
+	 * @param matrix   the matrix A, one column after another.
+	 * @param n        the number of columns.
+	 * @param target   the vector b.
+	 * @param x        the current solution.
+	 * @param residual receives b - Ax.
+	 * @param gradient receives A^T (b - Ax).
+	 */
+	private static void computeGradient(double[] matrix, int n, double[] target, double[] x, double[] residual,
+			double[] gradient)
+	{
+		for (int i = 0; i < ROWS; i++)
+			residual[i] = target[i];
+
+		for (int j = 0; j < n; j++)
+		{
+			for (int i = 0; i < ROWS; i++)
+				residual[i] -= matrix[j * ROWS + i] * x[j];
+		}
+
+		for (int j = 0; j < n; j++)
+		{
+			double sum = 0;
+			for (int i = 0; i < ROWS; i++)
+				sum += matrix[j * ROWS + i] * residual[i];
+			gradient[j] = sum;
+		}
+	}
+
+	/**
+	 * Solves the unconstrained least squares problem over the passive columns
+	 * through its normal equations. The method keeps the passive columns
+	 * linearly independent, so there are never more than ROWS of them.
+	 *
+	 * @param matrix  the matrix A, one column after another.
+	 * @param target  the vector b.
+	 * @param columns the passive columns.
+	 * @param count   the number of passive columns.
+	 * @param z       receives the solution at the passive columns.
+	 */
+	private static void solvePassive(double[] matrix, double[] target, int[] columns, int count, double[] z)
+	{
+		// The normal equations (A_P^T A_P) z = A_P^T b, augmented with the right side.
+		double[][] system = new double[count][count + 1];
+		for (int r = 0; r < count; r++)
+		{
+			int a = columns[r] * ROWS;
+			for (int c = 0; c < count; c++)
+			{
+				int b = columns[c] * ROWS;
+				double sum = 0;
+				for (int i = 0; i < ROWS; i++)
+					sum += matrix[a + i] * matrix[b + i];
+				system[r][c] = sum;
+			}
+
+			double sum = 0;
+			for (int i = 0; i < ROWS; i++)
+				sum += matrix[a + i] * target[i];
+			system[r][count] = sum;
+		}
+
+		// Gaussian elimination with partial pivoting.
+		for (int p = 0; p < count; p++)
+		{
+			int pivot = p;
+			for (int r = p + 1; r < count; r++)
+			{
+				if (Math.abs(system[r][p]) > Math.abs(system[pivot][p]))
+					pivot = r;
+			}
+
+			double[] swap = system[p];
+			system[p] = system[pivot];
+			system[pivot] = swap;
+
+			if (Math.abs(system[p][p]) < TOLERANCE)
+				continue; // Dependent column; its weight is left at zero.
+
+			for (int r = p + 1; r < count; r++)
+			{
+				double factor = system[r][p] / system[p][p];
+				for (int c = p; c <= count; c++)
+					system[r][c] -= factor * system[p][c];
+			}
+		}
+
+		for (int p = count - 1; p >= 0; p--)
+		{
+			double sum = system[p][count];
+			for (int c = p + 1; c < count; c++)
+				sum -= system[p][c] * z[columns[c]];
+
+			z[columns[p]] = Math.abs(system[p][p]) < TOLERANCE ? 0 : sum / system[p][p];
+		}
+	}
+}
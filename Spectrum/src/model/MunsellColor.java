@@ -18,6 +18,62 @@ import util.ColorConverter;
  */
 public class MunsellColor
 {
+	/**
+	 * The ways getMixingWeights can search for mixing weights.
+	 */
+	public enum MixingSearch
+	{
+		/**
+		 * Solve for the exact best weights with MixingSolver.
+		 */
+		SOLVER,
+
+		/**
+		 * Try every combination of a few coarse weights, then of a few nearby
+		 * weights. Slow for more than a handful of colors.
+		 */
+		BRUTE_FORCE,
+
+		/**
+		 * Find the best weights in steps of 5% with LatticeMixingSearch, searching
+		 * on every core.
+		 */
+		BRANCH_AND_BOUND
+	}
+
+	/**
+	 * The ways palette colors can mix.
+	 */
+	public enum MixingModel
+	{
+		/**
+		 * Average the RGB values of the colors, as light mixes.
+		 */
+		AVERAGE,
+
+		/**
+		 * Mix the colors as paints, with KubelkaMunkMixer.
+		 */
+		KUBELKA_MUNK;
+
+		/**
+		 * Creates a mixer for the given palette. A mixer should only be used by one
+		 * thread at a time.
+		 *
+		 * @param colorRGB the packed 0xRRGGBB value of each palette color.
+		 * @return a mixer that mixes the palette colors this way.
+		 */
+		public ColorMixer createMixer(int[] colorRGB)
+		{
+			return this == KUBELKA_MUNK ? new KubelkaMunkMixer(colorRGB) : new AverageColorMixer(colorRGB);
+		}
+	}
+
+	/**
+	 * Returned by the packed mixRGB when the weights do not make a mix.
+	 */
+	public static final int NO_MIX = -1;
+
 	private Hue hue; // The hue of the color.
 	private float chroma; // The chroma of the color.
 	private float value; // The value of the color.
@@ -79,7 +135,7 @@ public class MunsellColor
 	 */
 	public static MunsellColor n(float n)
 	{
-		return new MunsellColor(new Hue("N", 0), n, 0);
+		return new MunsellColor(Hue.NEUTRAL, n, 0);
 	}
 
 	/**
@@ -94,12 +150,38 @@ public class MunsellColor
 	 */
 	public static MunsellColor mix(List<MunsellColor> colors, List<Double> weights)
 	{
-		List<Color> rgbColors = new ArrayList<Color>();
-		for (MunsellColor c : colors)
-		{
-			rgbColors.add(c.toColor());
-		}
-		return fromRGB(mixRGB(rgbColors, weights));
+		if (colors.isEmpty() || colors.size() != weights.size())
+			throw new IllegalArgumentException("Improper arguments in mixRGB");
+
+		int[] rgbColors = new int[colors.size()];
+		for (int i = 0; i < rgbColors.length; i++)
+			rgbColors[i] = colors.get(i).toColor().getRGB();
+
+		int mixed = mixRGB(rgbColors, toArray(weights));
+		return fromRGB(mixed == NO_MIX ? null : new Color(mixed));
+	}
+
+	/**
+	 * Returns the mix of the colors in the colors list, with the associated
+	 * weights, mixed the given way.
+	 * 
+	 * @param colors  the list of colors to mix.
+	 * @param weights the list of weights for each of the colors.
+	 * @param model   how the colors mix.
+	 * @return the munsell color with the mix. Null if there is a negative weight
+	 *         or the total weight is 0.
+	 */
+	public static MunsellColor mix(List<MunsellColor> colors, List<Double> weights, MixingModel model)
+	{
+		if (colors.isEmpty() || colors.size() != weights.size())
+			throw new IllegalArgumentException("Improper arguments in mixRGB");
+
+		int[] rgbColors = new int[colors.size()];
+		for (int i = 0; i < rgbColors.length; i++)
+			rgbColors[i] = colors.get(i).toColor().getRGB();
+
+		int mixed = model.createMixer(rgbColors).mix(toArray(weights));
+		return fromRGB(mixed == NO_MIX ? null : new Color(mixed));
 	}
 
 	/**
@@ -108,7 +190,8 @@ public class MunsellColor
 	 * 
 	 * @param colors  the array of RGB colors to mix.
 	 * @param weights the weights of each color.
-	 * @return the resulting mixed color.
+	 * @return the resulting mixed color. Null if there is a negative weight or
+	 *         the total weight is 0.
 	 */
 	public static Color mixRGB(List<Color> colors, List<Double> weights)
 	{
@@ -152,6 +235,55 @@ public class MunsellColor
 		return new Color((int) averageRed, (int) averageGreen, (int) averageBlue);
 	}
 
+	/**
+	 * Mixes packed RGB colors based on the weight of each respective color,
+	 * without allocating. Gives the same color as the List version, and is what
+	 * the mixing searches use.
+	 * 
+	 * @param colors  the packed 0xRRGGBB value of each color. Any alpha is
+	 *                ignored.
+	 * @param weights the weight of each color. At least as long as colors.
+	 * @return the packed 0xRRGGBB value of the mix, or NO_MIX if there is a
+	 *         negative weight or the total weight is 0.
+	 */
+	public static int mixRGB(int[] colors, double[] weights)
+	{
+		// Initialize variables.
+		double averageRed = 0;
+		double averageGreen = 0;
+		double averageBlue = 0;
+		double weight = 0;
+
+		// Go through each color and add its rgb values to the variables.
+		for (int i = 0; i < colors.length; i++)
+		{
+			int color = colors[i];
+			double currWeight = weights[i];
+
+			// If a weight is negative, there is no mix.
+			if (currWeight < 0)
+				return NO_MIX;
+
+			averageRed += ((color >> 16) & 0xFF) * currWeight;
+			averageGreen += ((color >> 8) & 0xFF) * currWeight;
+			averageBlue += (color & 0xFF) * currWeight;
+
+			weight += currWeight;
+		}
+
+		// If the total weight is 0, there is no mix.
+		if (weight == 0)
+			return NO_MIX;
+
+		// Divide each of the values by the weight.
+		averageRed /= weight;
+		averageGreen /= weight;
+		averageBlue /= weight;
+
+		// Pack the average RGB values.
+		return ((int) averageRed << 16) | ((int) averageGreen << 8) | (int) averageBlue;
+	}
+
 	/**
 	 * Get the distance between two Munsell colors by converting to RGB colors, and
 	 * calculating the distance between both color's R, G, and B values.
@@ -166,48 +298,141 @@ public class MunsellColor
 		if (color1 == null || color2 == null)
 			return -1.0;
 
-		// Get the distance between the two colors.
-		double distance = Math.sqrt(
-				(Math.pow(color1.getRed() - color2.getRed(), 2) + Math.pow(color1.getGreen() - color2.getGreen(), 2)
-						+ Math.pow(color1.getBlue() - color2.getBlue(), 2)));
+		return Math.sqrt(getSquaredColorDistance(color1.getRGB(), color2.getRGB()));
+	}
+
+	/**
+	 * Get the distance between two packed RGB colors.
+	 * 
+	 * @param color1 the packed 0xRRGGBB value of the first color.
+	 * @param color2 the packed 0xRRGGBB value of the second color.
+	 * @return the distance between the two colors.
+	 */
+	public static double getColorDistance(int color1, int color2)
+	{
+		return Math.sqrt(getSquaredColorDistance(color1, color2));
+	}
 
-		return distance;
+	/**
+	 * Get the square of the distance between two packed RGB colors. Orders
+	 * colors the same as getColorDistance, without the square root.
+	 * 
+	 * @param color1 the packed 0xRRGGBB value of the first color. Any alpha is
+	 *               ignored.
+	 * @param color2 the packed 0xRRGGBB value of the second color.
+	 * @return the squared distance between the two colors.
+	 */
+	public static int getSquaredColorDistance(int color1, int color2)
+	{
+		int red = ((color1 >> 16) & 0xFF) - ((color2 >> 16) & 0xFF);
+		int green = ((color1 >> 8) & 0xFF) - ((color2 >> 8) & 0xFF);
+		int blue = (color1 & 0xFF) - (color2 & 0xFF);
+
+		return red * red + green * green + blue * blue;
 	}
 
 	/**
 	 * Find the mixing needed based on the passed palette of colors to get to the
-	 * desired color specified.
+	 * desired color specified. Uses the least squares solver.
 	 * 
 	 * @param colors the palette colors to mix with
 	 * @param wanted the desired color to achieve
-	 * @return a list of mixing weights to obtain the wanted color
+	 * @return a list of mixing weights to obtain the wanted color, which sum to
+	 *         one. Null if wanted is null or there are no colors.
 	 */
 	public static List<Double> getMixingWeights(ArrayList<MunsellColor> colors, MunsellColor wanted)
+	{
+		return getMixingWeights(colors, wanted, MixingSearch.SOLVER);
+	}
+
+	/**
+	 * Find the mixing needed based on the passed palette of colors to get to the
+	 * desired color specified, using the given search.
+	 * 
+	 * @param colors the palette colors to mix with
+	 * @param wanted the desired color to achieve
+	 * @param search how to search for the weights
+	 * @return a list of mixing weights to obtain the wanted color. Null if wanted
+	 *         is null or there are no colors.
+	 */
+	public static List<Double> getMixingWeights(ArrayList<MunsellColor> colors, MunsellColor wanted,
+			MixingSearch search)
+	{
+		return getMixingWeights(colors, wanted, search, MixingModel.AVERAGE);
+	}
+
+	/**
+	 * Find the mixing needed based on the passed palette of colors to get to the
+	 * desired color specified, using the given search and way of mixing. Every
+	 * search assumes the colors mix by averaging; for any other model its
+	 * weights are then refined with the model's mixer by MixingSolver.
+	 * 
+	 * @param colors the palette colors to mix with
+	 * @param wanted the desired color to achieve
+	 * @param search how to search for the weights
+	 * @param model  how the colors mix
+	 * @return a list of mixing weights to obtain the wanted color. Null if wanted
+	 *         is null or there are no colors.
+	 */
+	public static List<Double> getMixingWeights(ArrayList<MunsellColor> colors, MunsellColor wanted,
+			MixingSearch search, MixingModel model)
 	{
 		// Ensure wanted is not null.
-		if (wanted == null)
+		if (wanted == null || colors.isEmpty())
 			return null;
 
-		Color rgbWanted = wanted.toColor();
-		List<Color> rgbColors = new ArrayList<>();
+		int[] colorRGB = new int[colors.size()];
+		for (int i = 0; i < colorRGB.length; i++)
+			colorRGB[i] = colors.get(i).toColor().getRGB();
+		int rgbWanted = wanted.toColor().getRGB();
+
+		double[] weights;
+		if (search == MixingSearch.BRUTE_FORCE)
+		{
+			weights = toArray(bruteForceMixingWeights(colors, wanted, null));
+		} else
+		{
+			weights = new double[colorRGB.length];
+			if (search == MixingSearch.BRANCH_AND_BOUND)
+				LatticeMixingSearch.solve(colorRGB, rgbWanted, LatticeMixingSearch.DEFAULT_RESOLUTION, weights);
+			else
+				MixingSolver.solve(colorRGB, rgbWanted, weights);
+		}
+
+		if (model != MixingModel.AVERAGE)
+			MixingSolver.refine(model.createMixer(colorRGB), rgbWanted, weights, StandardColorMetric.RGB);
+
+		return toList(weights);
+	}
 
-		List<Double> currWeights; // List of the current weights
-		List<Double> bestWeights; // List of the best weights found for mixing
-		double bestDist = Double.MAX_VALUE; // Set the best distance found to +infinity
+	/**
+	 * Tries every combination of a few coarse weights, then every combination of
+	 * a few weights near the best one. Takes 5^n mixes for n colors, so it is
+	 * only practical for small palettes, but it is kept as a reference for the
+	 * solver.
+	 * 
+	 * @param colors   the palette colors to mix with
+	 * @param wanted   the desired color to achieve
+	 * @param progress told of each better mix and asked whether to stop, or null
+	 * @return a list of mixing weights to obtain the wanted color
+	 */
+	static List<Double> bruteForceMixingWeights(List<MunsellColor> colors, MunsellColor wanted,
+			MixingProgress progress)
+	{
+		int rgbWanted = wanted.toColor().getRGB();
+		int[] rgbColors = new int[colors.size()];
 
-		// Initialize the lists.
-		currWeights = new ArrayList<Double>();
-		bestWeights = new ArrayList<Double>();
+		double[] currWeights = new double[colors.size()]; // The current weights
+		double[] bestWeights = new double[colors.size()]; // The best weights found for mixing
+		int bestDist = Integer.MAX_VALUE; // Set the best squared distance found to +infinity
+		long iterations = 0; // The number of mixes tried
 
-		List<Integer> colorIndices = new ArrayList<>(); // List of the index each color is at in the coarse weights.
+		int[] colorIndices = new int[colors.size()]; // The index each color is at in the coarse weights.
 
-		// Initialize the starting weights.
+		// Initialize the colors.
 		for (int i = 0; i < colors.size(); i++)
 		{
-			currWeights.add(0.0);
-			bestWeights.add(0.0);
-			rgbColors.add(colors.get(i).toColor());
-			colorIndices.add(0);
+			rgbColors[i] = colors.get(i).toColor().getRGB();
 		}
 
 		double[] coarseWeights = { 0, 2, 5, 8, 14 }; // Coarse weights to initially test the colors with.
@@ -217,10 +442,10 @@ public class MunsellColor
 		{
 
 			// Adjust the index to go to the next test.
-			for (int i = colorIndices.size() - 1; i >= 0; i--)
+			for (int i = colorIndices.length - 1; i >= 0; i--)
 			{
 				// If this index is at its highest, set it back to zero and continue the loop.
-				if (colorIndices.get(i) == coarseWeights.length - 1)
+				if (colorIndices[i] == coarseWeights.length - 1)
 				{
 					// If this is the last index (meaning all previous indices have been the max
 					// value), break the loop.
@@ -229,29 +454,38 @@ public class MunsellColor
 						break BruteForce;
 					}
 
-					colorIndices.set(i, 0); // Set the current index to 0.
-					currWeights.set(i, coarseWeights[0]);
+					colorIndices[i] = 0; // Set the current index to 0.
+					currWeights[i] = coarseWeights[0];
 				} else
 				{
-					colorIndices.set(i, colorIndices.get(i) + 1); // Increment the index by 1.
-					currWeights.set(i, coarseWeights[colorIndices.get(i)]);
+					colorIndices[i]++; // Increment the index by 1.
+					currWeights[i] = coarseWeights[colorIndices[i]];
 					break;
 				}
 			}
 
-			// Get the current distance.
-			double dist = getColorDistance(rgbWanted, mixRGB(rgbColors, currWeights));
+			// Stop early if asked to.
+			iterations++;
+			if (progress != null && progress.isStopped(iterations))
+				return toList(bestWeights);
+
+			// Get the current mix.
+			int mixed = mixRGB(rgbColors, currWeights);
 
 			// If all the weights were 0, continue.
-			if (dist == -1)
+			if (mixed == NO_MIX)
 				continue;
 
 			// If a the resulting mixing gets closer, then set the results into the
 			// current weights. Otherwise, reset the test weight.
+			int dist = getSquaredColorDistance(rgbWanted, mixed);
 			if (dist < bestDist)
 			{
 				bestDist = dist;
-				bestWeights = new ArrayList<Double>(currWeights);
+				System.arraycopy(currWeights, 0, bestWeights, 0, currWeights.length);
+
+				if (progress != null)
+					progress.improved(bestWeights.clone(), iterations);
 			}
 		}
 
@@ -260,9 +494,9 @@ public class MunsellColor
 																// now test.
 
 		// Find the values for the weight matrix by looking at the best weights.
-		for (int i = 0; i < bestWeights.size(); i++)
+		for (int i = 0; i < bestWeights.length; i++)
 		{
-			double weight = bestWeights.get(i);
+			double weight = bestWeights[i];
 
 			// Special exception for the weight of 0.
 			if (weight == 0)
@@ -285,10 +519,10 @@ public class MunsellColor
 		{
 
 			// Adjust the index to go to the next test.
-			for (int i = colorIndices.size() - 1; i >= 0; i--)
+			for (int i = colorIndices.length - 1; i >= 0; i--)
 			{
 				// If this index is at its highest, set it back to zero and continue the loop.
-				if (colorIndices.get(i) == weightMatrix[i].length - 1)
+				if (colorIndices[i] == weightMatrix[i].length - 1)
 				{
 					// If this is the last index (meaning all previous indices have been the max
 					// value), break the loop.
@@ -297,33 +531,68 @@ public class MunsellColor
 						break BruteForce;
 					}
 
-					colorIndices.set(i, 0); // Set the current index to 0.
-					currWeights.set(i, weightMatrix[i][0]);
+					colorIndices[i] = 0; // Set the current index to 0.
+					currWeights[i] = weightMatrix[i][0];
 				} else
 				{
-					colorIndices.set(i, colorIndices.get(i) + 1); // Increment the index by 1.
-					currWeights.set(i, weightMatrix[i][colorIndices.get(i)]);
+					colorIndices[i]++; // Increment the index by 1.
+					currWeights[i] = weightMatrix[i][colorIndices[i]];
 					break;
 				}
 			}
 
-			// Get the current distance.
-			double dist = getColorDistance(rgbWanted, mixRGB(rgbColors, currWeights));
+			// Stop early if asked to.
+			iterations++;
+			if (progress != null && progress.isStopped(iterations))
+				return toList(bestWeights);
+
+			// Get the current mix.
+			int mixed = mixRGB(rgbColors, currWeights);
 
 			// If all the weights were 0, continue.
-			if (dist == -1)
+			if (mixed == NO_MIX)
 				continue;
 
 			// If a the resulting mixing gets closer, then set the results into the
 			// current weights. Otherwise, reset the test weight.
+			int dist = getSquaredColorDistance(rgbWanted, mixed);
 			if (dist < bestDist)
 			{
 				bestDist = dist;
-				bestWeights = new ArrayList<Double>(currWeights);
+				System.arraycopy(currWeights, 0, bestWeights, 0, currWeights.length);
+
+				if (progress != null)
+					progress.improved(bestWeights.clone(), iterations);
 			}
 		}
 
-		return bestWeights;
+		return toList(bestWeights);
+	}
+
+	/**
+	 * @param weights a list of weights.
+	 * @return the weights as an array.
+	 */
+	private static double[] toArray(List<Double> weights)
+	{
+		double[] result = new double[weights.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = weights.get(i);
+
+		return result;
+	}
+
+	/**
+	 * @param weights an array of weights.
+	 * @return the weights as a list.
+	 */
+	private static List<Double> toList(double[] weights)
+	{
+		List<Double> result = new ArrayList<>(weights.length);
+		for (double weight : weights)
+			result.add(weight);
+
+		return result;
 	}
 
 //	/**
@@ -402,7 +671,7 @@ public class MunsellColor
 		// A compliment of a given color is the same value and chroma, and a hue
 		// which is +50 and mod 100.
 		float newHueVal = (color.getHue().getHueTotalValue() + 50) % 100;
-		Hue newHue = new Hue(newHueVal);
+		Hue newHue = Hue.of(newHueVal);
 		MunsellColor compliment = new MunsellColor(newHue, color.value, color.chroma);
 		return compliment;
 	}
@@ -436,14 +705,14 @@ public class MunsellColor
 			ArrayList<MunsellColor> colorPair = new ArrayList<>();
 			if ((color.getHue().getHue() - i) >= 0)
 			{
-				Hue analogous1Hue = new Hue(color.getHue().getHuePrefix(), color.getHue().getHue() - i);
+				Hue analogous1Hue = Hue.of(color.getHue().getPrefix(), color.getHue().getHue() - i);
 				MunsellColor analogous1 = new MunsellColor(analogous1Hue, color.getValue(), color.getChroma());
 				colorPair.add(analogous1);
 			}
 
 			if ((color.getHue().getHue() + i) <= 10)
 			{
-				Hue analogous2Hue = new Hue(color.getHue().getHuePrefix(), color.getHue().getHue() + i);
+				Hue analogous2Hue = Hue.of(color.getHue().getPrefix(), color.getHue().getHue() + i);
 				MunsellColor analogous2 = new MunsellColor(analogous2Hue, color.getValue(), color.getChroma());
 				colorPair.add(analogous2);
 			}
@@ -0,0 +1,404 @@
+package model;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import javax.imageio.ImageReader;
+
+import util.ColorConverter;
+import util.RGBRaster;
+import util.RGBSampleIndex;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: The Munsell make-up of an image. Each pixel is matched
+ *          to its Munsell sample with the batch ColorConverter.fromRGB and
+ *          counted against the sample, so counting is one pass of a lookup and
+ *          an increment into a primitive array. The counts by hue family,
+ *          value and chroma, and the dominant hues, are worked out from the
+ *          per-sample counts when asked for. Pixels are counted in bands of
+ *          rows on the common fork/join pool, each band into its own
+ *          histogram, and the bands merged at the end. Images in files are
+ *          read a strip at a time, so an image larger than the heap can be
+ *          counted. A histogram is not thread-safe; merge several instead.
+ */
+public class MunsellHistogram
+{
+	/**
+	 * The number of hue families, R to RP and then N for the grays, in
+	 * HuePrefix order.
+	 */
+	public static final int FAMILIES = HuePrefix.values().length;
+
+	/**
+	 * The number of value buckets, one for each whole value 0-10.
+	 */
+	public static final int VALUE_BUCKETS = 11;
+
+	/**
+	 * The width of a chroma bucket.
+	 */
+	public static final int CHROMA_BUCKET_WIDTH = 2;
+
+	/**
+	 * The number of chroma buckets; the last holds every chroma beyond it.
+	 */
+	public static final int CHROMA_BUCKETS = 16;
+
+	/**
+	 * The number of rows read from a file at a time unless asked otherwise.
+	 */
+	public static final int DEFAULT_STRIP_HEIGHT = 256;
+
+	private static final int CHUNK = 4096; // Pixels matched to samples at a time.
+	private static final int BAND_PIXELS = 1 << 18; // Largest band of rows counted without splitting.
+
+	private static Buckets buckets; // The bucket of each sample, for the current samples. Guarded by the class.
+
+	private final Buckets sampleBuckets; // The bucket of each sample.
+	private final long[] counts; // The pixels matched to each sample.
+	private long total; // The pixels counted.
+	private final int[] chunk = new int[CHUNK]; // Scratch space for the pixels being matched.
+	private final int[] indices = new int[CHUNK]; // Scratch space for their samples.
+
+	/**
+	 * Creates an empty histogram. The CSV maps must have been built.
+	 */
+	public MunsellHistogram()
+	{
+		this(getBuckets());
+	}
+
+	/**
+	 * Creates an empty histogram over the given buckets, so it can be merged
+	 * with the other histograms made over them.
+	 *
+	 * @param sampleBuckets the bucket of each sample.
+	 */
+	private MunsellHistogram(Buckets sampleBuckets)
+	{
+		this.sampleBuckets = sampleBuckets;
+		counts = new long[sampleBuckets.family.length];
+	}
+
+	/**
+	 * Counts the pixels of an image in memory.
+	 *
+	 * @param image the image.
+	 * @return the histogram of the image.
+	 */
+	public static MunsellHistogram of(BufferedImage image)
+	{
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int[] strip = new int[Math.multiplyExact(width, Math.max(1, Math.min(DEFAULT_STRIP_HEIGHT, height)))];
+
+		MunsellHistogram histogram = new MunsellHistogram();
+		for (int y = 0; y < height; y += DEFAULT_STRIP_HEIGHT)
+		{
+			int rows = Math.min(DEFAULT_STRIP_HEIGHT, height - y);
+			histogram.addParallel(RGBRaster.getRows(image, y, rows, strip), width, rows);
+		}
+		return histogram;
+	}
+
+	/**
+	 * Counts the pixels of an image file, reading it a strip at a time.
+	 *
+	 * @param file        the image, in any format ImageIO reads.
+	 * @param stripHeight the number of rows to read at a time.
+	 * @return the histogram of the image.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static MunsellHistogram of(File file, int stripHeight) throws IOException
+	{
+		MunsellHistogram histogram = new MunsellHistogram();
+		RGBRaster.readStrips(file, stripHeight, (y, width, rows, rgb) -> histogram.addParallel(rgb, width, rows));
+		return histogram;
+	}
+
+	/**
+	 * Counts the pixels of the first image of a reader, reading it a strip at
+	 * a time.
+	 *
+	 * @param reader      a reader with its input set.
+	 * @param stripHeight the number of rows to read at a time.
+	 * @return the histogram of the image.
+	 * @throws IOException if the image cannot be read.
+	 */
+	public static MunsellHistogram of(ImageReader reader, int stripHeight) throws IOException
+	{
+		int rows = Math.max(1, Math.min(stripHeight, reader.getHeight(0)));
+
+		MunsellHistogram histogram = new MunsellHistogram();
+		RGBRaster.readStrips(reader, stripHeight, new int[Math.multiplyExact(reader.getWidth(0), rows)],
+				(y, width, stripRows, rgb) -> histogram.addParallel(rgb, width, stripRows));
+		return histogram;
+	}
+
+	/**
+	 * Counts pixels.
+	 *
+	 * @param rgb    the packed 0xRRGGBB values of the pixels. Any alpha is
+	 *               ignored.
+	 * @param offset the index of the first pixel.
+	 * @param length the number of pixels.
+	 */
+	public void add(int[] rgb, int offset, int length)
+	{
+		for (int start = offset; start < offset + length; start += CHUNK)
+		{
+			int n = Math.min(CHUNK, offset + length - start);
+			System.arraycopy(rgb, start, chunk, 0, n);
+			ColorConverter.fromRGB(chunk, 0, n, indices);
+			for (int i = 0; i < n; i++)
+				counts[indices[i]]++;
+		}
+		total += length;
+	}
+
+	/**
+	 * Adds the counts of another histogram to this one.
+	 *
+	 * @param other the other histogram.
+	 */
+	public void merge(MunsellHistogram other)
+	{
+		if (other.sampleBuckets != sampleBuckets)
+			throw new IllegalArgumentException("Histograms were made over different samples!");
+
+		for (int i = 0; i < counts.length; i++)
+			counts[i] += other.counts[i];
+		total += other.total;
+	}
+
+	/**
+	 * @return the number of pixels counted.
+	 */
+	public long getTotal()
+	{
+		return total;
+	}
+
+	/**
+	 * @param family       the ordinal of a HuePrefix; N for the grays.
+	 * @param valueBucket  a whole value, 0-10.
+	 * @param chromaBucket a chroma bucket, 0 to CHROMA_BUCKETS - 1.
+	 * @return the number of pixels in the bucket.
+	 */
+	public long getCount(int family, int valueBucket, int chromaBucket)
+	{
+		long count = 0;
+		for (int i = 0; i < counts.length; i++)
+		{
+			if (sampleBuckets.family[i] == family && sampleBuckets.value[i] == valueBucket
+					&& sampleBuckets.chroma[i] == chromaBucket)
+				count += counts[i];
+		}
+		return count;
+	}
+
+	/**
+	 * @return the number of pixels in each hue family, by HuePrefix ordinal.
+	 */
+	public long[] getFamilyCounts()
+	{
+		long[] families = new long[FAMILIES];
+		for (int i = 0; i < counts.length; i++)
+			families[sampleBuckets.family[i]] += counts[i];
+		return families;
+	}
+
+	/**
+	 * @return the number of pixels in each value bucket.
+	 */
+	public long[] getValueCounts()
+	{
+		long[] values = new long[VALUE_BUCKETS];
+		for (int i = 0; i < counts.length; i++)
+			values[sampleBuckets.value[i]] += counts[i];
+		return values;
+	}
+
+	/**
+	 * @return the number of pixels in each chroma bucket.
+	 */
+	public long[] getChromaCounts()
+	{
+		long[] chromas = new long[CHROMA_BUCKETS];
+		for (int i = 0; i < counts.length; i++)
+			chromas[sampleBuckets.chroma[i]] += counts[i];
+		return chromas;
+	}
+
+	/**
+	 * Finds the hues with the most pixels, not counting the grays.
+	 *
+	 * @param count the most hues to give.
+	 * @return the hues, most pixels first, ties in hue order.
+	 */
+	public List<Hue> getDominantHues(int count)
+	{
+		Map<Hue, Long> byHue = new HashMap<>();
+		for (int i = 0; i < counts.length; i++)
+		{
+			if (counts[i] > 0 && sampleBuckets.family[i] != HuePrefix.N.ordinal())
+				byHue.merge(sampleBuckets.hue[i], counts[i], Long::sum);
+		}
+
+		List<Hue> hues = new ArrayList<>(byHue.keySet());
+		hues.sort((a, b) -> {
+			int order = Long.compare(byHue.get(b), byHue.get(a));
+			return order != 0 ? order : Float.compare(a.getHueTotalValue(), b.getHueTotalValue());
+		});
+		return hues.size() > count ? new ArrayList<>(hues.subList(0, count)) : hues;
+	}
+
+	/**
+	 * @param hue a hue.
+	 * @return the number of pixels matched to samples of exactly that hue.
+	 */
+	public long getHueCount(Hue hue)
+	{
+		long count = 0;
+		for (int i = 0; i < counts.length; i++)
+		{
+			if (sampleBuckets.hue[i].equals(hue) && sampleBuckets.family[i] != HuePrefix.N.ordinal())
+				count += counts[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Counts a strip of pixels in bands on the common fork/join pool.
+	 *
+	 * @param rgb   the strip, row by row.
+	 * @param width the width of a row.
+	 * @param rows  the number of rows.
+	 */
+	private void addParallel(int[] rgb, int width, int rows)
+	{
+		if ((long) width * rows <= BAND_PIXELS)
+			add(rgb, 0, width * rows);
+		else
+			merge(ForkJoinPool.commonPool().invoke(new BandTask(sampleBuckets, rgb, width, 0, rows)));
+	}
+
+	/**
+	 * Synchronized, so histograms made at the same time over the same samples
+	 * share the same buckets and can be merged.
+	 *
+	 * @return the bucket of each sample, worked out the first time it is needed
+	 *         for the current samples.
+	 */
+	private static synchronized Buckets getBuckets()
+	{
+		RGBSampleIndex samples = ColorConverter.getRGBSampleIndex();
+		Buckets current = buckets;
+		if (current == null || current.samples != samples)
+		{
+			current = new Buckets(samples);
+			buckets = current;
+		}
+		return current;
+	}
+
+	/**
+	 * The hue, hue family, value bucket and chroma bucket of each sample.
+	 */
+	private static final class Buckets
+	{
+		private final RGBSampleIndex samples; // The samples.
+		private final byte[] family; // The hue family of each sample.
+		private final byte[] value; // The value bucket of each sample.
+		private final byte[] chroma; // The chroma bucket of each sample.
+		private final Hue[] hue; // The hue of each sample.
+
+		/**
+		 * Works out the buckets of the samples.
+		 *
+		 * @param samples the samples.
+		 */
+		Buckets(RGBSampleIndex samples)
+		{
+			this.samples = samples;
+			int count = samples.getSampleCount();
+			family = new byte[count];
+			value = new byte[count];
+			chroma = new byte[count];
+			hue = new Hue[count];
+
+			for (int i = 0; i < count; i++)
+			{
+				hue[i] = samples.getSample(i).getHue();
+				float sampleChroma = samples.getSampleChroma(i);
+				boolean gray = hue[i].getPrefix().isGrayscale() || sampleChroma == 0;
+
+				family[i] = (byte) (gray ? HuePrefix.N.ordinal() : hue[i].getPrefix().ordinal());
+				value[i] = (byte) Math.max(0, Math.min(VALUE_BUCKETS - 1, Math.round(samples.getSampleValue(i))));
+				chroma[i] = (byte) Math.min(CHROMA_BUCKETS - 1, (int) (sampleChroma / CHROMA_BUCKET_WIDTH));
+			}
+		}
+	}
+
+	/**
+	 * Counts a band of rows of a strip, splitting it into smaller bands to
+	 * count in parallel while it has more than BAND_PIXELS pixels.
+	 */
+	private static class BandTask extends RecursiveTask<MunsellHistogram>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final transient Buckets buckets; // The buckets of every band's histogram.
+		private final int[] rgb; // The strip, row by row.
+		private final int width; // The width of a row.
+		private final int from; // The first row of the band.
+		private final int to; // One past the last row of the band.
+
+		/**
+		 * Creates a task for a band of rows.
+		 *
+		 * @param buckets the buckets of every band's histogram.
+		 * @param rgb     the strip, row by row.
+		 * @param width   the width of a row.
+		 * @param from    the first row of the band.
+		 * @param to      one past the last row of the band.
+		 */
+		BandTask(Buckets buckets, int[] rgb, int width, int from, int to)
+		{
+			this.buckets = buckets;
+			this.rgb = rgb;
+			this.width = width;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected MunsellHistogram compute()
+		{
+			if (to - from < 2 || (long) (to - from) * width <= BAND_PIXELS)
+			{
+				MunsellHistogram histogram = new MunsellHistogram(buckets);
+				histogram.add(rgb, from * width, (to - from) * width);
+				return histogram;
+			}
+
+			int middle = (from + to) >>> 1;
+			BandTask top = new BandTask(buckets, rgb, width, from, middle);
+			top.fork();
+			MunsellHistogram histogram = new BandTask(buckets, rgb, width, middle, to).compute();
+			histogram.merge(top.join());
+			return histogram;
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package model;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Packs a Munsell color into a single long, for code that
+ *          holds or compares many colors at once. From the high bits down, the
+ *          long holds the index of the hue prefix in Hue.huePrefixes (8 bits),
+ *          then the hue number, value and chroma in hundredths (16 bits each).
+ *          Because the fields are stored in that order, comparing two packed
+ *          colors as longs sorts them by prefix, hue, value and then chroma.
+ *          Every color read from the CSVs packs and unpacks without loss.
+ */
+public final class PackedMunsell
+{
+	private static final int PREFIX_SHIFT = 48; // The position of the prefix index.
+	private static final int HUE_SHIFT = 32; // The position of the hue number.
+	private static final int VALUE_SHIFT = 16; // The position of the value.
+	private static final int FIELD_MASK = 0xFFFF; // The mask of a 16 bit field.
+	private static final float SCALE = 100; // The fixed-point scale of the fields.
+
+	/**
+	 * The largest value or chroma that can be packed.
+	 */
+	public static final float MAX_COMPONENT = FIELD_MASK / SCALE;
+
+	/**
+	 * No instances.
+	 */
+	private PackedMunsell()
+	{
+	}
+
+	/**
+	 * Packs a MunsellColor.
+	 *
+	 * @param color the color to pack.
+	 * @return the packed color.
+	 */
+	public static long encode(MunsellColor color)
+	{
+		if (color == null)
+			throw new NullPointerException("Color to pack cannot be null!");
+
+		Hue hue = color.getHue();
+		return encode(hue.getPrefix().ordinal(), hue.getHue(), color.getValue(),
+				color.getChroma());
+	}
+
+	/**
+	 * Packs a color given by its parts. Each part is rounded to hundredths.
+	 *
+	 * @param prefixIndex the index of the hue prefix in Hue.huePrefixes.
+	 * @param hue         the hue number (0-10).
+	 * @param value       the value, from 0 to MAX_COMPONENT.
+	 * @param chroma      the chroma, from 0 to MAX_COMPONENT.
+	 * @return the packed color.
+	 */
+	public static long encode(int prefixIndex, float hue, float value, float chroma)
+	{
+		if (prefixIndex < 0 || prefixIndex >= Hue.huePrefixes.size())
+			throw new IllegalArgumentException("Invalid hue prefix!");
+		if (!(hue >= 0 && hue <= 10))
+			throw new IllegalArgumentException("Hue number should be between 0 and 10!");
+		if (!(value >= 0 && value <= MAX_COMPONENT) || !(chroma >= 0 && chroma <= MAX_COMPONENT))
+			throw new IllegalArgumentException("Value and chroma should be between 0 and " + MAX_COMPONENT + "!");
+
+		return ((long) prefixIndex << PREFIX_SHIFT) | ((long) fixed(hue) << HUE_SHIFT)
+				| ((long) fixed(value) << VALUE_SHIFT) | fixed(chroma);
+	}
+
+	/**
+	 * Unpacks a color into a new MunsellColor.
+	 *
+	 * @param packed the packed color.
+	 * @return the MunsellColor.
+	 */
+	public static MunsellColor decode(long packed)
+	{
+		return new MunsellColor(Hue.of(HuePrefix.fromOrdinal(prefixIndex(packed)), hue(packed)), value(packed),
+				chroma(packed));
+	}
+
+	/**
+	 * Compares two packed colors by prefix, hue, value and then chroma.
+	 *
+	 * @param a the first packed color.
+	 * @param b the second packed color.
+	 * @return a negative number, zero or a positive number as a is less than,
+	 *         equal to or greater than b.
+	 */
+	public static int compare(long a, long b)
+	{
+		return Long.compare(a, b);
+	}
+
+	/**
+	 * @param packed the packed color.
+	 * @return the index of the color's hue prefix in Hue.huePrefixes.
+	 */
+	public static int prefixIndex(long packed)
+	{
+		return (int) (packed >>> PREFIX_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * @param packed the packed color.
+	 * @return the hue number (0-10) of the color.
+	 */
+	public static float hue(long packed)
+	{
+		return ((int) (packed >>> HUE_SHIFT) & FIELD_MASK) / SCALE;
+	}
+
+	/**
+	 * @param packed the packed color.
+	 * @return the value of the color.
+	 */
+	public static float value(long packed)
+	{
+		return ((int) (packed >>> VALUE_SHIFT) & FIELD_MASK) / SCALE;
+	}
+
+	/**
+	 * @param packed the packed color.
+	 * @return the chroma of the color.
+	 */
+	public static float chroma(long packed)
+	{
+		return ((int) packed & FIELD_MASK) / SCALE;
+	}
+
+	/**
+	 * @param packed the packed color.
+	 * @return true if the color is a grayscale.
+	 */
+	public static boolean isGrayscale(long packed)
+	{
+		return prefixIndex(packed) == HuePrefix.N.ordinal();
+	}
+
+	/**
+	 * Returns the hue's value from 0-100, the same as Hue.getHueTotalValue.
+	 *
+	 * @param packed the packed color.
+	 * @return the total hue value. Grayscales are given 0.
+	 */
+	public static float totalHue(long packed)
+	{
+		if (isGrayscale(packed))
+			return 0;
+
+		return prefixIndex(packed) * 10 + hue(packed);
+	}
+
+	/**
+	 * @param packed the packed color.
+	 * @return the color written the same way as MunsellColor.toString.
+	 */
+	public static String toString(long packed)
+	{
+		return decode(packed).toString();
+	}
+
+	/**
+	 * @param component a hue number, value or chroma.
+	 * @return the component in hundredths.
+	 */
+	private static int fixed(float component)
+	{
+		return Math.round(component * SCALE);
+	}
+}
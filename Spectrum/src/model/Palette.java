@@ -1,7 +1,7 @@
 package model;
 
-import java.awt.Color;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 
@@ -15,8 +15,16 @@ import java.util.ArrayList;
  */
 public class Palette
 {
+	/**
+	 * The number of colors a palette made by hand can hold.
+	 */
+	public static final int DEFAULT_CAPACITY = 10;
+
 	private static Palette instance; 		// The singleton instance of this palette.
 	private ArrayList<MunsellColor> colors; // The colors of this palette.
+	private volatile PaletteIndex index = PaletteIndex.EMPTY; // The RGB and Lab of the colors, for lookups.
+	private volatile int modifications; 	// Counts the changes to the colors, for caches of lookups.
+	private final int capacity; 			// The most colors addColor keeps.
 
 	/**
 	 * Initialize the singleton when statically loaded.
@@ -31,60 +39,154 @@ public class Palette
 	 */
 	public Palette()
 	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty palette that can hold a given number of colors.
+	 * 
+	 * @param capacity the most colors addColor keeps. At least 1.
+	 */
+	public Palette(int capacity)
+	{
+		if (capacity < 1)
+			throw new IllegalArgumentException("A palette must hold at least one color!");
+
 		// Initialize the palette.
 		colors = new ArrayList<>();
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Creates a palette of the given colors, in order, that can hold at least
+	 * as many colors as it is given, so that large generated palettes can be
+	 * used for lookups.
+	 * 
+	 * @param colors the colors. Duplicates are skipped.
+	 */
+	public Palette(List<MunsellColor> colors)
+	{
+		this(Math.max(DEFAULT_CAPACITY, colors.size()));
+		for (MunsellColor color : colors)
+		{
+			if (color == null)
+				throw new NullPointerException("Palette given a null color!");
+
+			if (!this.colors.contains(color))
+				this.colors.add(color);
+		}
+		index = indexColors();
 	}
 
 	/**
-	 * Finds the closest color in the palette to the given color and returns it.
+	 * Finds the closest color in the palette to the given color and returns it,
+	 * measuring by the sum of the RGB channel differences.
 	 * 
 	 * @param color the color to look for.
 	 * @return the closest color. Null if none exist.
 	 */
 	public MunsellColor getClosestColor(MunsellColor color)
 	{
-		Color targetColor = color.toColor();
+		return getClosestColor(color, StandardColorMetric.MANHATTAN);
+	}
 
-		MunsellColor closest = null;
-		Color closestColor = null;
+	/**
+	 * Finds the closest color in the palette to the given color by the given
+	 * metric and returns it. Only the given color is converted; the palette
+	 * colors' RGB and Lab are kept up to date as colors are added and removed.
+	 * 
+	 * @param color  the color to look for.
+	 * @param metric how to measure the difference between colors.
+	 * @return the closest color. Null if none exist.
+	 */
+	public MunsellColor getClosestColor(MunsellColor color, ColorMetric metric)
+	{
+		int index = getClosestIndex(color.toColor().getRGB(), metric);
+		return index < 0 ? null : colors.get(index);
+	}
 
-		for (MunsellColor test : colors)
-		{
-			if (closest == null)
-			{
-				closest = test;
-				closestColor = closest.toColor();
-			} else
-			{
-				Color testColor = test.toColor();
+	/**
+	 * Finds the closest color in the palette to a packed RGB color by the sum of
+	 * the RGB channel differences.
+	 * 
+	 * @param rgb the packed 0xRRGGBB value of the color to look for.
+	 * @return the index of the closest color. -1 if none exist.
+	 */
+	public int getClosestIndex(int rgb)
+	{
+		return getClosestIndex(rgb, StandardColorMetric.MANHATTAN);
+	}
+
+	/**
+	 * Finds the closest color in the palette to a packed RGB color by the given
+	 * metric. Small palettes are scanned, giving ties to the first color; large
+	 * palettes use a spatial index for the RGB and CIE76 metrics, which may
+	 * give ties to any of the tied colors. Takes no lock: it searches the
+	 * index published by the last change, so it may be called from any number
+	 * of threads at once.
+	 * 
+	 * @param rgb    the packed 0xRRGGBB value of the color to look for.
+	 * @param metric how to measure the difference between colors.
+	 * @return the index of the closest color. -1 if none exist.
+	 */
+	public int getClosestIndex(int rgb, ColorMetric metric)
+	{
+		PaletteIndex current = index;
 
-				int diff1 = colorDiff(targetColor, closestColor);
-				int diff2 = colorDiff(targetColor, testColor);
+		// Catch up if the list was changed other than through this class.
+		if (current.size() != colors.size())
+			current = catchUp();
 
-				if (diff1 > diff2)
-				{
-					closest = test;
-					closestColor = closest.toColor();
-				}
-			}
+		return current.nearest(rgb, metric);
+	}
+
+	/**
+	 * Rebuilds the index from the list, if it is still out of step with it,
+	 * and counts that as a change.
+	 * 
+	 * @return the index of the colors.
+	 */
+	private synchronized PaletteIndex catchUp()
+	{
+		if (index.size() != colors.size())
+		{
+			index = indexColors();
+			modifications++;
 		}
-		return closest;
+
+		return index;
 	}
 
 	/**
-	 * Returns the difference between the two colors.
+	 * @return a new index of the colors in the list.
+	 */
+	private PaletteIndex indexColors()
+	{
+		int[] rgb = new int[colors.size()];
+		for (int i = 0; i < rgb.length; i++)
+			rgb[i] = colors.get(i).toColor().getRGB();
+
+		return PaletteIndex.of(rgb);
+	}
+
+	/**
+	 * Counts the changes made to the colors through addColor and removeColor,
+	 * so that caches of lookups, such as a PaletteCache, know when to forget
+	 * them.
 	 * 
-	 * @param color1 the first color to test.
-	 * @param color2 the second color to test.
-	 * @return the difference. 0 if the same. Always positive.
+	 * @return the number of changes so far.
 	 */
-	private int colorDiff(Color color1, Color color2)
+	public int getModificationCount()
 	{
-		int redDiff = Math.abs(color1.getRed() - color2.getRed());
-		int greenDiff = Math.abs(color1.getGreen() - color2.getGreen());
-		int blueDiff = Math.abs(color1.getBlue() - color2.getBlue());
+		return modifications;
+	}
 
-		return redDiff + greenDiff + blueDiff;
+	/**
+	 * @return the most colors addColor keeps.
+	 */
+	public int getCapacity()
+	{
+		return capacity;
 	}
 
 	/**
@@ -100,24 +202,32 @@ public class Palette
 	 * 
 	 * @param color the color to add.
 	 */
-	public void addColor(MunsellColor color)
+	public synchronized void addColor(MunsellColor color)
 	{
 		// Do a null error check.
 		if (color == null)
+		{
 			System.err.println("addColor given a null parameter!");
+			return;
+		}
 		
 		// Check if the color is not already present in the list.
 		// If not, add the new color and remove the item at the end of the list.
 		if (!colors.contains(color))
 		{
+			int rgb = color.toColor().getRGB();
+			PaletteIndex next = catchUp().withAdded(rgb);
 			colors.add(color);
 			
 			// If the palette is full, remove the last color to slide in the new one.
-			if (colors.size() > 10) 
+			if (colors.size() > capacity) 
 			{
 				colors.remove(colors.size() - 2);
 				colors.add(color);
+				next = next.withRemoved(next.size() - 2).withAdded(rgb);
 			}
+			index = next;
+			modifications++;
 		}
 	}
 	
@@ -126,16 +236,23 @@ public class Palette
 	 * 
 	 * @param color the color to remove
 	 */
-	public void removeColor(MunsellColor color)
+	public synchronized void removeColor(MunsellColor color)
 	{
 		// Do a null error check.
 		if (color == null)
-			System.err.println("addColor given a null parameter!");
+		{
+			System.err.println("removeColor given a null parameter!");
+			return;
+		}
 		
 		// Find the color in the palette and remove it.
-		if (colors.contains(color))
+		int position = colors.indexOf(color);
+		if (position >= 0)
 		{
-			colors.remove(colors.indexOf(color));
+			PaletteIndex next = catchUp().withRemoved(position);
+			colors.remove(position);
+			index = next;
+			modifications++;
 		}
 	}
 
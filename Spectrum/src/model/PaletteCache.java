@@ -0,0 +1,100 @@
+package model;
+
+import java.awt.Color;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Remembers which palette color each packed RGB color
+ *          maps to, so that posterizing an image against a palette finds the
+ *          closest color only once for each distinct pixel color. A cache
+ *          watches the palette's modification count and forgets everything it
+ *          knows as soon as a color is added or removed. DensePaletteCache
+ *          keeps an entry for every 24-bit color, which suits large images;
+ *          BoundedPaletteCache keeps a fixed number, which suits small ones.
+ *          Both can be shared by any number of threads.
+ */
+public abstract class PaletteCache
+{
+	/**
+	 * forPixels gives a DensePaletteCache for jobs of at least this many pixels.
+	 */
+	public static final int DENSE_PIXELS = 1 << 21;
+
+	protected final Palette palette; // The palette colors are found in.
+	private final ColorMetric metric; // How the closest color is measured.
+	private final boolean throughMunsell; // Whether pixels go to Munsell and back first.
+
+	/**
+	 * Creates a cache for a palette.
+	 *
+	 * @param palette        the palette to find colors in.
+	 * @param metric         how to measure the difference between colors.
+	 * @param throughMunsell whether to convert each pixel to its Munsell color
+	 *                       and back before finding the closest palette color,
+	 *                       as the Image tab does.
+	 */
+	protected PaletteCache(Palette palette, ColorMetric metric, boolean throughMunsell)
+	{
+		if (palette == null || metric == null)
+			throw new NullPointerException("PaletteCache given a null parameter!");
+
+		this.palette = palette;
+		this.metric = metric;
+		this.throughMunsell = throughMunsell;
+	}
+
+	/**
+	 * Chooses a cache for a job of a given size.
+	 *
+	 * @param palette        the palette to find colors in.
+	 * @param metric         how to measure the difference between colors.
+	 * @param throughMunsell whether to convert each pixel to its Munsell color
+	 *                       and back first.
+	 * @param pixels         how many pixels the job has.
+	 * @return a dense cache for at least DENSE_PIXELS pixels, a bounded one
+	 *         with the default capacity otherwise.
+	 */
+	public static PaletteCache forPixels(Palette palette, ColorMetric metric, boolean throughMunsell, long pixels)
+	{
+		if (pixels >= DENSE_PIXELS)
+			return new DensePaletteCache(palette, metric, throughMunsell);
+
+		return new BoundedPaletteCache(palette, metric, throughMunsell, BoundedPaletteCache.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @return the palette colors are found in.
+	 */
+	public Palette getPalette()
+	{
+		return palette;
+	}
+
+	/**
+	 * Finds the closest palette color to a pixel, from the cache if it is
+	 * there.
+	 *
+	 * @param rgb the packed 0xRRGGBB value of the pixel. Any alpha is ignored.
+	 * @return the index of the closest palette color, or -1 if the palette is
+	 *         empty.
+	 */
+	public abstract int getClosestIndex(int rgb);
+
+	/**
+	 * Finds the closest palette color to a pixel without the cache.
+	 *
+	 * @param rgb the packed 0xRRGGBB value of the pixel, without alpha.
+	 * @return the index of the closest palette color, or -1 if the palette is
+	 *         empty.
+	 */
+	protected int lookUp(int rgb)
+	{
+		if (throughMunsell)
+			rgb = MunsellColor.fromRGB(new Color(rgb)).toColor().getRGB();
+
+		return palette.getClosestIndex(rgb, metric);
+	}
+}
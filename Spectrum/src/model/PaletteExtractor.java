@@ -0,0 +1,523 @@
+package model;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import util.CIELab;
+import util.RGBHistogram;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Finds a palette for an image. The image is first
+ *          counted into an RGBHistogram, and everything after that works on
+ *          the histogram's bins, each a color weighted by its number of
+ *          pixels, so the size of the image only matters for the one counting
+ *          pass. The bins are placed in Lab or in Munsell coordinates (chroma
+ *          around the hue circle, and value), and grouped there by median cut
+ *          or by mini-batch k-means. Each group becomes a palette color, the
+ *          mean of its pixels, with the largest groups first.
+ */
+public class PaletteExtractor
+{
+	/**
+	 * How the colors are grouped.
+	 */
+	public enum Method
+	{
+		/**
+		 * Splits the colors in two at the weighted median of the widest group's
+		 * longest side, until there are enough groups.
+		 */
+		MEDIAN_CUT,
+
+		/**
+		 * Seeds centers by k-means++ on a sample of the colors, moves them with
+		 * small random batches, then gives every color to its closest center.
+		 */
+		K_MEANS
+	}
+
+	/**
+	 * The coordinates the colors are grouped in.
+	 */
+	public enum Space
+	{
+		/**
+		 * CIELAB.
+		 */
+		LAB,
+
+		/**
+		 * Munsell chroma around the hue circle, and value scaled to match.
+		 */
+		MUNSELL
+	}
+
+	private static final double MUNSELL_VALUE_SCALE = 2; // A value step looks about as big as two chroma steps.
+	private static final int SEED_SAMPLE = 2048; // Colors drawn to seed k-means from.
+	private static final int BATCH = 1024; // Colors drawn for each k-means step.
+	private static final int ITERATIONS = 64; // k-means steps.
+	private static final int ASSIGN_CHUNK = 2048; // Largest run of colors assigned without splitting.
+
+	private final Method method; // How the colors are grouped.
+	private final Space space; // The coordinates they are grouped in.
+	private long seed = 1; // Seeds the random sampling.
+
+	/**
+	 * Creates an extractor.
+	 *
+	 * @param method how to group the colors.
+	 * @param space  the coordinates to group them in.
+	 */
+	public PaletteExtractor(Method method, Space space)
+	{
+		if (method == null || space == null)
+			throw new NullPointerException("PaletteExtractor given a null parameter!");
+
+		this.method = method;
+		this.space = space;
+	}
+
+	/**
+	 * @param seed seeds the random sampling of k-means, so that the same image
+	 *             gives the same palette.
+	 */
+	public void setSeed(long seed)
+	{
+		this.seed = seed;
+	}
+
+	/**
+	 * Finds a palette for an image.
+	 *
+	 * @param image  the image.
+	 * @param colors the most colors the palette should have.
+	 * @return the palette, largest groups first. It may have fewer colors if
+	 *         the image does, or if groups come out as the same Munsell color.
+	 */
+	public Palette extract(BufferedImage image, int colors)
+	{
+		return extract(RGBHistogram.of(image), colors);
+	}
+
+	/**
+	 * Finds a palette for the pixels counted in a histogram.
+	 *
+	 * @param histogram the histogram.
+	 * @param colors    the most colors the palette should have.
+	 * @return the palette, largest groups first.
+	 */
+	public Palette extract(RGBHistogram histogram, int colors)
+	{
+		if (colors < 1)
+			throw new IllegalArgumentException("A palette needs at least one color!");
+
+		Points points = new Points(histogram, space);
+		int[] groups = method == Method.MEDIAN_CUT ? medianCut(points, colors) : kMeans(points, colors);
+
+		// The mean color of each group's pixels.
+		int groupCount = 0;
+		for (int group : groups)
+			groupCount = Math.max(groupCount, group + 1);
+		long[] weights = new long[groupCount];
+		long[] sums = new long[groupCount * 3];
+		for (int i = 0; i < points.size; i++)
+		{
+			int group = groups[i];
+			long weight = points.weights[i];
+			weights[group] += weight;
+			sums[group * 3] += weight * ((points.rgb[i] >> 16) & 0xFF);
+			sums[group * 3 + 1] += weight * ((points.rgb[i] >> 8) & 0xFF);
+			sums[group * 3 + 2] += weight * (points.rgb[i] & 0xFF);
+		}
+
+		Integer[] order = new Integer[groupCount];
+		for (int group = 0; group < groupCount; group++)
+			order[group] = group;
+		Arrays.sort(order, (a, b) -> Long.compare(weights[b], weights[a]));
+
+		List<MunsellColor> found = new ArrayList<>();
+		for (int group : order)
+		{
+			long weight = weights[group];
+			if (weight == 0)
+				continue;
+
+			int red = (int) ((sums[group * 3] + weight / 2) / weight);
+			int green = (int) ((sums[group * 3 + 1] + weight / 2) / weight);
+			int blue = (int) ((sums[group * 3 + 2] + weight / 2) / weight);
+			found.add(MunsellColor.fromRGB(new Color(red, green, blue)));
+		}
+
+		return new Palette(found);
+	}
+
+	/**
+	 * Groups the colors by median cut.
+	 *
+	 * @param points the colors.
+	 * @param colors the most groups.
+	 * @return the group of each color.
+	 */
+	private static int[] medianCut(Points points, int colors)
+	{
+		// Each box is a run of order; boxes[b] = {start, end}.
+		int[] order = new int[points.size];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+
+		List<int[]> boxes = new ArrayList<>();
+		boxes.add(new int[] { 0, points.size });
+
+		while (boxes.size() < colors)
+		{
+			// Split the box with the longest side.
+			int widest = -1;
+			int widestAxis = 0;
+			double widestExtent = 0;
+			for (int b = 0; b < boxes.size(); b++)
+			{
+				int[] box = boxes.get(b);
+				if (box[1] - box[0] < 2)
+					continue;
+
+				for (int axis = 0; axis < 3; axis++)
+				{
+					double min = Double.POSITIVE_INFINITY;
+					double max = Double.NEGATIVE_INFINITY;
+					for (int i = box[0]; i < box[1]; i++)
+					{
+						double coordinate = points.coordinates[order[i] * 3 + axis];
+						min = Math.min(min, coordinate);
+						max = Math.max(max, coordinate);
+					}
+
+					if (max - min > widestExtent)
+					{
+						widest = b;
+						widestAxis = axis;
+						widestExtent = max - min;
+					}
+				}
+			}
+
+			if (widest < 0)
+				break;
+
+			int[] box = boxes.get(widest);
+			int split = splitAtMedian(points, order, box[0], box[1], widestAxis);
+			boxes.set(widest, new int[] { box[0], split });
+			boxes.add(new int[] { split, box[1] });
+		}
+
+		int[] groups = new int[points.size];
+		for (int b = 0; b < boxes.size(); b++)
+		{
+			int[] box = boxes.get(b);
+			for (int i = box[0]; i < box[1]; i++)
+				groups[order[i]] = b;
+		}
+		return groups;
+	}
+
+	/**
+	 * Sorts a box along an axis and finds where half its weight is on each
+	 * side, keeping at least one color on each side.
+	 *
+	 * @param points the colors.
+	 * @param order  the colors in box order.
+	 * @param start  the start of the box in order.
+	 * @param end    the end of the box in order.
+	 * @param axis   the axis to split along.
+	 * @return the start of the second half.
+	 */
+	private static int splitAtMedian(Points points, int[] order, int start, int end, int axis)
+	{
+		Integer[] box = new Integer[end - start];
+		for (int i = 0; i < box.length; i++)
+			box[i] = order[start + i];
+		Arrays.sort(box, (a, b) -> Double.compare(points.coordinates[a * 3 + axis], points.coordinates[b * 3 + axis]));
+
+		long total = 0;
+		for (int i = 0; i < box.length; i++)
+		{
+			order[start + i] = box[i];
+			total += points.weights[box[i]];
+		}
+
+		long running = 0;
+		for (int i = 0; i < box.length - 1; i++)
+		{
+			running += points.weights[box[i]];
+			if (running * 2 >= total)
+				return start + i + 1;
+		}
+		return end - 1;
+	}
+
+	/**
+	 * Groups the colors by mini-batch k-means.
+	 *
+	 * @param points the colors.
+	 * @param colors the most groups.
+	 * @return the group of each color.
+	 */
+	private int[] kMeans(Points points, int colors)
+	{
+		Random random = new Random(seed);
+		int k = Math.min(colors, points.size);
+
+		// Seed by k-means++ on a sample drawn by weight.
+		int[] sample = points.sample(random, Math.max(SEED_SAMPLE, k));
+		double[] centers = new double[k * 3];
+		double[] closest = new double[sample.length];
+		Arrays.fill(closest, Double.POSITIVE_INFINITY);
+		int chosen = sample[random.nextInt(sample.length)];
+		for (int c = 0; c < k; c++)
+		{
+			System.arraycopy(points.coordinates, chosen * 3, centers, c * 3, 3);
+			if (c == k - 1)
+				break;
+
+			double total = 0;
+			for (int i = 0; i < sample.length; i++)
+			{
+				closest[i] = Math.min(closest[i], distance(points.coordinates, sample[i] * 3, centers, c * 3));
+				total += closest[i];
+			}
+
+			// The next center is far from those so far, in proportion to its squared distance.
+			chosen = sample[random.nextInt(sample.length)];
+			double target = random.nextDouble() * total;
+			for (int i = 0; i < sample.length; i++)
+			{
+				target -= closest[i];
+				if (target < 0)
+				{
+					chosen = sample[i];
+					break;
+				}
+			}
+		}
+
+		// Move the centers toward small batches, each by less as it has seen more.
+		long[] seen = new long[k];
+		int[] batch = new int[BATCH];
+		int[] assigned = new int[BATCH];
+		for (int iteration = 0; iteration < ITERATIONS; iteration++)
+		{
+			points.sample(random, batch);
+			ForkJoinPool.commonPool().invoke(new AssignTask(points, centers, batch, assigned, 0, BATCH));
+
+			for (int i = 0; i < BATCH; i++)
+			{
+				int c = assigned[i];
+				double rate = 1.0 / ++seen[c];
+				for (int axis = 0; axis < 3; axis++)
+				{
+					double coordinate = points.coordinates[batch[i] * 3 + axis];
+					centers[c * 3 + axis] += rate * (coordinate - centers[c * 3 + axis]);
+				}
+			}
+		}
+
+		int[] all = new int[points.size];
+		for (int i = 0; i < all.length; i++)
+			all[i] = i;
+		int[] groups = new int[points.size];
+		ForkJoinPool.commonPool().invoke(new AssignTask(points, centers, all, groups, 0, all.length));
+		return groups;
+	}
+
+	/**
+	 * @param a       holds the first point.
+	 * @param offsetA where the first point is in a.
+	 * @param b       holds the second point.
+	 * @param offsetB where the second point is in b.
+	 * @return the squared distance between the points.
+	 */
+	private static double distance(double[] a, int offsetA, double[] b, int offsetB)
+	{
+		double d0 = a[offsetA] - b[offsetB];
+		double d1 = a[offsetA + 1] - b[offsetB + 1];
+		double d2 = a[offsetA + 2] - b[offsetB + 2];
+		return d0 * d0 + d1 * d1 + d2 * d2;
+	}
+
+	/**
+	 * The non-empty bins of a histogram: the mean color of each, its pixel
+	 * count, and its coordinates.
+	 */
+	private static class Points
+	{
+		private final int size; // The number of colors.
+		private final int[] rgb; // The packed RGB of each color.
+		private final long[] weights; // The pixels of each color.
+		private final long[] cumulative; // The pixels of each color and those before it.
+		private final double[] coordinates; // The three coordinates of each color.
+
+		/**
+		 * Collects the colors of a histogram.
+		 *
+		 * @param histogram the histogram.
+		 * @param space     the coordinates to place them in.
+		 */
+		Points(RGBHistogram histogram, Space space)
+		{
+			int count = 0;
+			for (int bin = 0; bin < RGBHistogram.BINS; bin++)
+			{
+				if (histogram.getCount(bin) > 0)
+					count++;
+			}
+			if (count == 0)
+				throw new IllegalArgumentException("Cannot find a palette for no pixels!");
+
+			size = count;
+			rgb = new int[size];
+			weights = new long[size];
+			cumulative = new long[size];
+			coordinates = new double[size * 3];
+
+			int i = 0;
+			long running = 0;
+			for (int bin = 0; bin < RGBHistogram.BINS; bin++)
+			{
+				long weight = histogram.getCount(bin);
+				if (weight == 0)
+					continue;
+
+				rgb[i] = histogram.getMeanRGB(bin);
+				weights[i] = weight;
+				running += weight;
+				cumulative[i] = running;
+				if (space == Space.LAB)
+					CIELab.toLab(rgb[i], coordinates, i * 3);
+				else
+					toMunsell(rgb[i], coordinates, i * 3);
+				i++;
+			}
+		}
+
+		/**
+		 * Draws colors at random, each in proportion to its pixels.
+		 *
+		 * @param random the random numbers.
+		 * @param drawn  receives the index of each color drawn.
+		 */
+		void sample(Random random, int[] drawn)
+		{
+			long total = cumulative[size - 1];
+			for (int i = 0; i < drawn.length; i++)
+			{
+				long target = (long) (random.nextDouble() * total);
+				int found = Arrays.binarySearch(cumulative, target + 1);
+				drawn[i] = found >= 0 ? found : -found - 1;
+			}
+		}
+
+		/**
+		 * @param random the random numbers.
+		 * @param count  the number of colors to draw.
+		 * @return the index of each color drawn, in proportion to its pixels.
+		 */
+		int[] sample(Random random, int count)
+		{
+			int[] drawn = new int[count];
+			sample(random, drawn);
+			return drawn;
+		}
+
+		/**
+		 * Places a color in Munsell coordinates.
+		 *
+		 * @param rgb         the packed RGB of the color.
+		 * @param coordinates receives the coordinates.
+		 * @param offset      where in coordinates to write them.
+		 */
+		private static void toMunsell(int rgb, double[] coordinates, int offset)
+		{
+			MunsellColor munsell = MunsellColor.fromRGB(new Color(rgb));
+			double chroma = munsell.getHue().isGrayscale() ? 0 : munsell.getChroma();
+			double angle = munsell.getHue().getHueTotalValue() * Math.PI / 50;
+			coordinates[offset] = chroma * Math.cos(angle);
+			coordinates[offset + 1] = chroma * Math.sin(angle);
+			coordinates[offset + 2] = munsell.getValue() * MUNSELL_VALUE_SCALE;
+		}
+	}
+
+	/**
+	 * Gives each of a run of colors its closest center, splitting the run to
+	 * work in parallel while it has more than ASSIGN_CHUNK colors.
+	 */
+	private static class AssignTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final transient Points points; // The colors.
+		private final double[] centers; // The three coordinates of each center.
+		private final int[] indices; // The colors to assign.
+		private final int[] assigned; // Receives the center of each, at the same index.
+		private final int from; // The first index to assign.
+		private final int to; // One past the last.
+
+		/**
+		 * Creates a task for a run of colors.
+		 *
+		 * @param points   the colors.
+		 * @param centers  the three coordinates of each center.
+		 * @param indices  the colors to assign.
+		 * @param assigned receives the center of each, at the same index.
+		 * @param from     the first index to assign.
+		 * @param to       one past the last.
+		 */
+		AssignTask(Points points, double[] centers, int[] indices, int[] assigned, int from, int to)
+		{
+			this.points = points;
+			this.centers = centers;
+			this.indices = indices;
+			this.assigned = assigned;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from > ASSIGN_CHUNK)
+			{
+				int middle = (from + to) >>> 1;
+				invokeAll(new AssignTask(points, centers, indices, assigned, from, middle),
+						new AssignTask(points, centers, indices, assigned, middle, to));
+				return;
+			}
+
+			int k = centers.length / 3;
+			for (int i = from; i < to; i++)
+			{
+				int offset = indices[i] * 3;
+				int best = 0;
+				double bestDistance = Double.POSITIVE_INFINITY;
+				for (int c = 0; c < k; c++)
+				{
+					double distance = distance(points.coordinates, offset, centers, c * 3);
+					if (distance < bestDistance)
+					{
+						best = c;
+						bestDistance = distance;
+					}
+				}
+				assigned[i] = best;
+			}
+		}
+	}
+}
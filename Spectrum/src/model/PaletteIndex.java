@@ -0,0 +1,286 @@
+package model;
+
+import java.util.Arrays;
+
+import util.CIELab;
+import util.KDTree;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: The RGB and Lab coordinates of a Palette's colors, kept
+ *          in primitive arrays in palette order so that finding the closest
+ *          palette color never converts a palette color again. Small palettes
+ *          are searched by a linear scan over the arrays; large ones by a k-d
+ *          tree, built the first time it is needed, for the metrics that are
+ *          straight line distances. An index never changes: adding or
+ *          removing a color gives a new one, so a Palette can publish its
+ *          index through a volatile field and any number of threads can query
+ *          it without locking. Queries keep their scratch on the stack.
+ */
+class PaletteIndex
+{
+	/**
+	 * Palettes with at least this many colors are searched with a k-d tree when
+	 * the metric allows it.
+	 */
+	static final int TREE_THRESHOLD = 64;
+
+	/**
+	 * An index of no colors.
+	 */
+	static final PaletteIndex EMPTY = new PaletteIndex(new int[0], new int[0], new int[0], new double[0]);
+
+	private final int count; // The number of colors.
+	private final int[] reds; // The red of each color.
+	private final int[] greens; // The green of each color.
+	private final int[] blues; // The blue of each color.
+	private final double[] lab; // The L, a, b of each color.
+
+	private volatile KDTree rgbTree; // Over the RGB of each color, or null until needed.
+	private volatile KDTree labTree; // Over the Lab of each color, or null until needed.
+
+	/**
+	 * Creates an index over the given coordinates, which it keeps.
+	 *
+	 * @param reds   the red of each color.
+	 * @param greens the green of each color.
+	 * @param blues  the blue of each color.
+	 * @param lab    the L, a, b of each color.
+	 */
+	private PaletteIndex(int[] reds, int[] greens, int[] blues, double[] lab)
+	{
+		count = reds.length;
+		this.reds = reds;
+		this.greens = greens;
+		this.blues = blues;
+		this.lab = lab;
+	}
+
+	/**
+	 * Creates an index of the given colors.
+	 *
+	 * @param rgb the packed 0xRRGGBB value of each color, in palette order.
+	 * @return the index.
+	 */
+	static PaletteIndex of(int[] rgb)
+	{
+		int[] reds = new int[rgb.length];
+		int[] greens = new int[rgb.length];
+		int[] blues = new int[rgb.length];
+		double[] lab = new double[rgb.length * 3];
+		for (int i = 0; i < rgb.length; i++)
+		{
+			reds[i] = (rgb[i] >> 16) & 0xFF;
+			greens[i] = (rgb[i] >> 8) & 0xFF;
+			blues[i] = rgb[i] & 0xFF;
+			CIELab.toLab(rgb[i], lab, i * 3);
+		}
+
+		return new PaletteIndex(reds, greens, blues, lab);
+	}
+
+	/**
+	 * @return the number of colors.
+	 */
+	int size()
+	{
+		return count;
+	}
+
+	/**
+	 * @param index the index of a color.
+	 * @return the packed 0xRRGGBB value of the color.
+	 */
+	int getRGB(int index)
+	{
+		return (reds[index] << 16) | (greens[index] << 8) | blues[index];
+	}
+
+	/**
+	 * @param rgb the packed 0xRRGGBB value of a color.
+	 * @return a new index with the color after the last one.
+	 */
+	PaletteIndex withAdded(int rgb)
+	{
+		int[] newReds = Arrays.copyOf(reds, count + 1);
+		int[] newGreens = Arrays.copyOf(greens, count + 1);
+		int[] newBlues = Arrays.copyOf(blues, count + 1);
+		double[] newLab = Arrays.copyOf(lab, (count + 1) * 3);
+
+		newReds[count] = (rgb >> 16) & 0xFF;
+		newGreens[count] = (rgb >> 8) & 0xFF;
+		newBlues[count] = rgb & 0xFF;
+		CIELab.toLab(rgb, newLab, count * 3);
+		return new PaletteIndex(newReds, newGreens, newBlues, newLab);
+	}
+
+	/**
+	 * @param index the index of a color.
+	 * @return a new index without the color, with the colors after it moved
+	 *         down by one.
+	 */
+	PaletteIndex withRemoved(int index)
+	{
+		return new PaletteIndex(removed(reds, index), removed(greens, index), removed(blues, index),
+				removedLab(index));
+	}
+
+	/**
+	 * @param values a value for each color.
+	 * @param index  the index of a color.
+	 * @return a copy of the values without the color's.
+	 */
+	private static int[] removed(int[] values, int index)
+	{
+		int[] result = new int[values.length - 1];
+		System.arraycopy(values, 0, result, 0, index);
+		System.arraycopy(values, index + 1, result, index, result.length - index);
+		return result;
+	}
+
+	/**
+	 * @param index the index of a color.
+	 * @return a copy of the Lab coordinates without the color's.
+	 */
+	private double[] removedLab(int index)
+	{
+		double[] result = new double[lab.length - 3];
+		System.arraycopy(lab, 0, result, 0, index * 3);
+		System.arraycopy(lab, (index + 1) * 3, result, index * 3, result.length - index * 3);
+		return result;
+	}
+
+	/**
+	 * Finds the closest color by a metric. Scans give ties to the first color;
+	 * the k-d trees may give them to any of the tied colors.
+	 *
+	 * @param rgb    the packed 0xRRGGBB value of the color to look for.
+	 * @param metric how to measure the difference between colors.
+	 * @return the index of the closest color, or -1 if there are none.
+	 */
+	int nearest(int rgb, ColorMetric metric)
+	{
+		if (count == 0)
+			return -1;
+
+		int red = (rgb >> 16) & 0xFF;
+		int green = (rgb >> 8) & 0xFF;
+		int blue = rgb & 0xFF;
+
+		if (metric == StandardColorMetric.MANHATTAN)
+		{
+			int closest = 0;
+			int closestDistance = Integer.MAX_VALUE;
+			for (int i = 0; i < count; i++)
+			{
+				int distance = Math.abs(red - reds[i]) + Math.abs(green - greens[i]) + Math.abs(blue - blues[i]);
+				if (distance < closestDistance)
+				{
+					closest = i;
+					closestDistance = distance;
+				}
+			}
+			return closest;
+		}
+
+		if (metric == StandardColorMetric.RGB)
+		{
+			if (count >= TREE_THRESHOLD)
+				return rgbTree().nearest(red, green, blue);
+
+			int closest = 0;
+			int closestDistance = Integer.MAX_VALUE;
+			for (int i = 0; i < count; i++)
+			{
+				int dr = red - reds[i];
+				int dg = green - greens[i];
+				int db = blue - blues[i];
+				int distance = dr * dr + dg * dg + db * db;
+				if (distance < closestDistance)
+				{
+					closest = i;
+					closestDistance = distance;
+				}
+			}
+			return closest;
+		}
+
+		if (metric.isLab())
+		{
+			double[] targetLab = new double[3];
+			CIELab.toLab(rgb, targetLab, 0);
+			if (metric == StandardColorMetric.CIE76 && count >= TREE_THRESHOLD)
+				return labTree().nearest((float) targetLab[0], (float) targetLab[1], (float) targetLab[2]);
+
+			int closest = 0;
+			double closestDistance = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < count; i++)
+			{
+				double distance = metric.labDistance(targetLab, 0, lab, i * 3);
+				if (distance < closestDistance)
+				{
+					closest = i;
+					closestDistance = distance;
+				}
+			}
+			return closest;
+		}
+
+		int closest = 0;
+		double closestDistance = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < count; i++)
+		{
+			double distance = metric.distance(rgb, getRGB(i));
+			if (distance < closestDistance)
+			{
+				closest = i;
+				closestDistance = distance;
+			}
+		}
+		return closest;
+	}
+
+	/**
+	 * @return the k-d tree over the RGB of each color, built if needed. Threads
+	 *         racing to build it build equal trees, so either may be kept.
+	 */
+	private KDTree rgbTree()
+	{
+		KDTree tree = rgbTree;
+		if (tree == null)
+		{
+			float[] points = new float[count * 3];
+			for (int i = 0; i < count; i++)
+			{
+				points[i * 3] = reds[i];
+				points[i * 3 + 1] = greens[i];
+				points[i * 3 + 2] = blues[i];
+			}
+			tree = new KDTree(points);
+			rgbTree = tree;
+		}
+
+		return tree;
+	}
+
+	/**
+	 * @return the k-d tree over the Lab of each color, built if needed.
+	 */
+	private KDTree labTree()
+	{
+		KDTree tree = labTree;
+		if (tree == null)
+		{
+			float[] points = new float[count * 3];
+			for (int i = 0; i < points.length; i++)
+				points[i] = (float) lab[i];
+			tree = new KDTree(points);
+			labTree = tree;
+		}
+
+		return tree;
+	}
+}
@@ -0,0 +1,688 @@
+package model;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import util.RGBRaster;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Posterizes images against a palette without any user
+ *          interface. An image is read and mapped a strip of rows at a time
+ *          through RGBRaster: files through an ImageReader with a source region
+ *          for each strip, in-memory images straight from their pixels. Each
+ *          mapped strip goes to a StripSink, so a file written in a format
+ *          whose ImageWriter can replace pixels (such as TIFF) never has more
+ *          than one strip of either image in memory, however large it is. The
+ *          palette is copied when posterizing starts, and its colors are looked
+ *          up through a PaletteCache sized for the image; a job of many images,
+ *          such as the tiles of a viewer, can share one from createCache
+ *          instead.
+ *
+ *          Pixels can be dithered as they are mapped. Error diffusion keeps
+ *          the error owed to the next rows in a few rolling rows of ints, so
+ *          it needs memory in proportion to the width alone. Ordered
+ *          dithering, like no dithering, maps every pixel on its own, so
+ *          large strips are split into bands of rows mapped in parallel.
+ *
+ *          Formats that can only be decoded from the top, such as PNG and
+ *          JPEG, decode the rows above each strip again to reach it, so for
+ *          them taller strips trade memory for time.
+ */
+public class PosterizePipeline
+{
+	/**
+	 * The number of rows in a strip unless set otherwise.
+	 */
+	public static final int DEFAULT_STRIP_HEIGHT = 256;
+
+	private static final DirectColorModel RGB_MODEL = new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF); // Of the output.
+
+	private final Palette palette; // The palette to posterize with.
+	private final ColorMetric metric; // How the closest palette color is measured.
+	private final boolean throughMunsell; // Whether pixels go to Munsell and back first.
+	private static final int TILE_PIXELS = 1 << 15; // Largest band of a strip mapped without splitting.
+	private static final int ERROR_PAD = 2; // Columns of error kept beyond each side of the image.
+	private static final int BAYER_SIZE = 8; // The width and height of the Bayer matrix.
+	private static final int[] BAYER = new int[BAYER_SIZE * BAYER_SIZE]; // The matrix, row by row, 0-63.
+
+	static
+	{
+		// The low bits of x and y pick the high bits of the value, interleaved.
+		for (int y = 0; y < BAYER_SIZE; y++)
+		{
+			for (int x = 0; x < BAYER_SIZE; x++)
+			{
+				int value = 0;
+				for (int bit = 1; bit < BAYER_SIZE; bit <<= 1)
+				{
+					int xBit = (x & bit) != 0 ? 1 : 0;
+					int yBit = (y & bit) != 0 ? 1 : 0;
+					value = (value << 2) | ((xBit ^ yBit) << 1) | yBit;
+				}
+				BAYER[y * BAYER_SIZE + x] = value;
+			}
+		}
+	}
+
+	private int stripHeight = DEFAULT_STRIP_HEIGHT; // The number of rows in a strip.
+	private DitherMode dither = DitherMode.NONE; // How errors are spread.
+
+	/**
+	 * Receives a posterized image one strip at a time, from the top.
+	 */
+	public interface StripSink
+	{
+		/**
+		 * Called once before any strip.
+		 *
+		 * @param width  the width of the image.
+		 * @param height the height of the image.
+		 * @throws IOException if the image cannot be started.
+		 */
+		void begin(int width, int height) throws IOException;
+
+		/**
+		 * Takes the next strip.
+		 *
+		 * @param y      the first row of the strip.
+		 * @param height the number of rows in the strip.
+		 * @param rgb    the packed 0xRRGGBB value of each pixel of the strip,
+		 *               row by row. Only valid until this returns.
+		 * @throws IOException if the strip cannot be written.
+		 */
+		void write(int y, int height, int[] rgb) throws IOException;
+
+		/**
+		 * Called once after the last strip.
+		 *
+		 * @throws IOException if the image cannot be finished.
+		 */
+		void end() throws IOException;
+	}
+
+	/**
+	 * Creates a pipeline for a palette.
+	 *
+	 * @param palette        the palette to posterize with.
+	 * @param metric         how to measure the difference between colors.
+	 * @param throughMunsell whether to convert each pixel to its Munsell color
+	 *                       and back before finding the closest palette color,
+	 *                       as the Image tab does.
+	 */
+	public PosterizePipeline(Palette palette, ColorMetric metric, boolean throughMunsell)
+	{
+		if (palette == null || metric == null)
+			throw new NullPointerException("PosterizePipeline given a null parameter!");
+
+		this.palette = palette;
+		this.metric = metric;
+		this.throughMunsell = throughMunsell;
+	}
+
+	/**
+	 * @param stripHeight the number of rows to read and map at a time. At
+	 *                    least 1.
+	 */
+	public void setStripHeight(int stripHeight)
+	{
+		if (stripHeight < 1)
+			throw new IllegalArgumentException("Strip height must be at least 1!");
+
+		this.stripHeight = stripHeight;
+	}
+
+	/**
+	 * @return the number of rows read and mapped at a time.
+	 */
+	public int getStripHeight()
+	{
+		return stripHeight;
+	}
+
+	/**
+	 * @param dither how to spread the difference between each pixel and its
+	 *               palette color.
+	 */
+	public void setDitherMode(DitherMode dither)
+	{
+		if (dither == null)
+			throw new NullPointerException("setDitherMode given a null parameter!");
+
+		this.dither = dither;
+	}
+
+	/**
+	 * @return how the difference between each pixel and its palette color is
+	 *         spread.
+	 */
+	public DitherMode getDitherMode()
+	{
+		return dither;
+	}
+
+	/**
+	 * Posterizes an image file into another file. The image is written to a
+	 * temporary file next to the output, which replaces the output only once it
+	 * is complete, so the output may be the input and is left as it was if
+	 * posterizing fails.
+	 *
+	 * @param input      the image to posterize, in any format ImageIO reads.
+	 * @param output     where to write the posterized image.
+	 * @param formatName the informal name of the output format, such as "tiff"
+	 *                   or "png". Formats whose writer cannot replace pixels
+	 *                   are written from a whole image in memory.
+	 * @throws IOException if either file cannot be read or written, or there is
+	 *                     no reader or writer for it.
+	 */
+	public void posterize(File input, File output, String formatName) throws IOException
+	{
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+		if (!writers.hasNext())
+			throw new IOException("No writer for " + formatName + "!");
+
+		ImageWriter writer = writers.next();
+		File temporary = File.createTempFile("posterize", ".tmp", output.getAbsoluteFile().getParentFile());
+		try
+		{
+			try (ImageInputStream in = ImageIO.createImageInputStream(input))
+			{
+				if (in == null)
+					throw new IOException("Cannot read " + input + "!");
+
+				Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+				if (!readers.hasNext())
+					throw new IOException("No reader for " + input + "!");
+
+				ImageReader reader = readers.next();
+				try (ImageOutputStream out = ImageIO.createImageOutputStream(temporary))
+				{
+					if (out == null)
+						throw new IOException("Cannot write " + output + "!");
+
+					reader.setInput(in, true, true);
+					posterize(reader, new WriterSink(writer, out));
+				} finally
+				{
+					reader.dispose();
+				}
+			}
+
+			try
+			{
+				Files.move(temporary.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e)
+			{
+				Files.move(temporary.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally
+		{
+			writer.dispose();
+			temporary.delete();
+		}
+	}
+
+	/**
+	 * Posterizes the first image of a reader into a sink, reading a strip at a
+	 * time through source regions with RGBRaster.readStrips.
+	 *
+	 * @param reader a reader with its input set.
+	 * @param sink   receives the posterized image.
+	 * @throws IOException if the image cannot be read or the sink fails.
+	 */
+	public void posterize(ImageReader reader, StripSink sink) throws IOException
+	{
+		int width = reader.getWidth(0);
+		int height = reader.getHeight(0);
+		Mapper mapper = new Mapper(width, height, createCache((long) width * height));
+
+		sink.begin(width, height);
+		RGBRaster.readStrips(reader, stripHeight, mapper.pixels, (y, stripWidth, rows, rgb) -> {
+			mapper.map(y, rows);
+			sink.write(y, rows, rgb);
+		});
+		sink.end();
+	}
+
+	/**
+	 * Posterizes an image in memory, a strip at a time.
+	 *
+	 * @param image the image to posterize.
+	 * @return a new TYPE_INT_RGB image of the same size.
+	 */
+	public BufferedImage posterize(BufferedImage image)
+	{
+		return posterize(image, createCache((long) image.getWidth() * image.getHeight()));
+	}
+
+	/**
+	 * Copies the palette as it is now and makes a cache for it, to be shared by
+	 * the images of one job with posterize(BufferedImage, PaletteCache), so
+	 * each distinct color is looked up once for the whole job.
+	 *
+	 * @param pixels how many pixels the job has, which picks the kind of cache.
+	 * @return a cache for a copy of the palette, with this pipeline's metric.
+	 *         It can be shared by any number of threads.
+	 */
+	public PaletteCache createCache(long pixels)
+	{
+		Palette copy = new Palette(palette.getColors());
+		if (copy.getColors().isEmpty())
+			throw new IllegalArgumentException("Cannot posterize with an empty palette!");
+
+		return PaletteCache.forPixels(copy, metric, throughMunsell, pixels);
+	}
+
+	/**
+	 * Posterizes an image in memory, a strip at a time, looking colors up in a
+	 * cache shared with other images, such as the other tiles of one large
+	 * image. Error diffusion starts afresh at the top and left of the image,
+	 * so tiles posterized on their own and shown side by side show faint seams
+	 * along their edges when it is used; ordered dithering lines up across
+	 * tiles whose corners are on multiples of the Bayer matrix.
+	 *
+	 * @param image the image to posterize.
+	 * @param cache made by createCache; its palette is used.
+	 * @return a new TYPE_INT_RGB image of the same size.
+	 */
+	public BufferedImage posterize(BufferedImage image, PaletteCache cache)
+	{
+		int width = image.getWidth();
+		int height = image.getHeight();
+		Mapper mapper = new Mapper(width, height, cache);
+		BufferedImage posterized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+		for (int y = 0; y < height; y += stripHeight)
+		{
+			int rows = Math.min(stripHeight, height - y);
+			RGBRaster.getRows(image, y, rows, mapper.pixels);
+
+			mapper.map(y, rows);
+			RGBRaster.setRows(posterized, y, rows, mapper.pixels);
+		}
+
+		return posterized;
+	}
+
+	/**
+	 * Wraps the start of an array of packed RGB pixels as an image without
+	 * copying it.
+	 *
+	 * @param rgb    the pixels, row by row.
+	 * @param width  the width of the image.
+	 * @param height the height of the image.
+	 * @return a TYPE_INT_RGB image over the array.
+	 */
+	private static BufferedImage wrap(int[] rgb, int width, int height)
+	{
+		DataBufferInt buffer = new DataBufferInt(rgb, width * height);
+		WritableRaster raster = Raster.createPackedRaster(buffer, width, height, width, RGB_MODEL.getMasks(), null);
+		return new BufferedImage(RGB_MODEL, raster, false, null);
+	}
+
+	/**
+	 * Maps strips of pixels to palette colors for one image, with the palette
+	 * of a cache made by createCache.
+	 */
+	private class Mapper
+	{
+		private final PaletteCache cache; // Finds the palette color of each pixel.
+		private final int[] paletteRGB; // The packed RGB value of each palette color.
+		private final int[] pixels; // The strip being mapped.
+		private final int width; // The width of the image.
+		private final DitherMode mode; // How errors are spread.
+		private final int[][] errors; // The error owed to the current row and those below, for error diffusion.
+		private final int[] bayerOffsets; // What ordered dithering adds to each channel, for each cell of the matrix.
+
+		/**
+		 * Creates a mapper for an image.
+		 *
+		 * @param width  the width of the image.
+		 * @param height the height of the image.
+		 * @param cache  finds the palette color of each pixel.
+		 */
+		Mapper(int width, int height, PaletteCache cache)
+		{
+			Palette shared = cache.getPalette();
+			if (shared.getColors().isEmpty())
+				throw new IllegalArgumentException("Cannot posterize with an empty palette!");
+
+			this.cache = cache;
+			paletteRGB = new int[shared.getColors().size()];
+			for (int i = 0; i < paletteRGB.length; i++)
+				paletteRGB[i] = shared.getColors().get(i).toColor().getRGB() & 0xFFFFFF;
+
+			pixels = new int[Math.multiplyExact(width, Math.min(stripHeight, Math.max(height, 1)))];
+			this.width = width;
+			mode = dither;
+
+			if (mode.isErrorDiffusion())
+			{
+				// One row for each row the kernel reaches, with room on each side.
+				int rows = 1;
+				for (int[] entry : mode.getKernel())
+					rows = Math.max(rows, entry[1] + 1);
+				errors = new int[rows][(width + ERROR_PAD * 2) * 3];
+			} else
+			{
+				errors = null;
+			}
+
+			if (mode == DitherMode.BAYER)
+			{
+				double spread = getSpread(paletteRGB);
+				bayerOffsets = new int[BAYER.length];
+				for (int i = 0; i < BAYER.length; i++)
+					bayerOffsets[i] = (int) Math.round(((BAYER[i] + 0.5) / BAYER.length - 0.5) * spread);
+			} else
+			{
+				bayerOffsets = null;
+			}
+		}
+
+		/**
+		 * Replaces the pixels of the strip with palette colors.
+		 *
+		 * @param y    the row of the image the strip starts at.
+		 * @param rows the number of rows in the strip.
+		 */
+		void map(int y, int rows)
+		{
+			if (mode.isErrorDiffusion())
+			{
+				for (int row = 0; row < rows; row++)
+					diffuseRow(row);
+			} else if ((long) rows * width > TILE_PIXELS)
+			{
+				ForkJoinPool.commonPool().invoke(new TileTask(this, y, 0, rows));
+			} else
+			{
+				mapRows(y, 0, rows);
+			}
+		}
+
+		/**
+		 * Replaces some rows of the strip with palette colors, each pixel on its
+		 * own, after any ordered dithering.
+		 *
+		 * @param y    the row of the image the strip starts at.
+		 * @param from the first row of the strip to map.
+		 * @param to   one past the last row of the strip to map.
+		 */
+		void mapRows(int y, int from, int to)
+		{
+			for (int row = from; row < to; row++)
+			{
+				int start = row * width;
+				if (bayerOffsets == null)
+				{
+					for (int i = start; i < start + width; i++)
+						pixels[i] = paletteRGB[cache.getClosestIndex(pixels[i])];
+					continue;
+				}
+
+				int cells = ((y + row) & (BAYER_SIZE - 1)) * BAYER_SIZE;
+				for (int x = 0; x < width; x++)
+				{
+					int rgb = pixels[start + x];
+					int offset = bayerOffsets[cells + (x & (BAYER_SIZE - 1))];
+					int red = clamp(((rgb >> 16) & 0xFF) + offset);
+					int green = clamp(((rgb >> 8) & 0xFF) + offset);
+					int blue = clamp((rgb & 0xFF) + offset);
+					pixels[start + x] = paletteRGB[cache.getClosestIndex((red << 16) | (green << 8) | blue)];
+				}
+			}
+		}
+
+		/**
+		 * Replaces a row of the strip with palette colors, taking in the error
+		 * owed to it and passing on its own.
+		 *
+		 * @param row the row of the strip.
+		 */
+		private void diffuseRow(int row)
+		{
+			int[][] kernel = mode.getKernel();
+			int shift = mode.getShift();
+			int half = 1 << (shift - 1);
+			int[] owed = errors[0];
+			int start = row * width;
+
+			for (int x = 0; x < width; x++)
+			{
+				int rgb = pixels[start + x];
+				int cell = (x + ERROR_PAD) * 3;
+				int red = clamp(((rgb >> 16) & 0xFF) + ((owed[cell] + half) >> shift));
+				int green = clamp(((rgb >> 8) & 0xFF) + ((owed[cell + 1] + half) >> shift));
+				int blue = clamp((rgb & 0xFF) + ((owed[cell + 2] + half) >> shift));
+
+				int mapped = paletteRGB[cache.getClosestIndex((red << 16) | (green << 8) | blue)];
+				pixels[start + x] = mapped;
+
+				int redError = red - ((mapped >> 16) & 0xFF);
+				int greenError = green - ((mapped >> 8) & 0xFF);
+				int blueError = blue - (mapped & 0xFF);
+				for (int[] entry : kernel)
+				{
+					int[] target = errors[entry[1]];
+					int to = cell + entry[0] * 3;
+					target[to] += entry[2] * redError;
+					target[to + 1] += entry[2] * greenError;
+					target[to + 2] += entry[2] * blueError;
+				}
+			}
+
+			// Roll the rows up, reusing this row's as the last.
+			for (int i = 1; i < errors.length; i++)
+				errors[i - 1] = errors[i];
+			Arrays.fill(owed, 0);
+			errors[errors.length - 1] = owed;
+		}
+	}
+
+	/**
+	 * Maps a band of rows of a strip, splitting it into smaller bands to run in
+	 * parallel while it has more than TILE_PIXELS pixels.
+	 */
+	private static class TileTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final transient Mapper mapper; // Maps the rows.
+		private final int y; // The row of the image the strip starts at.
+		private final int from; // The first row of the strip in the band.
+		private final int to; // One past the last row of the strip in the band.
+
+		/**
+		 * Creates a task for a band of rows.
+		 *
+		 * @param mapper maps the rows.
+		 * @param y      the row of the image the strip starts at.
+		 * @param from   the first row of the strip in the band.
+		 * @param to     one past the last row of the strip in the band.
+		 */
+		TileTask(Mapper mapper, int y, int from, int to)
+		{
+			this.mapper = mapper;
+			this.y = y;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from < 2 || (long) (to - from) * mapper.width <= TILE_PIXELS)
+			{
+				mapper.mapRows(y, from, to);
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new TileTask(mapper, y, from, middle), new TileTask(mapper, y, middle, to));
+		}
+	}
+
+	/**
+	 * @param value a channel value.
+	 * @return the value clamped to 0-255.
+	 */
+	private static int clamp(int value)
+	{
+		return value < 0 ? 0 : value > 255 ? 255 : value;
+	}
+
+	/**
+	 * Works out how far ordered dithering should nudge pixels: the average
+	 * distance from each palette color to the closest other one, per channel.
+	 *
+	 * @param paletteRGB the packed RGB value of each palette color.
+	 * @return the spread, 0 for a palette of one color.
+	 */
+	private static double getSpread(int[] paletteRGB)
+	{
+		if (paletteRGB.length < 2)
+			return 0;
+
+		double total = 0;
+		for (int i = 0; i < paletteRGB.length; i++)
+		{
+			int closest = Integer.MAX_VALUE;
+			for (int j = 0; j < paletteRGB.length; j++)
+			{
+				if (j != i)
+					closest = Math.min(closest, MunsellColor.getSquaredColorDistance(paletteRGB[i], paletteRGB[j]));
+			}
+			total += Math.sqrt(closest / 3.0);
+		}
+
+		return total / paletteRGB.length;
+	}
+
+	/**
+	 * Writes strips through an ImageWriter, replacing the pixels of an empty
+	 * image strip by strip if the writer can write empty images and replace
+	 * their pixels, and otherwise collecting them into a whole image to write at
+	 * the end.
+	 */
+	private static class WriterSink implements StripSink
+	{
+		private static final ImageTypeSpecifier RGB_TYPE = ImageTypeSpecifier
+				.createFromBufferedImageType(BufferedImage.TYPE_INT_RGB); // The type of the written image.
+
+		private final ImageWriter writer; // Writes the image.
+		private final ImageOutputStream out; // Where the image goes.
+		private final ImageWriteParam param; // Where each strip goes.
+		private int width; // The width of the image.
+		private BufferedImage whole; // The image so far, if the writer cannot replace pixels.
+
+		/**
+		 * Creates a sink for a writer.
+		 *
+		 * @param writer a writer.
+		 * @param out    where the writer should write the image.
+		 */
+		WriterSink(ImageWriter writer, ImageOutputStream out)
+		{
+			this.writer = writer;
+			this.out = out;
+			param = writer.getDefaultWriteParam();
+		}
+
+		@Override
+		public void begin(int width, int height) throws IOException
+		{
+			this.width = width;
+			boolean strips = canReplacePixels();
+			writer.setOutput(out);
+			if (strips)
+			{
+				writer.prepareWriteEmpty(null, RGB_TYPE, width, height, null, null, param);
+				return;
+			}
+
+			whole = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		}
+
+		/**
+		 * Writes a one pixel empty image into memory to ask the writer whether it
+		 * can replace pixels, since a writer can only answer for an image it has
+		 * written.
+		 *
+		 * @return true if the writer can write an empty image and replace its
+		 *         pixels.
+		 * @throws IOException if the writer fails.
+		 */
+		private boolean canReplacePixels() throws IOException
+		{
+			try (ImageOutputStream probe = new MemoryCacheImageOutputStream(new ByteArrayOutputStream()))
+			{
+				writer.setOutput(probe);
+				if (!writer.canWriteEmpty())
+					return false;
+
+				writer.prepareWriteEmpty(null, RGB_TYPE, 1, 1, null, null, param);
+				boolean replace = writer.canReplacePixels(0);
+				writer.endWriteEmpty();
+				return replace;
+			} catch (UnsupportedOperationException | IllegalStateException e)
+			{
+				writer.reset();
+				return false;
+			}
+		}
+
+		@Override
+		public void write(int y, int height, int[] rgb) throws IOException
+		{
+			if (whole != null)
+			{
+				RGBRaster.setRows(whole, y, height, rgb);
+				return;
+			}
+
+			Rectangle region = new Rectangle(0, y, width, height);
+			writer.prepareReplacePixels(0, region);
+			param.setDestinationOffset(new Point(0, y));
+			writer.replacePixels(wrap(rgb, width, height), param);
+			writer.endReplacePixels();
+		}
+
+		@Override
+		public void end() throws IOException
+		{
+			if (whole != null)
+				writer.write(whole);
+			else
+				writer.endWriteEmpty();
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package model;
+
+import util.CIELab;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: The usual color metrics. The RGB metrics are cheap but
+ *          do not match how different colors look; the CIE metrics measure in
+ *          Lab, where equal distances look roughly equally different, and get
+ *          closer to how colors look (and slower) from CIE76 to CIEDE2000.
+ */
+public enum StandardColorMetric implements ColorMetric
+{
+	/**
+	 * The sum of the channel differences, which Palette has always used.
+	 */
+	MANHATTAN
+	{
+		@Override
+		public double distance(int rgb1, int rgb2)
+		{
+			return Math.abs(((rgb1 >> 16) & 0xFF) - ((rgb2 >> 16) & 0xFF))
+					+ Math.abs(((rgb1 >> 8) & 0xFF) - ((rgb2 >> 8) & 0xFF)) + Math.abs((rgb1 & 0xFF) - (rgb2 & 0xFF));
+		}
+	},
+
+	/**
+	 * The straight line distance in RGB, the same as
+	 * MunsellColor.getColorDistance.
+	 */
+	RGB
+	{
+		@Override
+		public double distance(int rgb1, int rgb2)
+		{
+			return MunsellColor.getColorDistance(rgb1, rgb2);
+		}
+	},
+
+	/**
+	 * The CIE 1976 difference, the straight line distance in Lab.
+	 */
+	CIE76
+	{
+		@Override
+		public double labDistance(double[] lab1, int offset1, double[] lab2, int offset2)
+		{
+			return CIELab.deltaE76(lab1[offset1], lab1[offset1 + 1], lab1[offset1 + 2], lab2[offset2],
+					lab2[offset2 + 1], lab2[offset2 + 2]);
+		}
+	},
+
+	/**
+	 * The CIE 1994 difference with graphic arts weights. Not symmetric: the first
+	 * color is the reference.
+	 */
+	CIE94
+	{
+		@Override
+		public double labDistance(double[] lab1, int offset1, double[] lab2, int offset2)
+		{
+			return CIELab.deltaE94(lab1[offset1], lab1[offset1 + 1], lab1[offset1 + 2], lab2[offset2],
+					lab2[offset2 + 1], lab2[offset2 + 2]);
+		}
+	},
+
+	/**
+	 * The CIEDE2000 difference, the closest to how different colors look.
+	 */
+	CIEDE2000
+	{
+		@Override
+		public double labDistance(double[] lab1, int offset1, double[] lab2, int offset2)
+		{
+			return CIELab.deltaE2000(lab1[offset1], lab1[offset1 + 1], lab1[offset1 + 2], lab2[offset2],
+					lab2[offset2 + 1], lab2[offset2 + 2]);
+		}
+	};
+
+	/**
+	 * Measures the difference between two colors. The Lab metrics convert both
+	 * colors first.
+	 *
+	 * @param rgb1 the packed 0xRRGGBB value of the first color.
+	 * @param rgb2 the packed 0xRRGGBB value of the second color.
+	 * @return the difference, 0 if the colors are the same.
+	 */
+	@Override
+	public double distance(int rgb1, int rgb2)
+	{
+		double[] lab = new double[6];
+		CIELab.toLab(rgb1, lab, 0);
+		CIELab.toLab(rgb2, lab, 3);
+		return labDistance(lab, 0, lab, 3);
+	}
+
+	/**
+	 * @return true for the CIE metrics.
+	 */
+	@Override
+	public boolean isLab()
+	{
+		return this != MANHATTAN && this != RGB;
+	}
+}
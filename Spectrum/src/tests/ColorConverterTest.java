@@ -1,16 +1,19 @@
 package tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
 import model.Hue;
 import model.MunsellColor;
 import util.ColorConverter;
+import util.ConversionEngine;
+import util.MunsellGrid;
+import util.RGBSampleIndex;
 
 public class ColorConverterTest
 {
@@ -42,7 +45,10 @@ public class ColorConverterTest
 	@Test
 	void testWithoutSetup()
 	{
-		assertThrows(NullPointerException.class, () -> ColorConverter.fromRGB(Color.red));
+		// The tables load themselves on first use.
+		assertEquals(ColorConverter.fromRGB(Color.red), ColorConverter.fromRGB(new Color(254, 1, 1)));
+		assertEquals(ColorConverter.fromMunsell(new MunsellColor(new Hue("R", 2.5f), 1, 2)), 
+				new Color(45, 21, 31));
 	}
 
 	@Test
@@ -85,4 +91,209 @@ public class ColorConverterTest
 		assertEquals(highestRed.getChroma(), 20);
 	}
 
+	@Test
+	void testDenseTableMatchesNestedMaps()
+	{
+		setup();
+
+		try
+		{
+			// Walk a coarse grid of the RGB cube and compare both lookups.
+			for (int red = 0; red < 256; red += 15)
+			{
+				for (int green = 0; green < 256; green += 15)
+				{
+					for (int blue = 0; blue < 256; blue += 15)
+					{
+						Color color = new Color(red, green, blue);
+
+						ColorConverter.setRGBLookup(ColorConverter.RGBLookup.NESTED_MAPS);
+						MunsellColor expected = ColorConverter.fromRGB(color);
+
+						ColorConverter.setRGBLookup(ColorConverter.RGBLookup.DENSE_TABLE);
+						assertEquals(expected, ColorConverter.fromRGB(color));
+					}
+				}
+			}
+
+			assertEquals(ColorConverter.fromRGB(testColor2), testMunsellColor2);
+		} finally
+		{
+			ColorConverter.setRGBLookup(ColorConverter.RGBLookup.NESTED_MAPS);
+		}
+	}
+
+	@Test
+	void testNearestFindsClosestSample()
+	{
+		setup();
+
+		RGBSampleIndex samples = ColorConverter.getRGBSampleIndex();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 2000; i++)
+		{
+			int rgb = random.nextInt(1 << 24);
+
+			// Find the closest distance by brute force.
+			int closestDist = Integer.MAX_VALUE;
+			for (int j = 0; j < samples.getSampleCount(); j++)
+			{
+				int sample = samples.getSampleRGB(j);
+				int dr = ((rgb >> 16) & 0xFF) - ((sample >> 16) & 0xFF);
+				int dg = ((rgb >> 8) & 0xFF) - ((sample >> 8) & 0xFF);
+				int db = (rgb & 0xFF) - (sample & 0xFF);
+				int dist = dr * dr + dg * dg + db * db;
+				closestDist = Math.min(closestDist, dist);
+			}
+
+			int found = samples.getSampleRGB(samples.nearestIndex(rgb));
+			int dr = ((rgb >> 16) & 0xFF) - ((found >> 16) & 0xFF);
+			int dg = ((rgb >> 8) & 0xFF) - ((found >> 8) & 0xFF);
+			int db = (rgb & 0xFF) - (found & 0xFF);
+			assertEquals(closestDist, dr * dr + dg * dg + db * db);
+		}
+
+		// Colors that are samples themselves are found exactly.
+		try
+		{
+			ColorConverter.setRGBLookup(ColorConverter.RGBLookup.NEAREST);
+			assertEquals(ColorConverter.fromRGB(testColor2), testMunsellColor2);
+		} finally
+		{
+			ColorConverter.setRGBLookup(ColorConverter.RGBLookup.NESTED_MAPS);
+		}
+	}
+
+	@Test
+	void testInterpolatedMunsellLookup()
+	{
+		setup();
+
+		MunsellGrid grid = ColorConverter.getMunsellGrid();
+
+		// Chips in the CSV come back unchanged.
+		assertEquals(testColor.getRGB() & 0xFFFFFF, grid.toRGB(2.5f, 1, 2));
+
+		// A hue halfway between 2.5R and 5R lands halfway between their chips.
+		Color low = ColorConverter.fromMunsell(new MunsellColor(new Hue("R", 2.5f), 5, 10));
+		Color high = ColorConverter.fromMunsell(new MunsellColor(new Hue("R", 5f), 5, 10));
+		int between = grid.toRGB(3.75f, 5, 10);
+		assertEquals((low.getRed() + high.getRed()) / 2f, (between >> 16) & 0xFF, 1f);
+		assertEquals((low.getGreen() + high.getGreen()) / 2f, (between >> 8) & 0xFF, 1f);
+		assertEquals((low.getBlue() + high.getBlue()) / 2f, between & 0xFF, 1f);
+
+		// The hue circle wraps from 10RP back to 2.5R.
+		assertEquals(grid.toRGB(100, 5, 6), grid.toRGB(0, 5, 6));
+
+		// The batch conversion agrees with single conversions.
+		float[] hues = { 3.75f, 51.2f, 99f };
+		float[] values = { 5, 2.5f, 8.9f };
+		float[] chromas = { 10, 3, 5.5f };
+		int[] out = new int[3];
+		grid.toRGB(hues, values, chromas, 0, 3, out);
+		for (int i = 0; i < 3; i++)
+			assertEquals(grid.toRGB(hues[i], values[i], chromas[i]), out[i]);
+
+		try
+		{
+			ColorConverter.setMunsellLookup(ColorConverter.MunsellLookup.INTERPOLATED);
+			assertEquals(ColorConverter.fromMunsell(testMunsellColor), testColor);
+			assertEquals(new Color(between), ColorConverter.fromMunsell(
+					new MunsellColor(new Hue("R", 3.75f), 5, 10)));
+		} finally
+		{
+			ColorConverter.setMunsellLookup(ColorConverter.MunsellLookup.NEAREST_CHIP);
+		}
+	}
+
+	@Test
+	void testBatchFromRGB()
+	{
+		setup();
+
+		Random random = new Random(3);
+		int[] rgb = new int[1000];
+		for (int i = 0; i < rgb.length; i++)
+			rgb[i] = random.nextInt();
+
+		int[] indices = new int[rgb.length];
+		float[] hues = new float[rgb.length];
+		float[] values = new float[rgb.length];
+		float[] chromas = new float[rgb.length];
+		RGBSampleIndex samples = ColorConverter.getRGBSampleIndex();
+
+		try
+		{
+			for (ColorConverter.RGBLookup lookup : ColorConverter.RGBLookup.values())
+			{
+				ColorConverter.setRGBLookup(lookup);
+				ColorConverter.fromRGB(rgb, 10, rgb.length - 10, indices);
+				ColorConverter.fromRGB(rgb, 10, rgb.length - 10, hues, values, chromas);
+
+				// Entries before the offset are left alone.
+				assertEquals(0, indices[9]);
+
+				for (int i = 10; i < rgb.length; i++)
+				{
+					MunsellColor expected = ColorConverter.fromRGB(new Color(rgb[i]));
+					assertEquals(expected, samples.getSample(indices[i]));
+					assertEquals(expected.getHue().getHueTotalValue(), hues[i]);
+					assertEquals(expected.getValue(), values[i]);
+					assertEquals(expected.getChroma(), chromas[i]);
+				}
+			}
+		} finally
+		{
+			ColorConverter.setRGBLookup(ColorConverter.RGBLookup.NESTED_MAPS);
+		}
+	}
+
+	/**
+	 * Tests that the parallel engine gives the same results as the sequential
+	 * batch conversion, for a range large enough to be split into many tasks.
+	 */
+	@Test
+	void testConversionEngine()
+	{
+		setup();
+
+		Random random = new Random(5);
+		int length = ConversionEngine.MIN_CHUNK * 5 + 123;
+		int[] rgb = new int[length];
+		for (int i = 0; i < length; i++)
+			rgb[i] = random.nextInt();
+
+		int[] expected = new int[length];
+		float[] expectedValues = new float[length];
+		float[] unused = new float[length];
+		ColorConverter.fromRGB(rgb, 1, length - 1, expected);
+		ColorConverter.fromRGB(rgb, 1, length - 1, unused, expectedValues, unused);
+		long[] expectedPacked = new long[length];
+		ColorConverter.fromRGB(rgb, 1, length - 1, expectedPacked);
+
+		for (int parallelism : new int[] { 1, 3, 4 })
+		{
+			try (ConversionEngine engine = new ConversionEngine(parallelism))
+			{
+				int[] indices = new int[length];
+				float[] hues = new float[length];
+				float[] values = new float[length];
+				float[] chromas = new float[length];
+				long[] packed = new long[length];
+				engine.fromRGB(rgb, 1, length - 1, packed);
+				engine.fromRGB(rgb, 1, length - 1, indices);
+				engine.fromRGB(rgb, 1, length - 1, hues, values, chromas);
+
+				assertEquals(parallelism, engine.getParallelism());
+				for (int i = 0; i < length; i++)
+				{
+					assertEquals(expected[i], indices[i]);
+					assertEquals(expectedValues[i], values[i]);
+					assertEquals(expectedPacked[i], packed[i]);
+				}
+			}
+		}
+	}
+
 }
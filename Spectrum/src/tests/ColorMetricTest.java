@@ -0,0 +1,172 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Hue;
+import model.MixingSolver;
+import model.MunsellColor;
+import model.Palette;
+import model.StandardColorMetric;
+import util.CIELab;
+
+/**
+ * Test cases for the color metrics and the CIELab conversion.
+ *
+ * @author David An
+ * @version Oct 17, 2026
+ */
+class ColorMetricTest
+{
+	/**
+	 * Tests the Lab of the sRGB primaries and neutrals.
+	 */
+	@Test
+	void testToLab()
+	{
+		double[] lab = new double[3];
+
+		CIELab.toLab(0xFFFFFF, lab, 0);
+		assertEquals(100, lab[0], 0.01);
+		assertEquals(0, lab[1], 0.01);
+		assertEquals(0, lab[2], 0.01);
+
+		CIELab.toLab(0x000000, lab, 0);
+		assertEquals(0, lab[0], 1e-9);
+
+		CIELab.toLab(0xFF0000, lab, 0);
+		assertEquals(53.24, lab[0], 0.01);
+		assertEquals(80.09, lab[1], 0.01);
+		assertEquals(67.20, lab[2], 0.01);
+
+		// Alpha is ignored.
+		double[] opaque = new double[3];
+		CIELab.toLab(0xFF336699, opaque, 0);
+		CIELab.toLab(0x336699, lab, 0);
+		assertEquals(lab[0], opaque[0]);
+	}
+
+	/**
+	 * Tests that colors taken to Lab and back are the colors they started as,
+	 * and that colors outside the gamut are clamped.
+	 */
+	@Test
+	void testFromLab()
+	{
+		double[] lab = new double[3];
+		for (int rgb = 0; rgb < 1 << 24; rgb += 7)
+		{
+			CIELab.toLab(rgb, lab, 0);
+			assertEquals(rgb, CIELab.fromLab(lab, 0));
+		}
+
+		assertEquals(0xFFFFFF, CIELab.fromLab(new double[] { 120, 0, 0 }, 0));
+		assertEquals(0x000000, CIELab.fromLab(new double[] { -5, 0, 0 }, 0));
+		assertEquals(0xFF, CIELab.fromLab(new double[] { 50, 0, -300 }, 0) & 0xFF);
+	}
+
+	/**
+	 * Tests CIEDE2000 against pairs from Sharma, Wu and Dalal's test data.
+	 */
+	@Test
+	void testDeltaE2000()
+	{
+		assertEquals(2.0425, CIELab.deltaE2000(50, 2.6772, -79.7751, 50, 0, -82.7485), 1e-4);
+		assertEquals(2.3669, CIELab.deltaE2000(50, 0, 0, 50, -1, 2), 1e-4);
+		assertEquals(27.1492, CIELab.deltaE2000(50, 2.5, 0, 73, 25, -18), 1e-4);
+		assertEquals(31.9030, CIELab.deltaE2000(50, 2.5, 0, 56, -27, -3), 1e-4);
+
+		// Symmetric, unlike CIE94.
+		assertEquals(CIELab.deltaE2000(60, 10, -20, 40, -5, 30), CIELab.deltaE2000(40, -5, 30, 60, 10, -20), 1e-9);
+	}
+
+	/**
+	 * Tests that every metric agrees with itself through both of its methods,
+	 * including the RGB metrics, which measure Lab colors by converting them
+	 * back.
+	 */
+	@Test
+	void testMetrics()
+	{
+		Random random = new Random(3);
+		double[] lab = new double[6];
+		for (StandardColorMetric metric : StandardColorMetric.values())
+		{
+			for (int i = 0; i < 100; i++)
+			{
+				int rgb1 = random.nextInt(1 << 24);
+				int rgb2 = random.nextInt(1 << 24);
+
+				assertEquals(0, metric.distance(rgb1, rgb1), 1e-9);
+				assertTrue(metric.distance(rgb1, rgb2) >= 0);
+
+				CIELab.toLab(rgb1, lab, 0);
+				CIELab.toLab(rgb2, lab, 3);
+				assertEquals(metric.distance(rgb1, rgb2), metric.labDistance(lab, 0, lab, 3));
+			}
+		}
+
+		assertEquals(30, StandardColorMetric.MANHATTAN.distance(0x102030, 0x1A2A3A));
+		assertEquals(Math.sqrt(300), StandardColorMetric.RGB.distance(0x102030, 0x1A2A3A), 1e-9);
+	}
+
+	/**
+	 * Tests finding the closest palette color by a metric.
+	 */
+	@Test
+	void testGetClosestColor()
+	{
+		Palette palette = new Palette();
+		MunsellColor red = new MunsellColor(new Hue("R", 5f), 5f, 10f);
+		MunsellColor blue = new MunsellColor(new Hue("PB", 5f), 4f, 10f);
+		palette.addColor(red);
+		palette.addColor(blue);
+
+		for (StandardColorMetric metric : StandardColorMetric.values())
+		{
+			assertSame(red, palette.getClosestColor(red, metric));
+			assertSame(blue, palette.getClosestColor(blue, metric));
+		}
+
+		assertEquals(null, new Palette().getClosestColor(red, StandardColorMetric.CIEDE2000));
+	}
+
+	/**
+	 * Tests that refining the solver's weights for a metric never makes the mix
+	 * further by that metric.
+	 */
+	@Test
+	void testSolverMetric()
+	{
+		Random random = new Random(5);
+		for (int trial = 0; trial < 20; trial++)
+		{
+			int[] colorRGB = new int[5];
+			for (int i = 0; i < colorRGB.length; i++)
+				colorRGB[i] = random.nextInt(1 << 24);
+			int wanted = random.nextInt(1 << 24);
+
+			double[] plain = new double[colorRGB.length];
+			double[] refined = new double[colorRGB.length];
+			MixingSolver.solve(colorRGB, wanted, plain);
+			MixingSolver.solve(colorRGB, wanted, refined, StandardColorMetric.CIEDE2000);
+
+			double total = 0;
+			for (double weight : refined)
+			{
+				assertTrue(weight >= 0);
+				total += weight;
+			}
+			assertEquals(1, total, 1e-9);
+
+			StandardColorMetric metric = StandardColorMetric.CIEDE2000;
+			assertTrue(metric.distance(wanted, MunsellColor.mixRGB(colorRGB, refined)) <= metric.distance(wanted,
+					MunsellColor.mixRGB(colorRGB, plain)));
+		}
+	}
+}
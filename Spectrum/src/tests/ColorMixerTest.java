@@ -0,0 +1,103 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.AverageColorMixer;
+import model.ColorMixer;
+import model.KubelkaMunkMixer;
+import model.MixingSolver;
+import model.MunsellColor;
+import model.StandardColorMetric;
+import util.CIELab;
+
+/**
+ * Test cases for the color mixers.
+ *
+ * @author David An
+ * @version Oct 17, 2026
+ */
+class ColorMixerTest
+{
+	/**
+	 * Tests that the average mixer is mixRGB.
+	 */
+	@Test
+	void testAverageColorMixer()
+	{
+		Random random = new Random(3);
+		int[] colorRGB = new int[6];
+		for (int i = 0; i < colorRGB.length; i++)
+			colorRGB[i] = random.nextInt(1 << 24);
+
+		ColorMixer mixer = new AverageColorMixer(colorRGB);
+		for (int trial = 0; trial < 100; trial++)
+		{
+			double[] weights = new double[colorRGB.length];
+			for (int i = 0; i < weights.length; i++)
+				weights[i] = random.nextInt(5);
+
+			assertEquals(MunsellColor.mixRGB(colorRGB, weights), mixer.mix(weights));
+		}
+	}
+
+	/**
+	 * Tests the Kubelka-Munk mixer on single colors and on mixes that behave
+	 * differently from averaging.
+	 */
+	@Test
+	void testKubelkaMunkMixer()
+	{
+		// A color on its own comes back within a few levels of itself.
+		Random random = new Random(5);
+		for (int trial = 0; trial < 1000; trial++)
+		{
+			int color = random.nextInt(1 << 24);
+			int mixed = new KubelkaMunkMixer(new int[] { color }).mix(new double[] { 2 });
+			for (int shift = 0; shift <= 16; shift += 8)
+				assertTrue(Math.abs(((color >> shift) & 0xFF) - ((mixed >> shift) & 0xFF)) <= 3);
+		}
+
+		// Blue and yellow paint make green.
+		KubelkaMunkMixer mixer = new KubelkaMunkMixer(new int[] { 0x0000FF, 0xFFFF00 });
+		int green = mixer.mix(new double[] { 1, 1 });
+		assertTrue(((green >> 8) & 0xFF) > ((green >> 16) & 0xFF) + 50);
+		assertTrue(((green >> 8) & 0xFF) > (green & 0xFF));
+
+		// A little black darkens white much more than averaging does.
+		mixer = new KubelkaMunkMixer(new int[] { 0xFFFFFF, 0x000000 });
+		int gray = mixer.mix(new double[] { 9, 1 });
+		assertTrue((gray & 0xFF) < 0xE5 / 2);
+
+		assertEquals(MunsellColor.NO_MIX, mixer.mix(new double[] { 0, 0 }));
+		assertEquals(MunsellColor.NO_MIX, mixer.mix(new double[] { 1, -1 }));
+
+		// fromLinear undoes toLinear exactly.
+		for (int channel = 0; channel < 256; channel++)
+			assertEquals(channel, CIELab.fromLinear(CIELab.toLinear(channel)));
+	}
+
+	/**
+	 * Tests that the solver refines its weights for the mixer it is given.
+	 */
+	@Test
+	void testSolverMixer()
+	{
+		int[] colorRGB = { 0x0000FF, 0xFFFF00, 0xFFFFFF, 0xC00000 };
+		KubelkaMunkMixer mixer = new KubelkaMunkMixer(colorRGB);
+		int wanted = mixer.mix(new double[] { 1, 2, 1, 0 });
+
+		double[] averaged = new double[colorRGB.length];
+		double[] painted = new double[colorRGB.length];
+		MixingSolver.solve(colorRGB, wanted, averaged);
+		MixingSolver.solve(mixer, wanted, painted, StandardColorMetric.RGB);
+
+		StandardColorMetric metric = StandardColorMetric.RGB;
+		assertTrue(metric.distance(wanted, mixer.mix(painted)) <= metric.distance(wanted, mixer.mix(averaged)));
+		assertTrue(metric.distance(wanted, mixer.mix(painted)) < 10);
+	}
+}
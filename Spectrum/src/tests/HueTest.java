@@ -2,14 +2,23 @@ package tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
 import model.Hue;
+import model.HueParser;
+import model.HuePrefix;
+import model.MunsellColor;
 
 /**
  * Test cases for Hue class.
@@ -115,4 +124,57 @@ class HueTest
 
 	}
 
+	@Test
+	void testSharedHues()
+	{
+		// Hues on the hundredths grid are shared.
+		assertSame(Hue.of("PB", 7.5f), Hue.of(HuePrefix.PB, 7.5f));
+		assertSame(Hue.of(HuePrefix.G, 1.36f), Hue.parse("1.36G"));
+		assertSame(Hue.of(HuePrefix.YR, 2.5f), Hue.of(12.5f));
+		assertSame(Hue.NEUTRAL, MunsellColor.n(4).getHue());
+		assertEquals(hue2, Hue.of(12.5f));
+
+		// Other hues are created, but still equal.
+		Hue offGrid = Hue.of(HuePrefix.R, 1.234f);
+		assertNotSame(offGrid, Hue.of(HuePrefix.R, 1.234f));
+		assertEquals(offGrid, Hue.of(HuePrefix.R, 1.234f));
+
+		assertEquals(HuePrefix.PB, Hue.of("PB", 5).getPrefix());
+		assertEquals(huePrefixes.indexOf("PB"), HuePrefix.PB.ordinal());
+		assertNull(HuePrefix.fromString("Q"));
+		assertThrows(IllegalArgumentException.class, () -> Hue.of("Q", 5));
+		assertThrows(IllegalArgumentException.class, () -> new Hue("5Q"));
+		assertThrows(NullPointerException.class, () -> Hue.of((String) null, 5));
+	}
+
+	@Test
+	void testHueParser()
+	{
+		String text = "x,1.36G,y";
+		assertSame(Hue.of(HuePrefix.G, 1.36f), HueParser.parse(text, 2, 7));
+		assertSame(Hue.of(HuePrefix.G, 1.36f), HueParser.parse(text.getBytes(), 2, 7));
+
+		long packed = HueParser.parsePacked("10RP", 0, 4);
+		assertEquals(HuePrefix.RP, HueParser.prefixOf(packed));
+		assertEquals(10f, HueParser.numberOf(packed));
+
+		// The hue numbers match Float.parseFloat.
+		Random random = new Random(2);
+		for (int i = 0; i < 10000; i++)
+		{
+			String number = String.format(Locale.ROOT, "%." + random.nextInt(6) + "f", random.nextFloat() * 10);
+			String name = number + "YR";
+			assertEquals(Float.parseFloat(number), HueParser.numberOf(HueParser.parsePacked(name, 0, name.length())));
+			assertEquals(Float.parseFloat(number), HueParser.parseDecimal(name.getBytes(), 0, number.length()));
+		}
+		assertEquals(Float.parseFloat(".5"), HueParser.parseDecimal(".5", 0, 2));
+		assertEquals(Float.parseFloat("0.000000000001"), HueParser.parseDecimal("0.000000000001", 0, 14));
+
+		assertEquals(HueParser.INVALID, HueParser.parsePacked("G", 0, 1));
+		assertEquals(HueParser.INVALID, HueParser.parsePacked("1.2.3G", 0, 6));
+		assertEquals(HueParser.INVALID, HueParser.parsePacked("11G", 0, 3));
+		assertEquals(HueParser.INVALID, HueParser.parsePacked("5Gx", 0, 3));
+		assertThrows(IllegalArgumentException.class, () -> HueParser.parse("5", 0, 1));
+	}
+
 }
@@ -8,11 +8,23 @@ import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
 import model.Hue;
+import model.KubelkaMunkMixer;
+import model.LatticeMixingSearch;
+import model.MixingResult;
+import model.MixingSearchTask;
+import model.MixingSolver;
 import model.MunsellColor;
+import model.MunsellColor.MixingModel;
+import model.MunsellColor.MixingSearch;
 import util.ColorConverter;
 
 /**
@@ -226,6 +238,73 @@ class MunsellColorTest
 
 	}
 
+	/**
+	 * Tests that mixing packed colors gives the same color as mixing Colors,
+	 * including mixes with zero weights and mixes that cannot be made.
+	 */
+	@Test
+	void testMixRGBPacked()
+	{
+		Random random = new Random(11);
+		for (int trial = 0; trial < 1000; trial++)
+		{
+			int count = 1 + random.nextInt(6);
+			int[] packed = new int[count];
+			double[] weights = new double[count];
+			List<Color> colors = new ArrayList<>();
+			List<Double> weightList = new ArrayList<>();
+			for (int i = 0; i < count; i++)
+			{
+				// Alpha bits are ignored.
+				packed[i] = random.nextInt();
+				weights[i] = random.nextInt(4) == 0 ? 0 : random.nextDouble() * 5;
+				colors.add(new Color(packed[i] & 0xFFFFFF));
+				weightList.add(weights[i]);
+			}
+
+			Color expected = MunsellColor.mixRGB(colors, weightList);
+			int actual = MunsellColor.mixRGB(packed, weights);
+			if (expected == null)
+				assertEquals(MunsellColor.NO_MIX, actual);
+			else
+				assertEquals(expected.getRGB() & 0xFFFFFF, actual);
+		}
+
+		int[] packed = { 0x102030, 0xF0E0D0 };
+		assertEquals(MunsellColor.NO_MIX, MunsellColor.mixRGB(packed, new double[] { 0, 0 }));
+		assertEquals(MunsellColor.NO_MIX, MunsellColor.mixRGB(packed, new double[] { 1, -0.5 }));
+		assertEquals(0xF0E0D0, MunsellColor.mixRGB(packed, new double[] { 0, 3 }));
+		assertEquals(0x808080, MunsellColor.mixRGB(packed, new double[] { 1, 1 }));
+	}
+
+	/**
+	 * Tests the squared distance between packed colors against the distance
+	 * worked out from the components of Colors.
+	 */
+	@Test
+	void testGetSquaredColorDistance()
+	{
+		Random random = new Random(13);
+		for (int trial = 0; trial < 1000; trial++)
+		{
+			int rgb1 = random.nextInt();
+			int rgb2 = random.nextInt();
+			Color color1 = new Color(rgb1 & 0xFFFFFF);
+			Color color2 = new Color(rgb2 & 0xFFFFFF);
+
+			int red = color1.getRed() - color2.getRed();
+			int green = color1.getGreen() - color2.getGreen();
+			int blue = color1.getBlue() - color2.getBlue();
+			int expected = red * red + green * green + blue * blue;
+
+			assertEquals(expected, MunsellColor.getSquaredColorDistance(rgb1, rgb2));
+			assertEquals(Math.sqrt(expected), MunsellColor.getColorDistance(color1, color2), 1e-9);
+		}
+
+		assertEquals(0, MunsellColor.getSquaredColorDistance(0xFF123456, 0x123456));
+		assertEquals(3 * 255 * 255, MunsellColor.getSquaredColorDistance(0x000000, 0xFFFFFF));
+	}
+
 	@Test
 	void testGetMixingWeights()
 	{
@@ -233,8 +312,235 @@ class MunsellColorTest
 		MunsellColor wanted = new MunsellColor(new Hue("BG", 9.79f), 5f, 6f);
 		colorList.add(new MunsellColor(new Hue("G", 7.5f), 5f, 16f));
 		colorList.add(new MunsellColor(new Hue("B", 7.5f), 4f, 14f));
-		assertEquals(Arrays.asList(2d, 2d).toString(), MunsellColor.getMixingWeights(colorList, wanted).toString());
+		assertEquals(Arrays.asList(2d, 2d).toString(),
+				MunsellColor.getMixingWeights(colorList, wanted, MixingSearch.BRUTE_FORCE).toString());
+
+	}
+
+	@Test
+	void testMixingSolver()
+	{
+		ArrayList<MunsellColor> colorList = new ArrayList<>();
+		MunsellColor wanted = new MunsellColor(new Hue("BG", 9.79f), 5f, 6f);
+		colorList.add(new MunsellColor(new Hue("G", 7.5f), 5f, 16f));
+		colorList.add(new MunsellColor(new Hue("B", 7.5f), 4f, 14f));
+		colorList.add(new MunsellColor(new Hue("R", 5f), 5f, 10f));
+
+		// The solver does at least as well as the brute force search.
+		List<Double> solved = MunsellColor.getMixingWeights(colorList, wanted);
+		List<Double> reference = MunsellColor.getMixingWeights(colorList, wanted, MixingSearch.BRUTE_FORCE);
+		List<Color> rgbColors = new ArrayList<>();
+		for (MunsellColor color : colorList)
+			rgbColors.add(color.toColor());
+
+		double solvedDistance = MunsellColor.getColorDistance(wanted.toColor(), MunsellColor.mixRGB(rgbColors, solved));
+		double referenceDistance = MunsellColor.getColorDistance(wanted.toColor(),
+				MunsellColor.mixRGB(rgbColors, reference));
+		assertTrue(solvedDistance <= referenceDistance + 1);
+
+		double total = 0;
+		for (double weight : solved)
+		{
+			assertTrue(weight >= 0);
+			total += weight;
+		}
+		assertEquals(1, total, 1e-9);
+
+		// A mix of palette colors is found again, even with a large palette.
+		Random random = new Random(4);
+		rgbColors.clear();
+		for (int i = 0; i < 18; i++)
+			rgbColors.add(new Color(random.nextInt(1 << 24)));
+
+		int[] colorRGB = new int[rgbColors.size()];
+		for (int i = 0; i < colorRGB.length; i++)
+			colorRGB[i] = rgbColors.get(i).getRGB();
+
+		Color target = MunsellColor.mixRGB(rgbColors.subList(0, 3), Arrays.asList(1.0, 2.0, 3.0));
+		double[] weights = new double[colorRGB.length];
+		MixingSolver.solve(colorRGB, target.getRGB(), weights);
+
+		List<Double> weightList = new ArrayList<>();
+		for (double weight : weights)
+			weightList.add(weight);
+		assertTrue(MunsellColor.getColorDistance(target, MunsellColor.mixRGB(rgbColors, weightList)) < 2);
+
+		assertEquals(null, MunsellColor.getMixingWeights(new ArrayList<>(), wanted));
+	}
+
+	@Test
+	void testLatticeMixingSearch()
+	{
+		// Matches trying every mix of the lattice.
+		Random random = new Random(11);
+		for (int trial = 0; trial < 20; trial++)
+		{
+			int[] colorRGB = new int[4];
+			for (int i = 0; i < colorRGB.length; i++)
+				colorRGB[i] = random.nextInt(1 << 24);
+			int wanted = random.nextInt(1 << 24);
+
+			double[] weights = new double[colorRGB.length];
+			LatticeMixingSearch.solve(colorRGB, wanted, 10, weights);
+
+			int bestDistance = Integer.MAX_VALUE;
+			for (int a = 0; a <= 10; a++)
+			{
+				for (int b = 0; a + b <= 10; b++)
+				{
+					for (int c = 0; a + b + c <= 10; c++)
+						bestDistance = Math.min(bestDistance,
+								latticeDistance(colorRGB, new int[] { a, b, c, 10 - a - b - c }, 10, wanted));
+				}
+			}
+
+			int[] found = new int[colorRGB.length];
+			int total = 0;
+			for (int i = 0; i < found.length; i++)
+			{
+				found[i] = (int) Math.round(weights[i] * 10);
+				total += found[i];
+			}
+			assertEquals(10, total);
+			assertEquals(bestDistance, latticeDistance(colorRGB, found, 10, wanted));
+		}
+
+		// The result does not depend on the number of workers.
+		int[] colorRGB = new int[10];
+		for (int i = 0; i < colorRGB.length; i++)
+			colorRGB[i] = random.nextInt(1 << 24);
+		int wanted = random.nextInt(1 << 24);
+
+		double[] single = new double[colorRGB.length];
+		double[] parallel = new double[colorRGB.length];
+		ForkJoinPool one = new ForkJoinPool(1);
+		ForkJoinPool four = new ForkJoinPool(4);
+		LatticeMixingSearch.solve(one, colorRGB, wanted, 12, single);
+		LatticeMixingSearch.solve(four, colorRGB, wanted, 12, parallel);
+		one.shutdown();
+		four.shutdown();
+		assertEquals(Arrays.toString(single), Arrays.toString(parallel));
+
+		ArrayList<MunsellColor> colorList = new ArrayList<>();
+		colorList.add(new MunsellColor(new Hue("G", 7.5f), 5f, 16f));
+		colorList.add(new MunsellColor(new Hue("R", 5f), 5f, 10f));
+		List<Double> mixed = MunsellColor.getMixingWeights(colorList, colorList.get(1), MixingSearch.BRANCH_AND_BOUND);
+		assertEquals("[0.0, 1.0]", mixed.toString());
+	}
+
+	/**
+	 * @param colorRGB   the packed RGB value of each color.
+	 * @param mix        the whole number weight of each color.
+	 * @param resolution the sum of the weights.
+	 * @param wanted     the packed RGB value of the wanted color.
+	 * @return the squared distance of the mix from the wanted color.
+	 */
+	private static int latticeDistance(int[] colorRGB, int[] mix, int resolution, int wanted)
+	{
+		int distance = 0;
+		for (int shift = 0; shift <= 16; shift += 8)
+		{
+			int sum = 0;
+			for (int i = 0; i < colorRGB.length; i++)
+				sum += ((colorRGB[i] >> shift) & 0xFF) * mix[i];
+
+			int difference = sum / resolution - ((wanted >> shift) & 0xFF);
+			distance += difference * difference;
+		}
+
+		return distance;
+	}
+
+	@Test
+	void testMixingSearchTask() throws Exception
+	{
+		ArrayList<MunsellColor> colorList = new ArrayList<>();
+		MunsellColor wanted = new MunsellColor(new Hue("BG", 9.79f), 5f, 6f);
+		colorList.add(new MunsellColor(new Hue("G", 7.5f), 5f, 16f));
+		colorList.add(new MunsellColor(new Hue("B", 7.5f), 4f, 14f));
+		colorList.add(new MunsellColor(new Hue("R", 5f), 5f, 10f));
+
+		// Results stream in getting closer, and the last one matches the solver.
+		List<MixingResult> results = new CopyOnWriteArrayList<>();
+		MixingSearchTask task = MixingSearchTask.start(colorList, wanted, MixingSearch.SOLVER,
+				MixingSearchTask.UNLIMITED, MixingSearchTask.UNLIMITED, results::add);
+		MixingResult last = task.getResult().get(10, TimeUnit.SECONDS);
+
+		assertTrue(last.isLast());
+		assertTrue(last.isComplete());
+		assertEquals(last, results.get(results.size() - 1));
+		for (int i = 1; i < results.size() - 1; i++)
+			assertTrue(results.get(i).getDistance() < results.get(i - 1).getDistance());
+		assertEquals(MunsellColor.getMixingWeights(colorList, wanted).toString(), last.getWeightList().toString());
+
+		// An iteration budget stops the search early with the best mix so far.
+		task = MixingSearchTask.start(colorList, wanted, MixingSearch.BRUTE_FORCE, MixingSearchTask.UNLIMITED, 20,
+				null);
+		last = task.getResult().get(10, TimeUnit.SECONDS);
+		assertFalse(last.isComplete());
+		assertTrue(last.getIteration() <= 20);
+
+		// So does cancelling it.
+		ArrayList<MunsellColor> bigList = new ArrayList<>();
+		for (int i = 0; i < 12; i++)
+			bigList.add(new MunsellColor(new Hue("R", 5f), i % 9 + 1, 2f));
+		task = MixingSearchTask.start(bigList, wanted, MixingSearch.BRUTE_FORCE, MixingSearchTask.UNLIMITED,
+				MixingSearchTask.UNLIMITED, null);
+		task.cancel();
+		last = task.getResult().get(10, TimeUnit.SECONDS);
+		assertTrue(task.isCancelled());
+		assertTrue(last == null || !last.isComplete());
+	}
+
+	@Test
+	void testMixingModel() throws Exception
+	{
+		ArrayList<MunsellColor> colorList = new ArrayList<>();
+		colorList.add(MunsellColor.fromRGB(new Color(0x1030C0)));
+		colorList.add(MunsellColor.fromRGB(new Color(0xF0E020)));
+		colorList.add(MunsellColor.fromRGB(new Color(0xFFFFFF)));
+
+		int[] colorRGB = new int[colorList.size()];
+		for (int i = 0; i < colorRGB.length; i++)
+			colorRGB[i] = colorList.get(i).toColor().getRGB();
+		KubelkaMunkMixer paint = new KubelkaMunkMixer(colorRGB);
+
+		// Aim for a paint mix of blue and yellow, which averaging cannot reach.
+		MunsellColor wanted = MunsellColor.fromRGB(new Color(paint.mix(new double[] { 1, 1, 0 })));
+		int rgbWanted = wanted.toColor().getRGB();
+
+		List<Double> averaged = MunsellColor.getMixingWeights(colorList, wanted, MixingSearch.SOLVER,
+				MixingModel.AVERAGE);
+		List<Double> painted = MunsellColor.getMixingWeights(colorList, wanted, MixingSearch.SOLVER,
+				MixingModel.KUBELKA_MUNK);
+		assertEquals(MunsellColor.getMixingWeights(colorList, wanted).toString(), averaged.toString());
+
+		double averagedDistance = MunsellColor.getColorDistance(rgbWanted, paint.mix(toArray(averaged)));
+		double paintedDistance = MunsellColor.getColorDistance(rgbWanted, paint.mix(toArray(painted)));
+		assertTrue(paintedDistance < averagedDistance);
+		assertEquals(1, painted.stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+		assertEquals(MunsellColor.fromRGB(new Color(paint.mix(toArray(painted)))).toString(),
+				MunsellColor.mix(colorList, painted, MixingModel.KUBELKA_MUNK).toString());
+
+		// The background search measures and refines with the same mixer.
+		MixingResult last = MixingSearchTask.start(colorList, wanted, MixingSearch.SOLVER, MixingModel.KUBELKA_MUNK,
+				MixingSearchTask.UNLIMITED, MixingSearchTask.UNLIMITED, null).getResult().get(10, TimeUnit.SECONDS);
+		assertTrue(last.isComplete());
+		assertEquals(painted.toString(), last.getWeightList().toString());
+		assertEquals(paintedDistance, last.getDistance(), 1e-9);
+	}
+
+	/**
+	 * @param weights a list of weights.
+	 * @return the weights as an array.
+	 */
+	private static double[] toArray(List<Double> weights)
+	{
+		double[] result = new double[weights.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = weights.get(i);
 
+		return result;
 	}
 
 	@Test
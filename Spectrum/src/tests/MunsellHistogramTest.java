@@ -0,0 +1,141 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import model.Hue;
+import model.HuePrefix;
+import model.MunsellHistogram;
+import util.ColorConverter;
+import util.RGBRaster;
+
+/**
+ * Test cases for the Munsell histogram.
+ *
+ * @author David An
+ * @version Oct 17, 2026
+ */
+class MunsellHistogramTest
+{
+	/**
+	 * Tests the counts of pixels that are exactly Munsell samples, whose
+	 * notation gives their buckets: 7.78R 4.35/15.09, 7.1PB 3.15/19.21, 0.8G
+	 * 5.46/10.7 and the near gray 7.82GY 5.56/0.66, which is counted in its
+	 * hue's family.
+	 */
+	@Test
+	void testAdd()
+	{
+		ColorConverter.buildCSVMaps();
+		int[] rgb = new int[10000];
+		Arrays.fill(rgb, 0, 4000, 0xCC2222);
+		Arrays.fill(rgb, 4000, 7000, 0x2233CC);
+		Arrays.fill(rgb, 7000, 9000, 0x229944);
+		Arrays.fill(rgb, 9000, 10000, 0x888888);
+
+		// Counted in uneven runs, which the histogram splits into its own chunks.
+		MunsellHistogram histogram = new MunsellHistogram();
+		histogram.add(rgb, 0, 5000);
+		histogram.add(rgb, 5000, rgb.length - 5000);
+
+		assertEquals(rgb.length, histogram.getTotal());
+		assertEquals(4000, histogram.getCount(HuePrefix.R.ordinal(), 4, 7));
+		assertEquals(3000, histogram.getCount(HuePrefix.PB.ordinal(), 3, 9));
+		assertEquals(2000, histogram.getCount(HuePrefix.G.ordinal(), 5, 5));
+		assertEquals(1000, histogram.getCount(HuePrefix.GY.ordinal(), 6, 0));
+		assertEquals(0, histogram.getCount(HuePrefix.N.ordinal(), 6, 0));
+
+		long[] families = new long[MunsellHistogram.FAMILIES];
+		families[HuePrefix.R.ordinal()] = 4000;
+		families[HuePrefix.PB.ordinal()] = 3000;
+		families[HuePrefix.G.ordinal()] = 2000;
+		families[HuePrefix.GY.ordinal()] = 1000;
+		assertArrayEquals(families, histogram.getFamilyCounts());
+
+		long[] values = new long[MunsellHistogram.VALUE_BUCKETS];
+		values[3] = 3000;
+		values[4] = 4000;
+		values[5] = 2000;
+		values[6] = 1000;
+		assertArrayEquals(values, histogram.getValueCounts());
+
+		long[] chromas = new long[MunsellHistogram.CHROMA_BUCKETS];
+		chromas[0] = 1000;
+		chromas[5] = 2000;
+		chromas[7] = 4000;
+		chromas[9] = 3000;
+		assertArrayEquals(chromas, histogram.getChromaCounts());
+	}
+
+	/**
+	 * Tests that counting an image in parallel bands, and streaming it from a
+	 * file in strips, count the same as one pass over its pixels.
+	 *
+	 * @throws IOException if the temporary file cannot be written or read.
+	 */
+	@Test
+	void testParallelAndStreamed() throws IOException
+	{
+		ColorConverter.buildCSVMaps();
+		BufferedImage image = TestImages.randomImage(613, 509, 23);
+		int[] rgb = RGBRaster.getData(image);
+
+		MunsellHistogram sequential = new MunsellHistogram();
+		sequential.add(rgb, 0, rgb.length);
+
+		File file = File.createTempFile("histogram", ".png");
+		file.deleteOnExit();
+		ImageIO.write(image, "png", file);
+
+		for (MunsellHistogram histogram : new MunsellHistogram[] { MunsellHistogram.of(image),
+				MunsellHistogram.of(file, 37) })
+		{
+			assertEquals(sequential.getTotal(), histogram.getTotal());
+			assertArrayEquals(sequential.getFamilyCounts(), histogram.getFamilyCounts());
+			assertArrayEquals(sequential.getValueCounts(), histogram.getValueCounts());
+			assertArrayEquals(sequential.getChromaCounts(), histogram.getChromaCounts());
+			assertEquals(sequential.getDominantHues(10), histogram.getDominantHues(10));
+		}
+	}
+
+	/**
+	 * Tests merging histograms and finding the dominant hues.
+	 */
+	@Test
+	void testDominantHues()
+	{
+		ColorConverter.buildCSVMaps();
+		int[] reds = new int[300];
+		int[] blues = new int[100];
+		int[] grays = new int[50];
+		Arrays.fill(reds, 0xCC2222);
+		Arrays.fill(blues, 0x2233CC);
+		Arrays.fill(grays, 0x808080);
+
+		MunsellHistogram histogram = new MunsellHistogram();
+		histogram.add(reds, 0, reds.length);
+		MunsellHistogram other = new MunsellHistogram();
+		other.add(blues, 0, blues.length);
+		other.add(grays, 0, grays.length);
+		histogram.merge(other);
+
+		assertEquals(450, histogram.getTotal());
+		List<Hue> hues = histogram.getDominantHues(5);
+		assertEquals(ColorConverter.fromRGB(new Color(0xCC2222)).getHue(), hues.get(0));
+		assertEquals(ColorConverter.fromRGB(new Color(0x2233CC)).getHue(), hues.get(1));
+		assertEquals(300, histogram.getHueCount(hues.get(0)));
+		assertEquals(100, histogram.getHueCount(hues.get(1)));
+		assertEquals(1, histogram.getDominantHues(1).size());
+	}
+}
@@ -0,0 +1,125 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Hue;
+import model.MunsellColor;
+import model.PackedMunsell;
+import util.ColorConverter;
+import util.RGBSampleIndex;
+
+/**
+ * Test cases for PackedMunsell class.
+ *
+ * @author David An
+ * @version Oct 17, 2026
+ */
+class PackedMunsellTest
+{
+	/**
+	 * Tests that colors come back unchanged after packing.
+	 */
+	@Test
+	void testRoundTrip()
+	{
+		MunsellColor color = new MunsellColor(new Hue("1.36G"), 1.00f, 3.83f);
+		long packed = PackedMunsell.encode(color);
+
+		assertEquals(color, PackedMunsell.decode(packed));
+		assertEquals(Hue.huePrefixes.indexOf("G"), PackedMunsell.prefixIndex(packed));
+		assertEquals(1.36f, PackedMunsell.hue(packed));
+		assertEquals(1.00f, PackedMunsell.value(packed));
+		assertEquals(3.83f, PackedMunsell.chroma(packed));
+		assertEquals(color.getHue().getHueTotalValue(), PackedMunsell.totalHue(packed));
+
+		long gray = PackedMunsell.encode(MunsellColor.n(5));
+		assertTrue(PackedMunsell.isGrayscale(gray));
+		assertEquals(0, PackedMunsell.totalHue(gray));
+		assertEquals(MunsellColor.n(5), PackedMunsell.decode(gray));
+
+		// Every sample in the CSV survives packing.
+		RGBSampleIndex samples = ColorConverter.getRGBSampleIndex();
+		for (int i = 0; i < samples.getSampleCount(); i++)
+			assertEquals(samples.getSample(i), PackedMunsell.decode(samples.getSamplePacked(i)));
+	}
+
+	/**
+	 * Tests that packed colors sort by prefix, hue, value and then chroma.
+	 */
+	@Test
+	void testCompare()
+	{
+		long red = PackedMunsell.encode(new MunsellColor(new Hue("R", 9), 9, 9));
+		long yellowRed = PackedMunsell.encode(new MunsellColor(new Hue("YR", 1), 1, 1));
+		long higherHue = PackedMunsell.encode(new MunsellColor(new Hue("YR", 2), 1, 1));
+		long higherValue = PackedMunsell.encode(new MunsellColor(new Hue("YR", 2), 2, 1));
+		long higherChroma = PackedMunsell.encode(new MunsellColor(new Hue("YR", 2), 2, 20));
+
+		assertTrue(PackedMunsell.compare(red, yellowRed) < 0);
+		assertTrue(PackedMunsell.compare(yellowRed, higherHue) < 0);
+		assertTrue(PackedMunsell.compare(higherHue, higherValue) < 0);
+		assertTrue(PackedMunsell.compare(higherValue, higherChroma) < 0);
+		assertTrue(PackedMunsell.compare(higherChroma, higherValue) > 0);
+		assertEquals(0, PackedMunsell.compare(red, PackedMunsell.encode(new MunsellColor(new Hue("R", 9), 9, 9))));
+	}
+
+	/**
+	 * Tests that invalid parts cannot be packed.
+	 */
+	@Test
+	void testInvalid()
+	{
+		assertThrows(IllegalArgumentException.class, () -> PackedMunsell.encode(-1, 5, 5, 5));
+		assertThrows(IllegalArgumentException.class, () -> PackedMunsell.encode(Hue.huePrefixes.size(), 5, 5, 5));
+		assertThrows(IllegalArgumentException.class, () -> PackedMunsell.encode(0, 11, 5, 5));
+		assertThrows(IllegalArgumentException.class, () -> PackedMunsell.encode(0, 5, -1, 5));
+		assertThrows(IllegalArgumentException.class, () -> PackedMunsell.encode(0, 5, 5, Float.NaN));
+		assertThrows(NullPointerException.class, () -> PackedMunsell.encode(null));
+	}
+
+	/**
+	 * Tests that the packed conversions match the MunsellColor ones.
+	 */
+	@Test
+	void testPackedConversions()
+	{
+		Random random = new Random(11);
+		int[] rgb = new int[500];
+		for (int i = 0; i < rgb.length; i++)
+			rgb[i] = random.nextInt(1 << 24);
+
+		long[] packed = new long[rgb.length];
+		ColorConverter.fromRGB(rgb, 0, rgb.length, packed);
+
+		for (int i = 0; i < rgb.length; i++)
+		{
+			MunsellColor expected = ColorConverter.fromRGB(new Color(rgb[i]));
+			assertEquals(PackedMunsell.encode(expected), packed[i]);
+			assertEquals(packed[i], ColorConverter.fromRGBPacked(rgb[i]));
+			assertEquals(expected.toColor().getRGB() & 0xFFFFFF, ColorConverter.toRGB(packed[i]));
+		}
+
+		assertEquals(MunsellColor.n(3).toColor().getRGB() & 0xFFFFFF,
+				ColorConverter.toRGB(PackedMunsell.encode(MunsellColor.n(3))));
+
+		try
+		{
+			ColorConverter.setMunsellLookup(ColorConverter.MunsellLookup.INTERPOLATED);
+			for (int i = 0; i < rgb.length; i++)
+			{
+				MunsellColor color = PackedMunsell.decode(packed[i]);
+				assertEquals(color.toColor().getRGB() & 0xFFFFFF, ColorConverter.toRGB(packed[i]));
+			}
+		} finally
+		{
+			ColorConverter.setMunsellLookup(ColorConverter.MunsellLookup.NEAREST_CHIP);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.BoundedPaletteCache;
+import model.DensePaletteCache;
+import model.Hue;
+import model.MunsellColor;
+import model.Palette;
+import model.PaletteCache;
+import model.StandardColorMetric;
+import util.ColorConverter;
+
+/**
+ * Test cases for the palette caches.
+ *
+ * @author David An
+ * @version Oct 17, 2026
+ */
+class PaletteCacheTest
+{
+	private MunsellColor red = new MunsellColor(new Hue("R", 5f), 5f, 10f);
+	private MunsellColor yellow = new MunsellColor(new Hue("Y", 5f), 8f, 10f);
+	private MunsellColor blue = new MunsellColor(new Hue("PB", 5f), 4f, 10f);
+
+	/**
+	 * Tests that both caches give what the palette gives, the second time as
+	 * well as the first, through a small bounded cache that keeps evicting.
+	 */
+	@Test
+	void testMatchesPalette()
+	{
+		ColorConverter.buildCSVMaps();
+		Palette palette = new Palette();
+		palette.addColor(red);
+		palette.addColor(yellow);
+		palette.addColor(blue);
+
+		PaletteCache[] caches = { new DensePaletteCache(palette, StandardColorMetric.RGB, false),
+				new BoundedPaletteCache(palette, StandardColorMetric.RGB, false, 64) };
+
+		Random random = new Random(13);
+		int[] pixels = new int[2000];
+		for (int i = 0; i < pixels.length; i++)
+			pixels[i] = random.nextInt(1 << 24) | 0xFF000000;
+
+		for (PaletteCache cache : caches)
+		{
+			for (int pass = 0; pass < 2; pass++)
+			{
+				for (int pixel : pixels)
+					assertEquals(palette.getClosestIndex(pixel & 0xFFFFFF, StandardColorMetric.RGB),
+							cache.getClosestIndex(pixel));
+			}
+		}
+	}
+
+	/**
+	 * Tests that going through Munsell gives what the Image tab always has.
+	 */
+	@Test
+	void testThroughMunsell()
+	{
+		ColorConverter.buildCSVMaps();
+		Palette palette = new Palette();
+		palette.addColor(red);
+		palette.addColor(yellow);
+		palette.addColor(blue);
+
+		PaletteCache cache = PaletteCache.forPixels(palette, StandardColorMetric.MANHATTAN, true, 100);
+		Random random = new Random(17);
+		for (int i = 0; i < 500; i++)
+		{
+			int pixel = random.nextInt(1 << 24);
+			MunsellColor closest = palette.getClosestColor(MunsellColor.fromRGB(new Color(pixel)));
+			assertEquals(palette.getColors().indexOf(closest), cache.getClosestIndex(pixel));
+			assertEquals(palette.getColors().indexOf(closest), cache.getClosestIndex(pixel));
+		}
+	}
+
+	/**
+	 * Tests that changing the palette makes both caches forget.
+	 */
+	@Test
+	void testInvalidation()
+	{
+		ColorConverter.buildCSVMaps();
+		int pixel = blue.toColor().getRGB();
+
+		for (int pixels : new int[] { 1, PaletteCache.DENSE_PIXELS })
+		{
+			Palette palette = new Palette();
+			palette.addColor(red);
+			palette.addColor(yellow);
+			PaletteCache cache = PaletteCache.forPixels(palette, StandardColorMetric.RGB, false, pixels);
+
+			int before = cache.getClosestIndex(pixel);
+			assertTrue(before == 0 || before == 1);
+
+			palette.addColor(blue);
+			assertEquals(2, cache.getClosestIndex(pixel));
+
+			palette.removeColor(red);
+			assertEquals(1, cache.getClosestIndex(pixel));
+
+			palette.removeColor(yellow);
+			palette.removeColor(blue);
+			assertEquals(-1, cache.getClosestIndex(pixel));
+		}
+	}
+
+	/**
+	 * Tests the checks on a bounded cache's capacity.
+	 */
+	@Test
+	void testCapacity()
+	{
+		Palette palette = new Palette();
+		assertThrows(IllegalArgumentException.class,
+				() -> new BoundedPaletteCache(palette, StandardColorMetric.RGB, false, 100));
+		assertThrows(IllegalArgumentException.class,
+				() -> new BoundedPaletteCache(palette, StandardColorMetric.RGB, false, 1));
+		assertThrows(NullPointerException.class, () -> new DensePaletteCache(null, StandardColorMetric.RGB, false));
+	}
+}
@@ -0,0 +1,151 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.MunsellColor;
+import model.Palette;
+import model.PaletteExtractor;
+import model.PaletteExtractor.Method;
+import model.PaletteExtractor.Space;
+import util.ColorConverter;
+import util.RGBHistogram;
+
+/**
+ * Test cases for the color histogram and the palette extractor.
+ *
+ * @author David An
+ * @version Oct 17, 2026
+ */
+class PaletteExtractorTest
+{
+	private static final int[] BLOCKS = { 0xC02020, 0x2040C0, 0xE0D040, 0x30A040 }; // Largest first.
+
+	/**
+	 * @return an image of flat blocks of the BLOCKS colors, each smaller than
+	 *         the one before.
+	 */
+	private static BufferedImage blocks()
+	{
+		BufferedImage image = new BufferedImage(100, 40, BufferedImage.TYPE_INT_RGB);
+		int[] widths = { 40, 30, 20, 10 };
+		int x = 0;
+		for (int b = 0; b < BLOCKS.length; b++)
+		{
+			for (int i = 0; i < widths[b]; i++, x++)
+			{
+				for (int y = 0; y < image.getHeight(); y++)
+					image.setRGB(x, y, BLOCKS[b]);
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Tests counting an image, in parallel and by hand.
+	 */
+	@Test
+	void testHistogram()
+	{
+		Random random = new Random(29);
+		BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+		int[] pixels = new int[300 * 200];
+		for (int i = 0; i < pixels.length; i++)
+		{
+			pixels[i] = random.nextInt(1 << 24);
+			image.setRGB(i % 300, i / 300, pixels[i]);
+		}
+
+		RGBHistogram parallel = RGBHistogram.of(image);
+		RGBHistogram first = new RGBHistogram();
+		RGBHistogram second = new RGBHistogram();
+		first.add(pixels, 0, 1000);
+		second.add(pixels, 1000, pixels.length - 1000);
+		first.merge(second);
+
+		assertEquals(pixels.length, parallel.getTotal());
+		assertEquals(pixels.length, first.getTotal());
+		for (int bin = 0; bin < RGBHistogram.BINS; bin++)
+		{
+			assertEquals(first.getCount(bin), parallel.getCount(bin));
+			if (first.getCount(bin) > 0)
+			{
+				assertEquals(first.getMeanRGB(bin), parallel.getMeanRGB(bin));
+				assertEquals(bin, RGBHistogram.binOf(first.getMeanRGB(bin)));
+			}
+		}
+
+		assertEquals(0x7FFF, RGBHistogram.binOf(0xFFFFFFFF));
+		assertEquals(0x421, RGBHistogram.binOf(0x080808));
+	}
+
+	/**
+	 * Tests that every method in every space finds the colors of an image of
+	 * four flat blocks, largest first.
+	 */
+	@Test
+	void testExtractBlocks()
+	{
+		ColorConverter.buildCSVMaps();
+		BufferedImage image = blocks();
+
+		for (Method method : Method.values())
+		{
+			for (Space space : Space.values())
+			{
+				Palette palette = new PaletteExtractor(method, space).extract(image, 4);
+				assertEquals(4, palette.getColors().size(), method + " " + space);
+				for (int b = 0; b < BLOCKS.length; b++)
+					assertEquals(MunsellColor.fromRGB(new Color(BLOCKS[b])), palette.getColors().get(b));
+
+				// Asking for fewer colors than there are merges some.
+				assertEquals(2, new PaletteExtractor(method, space).extract(image, 2).getColors().size());
+			}
+		}
+	}
+
+	/**
+	 * Tests that k-means on a noisy image gives as many colors as asked for,
+	 * the same ones for the same seed.
+	 */
+	@Test
+	void testKMeansSeed()
+	{
+		ColorConverter.buildCSVMaps();
+		Random random = new Random(31);
+		BufferedImage image = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < image.getHeight(); y++)
+		{
+			for (int x = 0; x < image.getWidth(); x++)
+				image.setRGB(x, y, random.nextInt(1 << 24));
+		}
+
+		PaletteExtractor extractor = new PaletteExtractor(Method.K_MEANS, Space.LAB);
+		extractor.setSeed(5);
+		Palette first = extractor.extract(image, 12);
+		Palette second = extractor.extract(image, 12);
+
+		assertTrue(first.getColors().size() > 10);
+		assertEquals(first.getColors(), second.getColors());
+		assertTrue(first.getCapacity() >= first.getColors().size());
+	}
+
+	/**
+	 * Tests the checks on the parameters.
+	 */
+	@Test
+	void testChecks()
+	{
+		PaletteExtractor extractor = new PaletteExtractor(Method.MEDIAN_CUT, Space.LAB);
+		assertThrows(IllegalArgumentException.class, () -> extractor.extract(blocks(), 0));
+		assertThrows(IllegalArgumentException.class, () -> extractor.extract(new RGBHistogram(), 3));
+		assertThrows(NullPointerException.class, () -> new PaletteExtractor(null, Space.LAB));
+	}
+}
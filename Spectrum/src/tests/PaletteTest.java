@@ -2,13 +2,17 @@ package tests;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.awt.Color;
 import java.util.ArrayList;
+import java.util.Random;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
 import model.Hue;
 import model.MunsellColor;
 import model.Palette;
+import model.StandardColorMetric;
 import util.ColorConverter;
 
 class PaletteTest
@@ -95,6 +99,103 @@ class PaletteTest
 		assertTrue(c3.equals(colors.getColors().get(1)));
 	}
 
+	@Test
+	void testCapacity()
+	{
+		Palette colors = new Palette(2);
+		colors.addColor(c1);
+		colors.addColor(c2);
+		colors.addColor(c3);
+		
+		assertEquals(2, colors.getCapacity());
+		assertEquals(c3, colors.getColors().get(1));
+		assertEquals(Palette.DEFAULT_CAPACITY, new Palette().getCapacity());
+		assertThrows(IllegalArgumentException.class, () -> new Palette(0));
+	}
+	
+	@Test
+	void testGetClosestIndexAfterChanges()
+	{
+		Palette colors = new Palette();
+		assertEquals(-1, colors.getClosestIndex(0x808080));
+		
+		colors.addColor(c1);
+		colors.addColor(c2);
+		colors.addColor(c3);
+		colors.addColor(c4);
+		colors.removeColor(c2);
+		colors.addColor(null);
+		
+		assertEquals(3, colors.getColors().size());
+		for (int i = 0; i < colors.getColors().size(); i++)
+		{
+			int rgb = colors.getColors().get(i).toColor().getRGB();
+			for (StandardColorMetric metric : StandardColorMetric.values())
+				assertEquals(i, colors.getClosestIndex(rgb, metric));
+		}
+		
+		// Changes made to the list directly are caught up with.
+		colors.getColors().add(c2);
+		assertEquals(3, colors.getClosestIndex(c2.toColor().getRGB(), StandardColorMetric.RGB));
+	}
+	
+	@Test
+	void testGetClosestIndexLargePalette()
+	{
+		Random random = new Random(11);
+		ArrayList<MunsellColor> list = new ArrayList<>();
+		for (int i = 0; i < 300; i++)
+			list.add(MunsellColor.fromRGB(new Color(random.nextInt(1 << 24))));
+		
+		Palette colors = new Palette(list);
+		assertTrue(colors.getColors().size() > 10);
+		
+		int[] rgb = new int[colors.getColors().size()];
+		for (int i = 0; i < rgb.length; i++)
+			rgb[i] = colors.getColors().get(i).toColor().getRGB();
+		
+		for (StandardColorMetric metric : StandardColorMetric.values())
+		{
+			for (int trial = 0; trial < 200; trial++)
+			{
+				int wanted = random.nextInt(1 << 24);
+				double best = Double.POSITIVE_INFINITY;
+				for (int color : rgb)
+					best = Math.min(best, metric.distance(wanted, color));
+				
+				// The spatial index may break ties differently, so compare distances.
+				int index = colors.getClosestIndex(wanted, metric);
+				assertEquals(best, metric.distance(wanted, rgb[index]), 1e-4);
+			}
+		}
+	}
+
+	@Test
+	void testGetClosestIndexConcurrent()
+	{
+		Random random = new Random(13);
+		ArrayList<MunsellColor> list = new ArrayList<>();
+		for (int i = 0; i < 300; i++)
+			list.add(MunsellColor.fromRGB(new Color(random.nextInt(1 << 24))));
+		
+		Palette colors = new Palette(list);
+		int[] wanted = new int[2000];
+		for (int i = 0; i < wanted.length; i++)
+			wanted[i] = random.nextInt(1 << 24);
+		
+		for (StandardColorMetric metric : StandardColorMetric.values())
+		{
+			int[] expected = new int[wanted.length];
+			for (int i = 0; i < wanted.length; i++)
+				expected[i] = colors.getClosestIndex(wanted[i], metric);
+			
+			// Many threads searching at once must find what one thread found.
+			int[] actual = IntStream.range(0, wanted.length).parallel()
+					.map(i -> colors.getClosestIndex(wanted[i], metric)).toArray();
+			assertArrayEquals(expected, actual);
+		}
+	}
+
 	@Test
 	void testMixColor() 
 	{
@@ -0,0 +1,403 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.spi.IIORegistry;
+import javax.imageio.spi.ImageWriterSpi;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import model.DitherMode;
+import model.Hue;
+import model.MunsellColor;
+import model.Palette;
+import model.PaletteCache;
+import model.PosterizePipeline;
+import model.StandardColorMetric;
+import util.ColorConverter;
+
+/**
+ * Test cases for the posterize pipeline.
+ *
+ * @author David An
+ * @version Oct 17, 2026
+ */
+class PosterizePipelineTest
+{
+	/**
+	 * @return a palette of three colors.
+	 */
+	private static Palette palette()
+	{
+		Palette palette = new Palette();
+		palette.addColor(new MunsellColor(new Hue("R", 5f), 5f, 10f));
+		palette.addColor(new MunsellColor(new Hue("Y", 5f), 8f, 10f));
+		palette.addColor(new MunsellColor(new Hue("PB", 5f), 4f, 10f));
+		return palette;
+	}
+
+	/**
+	 * Tests that posterizing in memory, in strips that do not divide the
+	 * height, gives each pixel's closest palette color as the Image tab always
+	 * has, and that tiles of the image sharing one cache give the same.
+	 */
+	@Test
+	void testPosterizeImage()
+	{
+		ColorConverter.buildCSVMaps();
+		Palette palette = palette();
+		BufferedImage image = TestImages.randomImage(23, 17, 19);
+
+		PosterizePipeline pipeline = new PosterizePipeline(palette, StandardColorMetric.MANHATTAN, true);
+		pipeline.setStripHeight(5);
+		BufferedImage posterized = pipeline.posterize(image);
+
+		for (int y = 0; y < image.getHeight(); y++)
+		{
+			for (int x = 0; x < image.getWidth(); x++)
+			{
+				int expected = palette.getClosestColor(MunsellColor.fromRGB(new Color(image.getRGB(x, y)))).toColor()
+						.getRGB();
+				assertEquals(expected, posterized.getRGB(x, y));
+			}
+		}
+
+		// Tiles sharing a cache get the same colors, from the palette as it was
+		// when the cache was made.
+		PaletteCache cache = pipeline.createCache(image.getWidth() * image.getHeight());
+		palette.addColor(new MunsellColor(new Hue("G", 5f), 5f, 8f));
+		BufferedImage left = pipeline.posterize(image.getSubimage(0, 0, 8, 17), cache);
+		BufferedImage right = pipeline.posterize(image.getSubimage(8, 0, 15, 17), cache);
+		for (int y = 0; y < image.getHeight(); y++)
+		{
+			for (int x = 0; x < image.getWidth(); x++)
+			{
+				int shared = x < 8 ? left.getRGB(x, y) : right.getRGB(x - 8, y);
+				assertEquals(posterized.getRGB(x, y), shared);
+			}
+		}
+	}
+
+	/**
+	 * Tests that posterizing files in strips gives the same image as in
+	 * memory, both in a format written in strips and in one written whole.
+	 *
+	 * @throws IOException if the temporary files fail.
+	 */
+	@Test
+	void testPosterizeFile() throws IOException
+	{
+		ColorConverter.buildCSVMaps();
+		BufferedImage image = TestImages.randomImage(31, 29, 19);
+		PosterizePipeline pipeline = new PosterizePipeline(palette(), StandardColorMetric.RGB, false);
+		pipeline.setStripHeight(4);
+		BufferedImage expected = pipeline.posterize(image);
+
+		File input = File.createTempFile("posterize", ".png");
+		input.deleteOnExit();
+		ImageIO.write(image, "png", input);
+
+		for (String format : new String[] { "tiff", "png" })
+		{
+			File output = File.createTempFile("posterized", "." + format);
+			output.deleteOnExit();
+			pipeline.posterize(input, output, format);
+
+			BufferedImage actual = ImageIO.read(output);
+			assertEquals(image.getWidth(), actual.getWidth());
+			assertEquals(image.getHeight(), actual.getHeight());
+			for (int y = 0; y < image.getHeight(); y++)
+			{
+				for (int x = 0; x < image.getWidth(); x++)
+					assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Tests that a file can be posterized into itself, and that a failed
+	 * posterize leaves the output as it was and no temporary file behind.
+	 *
+	 * @throws IOException if the temporary files fail.
+	 */
+	@Test
+	void testPosterizeInPlace() throws IOException
+	{
+		ColorConverter.buildCSVMaps();
+		BufferedImage image = TestImages.randomImage(13, 11, 19);
+		PosterizePipeline pipeline = new PosterizePipeline(palette(), StandardColorMetric.RGB, false);
+		BufferedImage expected = pipeline.posterize(image);
+
+		File file = File.createTempFile("posterize", ".png");
+		file.deleteOnExit();
+		ImageIO.write(image, "png", file);
+		pipeline.posterize(file, file, "png");
+
+		BufferedImage actual = ImageIO.read(file);
+		for (int y = 0; y < image.getHeight(); y++)
+		{
+			for (int x = 0; x < image.getWidth(); x++)
+				assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+		}
+
+		File notImage = File.createTempFile("posterize", ".txt");
+		notImage.deleteOnExit();
+		Files.write(notImage.toPath(), new byte[] { 1, 2, 3 });
+		byte[] before = Files.readAllBytes(file.toPath());
+		String[] siblings = file.getParentFile().list();
+		assertThrows(IOException.class, () -> pipeline.posterize(notImage, file, "png"));
+		assertTrue(Arrays.equals(before, Files.readAllBytes(file.toPath())));
+		assertEquals(siblings.length, file.getParentFile().list().length);
+	}
+
+	/**
+	 * Tests that a writer that can write empty images but not replace their
+	 * pixels is given the whole image instead.
+	 *
+	 * @throws IOException if the temporary files fail.
+	 */
+	@Test
+	void testPosterizeWithoutReplacing() throws IOException
+	{
+		ColorConverter.buildCSVMaps();
+		IIORegistry.getDefaultInstance().registerServiceProvider(new EmptyPNGWriterSpi());
+		BufferedImage image = TestImages.randomImage(17, 9, 19);
+		PosterizePipeline pipeline = new PosterizePipeline(palette(), StandardColorMetric.RGB, false);
+		pipeline.setStripHeight(4);
+		BufferedImage expected = pipeline.posterize(image);
+
+		File input = File.createTempFile("posterize", ".png");
+		input.deleteOnExit();
+		ImageIO.write(image, "png", input);
+		File output = File.createTempFile("posterized", ".png");
+		output.deleteOnExit();
+		pipeline.posterize(input, output, EmptyPNGWriterSpi.NAME);
+
+		BufferedImage actual = ImageIO.read(output);
+		for (int y = 0; y < image.getHeight(); y++)
+		{
+			for (int x = 0; x < image.getWidth(); x++)
+				assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+		}
+	}
+
+	/**
+	 * Provides EmptyPNGWriter under its own format name.
+	 */
+	private static class EmptyPNGWriterSpi extends ImageWriterSpi
+	{
+		static final String NAME = "empty-png"; // The format name.
+
+		/**
+		 * Describes the writer.
+		 */
+		EmptyPNGWriterSpi()
+		{
+			super("tests", "1", new String[] { NAME }, null, null, EmptyPNGWriter.class.getName(),
+					new Class<?>[] { ImageOutputStream.class }, null, false, null, null, null, null, false, null,
+					null, null, null);
+		}
+
+		@Override
+		public boolean canEncodeImage(ImageTypeSpecifier type)
+		{
+			return true;
+		}
+
+		@Override
+		public ImageWriter createWriterInstance(Object extension)
+		{
+			return new EmptyPNGWriter(this);
+		}
+
+		@Override
+		public String getDescription(Locale locale)
+		{
+			return "PNG writer that claims to write empty images";
+		}
+	}
+
+	/**
+	 * Writes PNG, and claims to write empty images without being able to replace
+	 * their pixels.
+	 */
+	private static class EmptyPNGWriter extends ImageWriter
+	{
+		/**
+		 * @param provider the provider of the writer.
+		 */
+		EmptyPNGWriter(ImageWriterSpi provider)
+		{
+			super(provider);
+		}
+
+		@Override
+		public boolean canWriteEmpty()
+		{
+			return true;
+		}
+
+		@Override
+		public void prepareWriteEmpty(IIOMetadata streamMetadata, ImageTypeSpecifier imageType, int width,
+				int height, IIOMetadata imageMetadata, List<? extends BufferedImage> thumbnails,
+				ImageWriteParam param)
+		{
+		}
+
+		@Override
+		public void endWriteEmpty()
+		{
+		}
+
+		@Override
+		public void write(IIOMetadata streamMetadata, IIOImage image, ImageWriteParam param) throws IOException
+		{
+			ImageWriter png = ImageIO.getImageWritersByFormatName("png").next();
+			png.setOutput(getOutput());
+			png.write(image);
+			png.dispose();
+		}
+
+		@Override
+		public IIOMetadata getDefaultStreamMetadata(ImageWriteParam param)
+		{
+			return null;
+		}
+
+		@Override
+		public IIOMetadata getDefaultImageMetadata(ImageTypeSpecifier imageType, ImageWriteParam param)
+		{
+			return null;
+		}
+
+		@Override
+		public IIOMetadata convertStreamMetadata(IIOMetadata inData, ImageWriteParam param)
+		{
+			return null;
+		}
+
+		@Override
+		public IIOMetadata convertImageMetadata(IIOMetadata inData, ImageTypeSpecifier imageType,
+				ImageWriteParam param)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * @param width  the width of the image.
+	 * @param height the height of the image.
+	 * @param dark   the gray level at the left.
+	 * @param light  the gray level at the right.
+	 * @return an image of a gray gradient from left to right.
+	 */
+	private static BufferedImage grayGradient(int width, int height, int dark, int light)
+	{
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				int gray = dark + (light - dark) * x / (width - 1);
+				image.setRGB(x, y, gray * 0x010101);
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * @param image an image.
+	 * @param from  the first column.
+	 * @param to    one past the last column.
+	 * @return the mean of the blue channel over the columns.
+	 */
+	private static double meanBlue(BufferedImage image, int from, int to)
+	{
+		long total = 0;
+		for (int y = 0; y < image.getHeight(); y++)
+		{
+			for (int x = from; x < to; x++)
+				total += image.getRGB(x, y) & 0xFF;
+		}
+		return (double) total / (image.getHeight() * (to - from));
+	}
+
+	/**
+	 * Tests that every dither mode gives only palette colors and the same image
+	 * however it is split into strips, and that dithering a gradient between
+	 * two grays keeps (most of) the brightness a quarter of the way along,
+	 * where snapping makes it all the dark gray.
+	 */
+	@Test
+	void testDither()
+	{
+		ColorConverter.buildCSVMaps();
+		Palette palette = new Palette();
+		palette.addColor(new MunsellColor(new Hue("N", 0f), 2f, 0f));
+		palette.addColor(new MunsellColor(new Hue("N", 0f), 8f, 0f));
+		int dark = palette.getColors().get(0).toColor().getRGB() & 0xFF;
+		int light = palette.getColors().get(1).toColor().getRGB() & 0xFF;
+
+		// Wide enough that ordered dithering splits strips into bands.
+		BufferedImage image = grayGradient(400, 120, dark, light);
+		double quarter = meanBlue(image, 80, 120);
+
+		for (DitherMode mode : DitherMode.values())
+		{
+			PosterizePipeline pipeline = new PosterizePipeline(palette, StandardColorMetric.RGB, false);
+			pipeline.setDitherMode(mode);
+			BufferedImage whole = pipeline.posterize(image);
+			pipeline.setStripHeight(7);
+			BufferedImage strips = pipeline.posterize(image);
+
+			for (int y = 0; y < image.getHeight(); y++)
+			{
+				for (int x = 0; x < image.getWidth(); x++)
+				{
+					int rgb = whole.getRGB(x, y);
+					assertTrue(rgb == palette.getColors().get(0).toColor().getRGB()
+							|| rgb == palette.getColors().get(1).toColor().getRGB());
+					assertEquals(rgb, strips.getRGB(x, y));
+				}
+			}
+
+			double mean = meanBlue(whole, 80, 120);
+			if (mode == DitherMode.NONE)
+				assertEquals(dark, mean);
+			else if (mode == DitherMode.ATKINSON)
+				assertTrue(mean > (dark + quarter) / 2 && mean < quarter); // Drops a quarter of the error.
+			else
+				assertEquals(quarter, mean, (light - dark) * 0.02);
+		}
+	}
+
+	/**
+	 * Tests the checks on the parameters.
+	 */
+	@Test
+	void testChecks()
+	{
+		PosterizePipeline pipeline = new PosterizePipeline(new Palette(), StandardColorMetric.RGB, false);
+		assertThrows(IllegalArgumentException.class, () -> pipeline.setStripHeight(0));
+		assertThrows(IllegalArgumentException.class, () -> pipeline.posterize(TestImages.randomImage(2, 2, 19)));
+		assertThrows(NullPointerException.class, () -> new PosterizePipeline(null, StandardColorMetric.RGB, false));
+	}
+}
@@ -0,0 +1,101 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+import util.RGBRaster;
+
+/**
+ * Test cases for reading and writing image rows.
+ *
+ * @author David An
+ * @version Oct 17, 2026
+ */
+class RGBRasterTest
+{
+	/**
+	 * Tests that reading rows gives what getRGB gives, for direct images,
+	 * subimages of them and other types.
+	 */
+	@Test
+	void testGetRows()
+	{
+		BufferedImage direct = TestImages.randomImage(BufferedImage.TYPE_INT_RGB, 13, 11, 23);
+		BufferedImage[] images = { direct, direct.getSubimage(3, 2, 7, 8),
+				TestImages.randomImage(BufferedImage.TYPE_3BYTE_BGR, 13, 11, 23) };
+		assertTrue(RGBRaster.isDirect(images[1]));
+		assertFalse(RGBRaster.isDirect(images[2]));
+
+		for (BufferedImage image : images)
+		{
+			int width = image.getWidth();
+			int[] rgb = RGBRaster.getRows(image, 2, 3, new int[width * 3]);
+			for (int row = 0; row < 3; row++)
+			{
+				for (int x = 0; x < width; x++)
+					assertEquals(image.getRGB(x, 2 + row) & 0xFFFFFF, rgb[row * width + x] & 0xFFFFFF);
+			}
+		}
+	}
+
+	/**
+	 * Tests that writing rows changes only those rows, for direct images,
+	 * subimages of them and other types.
+	 */
+	@Test
+	void testSetRows()
+	{
+		BufferedImage direct = TestImages.randomImage(BufferedImage.TYPE_INT_RGB, 13, 11, 23);
+		BufferedImage[] images = { direct, direct.getSubimage(3, 2, 7, 8),
+				TestImages.randomImage(BufferedImage.TYPE_3BYTE_BGR, 13, 11, 23) };
+
+		for (BufferedImage image : images)
+		{
+			int width = image.getWidth();
+			int[] before = image.getRGB(0, 0, width, image.getHeight(), null, 0, width);
+			int[] rgb = new int[width * 2];
+			for (int i = 0; i < rgb.length; i++)
+				rgb[i] = i * 0x010203;
+
+			RGBRaster.setRows(image, 4, 2, rgb);
+			for (int y = 0; y < image.getHeight(); y++)
+			{
+				for (int x = 0; x < width; x++)
+				{
+					int expected = y == 4 || y == 5 ? rgb[(y - 4) * width + x] : before[y * width + x];
+					assertEquals(expected & 0xFFFFFF, image.getRGB(x, y) & 0xFFFFFF);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests converting images to TYPE_INT_RGB.
+	 */
+	@Test
+	void testToRGB()
+	{
+		BufferedImage direct = TestImages.randomImage(BufferedImage.TYPE_INT_RGB, 5, 4, 23);
+		assertSame(direct, RGBRaster.toRGB(direct));
+
+		BufferedImage other = TestImages.randomImage(BufferedImage.TYPE_3BYTE_BGR, 5, 4, 23);
+		BufferedImage converted = RGBRaster.toRGB(other);
+		assertEquals(BufferedImage.TYPE_INT_RGB, converted.getType());
+		assertEquals(other.getRGB(3, 2), converted.getRGB(3, 2));
+
+		// Transparent pixels come out white.
+		BufferedImage clear = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+		assertEquals(0xFFFFFFFF, RGBRaster.toRGB(clear).getRGB(1, 1));
+
+		assertThrows(IllegalArgumentException.class, () -> RGBRaster.getData(other));
+		assertThrows(IllegalArgumentException.class, () -> RGBRaster.getRows(direct, 3, 2, new int[10]));
+		assertThrows(IllegalArgumentException.class, () -> RGBRaster.getRows(direct, 0, 2, new int[9]));
+	}
+}
@@ -0,0 +1,74 @@
+package tests;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Images of random pixels shared by the test cases.
+ *
+ * @author David An
+ * @version Oct 17, 2026
+ */
+final class TestImages
+{
+	/**
+	 * No instances.
+	 */
+	private TestImages()
+	{
+	}
+
+	/**
+	 * @param width  the width of the image.
+	 * @param height the height of the image.
+	 * @param seed   the seed of the pixels, so each test gets the same image
+	 *               every run.
+	 * @return a TYPE_INT_RGB image of random pixels.
+	 */
+	static BufferedImage randomImage(int width, int height, long seed)
+	{
+		return randomImage(BufferedImage.TYPE_INT_RGB, width, height, seed);
+	}
+
+	/**
+	 * @param type   the BufferedImage type of the image.
+	 * @param width  the width of the image.
+	 * @param height the height of the image.
+	 * @param seed   the seed of the pixels.
+	 * @return an opaque image of random pixels, the same pixels for the same
+	 *         seed whatever the type.
+	 */
+	static BufferedImage randomImage(int type, int width, int height, long seed)
+	{
+		Random random = new Random(seed);
+		BufferedImage image = new BufferedImage(width, height, type);
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+				image.setRGB(x, y, random.nextInt(1 << 24) | 0xFF000000);
+		}
+		return image;
+	}
+
+	/**
+	 * Writes an image of random pixels to a temporary file, deleted on exit.
+	 *
+	 * @param width  the width of the image.
+	 * @param height the height of the image.
+	 * @param format the informal name of the file's format, such as "png".
+	 * @param seed   the seed of the pixels.
+	 * @return the file.
+	 * @throws IOException if the file cannot be written.
+	 */
+	static File randomFile(int width, int height, String format, long seed) throws IOException
+	{
+		File file = File.createTempFile("random", "." + format);
+		file.deleteOnExit();
+		ImageIO.write(randomImage(width, height, seed), format, file);
+		return file;
+	}
+}
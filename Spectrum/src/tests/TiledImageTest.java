@@ -0,0 +1,161 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import util.TiledImage;
+
+/**
+ * Test cases for the tiled image.
+ *
+ * @author David An
+ * @version Oct 17, 2026
+ */
+class TiledImageTest
+{
+	/**
+	 * @param image   an image.
+	 * @param x       the left of a square.
+	 * @param y       the top of the square.
+	 * @param size    the width and height of the square.
+	 * @param channel the shift of a channel.
+	 * @return the rounded average of the channel over the part of the square
+	 *         in the image.
+	 */
+	private static int average(BufferedImage image, int x, int y, int size, int channel)
+	{
+		int sum = 0;
+		int count = 0;
+		for (int j = y; j < Math.min(y + size, image.getHeight()); j++)
+		{
+			for (int i = x; i < Math.min(x + size, image.getWidth()); i++)
+			{
+				sum += (image.getRGB(i, j) >> channel) & 0xFF;
+				count++;
+			}
+		}
+		return (sum + count / 2) / count;
+	}
+
+	/**
+	 * Tests the sizes of the levels and tiles of an image.
+	 *
+	 * @throws IOException if the temporary file cannot be written or read.
+	 */
+	@Test
+	void testLevels() throws IOException
+	{
+		try (TiledImage image = new TiledImage(TestImages.randomFile(1001, 301, "png", 29)))
+		{
+			assertEquals(1001, image.getWidth());
+			assertEquals(301, image.getHeight());
+			assertEquals(3, image.getLevelCount());
+			assertEquals(501, image.getLevelWidth(1));
+			assertEquals(76, image.getLevelHeight(2));
+			assertEquals(4, image.getColumns(0));
+			assertEquals(2, image.getRows(0));
+			assertEquals(1, image.getColumns(2));
+
+			assertEquals(0, image.getLevel(2));
+			assertEquals(0, image.getLevel(0.6));
+			assertEquals(1, image.getLevel(0.5));
+			assertEquals(2, image.getLevel(0.01));
+
+			assertThrows(IllegalArgumentException.class, () -> image.getTile(0, 4, 0));
+			assertThrows(IllegalArgumentException.class, () -> image.getRGB(1001, 0));
+		}
+	}
+
+	/**
+	 * Tests that tiles read lazily keep every pixel at level 0 and every other
+	 * pixel at level 1, that pixels are picked at full resolution, and that
+	 * the cache keeps the most recently used tiles it has room for.
+	 *
+	 * @throws IOException if the temporary file cannot be written or read.
+	 */
+	@Test
+	void testLazyTiles() throws IOException
+	{
+		File file = TestImages.randomFile(601, 517, "png", 29);
+		BufferedImage original = ImageIO.read(file);
+		try (TiledImage image = new TiledImage(file))
+		{
+			BufferedImage tile = image.getTile(0, 2, 1);
+			assertEquals(601 - 512, tile.getWidth());
+			assertEquals(256, tile.getHeight());
+			assertEquals(original.getRGB(515, 300), tile.getRGB(3, 44));
+
+			tile = image.getTile(1, 1, 0);
+			assertEquals(301 - 256, tile.getWidth());
+			assertEquals(original.getRGB(2 * 260, 2 * 100), tile.getRGB(4, 100));
+
+			assertEquals(original.getRGB(600, 516) & 0xFFFFFF, image.getRGB(600, 516));
+			assertEquals(original.getRGB(17, 270) & 0xFFFFFF, image.getRGB(17, 270));
+
+			image.setCacheSize(2);
+			image.getTile(0, 0, 0);
+			image.getTile(0, 1, 0);
+			image.getTile(0, 2, 0);
+			assertEquals(null, image.getLoadedTile(0, 0, 0));
+			assertTrue(image.getLoadedTile(0, 2, 0) != null);
+			assertTrue(image.getLoadedTile(0, 1, 0) != null);
+
+			image.setCacheSize(1);
+			assertEquals(null, image.getLoadedTile(0, 2, 0));
+			assertTrue(image.getLoadedTile(0, 1, 0) != null);
+			assertThrows(IllegalArgumentException.class, () -> image.setCacheSize(0));
+		}
+	}
+
+	/**
+	 * Tests that the pyramid averages squares of full resolution pixels for its
+	 * finest level, which for this image is level 1, and squares of two by two
+	 * pixels of each level for the next, edges included.
+	 *
+	 * @throws IOException if the temporary file cannot be written or read.
+	 */
+	@Test
+	void testPyramid() throws IOException
+	{
+		File file = TestImages.randomFile(2101, 2003, "tiff", 29);
+		BufferedImage original = ImageIO.read(file);
+		try (TiledImage image = new TiledImage(file))
+		{
+			image.buildPyramid();
+			assertTrue(image.isPyramidBuilt());
+
+			// Level 0 is still read lazily.
+			assertEquals(null, image.getLoadedTile(0, 0, 0));
+
+			// Level 1 averages squares of two by two pixels of the image.
+			BufferedImage tile = image.getLoadedTile(1, 4, 3);
+			for (int[] pixel : new int[][] { { 0, 0 }, { 3, 7 }, { 4, 233 } })
+			{
+				int x = 4 * 256 + pixel[0];
+				int y = 3 * 256 + pixel[1];
+				int rgb = tile.getRGB(pixel[0], pixel[1]);
+				for (int channel = 0; channel <= 16; channel += 8)
+					assertEquals(average(original, 2 * x, 2 * y, 2, channel), (rgb >> channel) & 0xFF);
+			}
+
+			// Level 2 averages level 1, out to the odd edge.
+			BufferedImage level1 = image.getTile(1, 4, 3);
+			BufferedImage level2 = image.getLoadedTile(2, 2, 1);
+			assertEquals(526 - 512, level2.getWidth());
+			int rgb = level2.getRGB(13, 244);
+			int x = 2 * (512 + 13) - 4 * 256;
+			int y = 2 * (256 + 244) - 3 * 256;
+			for (int channel = 0; channel <= 16; channel += 8)
+				assertEquals(average(level1, x, y, 2, channel), (rgb >> channel) & 0xFF);
+		}
+	}
+}
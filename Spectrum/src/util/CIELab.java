@@ -0,0 +1,308 @@
+package util;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Converts packed sRGB colors to CIELAB (D65 white) and
+ *          measures the CIE color differences between Lab colors. The sRGB to
+ *          linear step is a table over the 256 channel values, built once (as
+ *          is a finer table for the way back), so a conversion is three
+ *          lookups, a 3x3 matrix and three cube roots. Lab converts back
+ *          through the exact inverse of the matrix, so a color taken to Lab and
+ *          back is the color it started as. The difference formulas take the
+ *          Lab components as plain doubles, so callers can keep the Lab of
+ *          colors they compare often in primitive arrays.
+ */
+public final class CIELab
+{
+	private static final double[] LINEAR = new double[256]; // Linear light of each sRGB channel value.
+	private static final int ENCODE_STEPS = (1 << 14) - 1; // Steps of linear light in the encoding table.
+	private static final int[] ENCODE = new int[ENCODE_STEPS + 1]; // The sRGB channel value of each step.
+
+	private static final double WHITE_X = 0.95047; // D65 reference white.
+	private static final double WHITE_Y = 1.0;
+	private static final double WHITE_Z = 1.08883;
+
+	private static final double EPSILON = 216.0 / 24389; // (6/29)^3, where f changes from a cube root to a line.
+	private static final double KAPPA = 24389.0 / 27; // The slope of the linear part of f, times 116.
+
+	private static final double POW_25_7 = Math.pow(25, 7); // 25^7, used by CIEDE2000.
+
+	private static final double[][] TO_XYZ = { { 0.4124564, 0.3575761, 0.1804375 },
+			{ 0.2126729, 0.7151522, 0.0721750 }, { 0.0193339, 0.1191920, 0.9503041 } }; // Linear sRGB to XYZ.
+	private static final double[][] FROM_XYZ = invert(TO_XYZ); // XYZ to linear sRGB.
+
+	static
+	{
+		for (int i = 0; i < LINEAR.length; i++)
+		{
+			double c = i / 255.0;
+			LINEAR[i] = c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+		}
+
+		for (int i = 0; i <= ENCODE_STEPS; i++)
+		{
+			double linear = i / (double) ENCODE_STEPS;
+			double c = linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+			ENCODE[i] = (int) Math.round(c * 255);
+		}
+	}
+
+	/**
+	 * No instances.
+	 */
+	private CIELab()
+	{
+	}
+
+	/**
+	 * @param channel an sRGB channel value, 0-255.
+	 * @return the linear light of the channel value, 0-1.
+	 */
+	public static double toLinear(int channel)
+	{
+		return LINEAR[channel];
+	}
+
+	/**
+	 * Encodes linear light as an sRGB channel value, through a table fine
+	 * enough that fromLinear(toLinear(c)) is c for every channel value.
+	 *
+	 * @param linear the linear light. Clamped to 0-1.
+	 * @return the nearest sRGB channel value, 0-255.
+	 */
+	public static int fromLinear(double linear)
+	{
+		if (!(linear > 0))
+			return 0;
+		if (linear >= 1)
+			return 255;
+
+		return ENCODE[(int) (linear * ENCODE_STEPS + 0.5)];
+	}
+
+	/**
+	 * Converts a packed sRGB color to Lab.
+	 *
+	 * @param rgb    the packed 0xRRGGBB value. Any alpha is ignored.
+	 * @param lab    receives L, a and b.
+	 * @param offset where in lab to write L; a and b follow it.
+	 */
+	public static void toLab(int rgb, double[] lab, int offset)
+	{
+		double r = LINEAR[(rgb >> 16) & 0xFF];
+		double g = LINEAR[(rgb >> 8) & 0xFF];
+		double b = LINEAR[rgb & 0xFF];
+
+		double fx = f((TO_XYZ[0][0] * r + TO_XYZ[0][1] * g + TO_XYZ[0][2] * b) / WHITE_X);
+		double fy = f((TO_XYZ[1][0] * r + TO_XYZ[1][1] * g + TO_XYZ[1][2] * b) / WHITE_Y);
+		double fz = f((TO_XYZ[2][0] * r + TO_XYZ[2][1] * g + TO_XYZ[2][2] * b) / WHITE_Z);
+
+		lab[offset] = 116 * fy - 16;
+		lab[offset + 1] = 500 * (fx - fy);
+		lab[offset + 2] = 200 * (fy - fz);
+	}
+
+	/**
+	 * Converts a Lab color to the nearest packed sRGB color. Colors outside the
+	 * sRGB gamut are clamped channel by channel.
+	 *
+	 * @param lab    holds L, a and b.
+	 * @param offset where in lab L is; a and b follow it.
+	 * @return the packed 0xRRGGBB value.
+	 */
+	public static int fromLab(double[] lab, int offset)
+	{
+		double fy = (lab[offset] + 16) / 116;
+		double x = WHITE_X * fInverse(fy + lab[offset + 1] / 500);
+		double y = WHITE_Y * fInverse(fy);
+		double z = WHITE_Z * fInverse(fy - lab[offset + 2] / 200);
+
+		int red = fromLinear(FROM_XYZ[0][0] * x + FROM_XYZ[0][1] * y + FROM_XYZ[0][2] * z);
+		int green = fromLinear(FROM_XYZ[1][0] * x + FROM_XYZ[1][1] * y + FROM_XYZ[1][2] * z);
+		int blue = fromLinear(FROM_XYZ[2][0] * x + FROM_XYZ[2][1] * y + FROM_XYZ[2][2] * z);
+		return (red << 16) | (green << 8) | blue;
+	}
+
+	/**
+	 * The CIE 1976 difference: the straight line distance in Lab.
+	 *
+	 * @param l1 the L of the first color.
+	 * @param a1 the a of the first color.
+	 * @param b1 the b of the first color.
+	 * @param l2 the L of the second color.
+	 * @param a2 the a of the second color.
+	 * @param b2 the b of the second color.
+	 * @return the difference.
+	 */
+	public static double deltaE76(double l1, double a1, double b1, double l2, double a2, double b2)
+	{
+		double dl = l1 - l2;
+		double da = a1 - a2;
+		double db = b1 - b2;
+		return Math.sqrt(dl * dl + da * da + db * db);
+	}
+
+	/**
+	 * The CIE 1994 difference with the graphic arts weights, which scales the
+	 * chroma and hue differences down for more saturated first colors.
+	 *
+	 * @param l1 the L of the first (reference) color.
+	 * @param a1 the a of the first color.
+	 * @param b1 the b of the first color.
+	 * @param l2 the L of the second color.
+	 * @param a2 the a of the second color.
+	 * @param b2 the b of the second color.
+	 * @return the difference.
+	 */
+	public static double deltaE94(double l1, double a1, double b1, double l2, double a2, double b2)
+	{
+		double c1 = Math.sqrt(a1 * a1 + b1 * b1);
+		double c2 = Math.sqrt(a2 * a2 + b2 * b2);
+
+		double dl = l1 - l2;
+		double dc = c1 - c2;
+		double da = a1 - a2;
+		double db = b1 - b2;
+		double dh2 = Math.max(0, da * da + db * db - dc * dc); // Squared hue difference.
+
+		double sc = 1 + 0.045 * c1;
+		double sh = 1 + 0.015 * c1;
+
+		return Math.sqrt(dl * dl + (dc / sc) * (dc / sc) + dh2 / (sh * sh));
+	}
+
+	/**
+	 * The CIEDE2000 difference, following Sharma, Wu and Dalal's notes on the
+	 * formula, with all weights 1.
+	 *
+	 * @param l1 the L of the first color.
+	 * @param a1 the a of the first color.
+	 * @param b1 the b of the first color.
+	 * @param l2 the L of the second color.
+	 * @param a2 the a of the second color.
+	 * @param b2 the b of the second color.
+	 * @return the difference.
+	 */
+	public static double deltaE2000(double l1, double a1, double b1, double l2, double a2, double b2)
+	{
+		// Stretch a to even out the chroma of near-neutral colors.
+		double cMean = (Math.sqrt(a1 * a1 + b1 * b1) + Math.sqrt(a2 * a2 + b2 * b2)) / 2;
+		double cMean7 = Math.pow(cMean, 7);
+		double g = 0.5 * (1 - Math.sqrt(cMean7 / (cMean7 + POW_25_7)));
+
+		double ap1 = a1 * (1 + g);
+		double ap2 = a2 * (1 + g);
+		double cp1 = Math.sqrt(ap1 * ap1 + b1 * b1);
+		double cp2 = Math.sqrt(ap2 * ap2 + b2 * b2);
+		double hp1 = hueAngle(b1, ap1);
+		double hp2 = hueAngle(b2, ap2);
+
+		// The differences.
+		double dl = l2 - l1;
+		double dc = cp2 - cp1;
+		double dhp = 0;
+		if (cp1 * cp2 != 0)
+		{
+			dhp = hp2 - hp1;
+			if (dhp > 180)
+				dhp -= 360;
+			else if (dhp < -180)
+				dhp += 360;
+		}
+		double dh = 2 * Math.sqrt(cp1 * cp2) * Math.sin(Math.toRadians(dhp / 2));
+
+		// The means.
+		double lMean = (l1 + l2) / 2;
+		double cpMean = (cp1 + cp2) / 2;
+		double hpMean = hp1 + hp2;
+		if (cp1 * cp2 != 0)
+		{
+			if (Math.abs(hp1 - hp2) <= 180)
+				hpMean /= 2;
+			else if (hpMean < 360)
+				hpMean = (hpMean + 360) / 2;
+			else
+				hpMean = (hpMean - 360) / 2;
+		}
+
+		// The weights.
+		double t = 1 - 0.17 * Math.cos(Math.toRadians(hpMean - 30)) + 0.24 * Math.cos(Math.toRadians(2 * hpMean))
+				+ 0.32 * Math.cos(Math.toRadians(3 * hpMean + 6)) - 0.20 * Math.cos(Math.toRadians(4 * hpMean - 63));
+		double lOffset = (lMean - 50) * (lMean - 50);
+		double sl = 1 + 0.015 * lOffset / Math.sqrt(20 + lOffset);
+		double sc = 1 + 0.045 * cpMean;
+		double sh = 1 + 0.015 * cpMean * t;
+
+		double cpMean7 = Math.pow(cpMean, 7);
+		double dTheta = 30 * Math.exp(-((hpMean - 275) / 25) * ((hpMean - 275) / 25));
+		double rt = -2 * Math.sqrt(cpMean7 / (cpMean7 + POW_25_7)) * Math.sin(Math.toRadians(2 * dTheta));
+
+		double lTerm = dl / sl;
+		double cTerm = dc / sc;
+		double hTerm = dh / sh;
+		return Math.sqrt(lTerm * lTerm + cTerm * cTerm + hTerm * hTerm + rt * cTerm * hTerm);
+	}
+
+	/**
+	 * @param t a tristimulus value divided by the white's.
+	 * @return the Lab companding function of t.
+	 */
+	private static double f(double t)
+	{
+		return t > EPSILON ? Math.cbrt(t) : (KAPPA * t + 16) / 116;
+	}
+
+	/**
+	 * @param t the Lab companding function of some t.
+	 * @return that t.
+	 */
+	private static double fInverse(double t)
+	{
+		double cube = t * t * t;
+		return cube > EPSILON ? cube : (116 * t - 16) / KAPPA;
+	}
+
+	/**
+	 * @param m a 3x3 invertible matrix.
+	 * @return the inverse of m.
+	 */
+	private static double[][] invert(double[][] m)
+	{
+		double det = m[0][0] * (m[1][1] * m[2][2] - m[1][2] * m[2][1])
+				- m[0][1] * (m[1][0] * m[2][2] - m[1][2] * m[2][0])
+				+ m[0][2] * (m[1][0] * m[2][1] - m[1][1] * m[2][0]);
+
+		double[][] inverse = new double[3][3];
+		for (int i = 0; i < 3; i++)
+		{
+			for (int j = 0; j < 3; j++)
+			{
+				// The cofactor of m[j][i], over the determinant.
+				int r1 = (j + 1) % 3;
+				int r2 = (j + 2) % 3;
+				int c1 = (i + 1) % 3;
+				int c2 = (i + 2) % 3;
+				inverse[i][j] = (m[r1][c1] * m[r2][c2] - m[r1][c2] * m[r2][c1]) / det;
+			}
+		}
+
+		return inverse;
+	}
+
+	/**
+	 * @param b the b of a color.
+	 * @param a the (adjusted) a of the color.
+	 * @return the hue angle of the color in degrees, 0-360.
+	 */
+	private static double hueAngle(double b, double a)
+	{
+		if (a == 0 && b == 0)
+			return 0;
+
+		double angle = Math.toDegrees(Math.atan2(b, a));
+		return angle < 0 ? angle + 360 : angle;
+	}
+}
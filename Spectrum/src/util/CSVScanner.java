@@ -0,0 +1,244 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import model.HueParser;
+import model.HuePrefix;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Reads an ASCII CSV one row at a time from a stream,
+ *          without making a String for each line or field. Each row is kept in
+ *          a reused byte buffer and its fields are parsed in place, so reading
+ *          a table of numbers and hue names allocates nothing per row. Quoted
+ *          fields are not supported; the conversion CSVs do not use them.
+ */
+class CSVScanner implements AutoCloseable
+{
+	private final InputStream in; // The stream being read.
+	private final byte[] buffer = new byte[1 << 16]; // Bytes read from the stream but not yet scanned.
+	private int bufferPosition; // The next byte of the buffer to scan.
+	private int bufferLimit; // One past the last byte read into the buffer.
+
+	private byte[] row = new byte[256]; // The bytes of the current row.
+	private int rowLength; // The number of bytes in the current row.
+	private int[] fieldStarts = new int[16]; // Where each field of the row starts.
+	private int[] fieldEnds = new int[16]; // One past where each field of the row ends.
+	private int fieldCount; // The number of fields in the current row.
+
+	/**
+	 * Creates a scanner over a stream.
+	 *
+	 * @param in the stream to read. Closed when the scanner is closed.
+	 */
+	CSVScanner(InputStream in)
+	{
+		this.in = in;
+	}
+
+	/**
+	 * Reads the next row, skipping blank lines.
+	 *
+	 * @return false if the end of the stream was reached.
+	 * @throws IOException if the stream could not be read.
+	 */
+	boolean nextRow() throws IOException
+	{
+		do
+		{
+			if (!readLine())
+				return false;
+		} while (rowLength == 0);
+
+		// Split the row at the commas.
+		fieldCount = 0;
+		int start = 0;
+		for (int i = 0; i <= rowLength; i++)
+		{
+			if (i == rowLength || row[i] == ',')
+			{
+				if (fieldCount == fieldStarts.length)
+				{
+					fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+					fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+				}
+
+				fieldStarts[fieldCount] = start;
+				fieldEnds[fieldCount] = i;
+				fieldCount++;
+				start = i + 1;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the number of fields in the current row.
+	 */
+	int getFieldCount()
+	{
+		return fieldCount;
+	}
+
+	/**
+	 * Parses a field of the current row as a whole number.
+	 *
+	 * @param field the index of the field.
+	 * @return the number.
+	 */
+	int getInt(int field)
+	{
+		int start = fieldStart(field);
+		int end = fieldEnds[field];
+		boolean negative = start < end && row[start] == '-';
+		if (negative)
+			start++;
+
+		if (start == end || end - start > 9)
+			throw new NumberFormatException("Invalid number in CSV: " + getString(field));
+
+		int result = 0;
+		for (int i = start; i < end; i++)
+		{
+			if (row[i] < '0' || row[i] > '9')
+				throw new NumberFormatException("Invalid number in CSV: " + getString(field));
+
+			result = result * 10 + (row[i] - '0');
+		}
+
+		return negative ? -result : result;
+	}
+
+	/**
+	 * Parses a field of the current row as an unsigned decimal number.
+	 *
+	 * @param field the index of the field.
+	 * @return the number, the same as Float.parseFloat would give.
+	 */
+	float getFloat(int field)
+	{
+		float result = HueParser.parseDecimal(row, fieldStart(field), fieldEnds[field]);
+		if (Float.isNaN(result))
+			throw new NumberFormatException("Invalid number in CSV: " + getString(field));
+
+		return result;
+	}
+
+	/**
+	 * Parses a field of the current row as a hue name.
+	 *
+	 * @param field the index of the field.
+	 * @return the hue packed as by HueParser.
+	 */
+	long getHue(int field)
+	{
+		long hue = HueParser.parsePacked(row, fieldStart(field), fieldEnds[field]);
+		if (hue == HueParser.INVALID)
+			throw new IllegalArgumentException("Invalid hue in CSV: " + getString(field));
+
+		return hue;
+	}
+
+	/**
+	 * Parses a field of the current row as a hue prefix.
+	 *
+	 * @param field the index of the field.
+	 * @return the prefix.
+	 */
+	HuePrefix getPrefix(int field)
+	{
+		HuePrefix prefix = HueParser.parsePrefix(row, fieldStart(field), fieldEnds[field]);
+		if (prefix == null)
+			throw new IllegalArgumentException("Invalid hue prefix: " + getString(field));
+
+		return prefix;
+	}
+
+	/**
+	 * Returns a field of the current row as a String. Allocates, so only used
+	 * for fields that are not numbers and for error messages.
+	 *
+	 * @param field the index of the field.
+	 * @return the field.
+	 */
+	String getString(int field)
+	{
+		int start = fieldStart(field);
+		return new String(row, start, fieldEnds[field] - start, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Closes the stream.
+	 *
+	 * @throws IOException if the stream could not be closed.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		in.close();
+	}
+
+	/**
+	 * @param field the index of a field.
+	 * @return where the field starts in the row.
+	 */
+	private int fieldStart(int field)
+	{
+		if (field < 0 || field >= fieldCount)
+			throw new IllegalArgumentException("CSV row has no field " + field + "!");
+
+		return fieldStarts[field];
+	}
+
+	/**
+	 * Copies the next line, without its line ending, into the row buffer.
+	 *
+	 * @return false if the end of the stream was reached before any byte.
+	 * @throws IOException if the stream could not be read.
+	 */
+	private boolean readLine() throws IOException
+	{
+		rowLength = 0;
+		boolean readAny = false;
+
+		while (true)
+		{
+			if (bufferPosition == bufferLimit)
+			{
+				bufferLimit = in.read(buffer);
+				bufferPosition = 0;
+				if (bufferLimit <= 0)
+				{
+					// The last line may not end in a line break.
+					bufferLimit = 0;
+					if (!readAny)
+						return false;
+					break;
+				}
+			}
+
+			readAny = true;
+			byte b = buffer[bufferPosition++];
+			if (b == '\n')
+				break;
+
+			if (rowLength == row.length)
+				row = Arrays.copyOf(row, rowLength * 2);
+
+			row[rowLength++] = b;
+		}
+
+		// Drop the carriage return of a CRLF line ending.
+		if (rowLength > 0 && row[rowLength - 1] == '\r')
+			rowLength--;
+
+		return true;
+	}
+}
@@ -1,14 +1,14 @@
 package util;
 
 import java.awt.Color;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 
 import model.Hue;
+import model.HuePrefix;
 import model.MunsellColor;
+import model.PackedMunsell;
 
 /**
  * 
@@ -22,24 +22,118 @@ import model.MunsellColor;
 public class ColorConverter
 {
 	/**
-	 * Stores conversion information from Munsell to RGB.
+	 * The ways an RGB color can be looked up in the RGB -> Munsell information.
 	 */
-	private static LinkedHashMap<Hue, LinkedHashMap<Integer, LinkedHashMap<Integer, 
-									Color>>> munsellToRGB = new LinkedHashMap<>();
+	public enum RGBLookup
+	{
+		/**
+		 * Walk the nested LinkedHashMaps, snapping each channel in turn.
+		 */
+		NESTED_MAPS,
+
+		/**
+		 * Read the answer from a dense table indexed by the packed RGB value. The
+		 * table is built on first use and gives the same answers as NESTED_MAPS.
+		 */
+		DENSE_TABLE,
+
+		/**
+		 * Find the sample with the closest RGB value with a k-d tree. Unlike the
+		 * other lookups, this always gives the true nearest sample in the CSV.
+		 */
+		NEAREST
+	}
 
 	/**
-	 * Stores conversion information from RGB to Munsell.
+	 * The ways a MunsellColor can be looked up in the Munsell -> RGB information.
 	 */
-	private static LinkedHashMap<Integer, LinkedHashMap<Integer, LinkedHashMap<Integer, 
-									MunsellColor>>> rgbToMunsell = new LinkedHashMap<>();
+	public enum MunsellLookup
+	{
+		/**
+		 * Snap hue, value and chroma to the nearest chip in the CSV.
+		 */
+		NEAREST_CHIP,
+
+		/**
+		 * Blend the neighbouring chips, so colors between chips get their own RGB
+		 * value. The grid is built on first use.
+		 */
+		INTERPOLATED
+	}
 
 	/**
-	 * Scans through the CSVs and builds the LinkedHashMaps.
+	 * The lookup used by fromRGB.
+	 */
+	private static volatile RGBLookup rgbLookup = RGBLookup.NESTED_MAPS;
+
+	/**
+	 * The lookup used by fromMunsell.
+	 */
+	private static volatile MunsellLookup munsellLookup = MunsellLookup.NEAREST_CHIP;
+
+	/**
+	 * Holds the Munsell -> RGB information. The JVM builds it the first time one
+	 * of its fields is read, exactly once, and publishes it safely to every
+	 * thread without any locking on later reads. The map is never modified after
+	 * it is built.
+	 */
+	private static final class MunsellToRGBHolder
+	{
+		/**
+		 * Stores conversion information from Munsell to RGB.
+		 */
+		static final LinkedHashMap<Hue, LinkedHashMap<Integer, LinkedHashMap<Integer, 
+									Color>>> MAP = buildMunsellToRGBMap();
+
+		/**
+		 * The interpolation grid of the map.
+		 */
+		static final MunsellGrid GRID = buildMunsellGrid(MAP);
+	}
+
+	/**
+	 * Holds the RGB -> Munsell information. Loaded independently of the Munsell
+	 * -> RGB information, the same way as MunsellToRGBHolder.
+	 */
+	private static final class RGBToMunsellHolder
+	{
+		/**
+		 * Stores conversion information from RGB to Munsell.
+		 */
+		static final LinkedHashMap<Integer, LinkedHashMap<Integer, LinkedHashMap<Integer, 
+									MunsellColor>>> MAP = buildRGBToMunsellMap();
+
+		/**
+		 * The samples of the map and their k-d tree.
+		 */
+		static final RGBSampleIndex SAMPLES = buildRGBSampleIndex(MAP);
+
+		/**
+		 * A primitive copy of the map's per-channel snapping.
+		 */
+		static final GreedyRGBIndex GREEDY = buildGreedyRGBIndex(SAMPLES);
+	}
+
+	/**
+	 * Holds the dense RGB -> Munsell table, which is only built if it is used.
+	 */
+	private static final class RGBLookupTableHolder
+	{
+		/**
+		 * The dense RGB -> Munsell table.
+		 */
+		static final RGBLookupTable TABLE = buildRGBLookupTable();
+	}
+
+	/**
+	 * Loads both directions of the conversion information now rather than on
+	 * their first use. Calling this is optional; every method loads what it needs
+	 * on demand, and the information is only ever loaded once.
 	 */
 	public static void buildCSVMaps()
 	{
-		buildMunsellToRGBMap();
-		buildRGBToMunsellMap();
+		munsellToRGB();
+		rgbToMunsell();
 
 		// Print out the munsellToRGB information for debugging.
 //		for (Hue hue : munsellToRGB.keySet())
@@ -69,7 +163,7 @@ public class ColorConverter
 	{
 		ArrayList<Hue> hues = new ArrayList<>();
 
-		for (Hue hue : munsellToRGB.keySet())
+		for (Hue hue : munsellToRGB().keySet())
 			hues.add(hue);
 
 		return hues;
@@ -83,6 +177,13 @@ public class ColorConverter
 	 */
 	public static Color fromMunsell(MunsellColor munsell)
 	{
+		if (munsellLookup == MunsellLookup.INTERPOLATED)
+		{
+			float chroma = munsell.getHue().isGrayscale() ? 0 : munsell.getChroma();
+			return new Color(getMunsellGrid().toRGB(munsell.getHue().getHueTotalValue(), 
+															munsell.getValue(), chroma));
+		}
+
 		LinkedHashMap<Integer, LinkedHashMap<Integer, Color>> layerOneLinkedHashMap = 
 							getMunsellToRGBLayerOneLinkedHashMap(munsell);
 
@@ -100,13 +201,219 @@ public class ColorConverter
 	 */
 	public static MunsellColor fromRGB(Color color)
 	{
+		if (rgbLookup == RGBLookup.DENSE_TABLE)
+		{
+			return getRGBLookupTable().get(color.getRGB());
+		} else if (rgbLookup == RGBLookup.NEAREST)
+		{
+			return getRGBSampleIndex().nearest(color.getRGB());
+		}
+
 		LinkedHashMap<Integer, LinkedHashMap<Integer, MunsellColor>> layerOneLinkedHashMap = 
-							getRGBToMunsellLayerOneLinkedHashMap(color);
+							getRGBToMunsellLayerOneLinkedHashMap(color.getRed());
 
 		LinkedHashMap<Integer, MunsellColor> layerTwoLinkedHashMap = 
-							getRGBToMunsellLayerTwoLinkedHashMap(color, layerOneLinkedHashMap);
+							getRGBToMunsellLayerTwoLinkedHashMap(color.getGreen(), layerOneLinkedHashMap);
+
+		return getRGBToMunsellLayerThreeColor(color.getBlue(), layerTwoLinkedHashMap);
+	}
+
+	/**
+	 * Converts a run of packed RGB values to the indices of their closest
+	 * samples, as given by getRGBSampleIndex, using the current RGB lookup. The
+	 * NESTED_MAPS lookup is answered from a primitive copy of the maps, so the
+	 * loop allocates nothing with any lookup. Like fromRGB, grays are matched
+	 * against the samples rather than turned into N colors.
+	 * 
+	 * @param rgb           the packed 0xRRGGBB values. Alpha bits are ignored.
+	 * @param offset        the index of the first value to convert.
+	 * @param length        the number of values to convert.
+	 * @param sampleIndices receives the sample index of each value, at the same
+	 *                      index as the value.
+	 */
+	public static void fromRGB(int[] rgb, int offset, int length, int[] sampleIndices)
+	{
+		RGBLookup lookup = rgbLookup;
+
+		for (int i = offset; i < offset + length; i++)
+		{
+			sampleIndices[i] = sampleIndexOf(rgb[i], lookup);
+		}
+	}
+
+	/**
+	 * Converts a run of packed RGB values to the hue, value and chroma of their
+	 * closest Munsell samples, the same way as fromRGB(int[], int, int, int[]).
+	 * The hue is written as its total value (0-100).
+	 * 
+	 * @param rgb       the packed 0xRRGGBB values. Alpha bits are ignored.
+	 * @param offset    the index of the first value to convert.
+	 * @param length    the number of values to convert.
+	 * @param totalHues receives the total hue value of each color.
+	 * @param values    receives the value of each color.
+	 * @param chromas   receives the chroma of each color.
+	 */
+	public static void fromRGB(int[] rgb, int offset, int length, float[] totalHues, float[] values, 
+																				float[] chromas)
+	{
+		RGBSampleIndex samples = getRGBSampleIndex();
+		RGBLookup lookup = rgbLookup;
+
+		for (int i = offset; i < offset + length; i++)
+		{
+			int index = sampleIndexOf(rgb[i], lookup);
+
+			totalHues[i] = samples.getSampleTotalHue(index);
+			values[i] = samples.getSampleValue(index);
+			chromas[i] = samples.getSampleChroma(index);
+		}
+	}
+
+	/**
+	 * Converts a run of packed RGB values to their closest Munsell samples,
+	 * packed as by PackedMunsell, the same way as fromRGB(int[], int, int,
+	 * int[]).
+	 * 
+	 * @param rgb    the packed 0xRRGGBB values. Alpha bits are ignored.
+	 * @param offset the index of the first value to convert.
+	 * @param length the number of values to convert.
+	 * @param out    receives the packed Munsell color of each value, at the same
+	 *               index as the value.
+	 */
+	public static void fromRGB(int[] rgb, int offset, int length, long[] out)
+	{
+		RGBSampleIndex samples = getRGBSampleIndex();
+		RGBLookup lookup = rgbLookup;
+
+		for (int i = offset; i < offset + length; i++)
+		{
+			out[i] = samples.getSamplePacked(sampleIndexOf(rgb[i], lookup));
+		}
+	}
+
+	/**
+	 * Converts a packed RGB value to its closest Munsell sample, packed as by
+	 * PackedMunsell, using the current RGB lookup.
+	 * 
+	 * @param rgb the packed 0xRRGGBB value. Alpha bits are ignored.
+	 * @return the packed Munsell color.
+	 */
+	public static long fromRGBPacked(int rgb)
+	{
+		return getRGBSampleIndex().getSamplePacked(sampleIndexOf(rgb, rgbLookup));
+	}
+
+	/**
+	 * Converts a color packed as by PackedMunsell to a packed RGB value. Grays
+	 * and the INTERPOLATED lookup are computed from the packed fields directly;
+	 * the NEAREST_CHIP lookup walks the Munsell -> RGB maps like fromMunsell.
+	 * 
+	 * @param packed the packed Munsell color.
+	 * @return the packed 0xRRGGBB value.
+	 */
+	public static int toRGB(long packed)
+	{
+		if (PackedMunsell.isGrayscale(packed))
+		{
+			// The same gray as MunsellColor.toColor.
+			float num = Math.max(0, Math.min(1, PackedMunsell.value(packed) / 10));
+			int gray = (int) (num * 255 + 0.5f);
+			return (gray << 16) | (gray << 8) | gray;
+		}
+
+		if (munsellLookup == MunsellLookup.INTERPOLATED)
+		{
+			return getMunsellGrid().toRGB(PackedMunsell.totalHue(packed), PackedMunsell.value(packed), 
+															PackedMunsell.chroma(packed));
+		}
+
+		return fromMunsell(PackedMunsell.decode(packed)).getRGB() & 0xFFFFFF;
+	}
+
+	/**
+	 * Returns the index of the sample the given lookup picks for a packed RGB
+	 * value, without allocating.
+	 * 
+	 * @param rgb    the packed 0xRRGGBB value.
+	 * @param lookup the lookup to use.
+	 * @return the sample index.
+	 */
+	private static int sampleIndexOf(int rgb, RGBLookup lookup)
+	{
+		if (lookup == RGBLookup.DENSE_TABLE)
+		{
+			return getRGBLookupTable().indexOf(rgb);
+		} else if (lookup == RGBLookup.NEAREST)
+		{
+			return getRGBSampleIndex().nearestIndex(rgb);
+		}
+
+		return greedyRGBIndex().indexOf(rgb);
+	}
+
+	/**
+	 * Sets the lookup fromMunsell uses to find the color of a MunsellColor.
+	 * 
+	 * @param lookup the lookup to use.
+	 */
+	public static void setMunsellLookup(MunsellLookup lookup)
+	{
+		if (lookup == null)
+			throw new NullPointerException("Munsell lookup cannot be null!");
+
+		munsellLookup = lookup;
+	}
+
+	/**
+	 * @return the lookup fromMunsell uses to find the color of a MunsellColor.
+	 */
+	public static MunsellLookup getMunsellLookup()
+	{
+		return munsellLookup;
+	}
+
+	/**
+	 * Returns the interpolation grid of the Munsell -> RGB map, loading it the
+	 * first time it is asked for. Its toRGB methods convert primitive hue, value
+	 * and chroma without allocating.
+	 * 
+	 * @return the interpolation grid.
+	 */
+	public static MunsellGrid getMunsellGrid()
+	{
+		return MunsellToRGBHolder.GRID;
+	}
+
+	/**
+	 * Sets the lookup fromRGB uses to find the closest MunsellColor.
+	 * 
+	 * @param lookup the lookup to use.
+	 */
+	public static void setRGBLookup(RGBLookup lookup)
+	{
+		if (lookup == null)
+			throw new NullPointerException("RGB lookup cannot be null!");
+
+		rgbLookup = lookup;
+	}
+
+	/**
+	 * @return the lookup fromRGB uses to find the closest MunsellColor.
+	 */
+	public static RGBLookup getRGBLookup()
+	{
+		return rgbLookup;
+	}
 
-		return getRGBToMunsellLayerThreeColor(color, layerTwoLinkedHashMap);
+	/**
+	 * Returns the dense RGB -> Munsell table, building it the first time it is
+	 * asked for.
+	 * 
+	 * @return the dense lookup table.
+	 */
+	public static RGBLookupTable getRGBLookupTable()
+	{
+		return RGBLookupTableHolder.TABLE;
 	}
 
 	/**
@@ -122,7 +429,7 @@ public class ColorConverter
 		ArrayList<ArrayList<MunsellColor>> output = new ArrayList<>();
 
 		// Get the layer one map.
-		LinkedHashMap<Integer, LinkedHashMap<Integer, Color>> layerOne = munsellToRGB.get(hue);
+		LinkedHashMap<Integer, LinkedHashMap<Integer, Color>> layerOne = munsellToRGB().get(hue);
 
 		// The count of how many times we went through the loop.
 		int count = 0;
@@ -163,7 +470,7 @@ public class ColorConverter
 		MunsellColor highest = null; // Color with the highest Chroma.
 
 		// Get the layer one map.
-		LinkedHashMap<Integer, LinkedHashMap<Integer, Color>> layerOne = munsellToRGB.get(hue);
+		LinkedHashMap<Integer, LinkedHashMap<Integer, Color>> layerOne = munsellToRGB().get(hue);
 
 		// Get the values.
 		for (int value : layerOne.keySet())
@@ -198,16 +505,16 @@ public class ColorConverter
 
 		// If the munsellToRGB hash contains the given hue, use it. Otherwise, find the
 		// closest hue in the LinkedHashMap and use it instead.
-		if (munsellToRGB.containsKey(munsell.getHue()))
+		if (munsellToRGB().containsKey(munsell.getHue()))
 		{
-			return munsellToRGB.get(munsell.getHue());
+			return munsellToRGB().get(munsell.getHue());
 		}
 
 		// Find the closest hue to the one given in the MunsellColor.
 		Hue closestHue = null;
-		for (Hue hue : munsellToRGB.keySet())
+		for (Hue hue : munsellToRGB().keySet())
 		{
-			if (hue.getHuePrefix().equals(munsell.getHue().getHuePrefix()))
+			if (hue.getPrefix() == munsell.getHue().getPrefix())
 			{
 				// Set closestHue to the Hue that is closer to the Munsell's hue: the previously
 				// closest hue or the new hue we are iterating over.
@@ -223,7 +530,7 @@ public class ColorConverter
 		}
 
 		// Return the entry in the LinkedHashMap with the closest hue.
-		return munsellToRGB.get(closestHue);
+		return munsellToRGB().get(closestHue);
 	}
 
 	/**
@@ -326,23 +633,23 @@ public class ColorConverter
 	 * Returns the first layer of the rgbToMunsell LinkedHashMap by finding the
 	 * closest red value.
 	 * 
-	 * @param color the RGB color to use.
+	 * @param red the red value to use.
 	 * @return the closest LinkedHashMap.
 	 */
 	private static LinkedHashMap<Integer, LinkedHashMap<Integer, 
-						MunsellColor>> getRGBToMunsellLayerOneLinkedHashMap(Color color)
+						MunsellColor>> getRGBToMunsellLayerOneLinkedHashMap(int red)
 	{
 
 		// If the layerOne hash contains the given value, use it. Otherwise, find the
 		// closest value in the LinkedHashMap and use it instead.
-		if (rgbToMunsell.containsKey(color.getRed()))
+		if (rgbToMunsell().containsKey(red))
 		{
-			return rgbToMunsell.get(color.getRed());
+			return rgbToMunsell().get(red);
 		}
 
 		// Find the closest value to the one given in the MunsellColor.
 		int closestValue = -1;
-		for (int value : rgbToMunsell.keySet())
+		for (int value : rgbToMunsell().keySet())
 		{
 			// Set closestValue to the value that is closer to the Munsell's value: the
 			// previously closest value or the new value we are iterating over.
@@ -353,8 +660,8 @@ public class ColorConverter
 			{
 
 				// Find the closest value.
-				float diff1 = Math.abs(color.getRed() - closestValue);
-				float diff2 = Math.abs(color.getRed() - value);
+				float diff1 = Math.abs(red - closestValue);
+				float diff2 = Math.abs(red - value);
 
 				// If the first diff is greater than the second diff, adjust the closest value.
 				if (diff1 > diff2)
@@ -366,7 +673,7 @@ public class ColorConverter
 		}
 
 		// Return the entry in the LinkedHashMap with the closest value.
-		return rgbToMunsell.get(closestValue);
+		return rgbToMunsell().get(closestValue);
 
 	}
 
@@ -374,19 +681,19 @@ public class ColorConverter
 	 * Returns the first layer of the rgbToMunsell LinkedHashMap by finding the
 	 * closest green value.
 	 * 
-	 * @param color    the RGB color to use.
+	 * @param green    the green value to use.
 	 * @param layerOne the first layer of the hashmap.
 	 * @return the closest LinkedHashMap.
 	 */
 	private static LinkedHashMap<Integer, MunsellColor> getRGBToMunsellLayerTwoLinkedHashMap(
-			Color color, LinkedHashMap<Integer, LinkedHashMap<Integer, MunsellColor>> layerOne)
+			int green, LinkedHashMap<Integer, LinkedHashMap<Integer, MunsellColor>> layerOne)
 	{
 
 		// If the layerOne hash contains the given value, use it. Otherwise, find the
 		// closest value in the LinkedHashMap and use it instead.
-		if (layerOne.containsKey(color.getGreen()))
+		if (layerOne.containsKey(green))
 		{
-			return layerOne.get(color.getGreen());
+			return layerOne.get(green);
 		}
 
 		// Find the closest value to the one given in the MunsellColor.
@@ -402,8 +709,8 @@ public class ColorConverter
 			{
 
 				// Find the closest value.
-				float diff1 = Math.abs(color.getGreen() - closestValue);
-				float diff2 = Math.abs(color.getGreen() - value);
+				float diff1 = Math.abs(green - closestValue);
+				float diff2 = Math.abs(green - value);
 
 				// If the first diff is greater than the second diff, adjust the closest value.
 				if (diff1 > diff2)
@@ -422,19 +729,19 @@ public class ColorConverter
 	 * Returns the first layer of the rgbToMunsell LinkedHashMap by finding the
 	 * closest blue value.
 	 * 
-	 * @param color    the RGB color to use.
+	 * @param blue     the blue value to use.
 	 * @param layerTwo the second layer of the hashmap.
 	 * @return the closest LinkedHashMap.
 	 */
-	private static MunsellColor getRGBToMunsellLayerThreeColor(Color color,
+	private static MunsellColor getRGBToMunsellLayerThreeColor(int blue,
 			LinkedHashMap<Integer, MunsellColor> layerTwo)
 	{
 
 		// If the layerOne hash contains the given value, use it. Otherwise, find the
 		// closest value in the LinkedHashMap and use it instead.
-		if (layerTwo.containsKey(color.getBlue()))
+		if (layerTwo.containsKey(blue))
 		{
-			return layerTwo.get(color.getBlue());
+			return layerTwo.get(blue);
 		}
 
 		// Find the closest value to the one given in the MunsellColor.
@@ -450,8 +757,8 @@ public class ColorConverter
 			{
 
 				// Find the closest value.
-				float diff1 = Math.abs(color.getBlue() - closestValue);
-				float diff2 = Math.abs(color.getBlue() - value);
+				float diff1 = Math.abs(blue - closestValue);
+				float diff2 = Math.abs(blue - value);
 
 				// If the first diff is greater than the second diff, adjust the closest value.
 				if (diff1 > diff2)
@@ -466,6 +773,204 @@ public class ColorConverter
 		return layerTwo.get(closestValue);
 	}
 
+	/**
+	 * Copies every chip of the munsellToRGB map into an interpolation grid.
+	 * 
+	 * @param munsellToRGB the map to copy.
+	 * @return the interpolation grid.
+	 */
+	private static MunsellGrid buildMunsellGrid(LinkedHashMap<Hue, LinkedHashMap<Integer, 
+									LinkedHashMap<Integer, Color>>> munsellToRGB)
+	{
+		MunsellGrid grid = new MunsellGrid();
+
+		for (Hue hue : munsellToRGB.keySet())
+		{
+			for (int value : munsellToRGB.get(hue).keySet())
+			{
+				for (int chroma : munsellToRGB.get(hue).get(value).keySet())
+				{
+					grid.set(hue.getHueTotalValue(), value, chroma, 
+										munsellToRGB.get(hue).get(value).get(chroma).getRGB());
+				}
+			}
+		}
+
+		grid.extendChromas();
+		return grid;
+	}
+
+	/**
+	 * Returns the samples of the RGB -> Munsell map as flat arrays with a k-d tree
+	 * over them, loading them the first time they are asked for.
+	 * 
+	 * @return the sample index.
+	 */
+	public static RGBSampleIndex getRGBSampleIndex()
+	{
+		return RGBToMunsellHolder.SAMPLES;
+	}
+
+	/**
+	 * Flattens the rgbToMunsell map into the sample index, keeping the map's
+	 * order.
+	 * 
+	 * @param rgbToMunsell the map to flatten.
+	 * @return the sample index.
+	 */
+	private static RGBSampleIndex buildRGBSampleIndex(LinkedHashMap<Integer, LinkedHashMap<Integer, 
+									LinkedHashMap<Integer, MunsellColor>>> rgbToMunsell)
+	{
+		ArrayList<MunsellColor> samples = new ArrayList<>();
+		ArrayList<Integer> sampleRGB = new ArrayList<>();
+
+		for (int red : rgbToMunsell.keySet())
+		{
+			for (int green : rgbToMunsell.get(red).keySet())
+			{
+				for (int blue : rgbToMunsell.get(red).get(green).keySet())
+				{
+					samples.add(rgbToMunsell.get(red).get(green).get(blue));
+					sampleRGB.add((red << 16) | (green << 8) | blue);
+				}
+			}
+		}
+
+		int[] rgb = new int[sampleRGB.size()];
+		for (int i = 0; i < rgb.length; i++)
+			rgb[i] = sampleRGB.get(i);
+
+		return new RGBSampleIndex(samples.toArray(new MunsellColor[0]), rgb);
+	}
+
+	/**
+	 * Precomputes the per-channel snapping of the nested maps. The maps snap red,
+	 * then green, then blue, and each snap only depends on its own channel and
+	 * the layer above it, so each layer only needs to be snapped 256 times.
+	 * 
+	 * @param samples the samples of the map, which the index points into.
+	 * @return the greedy index, or null if the map is empty.
+	 */
+	private static GreedyRGBIndex buildGreedyRGBIndex(RGBSampleIndex samples)
+	{
+		if (rgbToMunsell().isEmpty())
+			return null;
+
+		// Index into the same sample order as the k-d tree.
+		IdentityHashMap<MunsellColor, Short> sampleIndices = new IdentityHashMap<>();
+		for (int i = 0; i < samples.getSampleCount(); i++)
+			sampleIndices.put(samples.getSample(i), (short) i);
+
+		// The ids given to each of the layer maps, in the order they are first seen.
+		IdentityHashMap<LinkedHashMap<Integer, LinkedHashMap<Integer, MunsellColor>>, Integer> layerOneIds = 
+																			new IdentityHashMap<>();
+		IdentityHashMap<LinkedHashMap<Integer, MunsellColor>, Integer> layerTwoIds = new IdentityHashMap<>();
+
+		byte[] layerOneOfRed = new byte[256];
+		short[] layerTwoOfGreen = new short[rgbToMunsell().size() * 256];
+		ArrayList<short[]> blueRows = new ArrayList<>();
+
+		for (int red = 0; red < 256; red++)
+		{
+			LinkedHashMap<Integer, LinkedHashMap<Integer, MunsellColor>> layerOne = 
+								getRGBToMunsellLayerOneLinkedHashMap(red);
+
+			Integer layerOneId = layerOneIds.get(layerOne);
+			if (layerOneId != null)
+			{
+				layerOneOfRed[red] = (byte) (int) layerOneId;
+				continue;
+			}
+
+			// Snap every green value the first time this layer is seen.
+			layerOneId = layerOneIds.size();
+			layerOneIds.put(layerOne, layerOneId);
+			layerOneOfRed[red] = (byte) (int) layerOneId;
+
+			for (int green = 0; green < 256; green++)
+			{
+				LinkedHashMap<Integer, MunsellColor> layerTwo = 
+								getRGBToMunsellLayerTwoLinkedHashMap(green, layerOne);
+
+				Integer layerTwoId = layerTwoIds.get(layerTwo);
+				if (layerTwoId == null)
+				{
+					// Snap every blue value the first time this layer is seen.
+					layerTwoId = layerTwoIds.size();
+					layerTwoIds.put(layerTwo, layerTwoId);
+
+					short[] blueRow = new short[256];
+					for (int blue = 0; blue < 256; blue++)
+					{
+						blueRow[blue] = sampleIndices.get(getRGBToMunsellLayerThreeColor(blue, layerTwo));
+					}
+					blueRows.add(blueRow);
+				}
+
+				layerTwoOfGreen[(layerOneId << 8) | green] = (short) (int) layerTwoId;
+			}
+		}
+
+		short[] sampleOfBlue = new short[blueRows.size() * 256];
+		for (int i = 0; i < blueRows.size(); i++)
+			System.arraycopy(blueRows.get(i), 0, sampleOfBlue, i << 8, 256);
+
+		return new GreedyRGBIndex(layerOneOfRed, layerTwoOfGreen, sampleOfBlue);
+	}
+
+	/**
+	 * Builds the dense RGB -> Munsell table by copying whole blue rows out of the
+	 * greedy index, rather than doing 16.7 million map lookups.
+	 * 
+	 * @return the dense lookup table.
+	 */
+	private static RGBLookupTable buildRGBLookupTable()
+	{
+		GreedyRGBIndex greedy = greedyRGBIndex();
+		short[] table = new short[RGBLookupTable.SIZE];
+
+		for (int red = 0; red < 256; red++)
+		{
+			for (int green = 0; green < 256; green++)
+			{
+				greedy.copyBlueRow(red, green, table, (red << 16) | (green << 8));
+			}
+		}
+
+		return new RGBLookupTable(getRGBSampleIndex(), table);
+	}
+
+	/**
+	 * @return the greedy index of the RGB -> Munsell map, loading it on first use.
+	 * @throws IllegalStateException if the RGB -> Munsell information could not
+	 *                               be loaded.
+	 */
+	private static GreedyRGBIndex greedyRGBIndex()
+	{
+		if (RGBToMunsellHolder.GREEDY == null)
+			throw new IllegalStateException("The RGB -> Munsell information could not be loaded!");
+
+		return RGBToMunsellHolder.GREEDY;
+	}
+
+	/**
+	 * @return the Munsell -> RGB map, loading it on first use.
+	 */
+	private static LinkedHashMap<Hue, LinkedHashMap<Integer, LinkedHashMap<Integer, 
+									Color>>> munsellToRGB()
+	{
+		return MunsellToRGBHolder.MAP;
+	}
+
+	/**
+	 * @return the RGB -> Munsell map, loading it on first use.
+	 */
+	private static LinkedHashMap<Integer, LinkedHashMap<Integer, LinkedHashMap<Integer, 
+									MunsellColor>>> rgbToMunsell()
+	{
+		return RGBToMunsellHolder.MAP;
+	}
+
 	/**
 	 * Returns the hue that is closer to the wantedHue. We know that all the hues
 	 * have the exact same Hue Prefix so we only compare their hue values.
@@ -492,100 +997,71 @@ public class ColorConverter
 	}
 
 	/**
-	 * Builds the MunsellToRGB LinkedHashMap.
+	 * Builds the MunsellToRGB LinkedHashMap from the binary snapshot, or from the
+	 * CSV if there is no snapshot.
+	 * 
+	 * @return the map. Empty if neither could be read.
 	 */
-	private static void buildMunsellToRGBMap()
+	private static LinkedHashMap<Hue, LinkedHashMap<Integer, LinkedHashMap<Integer, 
+									Color>>> buildMunsellToRGBMap()
 	{
-		try
-		{
-			// Get the file reader.
-			BufferedReader br = new BufferedReader(new FileReader("res/Munsell2RGB.csv"));
-
-			String line = br.readLine(); // Skip the first line. It is a header file.
-
-			// Go through each of the lines and add it to the Map.
-			while ((line = br.readLine()) != null)
-			{
-				// Split the line by comma.
-				String[] split = line.split(",");
-
-				// Get MunsellColor information.
-				Hue hue = new Hue(split[2], Float.parseFloat(split[3]));
-				int value = Integer.parseInt(split[4]);
-				int chroma = Integer.parseInt(split[5]);
-
-				// Get RGB information.
-				int red = Integer.parseInt(split[6]);
-				int green = Integer.parseInt(split[7]);
-				int blue = Integer.parseInt(split[8]);
-				Color color = new Color(red, green, blue);
-
-				// If chroma or value is 0, something is wrong, so continue...
-				if (chroma == 0 || value == 0)
-				{
-					continue;
-				}
+		LinkedHashMap<Hue, LinkedHashMap<Integer, LinkedHashMap<Integer, 
+									Color>>> munsellToRGB = new LinkedHashMap<>();
 
-				// Add the information from the line to the map.
-				addMunsellColorToMap(hue, value, chroma, color);
-			}
+		ConversionTableFile.MunsellChips chips = ConversionTableFile.loadMunsellChips();
+		if (chips == null)
+			return munsellToRGB;
 
-			br.close();
-		} catch (IOException e)
+		// Add each chip to the map.
+		for (int i = 0; i < chips.count; i++)
 		{
-			System.err.println("Error finding munsell->rgb csv. File not found!");
+			Hue hue = Hue.of(HuePrefix.fromOrdinal(chips.prefix[i]), chips.hueNumber[i]);
+			addMunsellColorToMap(munsellToRGB, hue, chips.value[i], chips.chroma[i], new Color(chips.rgb[i]));
 		}
+
+		return munsellToRGB;
 	}
 
 	/**
-	 * Builds the RGBToMunsell LinkedHashMap.
+	 * Builds the RGBToMunsell LinkedHashMap from the binary snapshot, or from the
+	 * CSV if there is no snapshot.
+	 * 
+	 * @return the map. Empty if neither could be read.
 	 */
-	private static void buildRGBToMunsellMap()
+	private static LinkedHashMap<Integer, LinkedHashMap<Integer, LinkedHashMap<Integer, 
+									MunsellColor>>> buildRGBToMunsellMap()
 	{
-		try
-		{
-			// Get the file reader.
-			BufferedReader br = new BufferedReader(new FileReader("res/RGB2Munsell.csv"));
-
-			String line = br.readLine(); // Skip the first line. It is a header file.
+		LinkedHashMap<Integer, LinkedHashMap<Integer, LinkedHashMap<Integer, 
+									MunsellColor>>> rgbToMunsell = new LinkedHashMap<>();
 
-			// Go through each of the lines and add it to the Map.
-			while ((line = br.readLine()) != null)
-			{
-				// Split the line by comma.
-				String[] split = line.split(",");
-
-				// Get RGB information.
-				int red = Integer.parseInt(split[0]);
-				int green = Integer.parseInt(split[1]);
-				int blue = Integer.parseInt(split[2]);
-
-				// Get MunsellColor information.
-				Hue hue = new Hue(split[3]);
-				float value = Float.parseFloat(split[4]);
-				float chroma = Float.parseFloat(split[5]);
-				MunsellColor color = new MunsellColor(hue, value, chroma);
+		ConversionTableFile.RGBSamples samples = ConversionTableFile.loadRGBSamples();
+		if (samples == null)
+			return rgbToMunsell;
 
-				// Add the information from the line to the map.
-				addRGBToMap(red, green, blue, color);
-			}
-
-			br.close();
-		} catch (IOException e)
+		// Add each sample to the map.
+		for (int i = 0; i < samples.count; i++)
 		{
-			System.err.println("Error finding munsell->rgb csv. File not found!");
+			Hue hue = Hue.of(HuePrefix.fromOrdinal(samples.prefix[i]), samples.hueNumber[i]);
+			MunsellColor color = new MunsellColor(hue, samples.value[i], samples.chroma[i]);
+
+			int rgb = samples.rgb[i];
+			addRGBToMap(rgbToMunsell, (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, color);
 		}
+
+		return rgbToMunsell;
 	}
 
 	/**
 	 * Adds the given MunsellColor information to the munsellToRGB map.
 	 * 
+	 * @param munsellToRGB the map to add to.
 	 * @param hue    the hue to use.
 	 * @param value  the value to use.
 	 * @param chroma the chroma to use.
 	 * @param color  the color to add.
 	 */
-	private static void addMunsellColorToMap(Hue hue, int value, int chroma, Color color)
+	private static void addMunsellColorToMap(LinkedHashMap<Hue, LinkedHashMap<Integer, 
+			LinkedHashMap<Integer, Color>>> munsellToRGB, Hue hue, int value, int chroma, Color color)
 	{
 		// The first layer of the master map.
 		LinkedHashMap<Integer, LinkedHashMap<Integer, Color>> layerOne;
@@ -628,12 +1104,14 @@ public class ColorConverter
 	/**
 	 * Adds the given Swing Color to the rgbToMunsell map.
 	 * 
+	 * @param rgbToMunsell the map to add to.
 	 * @param red   the red value to use.
 	 * @param green the green value to use.
 	 * @param blue  the blue value to use.
 	 * @param color the MunsellColor to add.
 	 */
-	private static void addRGBToMap(int red, int green, int blue, MunsellColor color)
+	private static void addRGBToMap(LinkedHashMap<Integer, LinkedHashMap<Integer, 
+			LinkedHashMap<Integer, MunsellColor>>> rgbToMunsell, int red, int green, int blue, MunsellColor color)
 	{
 		// The first layer of the master map.
 		LinkedHashMap<Integer, LinkedHashMap<Integer, MunsellColor>> layerOne;
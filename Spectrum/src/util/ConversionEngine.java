@@ -0,0 +1,245 @@
+package util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Converts large arrays of packed RGB values to Munsell
+ *          across several cores. The array is split into ForkJoin tasks that
+ *          idle workers steal from each other, and each task runs the batch
+ *          conversion of ColorConverter over its own range. The engine owns its
+ *          pool unless it uses the common pool, so close it when done.
+ */
+public class ConversionEngine implements AutoCloseable
+{
+	/**
+	 * Ranges shorter than this are never split further.
+	 */
+	public static final int MIN_CHUNK = 8192;
+
+	/**
+	 * How many tasks to aim for per worker, so that workers that finish early
+	 * have something to steal.
+	 */
+	private static final int TASKS_PER_WORKER = 8;
+
+	private final ForkJoinPool pool; // The pool the tasks run in.
+	private final boolean ownsPool; // Whether close should shut the pool down.
+
+	/**
+	 * Creates an engine that runs in the common ForkJoin pool.
+	 */
+	public ConversionEngine()
+	{
+		pool = ForkJoinPool.commonPool();
+		ownsPool = false;
+	}
+
+	/**
+	 * Creates an engine with its own pool of the given number of workers.
+	 *
+	 * @param parallelism the number of workers. Must be at least 1.
+	 */
+	public ConversionEngine(int parallelism)
+	{
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be at least 1!");
+
+		pool = new ForkJoinPool(parallelism);
+		ownsPool = true;
+	}
+
+	/**
+	 * @return the number of workers converting in parallel.
+	 */
+	public int getParallelism()
+	{
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Returns the length below which a range is converted without being split,
+	 * tuned so an array of the given length makes a few tasks per worker.
+	 *
+	 * @param length the length of the whole array being converted.
+	 * @return the split threshold.
+	 */
+	public int getThreshold(int length)
+	{
+		return Math.max(MIN_CHUNK, length / (getParallelism() * TASKS_PER_WORKER));
+	}
+
+	/**
+	 * Converts a run of packed RGB values to sample indices in parallel. Gives
+	 * the same results as ColorConverter.fromRGB(int[], int, int, int[]).
+	 *
+	 * @param rgb           the packed 0xRRGGBB values.
+	 * @param offset        the index of the first value to convert.
+	 * @param length        the number of values to convert.
+	 * @param sampleIndices receives the sample index of each value, at the same
+	 *                      index as the value.
+	 */
+	public void fromRGB(int[] rgb, int offset, int length, int[] sampleIndices)
+	{
+		run(new ConversionTask(rgb, offset, offset + length, getThreshold(length), sampleIndices, null, null, null,
+				null));
+	}
+
+	/**
+	 * Converts a run of packed RGB values to hue, value and chroma in parallel.
+	 * Gives the same results as ColorConverter.fromRGB(int[], int, int, float[],
+	 * float[], float[]).
+	 *
+	 * @param rgb       the packed 0xRRGGBB values.
+	 * @param offset    the index of the first value to convert.
+	 * @param length    the number of values to convert.
+	 * @param totalHues receives the total hue value of each color.
+	 * @param values    receives the value of each color.
+	 * @param chromas   receives the chroma of each color.
+	 */
+	public void fromRGB(int[] rgb, int offset, int length, float[] totalHues, float[] values, float[] chromas)
+	{
+		run(new ConversionTask(rgb, offset, offset + length, getThreshold(length), null, totalHues, values,
+				chromas, null));
+	}
+
+	/**
+	 * Converts a run of packed RGB values to packed Munsell colors in parallel.
+	 * Gives the same results as ColorConverter.fromRGB(int[], int, int, long[]).
+	 *
+	 * @param rgb    the packed 0xRRGGBB values.
+	 * @param offset the index of the first value to convert.
+	 * @param length the number of values to convert.
+	 * @param out    receives the packed Munsell color of each value, at the same
+	 *               index as the value.
+	 */
+	public void fromRGB(int[] rgb, int offset, int length, long[] out)
+	{
+		run(new ConversionTask(rgb, offset, offset + length, getThreshold(length), null, null, null, null, out));
+	}
+
+	/**
+	 * Shuts down the engine's pool, if it has its own.
+	 */
+	@Override
+	public void close()
+	{
+		if (ownsPool)
+			pool.shutdown();
+	}
+
+	/**
+	 * Runs a task, converting directly when there is nothing to split.
+	 *
+	 * @param task the task to run.
+	 */
+	private void run(ConversionTask task)
+	{
+		// Load the lookup tables on this thread, rather than stalling every worker.
+		ColorConverter.getRGBSampleIndex();
+		if (ColorConverter.getRGBLookup() == ColorConverter.RGBLookup.DENSE_TABLE)
+			ColorConverter.getRGBLookupTable();
+
+		if (task.end - task.start <= task.threshold || getParallelism() == 1)
+		{
+			task.convert(task.start, task.end);
+		} else
+		{
+			pool.invoke(task);
+		}
+	}
+
+	/**
+	 * Converts a range of the array, splitting it in half until the halves are
+	 * below the threshold.
+	 */
+	private static class ConversionTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] rgb; // The packed RGB values.
+		private final int start; // The first index to convert.
+		private final int end; // One past the last index to convert.
+		private final int threshold; // The length below which to stop splitting.
+		private final int[] sampleIndices; // The sample index output, or null.
+		private final float[] totalHues; // The hue output, or null.
+		private final float[] values; // The value output, or null.
+		private final float[] chromas; // The chroma output, or null.
+		private final long[] packed; // The packed Munsell output, or null.
+
+		/**
+		 * Creates a task over [start, end). Exactly one of sampleIndices, packed, or
+		 * all of the hue, value and chroma outputs must be given.
+		 *
+		 * @param rgb           the packed RGB values.
+		 * @param start         the first index to convert.
+		 * @param end           one past the last index to convert.
+		 * @param threshold     the length below which to stop splitting.
+		 * @param sampleIndices the sample index output, or null.
+		 * @param totalHues     the hue output, or null.
+		 * @param values        the value output, or null.
+		 * @param chromas       the chroma output, or null.
+		 * @param packed        the packed Munsell output, or null.
+		 */
+		ConversionTask(int[] rgb, int start, int end, int threshold, int[] sampleIndices, float[] totalHues,
+				float[] values, float[] chromas, long[] packed)
+		{
+			this.rgb = rgb;
+			this.start = start;
+			this.end = end;
+			this.threshold = threshold;
+			this.sampleIndices = sampleIndices;
+			this.totalHues = totalHues;
+			this.values = values;
+			this.chromas = chromas;
+			this.packed = packed;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (end - start <= threshold)
+			{
+				convert(start, end);
+				return;
+			}
+
+			int mid = (start + end) >>> 1;
+			invokeAll(subtask(start, mid), subtask(mid, end));
+		}
+
+		/**
+		 * @param from the first index of the subtask.
+		 * @param to   one past the last index of the subtask.
+		 * @return a task converting [from, to) into the same outputs as this one.
+		 */
+		private ConversionTask subtask(int from, int to)
+		{
+			return new ConversionTask(rgb, from, to, threshold, sampleIndices, totalHues, values, chromas, packed);
+		}
+
+		/**
+		 * Converts [from, to) on the current thread.
+		 *
+		 * @param from the first index to convert.
+		 * @param to   one past the last index to convert.
+		 */
+		void convert(int from, int to)
+		{
+			if (sampleIndices != null)
+			{
+				ColorConverter.fromRGB(rgb, from, to - from, sampleIndices);
+			} else if (packed != null)
+			{
+				ColorConverter.fromRGB(rgb, from, to - from, packed);
+			} else
+			{
+				ColorConverter.fromRGB(rgb, from, to - from, totalHues, values, chromas);
+			}
+		}
+	}
+}
@@ -0,0 +1,528 @@
+package util;
+
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import model.HueParser;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Reads the conversion information for both directions,
+ *          either from a compact binary snapshot or from the CSVs in res/. The
+ *          snapshot is memory-mapped and read without any string parsing, so
+ *          short-lived processes start quickly. When it is missing or out of
+ *          date the CSVs are parsed instead. The snapshot holds the size,
+ *          modification time and checksum of each CSV it was made from, so a
+ *          snapshot left over from before a CSV was edited is not used. Each
+ *          direction checks only its own CSV, and reads it for its checksum
+ *          only when the size matches and the modification time does not, as
+ *          after a fresh checkout.
+ *
+ *          The snapshot is generated from the CSVs by running this class:
+ *          "java util.ConversionTableFile" from the Spectrum directory. Run it
+ *          again whenever a CSV changes.
+ *
+ *          Snapshot layout (big-endian):
+ *          <ul>
+ *          <li>header: int MAGIC, int VERSION, int chip count, int sample
+ *          count, then for the Munsell -> RGB CSV and then the RGB -> Munsell
+ *          CSV: long size, long modification time in milliseconds, int
+ *          CRC-32</li>
+ *          <li>Munsell -> RGB chips, 10 bytes each: byte hue prefix index,
+ *          float hue number, byte value, byte chroma, byte red, green, blue</li>
+ *          <li>RGB -> Munsell samples, 16 bytes each: byte red, green, blue,
+ *          byte hue prefix index, float hue number, float value, float
+ *          chroma</li>
+ *          </ul>
+ *          Hue prefix indices refer to Hue.huePrefixes.
+ */
+public class ConversionTableFile
+{
+	/**
+	 * The first four bytes of a snapshot ("MNSL").
+	 */
+	public static final int MAGIC = 0x4D4E534C;
+
+	/**
+	 * The snapshot format version. Snapshots with any other version are ignored.
+	 */
+	public static final int VERSION = 3;
+
+	/**
+	 * The location of the binary snapshot.
+	 */
+	public static final String SNAPSHOT_PATH = "res/ConversionTables.bin";
+
+	/**
+	 * The location of the Munsell -> RGB CSV.
+	 */
+	public static final String MUNSELL_CSV_PATH = "res/Munsell2RGB.csv";
+
+	/**
+	 * The location of the RGB -> Munsell CSV.
+	 */
+	public static final String RGB_CSV_PATH = "res/RGB2Munsell.csv";
+
+	private static final int HEADER_SIZE = 56; // The size of the header in bytes.
+	private static final int MUNSELL_CSV_STAMP = 16; // Where the header describes the Munsell -> RGB CSV.
+	private static final int RGB_CSV_STAMP = 36; // Where the header describes the RGB -> Munsell CSV.
+	private static final int CHIP_SIZE = 10; // The size of a chip record in bytes.
+	private static final int SAMPLE_SIZE = 16; // The size of a sample record in bytes.
+	private static final int INITIAL_CAPACITY = 1024; // The starting room when streaming a CSV.
+
+	/**
+	 * The chips of the Munsell -> RGB direction, as parallel arrays.
+	 */
+	static class MunsellChips
+	{
+		int count; // The number of chips.
+		byte[] prefix; // The hue prefix index of each chip.
+		float[] hueNumber; // The hue number of each chip.
+		int[] value; // The value of each chip.
+		int[] chroma; // The chroma of each chip.
+		int[] rgb; // The packed RGB value of each chip.
+
+		/**
+		 * Creates room for the given number of chips.
+		 *
+		 * @param count the number of chips.
+		 */
+		MunsellChips(int count)
+		{
+			this.count = count;
+			prefix = new byte[count];
+			hueNumber = new float[count];
+			value = new int[count];
+			chroma = new int[count];
+			rgb = new int[count];
+		}
+
+		/**
+		 * Grows or shrinks the arrays to the given capacity. The count is kept,
+		 * unless there is no longer room for that many chips.
+		 *
+		 * @param capacity the new length of the arrays.
+		 */
+		void resize(int capacity)
+		{
+			count = Math.min(count, capacity);
+			prefix = Arrays.copyOf(prefix, capacity);
+			hueNumber = Arrays.copyOf(hueNumber, capacity);
+			value = Arrays.copyOf(value, capacity);
+			chroma = Arrays.copyOf(chroma, capacity);
+			rgb = Arrays.copyOf(rgb, capacity);
+		}
+	}
+
+	/**
+	 * The samples of the RGB -> Munsell direction, as parallel arrays.
+	 */
+	static class RGBSamples
+	{
+		int count; // The number of samples.
+		int[] rgb; // The packed RGB value of each sample.
+		byte[] prefix; // The hue prefix index of each sample.
+		float[] hueNumber; // The hue number of each sample.
+		float[] value; // The value of each sample.
+		float[] chroma; // The chroma of each sample.
+
+		/**
+		 * Creates room for the given number of samples.
+		 *
+		 * @param count the number of samples.
+		 */
+		RGBSamples(int count)
+		{
+			this.count = count;
+			rgb = new int[count];
+			prefix = new byte[count];
+			hueNumber = new float[count];
+			value = new float[count];
+			chroma = new float[count];
+		}
+
+		/**
+		 * Grows or shrinks the arrays to the given capacity. The count is kept,
+		 * unless there is no longer room for that many samples.
+		 *
+		 * @param capacity the new length of the arrays.
+		 */
+		void resize(int capacity)
+		{
+			count = Math.min(count, capacity);
+			rgb = Arrays.copyOf(rgb, capacity);
+			prefix = Arrays.copyOf(prefix, capacity);
+			hueNumber = Arrays.copyOf(hueNumber, capacity);
+			value = Arrays.copyOf(value, capacity);
+			chroma = Arrays.copyOf(chroma, capacity);
+		}
+	}
+
+	/**
+	 * No instances.
+	 */
+	private ConversionTableFile()
+	{
+	}
+
+	/**
+	 * Loads the Munsell -> RGB chips from the snapshot, or from the CSV if there
+	 * is no usable snapshot.
+	 *
+	 * @return the chips, or null if neither could be read.
+	 */
+	static MunsellChips loadMunsellChips()
+	{
+		ByteBuffer snapshot = mapSnapshot(Paths.get(SNAPSHOT_PATH), MUNSELL_CSV_PATH, MUNSELL_CSV_STAMP);
+		if (snapshot != null)
+			return readMunsellChips(snapshot);
+
+		try
+		{
+			return readMunsellCSV(MUNSELL_CSV_PATH);
+		} catch (IOException e)
+		{
+			System.err.println("Error finding munsell->rgb csv. File not found!");
+			return null;
+		}
+	}
+
+	/**
+	 * Loads the RGB -> Munsell samples from the snapshot, or from the CSV if there
+	 * is no usable snapshot.
+	 *
+	 * @return the samples, or null if neither could be read.
+	 */
+	static RGBSamples loadRGBSamples()
+	{
+		ByteBuffer snapshot = mapSnapshot(Paths.get(SNAPSHOT_PATH), RGB_CSV_PATH, RGB_CSV_STAMP);
+		if (snapshot != null)
+			return readRGBSamples(snapshot);
+
+		try
+		{
+			return readRGBCSV(RGB_CSV_PATH);
+		} catch (IOException e)
+		{
+			System.err.println("Error finding rgb->munsell csv. File not found!");
+			return null;
+		}
+	}
+
+	/**
+	 * Memory-maps the snapshot and checks its header against the CSV of the
+	 * direction being loaded. A CSV that cannot be read is not checked, since
+	 * there would be nothing to fall back to.
+	 *
+	 * @param path  the location of the snapshot.
+	 * @param csv   the location of the CSV of the direction being loaded.
+	 * @param stamp where the header describes that CSV.
+	 * @return the mapped snapshot, or null if it is missing, not a snapshot of
+	 *         the current version, or made from a different CSV.
+	 */
+	static ByteBuffer mapSnapshot(Path path, String csv, int stamp)
+	{
+		if (!Files.isRegularFile(path))
+			return null;
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			if (channel.size() < HEADER_SIZE)
+				return null;
+
+			// The mapping stays valid after the channel is closed.
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+			{
+				System.err.println("Conversion table snapshot is out of date. Falling back to the CSVs.");
+				return null;
+			}
+
+			if (!matches(csv, buffer.getLong(stamp), buffer.getLong(stamp + 8), buffer.getInt(stamp + 16)))
+			{
+				System.err.println("Conversion table snapshot is older than the CSVs. Falling back to the CSVs.");
+				return null;
+			}
+
+			long expected = HEADER_SIZE + (long) buffer.getInt(8) * CHIP_SIZE
+					+ (long) buffer.getInt(12) * SAMPLE_SIZE;
+			if (channel.size() != expected)
+			{
+				System.err.println("Conversion table snapshot is corrupt. Falling back to the CSVs.");
+				return null;
+			}
+
+			return buffer;
+		} catch (IOException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Checks a CSV against what a snapshot holds for it, reading it only if
+	 * its size matches and its modification time does not.
+	 *
+	 * @param path     the location of a CSV.
+	 * @param size     the size a snapshot holds for it.
+	 * @param modified the modification time a snapshot holds for it.
+	 * @param checksum the CRC-32 a snapshot holds for it.
+	 * @return false if the CSV can be read and is different.
+	 */
+	private static boolean matches(String path, long size, long modified, int checksum)
+	{
+		try
+		{
+			Path csv = Paths.get(path);
+			if (Files.size(csv) != size)
+				return false;
+			if (Files.getLastModifiedTime(csv).toMillis() == modified)
+				return true;
+
+			return checksum(path) == checksum;
+		} catch (IOException e)
+		{
+			return true;
+		}
+	}
+
+	/**
+	 * Writes what a snapshot holds for a CSV.
+	 *
+	 * @param out  the snapshot being written.
+	 * @param path the location of the CSV.
+	 * @throws IOException if the CSV could not be read.
+	 */
+	private static void writeStamp(DataOutputStream out, String path) throws IOException
+	{
+		Path csv = Paths.get(path);
+		out.writeLong(Files.size(csv));
+		out.writeLong(Files.getLastModifiedTime(csv).toMillis());
+		out.writeInt(checksum(path));
+	}
+
+	/**
+	 * @param path the location of a file.
+	 * @return the CRC-32 of the file's bytes.
+	 * @throws IOException if the file could not be read.
+	 */
+	static int checksum(String path) throws IOException
+	{
+		CRC32 crc = new CRC32();
+		crc.update(Files.readAllBytes(Paths.get(path)));
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Reads the chips section of a mapped snapshot.
+	 *
+	 * @param snapshot the snapshot, as returned by mapSnapshot.
+	 * @return the chips.
+	 */
+	static MunsellChips readMunsellChips(ByteBuffer snapshot)
+	{
+		MunsellChips chips = new MunsellChips(snapshot.getInt(8));
+
+		int position = HEADER_SIZE;
+		for (int i = 0; i < chips.count; i++, position += CHIP_SIZE)
+		{
+			chips.prefix[i] = snapshot.get(position);
+			chips.hueNumber[i] = snapshot.getFloat(position + 1);
+			chips.value[i] = snapshot.get(position + 5) & 0xFF;
+			chips.chroma[i] = snapshot.get(position + 6) & 0xFF;
+			chips.rgb[i] = ((snapshot.get(position + 7) & 0xFF) << 16) | ((snapshot.get(position + 8) & 0xFF) << 8)
+					| (snapshot.get(position + 9) & 0xFF);
+		}
+
+		return chips;
+	}
+
+	/**
+	 * Reads the samples section of a mapped snapshot.
+	 *
+	 * @param snapshot the snapshot, as returned by mapSnapshot.
+	 * @return the samples.
+	 */
+	static RGBSamples readRGBSamples(ByteBuffer snapshot)
+	{
+		RGBSamples samples = new RGBSamples(snapshot.getInt(12));
+
+		int position = HEADER_SIZE + snapshot.getInt(8) * CHIP_SIZE;
+		for (int i = 0; i < samples.count; i++, position += SAMPLE_SIZE)
+		{
+			samples.rgb[i] = ((snapshot.get(position) & 0xFF) << 16) | ((snapshot.get(position + 1) & 0xFF) << 8)
+					| (snapshot.get(position + 2) & 0xFF);
+			samples.prefix[i] = snapshot.get(position + 3);
+			samples.hueNumber[i] = snapshot.getFloat(position + 4);
+			samples.value[i] = snapshot.getFloat(position + 8);
+			samples.chroma[i] = snapshot.getFloat(position + 12);
+		}
+
+		return samples;
+	}
+
+	/**
+	 * Parses the Munsell -> RGB CSV. Chips with a value or chroma of 0 are
+	 * skipped. The CSV is streamed and parsed in place, so nothing is allocated
+	 * per row.
+	 *
+	 * @param path the location of the CSV.
+	 * @return the chips, in the order of the CSV.
+	 * @throws IOException if the CSV could not be read.
+	 */
+	static MunsellChips readMunsellCSV(String path) throws IOException
+	{
+		MunsellChips chips = new MunsellChips(INITIAL_CAPACITY);
+		chips.count = 0;
+
+		try (CSVScanner csv = new CSVScanner(new FileInputStream(path)))
+		{
+			csv.nextRow(); // Skip the first line. It is a header file.
+
+			// Go through each of the lines and keep the usable ones.
+			while (csv.nextRow())
+			{
+				int value = csv.getInt(4);
+				int chroma = csv.getInt(5);
+
+				// If chroma or value is 0, something is wrong, so continue...
+				if (value == 0 || chroma == 0)
+				{
+					continue;
+				}
+
+				if (chips.count == chips.rgb.length)
+					chips.resize(chips.count * 2);
+
+				int i = chips.count++;
+				chips.prefix[i] = (byte) csv.getPrefix(2).ordinal();
+				chips.hueNumber[i] = csv.getFloat(3);
+				chips.value[i] = value;
+				chips.chroma[i] = chroma;
+				chips.rgb[i] = (csv.getInt(6) << 16) | (csv.getInt(7) << 8) | csv.getInt(8);
+			}
+		}
+
+		chips.resize(chips.count);
+		return chips;
+	}
+
+	/**
+	 * Parses the RGB -> Munsell CSV. The CSV is streamed and parsed in place, so
+	 * nothing is allocated per row.
+	 *
+	 * @param path the location of the CSV.
+	 * @return the samples, in the order of the CSV.
+	 * @throws IOException if the CSV could not be read.
+	 */
+	static RGBSamples readRGBCSV(String path) throws IOException
+	{
+		RGBSamples samples = new RGBSamples(INITIAL_CAPACITY);
+		samples.count = 0;
+
+		try (CSVScanner csv = new CSVScanner(new FileInputStream(path)))
+		{
+			csv.nextRow(); // Skip the first line. It is a header file.
+
+			while (csv.nextRow())
+			{
+				if (samples.count == samples.rgb.length)
+					samples.resize(samples.count * 2);
+
+				int i = samples.count++;
+				long hue = csv.getHue(3);
+
+				samples.rgb[i] = (csv.getInt(0) << 16) | (csv.getInt(1) << 8) | csv.getInt(2);
+				samples.prefix[i] = (byte) HueParser.prefixOf(hue).ordinal();
+				samples.hueNumber[i] = HueParser.numberOf(hue);
+				samples.value[i] = csv.getFloat(4);
+				samples.chroma[i] = csv.getFloat(5);
+			}
+		}
+
+		samples.resize(samples.count);
+		return samples;
+	}
+
+	/**
+	 * Writes a snapshot of the given chips and samples.
+	 *
+	 * @param path       the location to write the snapshot to.
+	 * @param chips      the Munsell -> RGB chips.
+	 * @param samples    the RGB -> Munsell samples.
+	 * @param munsellCSV the location of the CSV the chips were read from.
+	 * @param rgbCSV     the location of the CSV the samples were read from.
+	 * @throws IOException if a CSV could not be read or the snapshot could not
+	 *                     be written.
+	 */
+	static void writeSnapshot(String path, MunsellChips chips, RGBSamples samples, String munsellCSV,
+			String rgbCSV) throws IOException
+	{
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(path)))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(chips.count);
+			out.writeInt(samples.count);
+			writeStamp(out, munsellCSV);
+			writeStamp(out, rgbCSV);
+
+			for (int i = 0; i < chips.count; i++)
+			{
+				out.writeByte(chips.prefix[i]);
+				out.writeFloat(chips.hueNumber[i]);
+				out.writeByte(chips.value[i]);
+				out.writeByte(chips.chroma[i]);
+				out.writeByte(chips.rgb[i] >> 16);
+				out.writeByte(chips.rgb[i] >> 8);
+				out.writeByte(chips.rgb[i]);
+			}
+
+			for (int i = 0; i < samples.count; i++)
+			{
+				out.writeByte(samples.rgb[i] >> 16);
+				out.writeByte(samples.rgb[i] >> 8);
+				out.writeByte(samples.rgb[i]);
+				out.writeByte(samples.prefix[i]);
+				out.writeFloat(samples.hueNumber[i]);
+				out.writeFloat(samples.value[i]);
+				out.writeFloat(samples.chroma[i]);
+			}
+		}
+	}
+
+	/**
+	 * Generates the binary snapshot from the CSVs. Run from the Spectrum
+	 * directory.
+	 *
+	 * @param args an optional path to write the snapshot to instead of
+	 *             SNAPSHOT_PATH.
+	 * @throws IOException if a CSV could not be read or the snapshot could not be
+	 *                     written.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		String path = args.length > 0 ? args[0] : SNAPSHOT_PATH;
+
+		MunsellChips chips = readMunsellCSV(MUNSELL_CSV_PATH);
+		RGBSamples samples = readRGBCSV(RGB_CSV_PATH);
+		writeSnapshot(path, chips, samples, MUNSELL_CSV_PATH, RGB_CSV_PATH);
+
+		System.out.println("Wrote " + chips.count + " chips and " + samples.count + " samples to " + path);
+	}
+}
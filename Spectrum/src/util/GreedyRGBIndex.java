@@ -0,0 +1,67 @@
+package util;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: A primitive copy of the per-channel snapping the nested
+ *          RGB -> Munsell maps do. Red picks a layer one map, green picks a
+ *          layer two map within it, and blue picks a sample within that. Each
+ *          step is precomputed for all 256 channel values, so a lookup is three
+ *          array reads that give the same answer as walking the maps, without
+ *          boxing or hashing. The ids and indices are stored unsigned, so
+ *          there can be up to 256 layer one maps and 65536 layer two maps and
+ *          samples.
+ */
+public class GreedyRGBIndex
+{
+	private final byte[] layerOneOfRed; // The layer one map each red value snaps to.
+	private final short[] layerTwoOfGreen; // The layer two map each green value snaps to, per layer one map.
+	private final short[] sampleOfBlue; // The sample each blue value snaps to, per layer two map.
+
+	/**
+	 * Creates the index from the precomputed snaps.
+	 *
+	 * @param layerOneOfRed   the layer one map id of each red value.
+	 * @param layerTwoOfGreen the layer two map id of each green value, 256 entries
+	 *                        per layer one map.
+	 * @param sampleOfBlue    the sample index of each blue value, 256 entries per
+	 *                        layer two map.
+	 */
+	GreedyRGBIndex(byte[] layerOneOfRed, short[] layerTwoOfGreen, short[] sampleOfBlue)
+	{
+		this.layerOneOfRed = layerOneOfRed;
+		this.layerTwoOfGreen = layerTwoOfGreen;
+		this.sampleOfBlue = sampleOfBlue;
+	}
+
+	/**
+	 * Returns the index of the sample the nested maps would pick for the given
+	 * packed RGB value. Any alpha bits are ignored.
+	 *
+	 * @param rgb the packed 0xRRGGBB value.
+	 * @return the sample index.
+	 */
+	public int indexOf(int rgb)
+	{
+		int layerOne = layerOneOfRed[(rgb >> 16) & 0xFF] & 0xFF;
+		int layerTwo = layerTwoOfGreen[(layerOne << 8) | ((rgb >> 8) & 0xFF)] & 0xFFFF;
+		return sampleOfBlue[(layerTwo << 8) | (rgb & 0xFF)] & 0xFFFF;
+	}
+
+	/**
+	 * Copies the 256 sample indices the given red and green values snap to, one
+	 * for each blue value.
+	 *
+	 * @param red    the red value.
+	 * @param green  the green value.
+	 * @param dest   the array to copy into.
+	 * @param offset the position in dest of the entry for blue 0.
+	 */
+	void copyBlueRow(int red, int green, short[] dest, int offset)
+	{
+		int layerTwo = layerTwoOfGreen[((layerOneOfRed[red] & 0xFF) << 8) | green] & 0xFFFF;
+		System.arraycopy(sampleOfBlue, layerTwo << 8, dest, offset, 256);
+	}
+}
@@ -0,0 +1,231 @@
+package util;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: A static three dimensional k-d tree that answers
+ *          nearest neighbour queries over a fixed set of points. The tree is
+ *          stored implicitly in flat arrays (the median of every range is its
+ *          root), so it holds no node objects and queries allocate nothing.
+ */
+public class KDTree
+{
+	private static final int LEAF_SIZE = 8; // Ranges this small are scanned directly.
+
+	private final float[] coords; // The x, y, z of each point, in tree order.
+	private final int[] indices; // The original index of each point, in tree order.
+	private final int size; // The number of points in the tree.
+
+	/**
+	 * Builds a tree over the given points.
+	 *
+	 * @param points the interleaved x, y, z coordinates of each point. The index
+	 *               of a point is its position in this array divided by three.
+	 */
+	public KDTree(float[] points)
+	{
+		if (points.length % 3 != 0)
+			throw new IllegalArgumentException("Points must be given as x, y, z triples!");
+
+		size = points.length / 3;
+		coords = new float[points.length];
+		indices = new int[size];
+
+		for (int i = 0; i < size; i++)
+			indices[i] = i;
+
+		build(points, 0, size, 0);
+
+		// Lay the coordinates out in tree order so queries read them sequentially.
+		for (int i = 0; i < size; i++)
+		{
+			coords[3 * i] = points[3 * indices[i]];
+			coords[3 * i + 1] = points[3 * indices[i] + 1];
+			coords[3 * i + 2] = points[3 * indices[i] + 2];
+		}
+	}
+
+	/**
+	 * Finds the point closest to the given coordinates.
+	 *
+	 * @param x the x coordinate.
+	 * @param y the y coordinate.
+	 * @param z the z coordinate.
+	 * @return the index of the closest point, or -1 if the tree is empty.
+	 */
+	public int nearest(float x, float y, float z)
+	{
+		if (size == 0)
+			return -1;
+
+		long best = nearest(0, size, 0, x, y, z, Long.MAX_VALUE);
+		return indices[(int) best];
+	}
+
+	/**
+	 * @return the number of points in the tree.
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Recursively orders indices[lo, hi) so that the median along the axis sits
+	 * in the middle of the range, with smaller points before it and larger points
+	 * after it.
+	 *
+	 * @param points the original points.
+	 * @param lo     the start of the range, inclusive.
+	 * @param hi     the end of the range, exclusive.
+	 * @param axis   the axis to split this range on.
+	 */
+	private void build(float[] points, int lo, int hi, int axis)
+	{
+		if (hi - lo <= 1)
+			return;
+
+		int mid = (lo + hi) >>> 1;
+		select(points, lo, hi - 1, mid, axis);
+
+		int next = axis == 2 ? 0 : axis + 1;
+		build(points, lo, mid, next);
+		build(points, mid + 1, hi, next);
+	}
+
+	/**
+	 * Quickselect: moves the k-th smallest point along the axis into position k
+	 * of indices[lo, hi].
+	 *
+	 * @param points the original points.
+	 * @param lo     the start of the range, inclusive.
+	 * @param hi     the end of the range, inclusive.
+	 * @param k      the position to fill.
+	 * @param axis   the axis to compare.
+	 */
+	private void select(float[] points, int lo, int hi, int k, int axis)
+	{
+		while (lo < hi)
+		{
+			float pivot = points[3 * indices[(lo + hi) >>> 1] + axis];
+			int i = lo;
+			int j = hi;
+
+			while (i <= j)
+			{
+				while (points[3 * indices[i] + axis] < pivot)
+					i++;
+				while (points[3 * indices[j] + axis] > pivot)
+					j--;
+
+				if (i <= j)
+				{
+					int temp = indices[i];
+					indices[i] = indices[j];
+					indices[j] = temp;
+					i++;
+					j--;
+				}
+			}
+
+			// Only keep searching the side that holds position k.
+			if (k <= j)
+			{
+				hi = j;
+			} else if (k >= i)
+			{
+				lo = i;
+			} else
+			{
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Searches the subtree stored in [lo, hi) for a point closer than best. The
+	 * best match is packed into a long as the float bits of its squared distance
+	 * followed by its tree position. Squared distances are never negative, so
+	 * comparing the packed longs compares the distances.
+	 *
+	 * @param lo   the start of the range, inclusive.
+	 * @param hi   the end of the range, exclusive.
+	 * @param axis the axis this range was split on.
+	 * @param x    the x coordinate.
+	 * @param y    the y coordinate.
+	 * @param z    the z coordinate.
+	 * @param best the packed closest point so far.
+	 * @return the packed closest point found.
+	 */
+	private long nearest(int lo, int hi, int axis, float x, float y, float z, long best)
+	{
+		// Small ranges are cheaper to scan than to descend into.
+		if (hi - lo <= LEAF_SIZE)
+		{
+			for (int i = lo; i < hi; i++)
+			{
+				long candidate = pack(distanceSquared(i, x, y, z), i);
+				if (candidate < best)
+					best = candidate;
+			}
+			return best;
+		}
+
+		int mid = (lo + hi) >>> 1;
+		long candidate = pack(distanceSquared(mid, x, y, z), mid);
+		if (candidate < best)
+			best = candidate;
+
+		float diff = (axis == 0 ? x : axis == 1 ? y : z) - coords[3 * mid + axis];
+		int next = axis == 2 ? 0 : axis + 1;
+
+		// Search the side the point falls on first, then the other side only if the
+		// splitting plane is closer than the best point found so far.
+		if (diff < 0)
+		{
+			best = nearest(lo, mid, next, x, y, z, best);
+			if (diff * diff < Float.intBitsToFloat((int) (best >>> 32)))
+				best = nearest(mid + 1, hi, next, x, y, z, best);
+		} else
+		{
+			best = nearest(mid + 1, hi, next, x, y, z, best);
+			if (diff * diff < Float.intBitsToFloat((int) (best >>> 32)))
+				best = nearest(lo, mid, next, x, y, z, best);
+		}
+
+		return best;
+	}
+
+	/**
+	 * Packs a squared distance and a tree position into one comparable long.
+	 *
+	 * @param distanceSquared the squared distance. Must not be negative.
+	 * @param position        the tree position.
+	 * @return the packed value.
+	 */
+	private static long pack(float distanceSquared, int position)
+	{
+		return ((long) Float.floatToIntBits(distanceSquared) << 32) | position;
+	}
+
+	/**
+	 * Returns the squared distance between the point at a tree position and the
+	 * given coordinates.
+	 *
+	 * @param position the tree position of the point.
+	 * @param x        the x coordinate.
+	 * @param y        the y coordinate.
+	 * @param z        the z coordinate.
+	 * @return the squared distance.
+	 */
+	private float distanceSquared(int position, float x, float y, float z)
+	{
+		float dx = coords[3 * position] - x;
+		float dy = coords[3 * position + 1] - y;
+		float dz = coords[3 * position + 2] - z;
+
+		return dx * dx + dy * dy + dz * dz;
+	}
+}
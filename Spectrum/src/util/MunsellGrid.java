@@ -0,0 +1,211 @@
+package util;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: A flattened (hue, value, chroma) grid of the Munsell ->
+ *          RGB samples used to interpolate colors that fall between the chips
+ *          in the CSV. Hue steps by 2.5 around the full circle, value by 1 from
+ *          0 to 10 and chroma by 2 from 0 to MAX_CHROMA. Chroma 0 and the value
+ *          0 and 10 rows are the neutral grays, and chips missing from the CSV
+ *          (outside the RGB gamut) repeat the strongest chip of their hue and
+ *          value, so every cell of the grid is filled.
+ */
+public class MunsellGrid
+{
+	/**
+	 * The number of hue steps around the circle (2.5R through 10RP).
+	 */
+	public static final int HUES = 40;
+
+	/**
+	 * The number of value steps (0 through 10).
+	 */
+	public static final int VALUES = 11;
+
+	/**
+	 * The highest chroma stored in the grid. Higher chromas are clamped to it.
+	 */
+	public static final int MAX_CHROMA = 38;
+
+	/**
+	 * The number of chroma steps (0 through MAX_CHROMA by 2).
+	 */
+	public static final int CHROMAS = MAX_CHROMA / 2 + 1;
+
+	private static final float HUE_STEP = 2.5f; // The hue distance between grid rows.
+
+	private final float[] rgb; // The red, green and blue of every cell.
+	private final int[] strongest; // The highest chroma step set for each hue and value.
+
+	/**
+	 * Creates an empty grid. Every cell starts as the neutral gray of its value.
+	 */
+	MunsellGrid()
+	{
+		rgb = new float[HUES * VALUES * CHROMAS * 3];
+		strongest = new int[HUES * VALUES];
+
+		for (int hue = 0; hue < HUES; hue++)
+		{
+			for (int value = 0; value < VALUES; value++)
+			{
+				float gray = value / 10f * 255;
+				for (int chroma = 0; chroma < CHROMAS; chroma++)
+				{
+					int cell = cell(hue, value, chroma);
+					rgb[cell] = gray;
+					rgb[cell + 1] = gray;
+					rgb[cell + 2] = gray;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the grid row of a hue given by its total value (0-100).
+	 *
+	 * @param totalHue the total hue value. Must be a multiple of 2.5.
+	 * @return the hue row, from 0 (2.5R) to 39 (10RP).
+	 */
+	static int hueIndex(float totalHue)
+	{
+		return Math.floorMod(Math.round(totalHue / HUE_STEP) - 1, HUES);
+	}
+
+	/**
+	 * Stores a chip from the CSV in the grid.
+	 *
+	 * @param totalHue the total hue value of the chip. Must be a multiple of 2.5.
+	 * @param value    the value of the chip.
+	 * @param chroma   the chroma of the chip. Must be even.
+	 * @param color    the packed RGB value of the chip.
+	 */
+	void set(float totalHue, int value, int chroma, int color)
+	{
+		if (value <= 0 || value >= VALUES - 1 || chroma <= 0 || chroma > MAX_CHROMA)
+			return;
+
+		int hue = hueIndex(totalHue);
+		int cell = cell(hue, value, chroma / 2);
+		strongest[hue * VALUES + value] = Math.max(strongest[hue * VALUES + value], chroma / 2);
+
+		rgb[cell] = (color >> 16) & 0xFF;
+		rgb[cell + 1] = (color >> 8) & 0xFF;
+		rgb[cell + 2] = color & 0xFF;
+	}
+
+	/**
+	 * Fills the cells past the strongest chip of each hue and value with that
+	 * chip, so interpolating toward high chromas clamps at the gamut edge instead
+	 * of falling back to gray. Called once every chip has been set.
+	 */
+	void extendChromas()
+	{
+		for (int hue = 0; hue < HUES; hue++)
+		{
+			for (int value = 0; value < VALUES; value++)
+			{
+				int last = strongest[hue * VALUES + value];
+				if (last <= 0)
+					continue;
+
+				int from = cell(hue, value, last);
+				for (int chroma = last + 1; chroma < CHROMAS; chroma++)
+				{
+					int cell = cell(hue, value, chroma);
+					rgb[cell] = rgb[from];
+					rgb[cell + 1] = rgb[from + 1];
+					rgb[cell + 2] = rgb[from + 2];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Interpolates the RGB value of a Munsell color between the neighbouring
+	 * cells of the grid. Hue wraps around the circle, and value and chroma are
+	 * clamped to the grid.
+	 *
+	 * @param totalHue the total hue value (0-100).
+	 * @param value    the value (0-10).
+	 * @param chroma   the chroma.
+	 * @return the packed 0xRRGGBB value.
+	 */
+	public int toRGB(float totalHue, float value, float chroma)
+	{
+		// Position of the color in grid units along each axis.
+		float h = totalHue / HUE_STEP - 1;
+		h -= (float) Math.floor(h / HUES) * HUES;
+		float v = Math.max(0, Math.min(VALUES - 1, value));
+		float c = Math.max(0, Math.min(CHROMAS - 1, chroma / 2));
+
+		int h0 = Math.min((int) h, HUES - 1);
+		int v0 = Math.min((int) v, VALUES - 2);
+		int c0 = Math.min((int) c, CHROMAS - 2);
+		int h1 = h0 == HUES - 1 ? 0 : h0 + 1;
+
+		float th = h - h0;
+		float tv = v - v0;
+		float tc = c - c0;
+
+		float red = 0;
+		float green = 0;
+		float blue = 0;
+
+		// Blend the eight corners of the cell the color falls in.
+		for (int corner = 0; corner < 8; corner++)
+		{
+			float weight = ((corner & 1) == 0 ? 1 - th : th) * ((corner & 2) == 0 ? 1 - tv : tv)
+					* ((corner & 4) == 0 ? 1 - tc : tc);
+			int cell = cell((corner & 1) == 0 ? h0 : h1, v0 + ((corner >> 1) & 1), c0 + ((corner >> 2) & 1));
+
+			red += weight * rgb[cell];
+			green += weight * rgb[cell + 1];
+			blue += weight * rgb[cell + 2];
+		}
+
+		return (channel(red) << 16) | (channel(green) << 8) | channel(blue);
+	}
+
+	/**
+	 * Interpolates the RGB values of many Munsell colors at once.
+	 *
+	 * @param totalHues the total hue value (0-100) of each color.
+	 * @param values    the value of each color.
+	 * @param chromas   the chroma of each color.
+	 * @param offset    the index of the first color to convert.
+	 * @param length    the number of colors to convert.
+	 * @param out       receives the packed 0xRRGGBB value of each color, at the
+	 *                  same index as its input.
+	 */
+	public void toRGB(float[] totalHues, float[] values, float[] chromas, int offset, int length, int[] out)
+	{
+		for (int i = offset; i < offset + length; i++)
+		{
+			out[i] = toRGB(totalHues[i], values[i], chromas[i]);
+		}
+	}
+
+	/**
+	 * @param hue    the hue row.
+	 * @param value  the value step.
+	 * @param chroma the chroma step.
+	 * @return the index of the red component of the cell in the rgb array.
+	 */
+	private static int cell(int hue, int value, int chroma)
+	{
+		return ((hue * VALUES + value) * CHROMAS + chroma) * 3;
+	}
+
+	/**
+	 * @param component an interpolated color component.
+	 * @return the component rounded and clamped to 0-255.
+	 */
+	private static int channel(float component)
+	{
+		return Math.max(0, Math.min(255, (int) (component + 0.5f)));
+	}
+}
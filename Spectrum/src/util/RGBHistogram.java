@@ -0,0 +1,169 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Counts the pixels of an image in 32768 bins, five bits
+ *          for each of red, green and blue, and keeps the sum of each channel
+ *          in each bin so that a bin's mean color is exact rather than the
+ *          bin's center. Work on the colors of an image, such as finding a
+ *          palette for it, can then look at at most 32768 weighted colors
+ *          however many pixels the image has. Histograms of parts of an image
+ *          can be made separately and merged, which is how an image in memory
+ *          is counted in parallel.
+ */
+public class RGBHistogram
+{
+	/**
+	 * The number of bins.
+	 */
+	public static final int BINS = 1 << 15;
+
+	private static final int BAND_PIXELS = 1 << 21; // Largest band of rows counted without splitting.
+
+	private final long[] counts = new long[BINS]; // The pixels in each bin.
+	private final long[] sums = new long[BINS * 3]; // The red, green and blue sums of each bin.
+	private long total; // The pixels in all bins.
+
+	/**
+	 * @param rgb a packed 0xRRGGBB value. Any alpha is ignored.
+	 * @return the bin of the color.
+	 */
+	public static int binOf(int rgb)
+	{
+		return ((rgb >> 9) & 0x7C00) | ((rgb >> 6) & 0x3E0) | ((rgb >> 3) & 0x1F);
+	}
+
+	/**
+	 * Counts the pixels of an image in memory, in bands of rows on the common
+	 * fork/join pool.
+	 *
+	 * @param image the image.
+	 * @return the histogram of the image.
+	 */
+	public static RGBHistogram of(BufferedImage image)
+	{
+		return ForkJoinPool.commonPool().invoke(new BandTask(image, 0, image.getHeight()));
+	}
+
+	/**
+	 * Counts pixels.
+	 *
+	 * @param rgb    the packed 0xRRGGBB values of the pixels. Any alpha is
+	 *               ignored.
+	 * @param offset the index of the first pixel.
+	 * @param length the number of pixels.
+	 */
+	public void add(int[] rgb, int offset, int length)
+	{
+		for (int i = offset; i < offset + length; i++)
+		{
+			int color = rgb[i];
+			int bin = binOf(color);
+			counts[bin]++;
+			sums[bin * 3] += (color >> 16) & 0xFF;
+			sums[bin * 3 + 1] += (color >> 8) & 0xFF;
+			sums[bin * 3 + 2] += color & 0xFF;
+		}
+		total += length;
+	}
+
+	/**
+	 * Adds the counts of another histogram to this one.
+	 *
+	 * @param other the other histogram.
+	 */
+	public void merge(RGBHistogram other)
+	{
+		for (int bin = 0; bin < BINS; bin++)
+			counts[bin] += other.counts[bin];
+		for (int i = 0; i < sums.length; i++)
+			sums[i] += other.sums[i];
+		total += other.total;
+	}
+
+	/**
+	 * @param bin a bin.
+	 * @return the number of pixels in the bin.
+	 */
+	public long getCount(int bin)
+	{
+		return counts[bin];
+	}
+
+	/**
+	 * @param bin a bin with pixels in it.
+	 * @return the packed 0xRRGGBB value of the mean color of its pixels.
+	 */
+	public int getMeanRGB(int bin)
+	{
+		long count = counts[bin];
+		long half = count / 2;
+		int red = (int) ((sums[bin * 3] + half) / count);
+		int green = (int) ((sums[bin * 3 + 1] + half) / count);
+		int blue = (int) ((sums[bin * 3 + 2] + half) / count);
+		return (red << 16) | (green << 8) | blue;
+	}
+
+	/**
+	 * @return the number of pixels counted.
+	 */
+	public long getTotal()
+	{
+		return total;
+	}
+
+	/**
+	 * Counts a band of rows of an image, splitting it into smaller bands to
+	 * count in parallel while it has more than BAND_PIXELS pixels.
+	 */
+	private static class BandTask extends RecursiveTask<RGBHistogram>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final transient BufferedImage image; // The image.
+		private final int from; // The first row of the band.
+		private final int to; // One past the last row of the band.
+
+		/**
+		 * Creates a task for a band of rows.
+		 *
+		 * @param image the image.
+		 * @param from  the first row of the band.
+		 * @param to    one past the last row of the band.
+		 */
+		BandTask(BufferedImage image, int from, int to)
+		{
+			this.image = image;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected RGBHistogram compute()
+		{
+			int width = image.getWidth();
+			if (to - from < 2 || (long) (to - from) * width <= BAND_PIXELS)
+			{
+				RGBHistogram histogram = new RGBHistogram();
+				int[] row = new int[width];
+				for (int y = from; y < to; y++)
+					histogram.add(RGBRaster.getRows(image, y, 1, row), 0, width);
+				return histogram;
+			}
+
+			int middle = (from + to) >>> 1;
+			BandTask top = new BandTask(image, from, middle);
+			top.fork();
+			RGBHistogram histogram = new BandTask(image, middle, to).compute();
+			histogram.merge(top.join());
+			return histogram;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package util;
+
+import model.MunsellColor;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: A dense RGB -> Munsell lookup table. Every one of the
+ *          16,777,216 packed 24-bit RGB values maps to a compact index into the
+ *          list of Munsell samples, so a conversion is a single array read
+ *          instead of a walk through the nested LinkedHashMaps.
+ */
+public class RGBLookupTable
+{
+	/**
+	 * The number of entries in the table, one for each 24-bit RGB value.
+	 */
+	public static final int SIZE = 1 << 24;
+
+	private final RGBSampleIndex samples; // The Munsell samples indexed by the table.
+	private final short[] table; // The sample index of every packed RGB value.
+
+	/**
+	 * Creates a lookup table from an already filled index table.
+	 *
+	 * @param samples the Munsell samples the table indexes into.
+	 * @param table   the sample index of every packed RGB value. Must hold SIZE
+	 *                entries.
+	 */
+	RGBLookupTable(RGBSampleIndex samples, short[] table)
+	{
+		if (table.length != SIZE)
+			throw new IllegalArgumentException("Lookup table must hold " + SIZE + " entries!");
+		if (samples.getSampleCount() > Short.MAX_VALUE)
+			throw new IllegalArgumentException("Too many samples for a short index table!");
+
+		this.samples = samples;
+		this.table = table;
+	}
+
+	/**
+	 * Returns the sample index of the given packed RGB value. Any alpha bits are
+	 * ignored.
+	 *
+	 * @param rgb the packed 0xRRGGBB value.
+	 * @return the index of the closest Munsell sample.
+	 */
+	public int indexOf(int rgb)
+	{
+		return table[rgb & 0xFFFFFF];
+	}
+
+	/**
+	 * Returns the closest MunsellColor to the given packed RGB value.
+	 *
+	 * @param rgb the packed 0xRRGGBB value.
+	 * @return the closest MunsellColor.
+	 */
+	public MunsellColor get(int rgb)
+	{
+		return samples.getSample(table[rgb & 0xFFFFFF]);
+	}
+
+	/**
+	 * Returns the Munsell sample stored at the given index.
+	 *
+	 * @param index the sample index, as returned by indexOf.
+	 * @return the MunsellColor at that index.
+	 */
+	public MunsellColor getSample(int index)
+	{
+		return samples.getSample(index);
+	}
+
+	/**
+	 * @return the number of distinct Munsell samples in the table.
+	 */
+	public int getSampleCount()
+	{
+		return samples.getSampleCount();
+	}
+}
@@ -0,0 +1,321 @@
+package util;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Reads and writes the pixels of images a row at a time
+ *          as packed RGB ints, for image processing. TYPE_INT_RGB images
+ *          (including subimages of them) are read and written straight through
+ *          the int array behind their raster; other images through the bulk
+ *          getRGB and setRGB, which convert every pixel through the color
+ *          model. Code that works on an image many times should convert it to
+ *          TYPE_INT_RGB once with toRGB. Touching the array behind an image
+ *          stops Java2D from caching it for drawing, which costs nothing for
+ *          images that are processed rather than drawn many times.
+ *
+ *          Images too large to hold can be read from an ImageReader a strip
+ *          of rows at a time with readStrips.
+ */
+public final class RGBRaster
+{
+	/**
+	 * Takes the strips of an image read by readStrips.
+	 */
+	public interface StripConsumer
+	{
+		/**
+		 * Takes the next strip.
+		 *
+		 * @param y     the first row of the strip.
+		 * @param width the width of a row.
+		 * @param rows  the number of rows in the strip.
+		 * @param rgb   the packed 0xRRGGBB value of each pixel of the strip,
+		 *              row by row from index 0. The top byte is to be ignored.
+		 * @throws IOException if the strip cannot be used.
+		 */
+		void accept(int y, int width, int rows, int[] rgb) throws IOException;
+	}
+
+	/**
+	 * No instances.
+	 */
+	private RGBRaster()
+	{
+	}
+
+	/**
+	 * @param image an image.
+	 * @return true if the pixels of the image are read and written straight
+	 *         through its int array.
+	 */
+	public static boolean isDirect(BufferedImage image)
+	{
+		return image.getType() == BufferedImage.TYPE_INT_RGB
+				&& image.getRaster().getDataBuffer() instanceof DataBufferInt
+				&& image.getSampleModel() instanceof SinglePixelPackedSampleModel;
+	}
+
+	/**
+	 * Gives an image as TYPE_INT_RGB, converting it if needed. Transparent
+	 * pixels are drawn over white, as the Image tab shows them.
+	 *
+	 * @param image an image.
+	 * @return the image itself if it is direct, otherwise a TYPE_INT_RGB copy.
+	 */
+	public static BufferedImage toRGB(BufferedImage image)
+	{
+		if (isDirect(image))
+			return image;
+
+		BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2d = copy.createGraphics();
+		g2d.setColor(Color.WHITE);
+		g2d.fillRect(0, 0, copy.getWidth(), copy.getHeight());
+		g2d.drawImage(image, 0, 0, null);
+		g2d.dispose();
+
+		return copy;
+	}
+
+	/**
+	 * Reads whole rows of an image into an array, row after row.
+	 *
+	 * @param image the image.
+	 * @param y     the first row.
+	 * @param rows  the number of rows.
+	 * @param rgb   receives the packed 0xRRGGBB value of each pixel, from
+	 *              index 0. Whatever is in the top byte is to be ignored.
+	 * @return rgb.
+	 */
+	public static int[] getRows(BufferedImage image, int y, int rows, int[] rgb)
+	{
+		int width = image.getWidth();
+		checkRows(image, y, rows, rgb);
+
+		if (!isDirect(image))
+			return image.getRGB(0, y, width, rows, rgb, 0, width);
+
+		int[] data = getData(image);
+		int stride = getScanlineStride(image);
+		int offset = getOffset(image) + y * stride;
+		if (stride == width)
+		{
+			System.arraycopy(data, offset, rgb, 0, width * rows);
+		} else
+		{
+			for (int row = 0; row < rows; row++)
+				System.arraycopy(data, offset + row * stride, rgb, row * width, width);
+		}
+
+		return rgb;
+	}
+
+	/**
+	 * Writes whole rows of an image from an array, row after row.
+	 *
+	 * @param image the image.
+	 * @param y     the first row.
+	 * @param rows  the number of rows.
+	 * @param rgb   the packed 0xRRGGBB value of each pixel, from index 0. The
+	 *              top byte is ignored.
+	 */
+	public static void setRows(BufferedImage image, int y, int rows, int[] rgb)
+	{
+		int width = image.getWidth();
+		checkRows(image, y, rows, rgb);
+
+		if (!isDirect(image))
+		{
+			image.setRGB(0, y, width, rows, rgb, 0, width);
+			return;
+		}
+
+		int[] data = getData(image);
+		int stride = getScanlineStride(image);
+		int offset = getOffset(image) + y * stride;
+		if (stride == width)
+		{
+			System.arraycopy(rgb, 0, data, offset, width * rows);
+		} else
+		{
+			for (int row = 0; row < rows; row++)
+				System.arraycopy(rgb, row * width, data, offset + row * stride, width);
+		}
+	}
+
+	/**
+	 * Reads the first image of a reader a strip of rows at a time, through a
+	 * source region for each strip, so only one strip is ever in memory. The
+	 * strips are decoded as TYPE_INT_RGB if the reader can, and transparent
+	 * pixels are drawn over white as toRGB does. Formats that can
+	 * only be decoded from the top decode the rows above each strip again.
+	 *
+	 * @param reader      a reader with its input set.
+	 * @param stripHeight the most rows in a strip.
+	 * @param rgb         receives each strip. It must hold stripHeight rows.
+	 * @param consumer    takes each strip, from the top.
+	 * @throws IOException if the image cannot be read or the consumer fails.
+	 */
+	public static void readStrips(ImageReader reader, int stripHeight, int[] rgb, StripConsumer consumer)
+			throws IOException
+	{
+		int width = reader.getWidth(0);
+		int height = reader.getHeight(0);
+		if (stripHeight < 1)
+			throw new IllegalArgumentException("Strip height must be at least 1!");
+
+		ImageReadParam param = rgbParam(reader);
+		for (int y = 0; y < height; y += stripHeight)
+		{
+			int rows = Math.min(stripHeight, height - y);
+			param.setSourceRegion(new Rectangle(0, y, width, rows));
+			BufferedImage strip = reader.read(0, param);
+			getRows(toRGB(strip), 0, rows, rgb);
+			consumer.accept(y, width, rows, rgb);
+		}
+	}
+
+	/**
+	 * Reads part of the first image of a reader, keeping every subsampling-th
+	 * pixel of every subsampling-th row from the top left of the part, so a
+	 * large image can be shown smaller without decoding it whole into memory.
+	 *
+	 * @param reader      a reader with its input set.
+	 * @param region      the part of the image to read.
+	 * @param subsampling the step between the pixels kept, 1 for every pixel.
+	 * @return the pixels kept, as TYPE_INT_RGB.
+	 * @throws IOException if the image cannot be read.
+	 */
+	public static BufferedImage read(ImageReader reader, Rectangle region, int subsampling) throws IOException
+	{
+		if (subsampling < 1)
+			throw new IllegalArgumentException("Subsampling must be at least 1!");
+
+		ImageReadParam param = rgbParam(reader);
+		param.setSourceRegion(region);
+		param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+		return toRGB(reader.read(0, param));
+	}
+
+	/**
+	 * Reads an image file a strip of rows at a time, as readStrips does for a
+	 * reader.
+	 *
+	 * @param file        the image, in any format ImageIO reads.
+	 * @param stripHeight the most rows in a strip.
+	 * @param consumer    takes each strip, from the top.
+	 * @throws IOException if the file cannot be read or the consumer fails.
+	 */
+	public static void readStrips(File file, int stripHeight, StripConsumer consumer) throws IOException
+	{
+		try (ImageInputStream in = ImageIO.createImageInputStream(file))
+		{
+			if (in == null)
+				throw new IOException("Cannot read " + file + "!");
+
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+			if (!readers.hasNext())
+				throw new IOException("No reader for " + file + "!");
+
+			ImageReader reader = readers.next();
+			try
+			{
+				reader.setInput(in, true, true);
+				int rows = Math.max(1, Math.min(stripHeight, reader.getHeight(0)));
+				readStrips(reader, stripHeight, new int[Math.multiplyExact(reader.getWidth(0), rows)], consumer);
+			} finally
+			{
+				reader.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Gives the int array behind a direct image. The pixel at (x, y) is at
+	 * getOffset(image) + y * getScanlineStride(image) + x.
+	 *
+	 * @param image a direct image.
+	 * @return the array, not a copy.
+	 */
+	public static int[] getData(BufferedImage image)
+	{
+		if (!isDirect(image))
+			throw new IllegalArgumentException("Image is not TYPE_INT_RGB!");
+
+		return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+	}
+
+	/**
+	 * @param image a direct image.
+	 * @return where in its array the image's top left pixel is.
+	 */
+	public static int getOffset(BufferedImage image)
+	{
+		WritableRaster raster = image.getRaster();
+		return raster.getDataBuffer().getOffset()
+				- raster.getSampleModelTranslateY() * getScanlineStride(image)
+				- raster.getSampleModelTranslateX();
+	}
+
+	/**
+	 * @param image a direct image.
+	 * @return the distance in its array from one row to the next.
+	 */
+	public static int getScanlineStride(BufferedImage image)
+	{
+		return ((SinglePixelPackedSampleModel) image.getSampleModel()).getScanlineStride();
+	}
+
+	/**
+	 * Checks the rows asked for are in the image and fit in the array.
+	 *
+	 * @param image the image.
+	 * @param y     the first row.
+	 * @param rows  the number of rows.
+	 * @param rgb   the array.
+	 */
+	private static void checkRows(BufferedImage image, int y, int rows, int[] rgb)
+	{
+		if (y < 0 || rows < 0 || y + rows > image.getHeight())
+			throw new IllegalArgumentException("Rows are outside the image!");
+		if ((long) rows * image.getWidth() > rgb.length)
+			throw new IllegalArgumentException("Array is too small for the rows!");
+	}
+
+	/**
+	 * @param reader a reader with its input set.
+	 * @return read parameters that decode as TYPE_INT_RGB if the reader can.
+	 * @throws IOException if the image cannot be read.
+	 */
+	private static ImageReadParam rgbParam(ImageReader reader) throws IOException
+	{
+		ImageReadParam param = reader.getDefaultReadParam();
+		for (Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0); types.hasNext();)
+		{
+			ImageTypeSpecifier type = types.next();
+			if (type.getBufferedImageType() == BufferedImage.TYPE_INT_RGB)
+				param.setDestinationType(type);
+		}
+
+		return param;
+	}
+}
@@ -0,0 +1,145 @@
+package util;
+
+import model.MunsellColor;
+import model.PackedMunsell;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: Holds the samples of the RGB -> Munsell CSV as flat
+ *          arrays along with a k-d tree over their RGB coordinates, so the true
+ *          nearest sample to any RGB color can be found in logarithmic time.
+ */
+public class RGBSampleIndex
+{
+	private final MunsellColor[] samples; // The Munsell color of each sample.
+	private final int[] sampleRGB; // The packed 0xRRGGBB value of each sample.
+	private final float[] totalHues; // The total hue value (0-100) of each sample.
+	private final float[] values; // The value of each sample.
+	private final float[] chromas; // The chroma of each sample.
+	private final long[] packed; // The packed Munsell color of each sample.
+	private final KDTree tree; // The tree over the samples' RGB coordinates.
+
+	/**
+	 * Creates the index over the given samples.
+	 *
+	 * @param samples   the Munsell color of each sample.
+	 * @param sampleRGB the packed 0xRRGGBB value of each sample.
+	 */
+	RGBSampleIndex(MunsellColor[] samples, int[] sampleRGB)
+	{
+		if (samples.length != sampleRGB.length)
+			throw new IllegalArgumentException("Every sample needs an RGB value!");
+
+		this.samples = samples;
+		this.sampleRGB = sampleRGB;
+
+		totalHues = new float[samples.length];
+		values = new float[samples.length];
+		chromas = new float[samples.length];
+		packed = new long[samples.length];
+
+		float[] points = new float[sampleRGB.length * 3];
+		for (int i = 0; i < sampleRGB.length; i++)
+		{
+			totalHues[i] = samples[i].getHue().getHueTotalValue();
+			values[i] = samples[i].getValue();
+			chromas[i] = samples[i].getChroma();
+			packed[i] = PackedMunsell.encode(samples[i]);
+
+			points[3 * i] = (sampleRGB[i] >> 16) & 0xFF;
+			points[3 * i + 1] = (sampleRGB[i] >> 8) & 0xFF;
+			points[3 * i + 2] = sampleRGB[i] & 0xFF;
+		}
+
+		tree = new KDTree(points);
+	}
+
+	/**
+	 * Returns the index of the sample closest (by RGB distance) to the given
+	 * packed RGB value. Any alpha bits are ignored.
+	 *
+	 * @param rgb the packed 0xRRGGBB value.
+	 * @return the index of the closest sample.
+	 */
+	public int nearestIndex(int rgb)
+	{
+		return tree.nearest((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+	}
+
+	/**
+	 * Returns the MunsellColor of the sample closest to the given packed RGB
+	 * value.
+	 *
+	 * @param rgb the packed 0xRRGGBB value.
+	 * @return the closest MunsellColor.
+	 */
+	public MunsellColor nearest(int rgb)
+	{
+		return samples[nearestIndex(rgb)];
+	}
+
+	/**
+	 * @param index the sample index.
+	 * @return the MunsellColor of the sample.
+	 */
+	public MunsellColor getSample(int index)
+	{
+		return samples[index];
+	}
+
+	/**
+	 * @param index the sample index.
+	 * @return the packed 0xRRGGBB value of the sample.
+	 */
+	public int getSampleRGB(int index)
+	{
+		return sampleRGB[index];
+	}
+
+	/**
+	 * @param index the sample index.
+	 * @return the total hue value (0-100) of the sample.
+	 */
+	public float getSampleTotalHue(int index)
+	{
+		return totalHues[index];
+	}
+
+	/**
+	 * @param index the sample index.
+	 * @return the value of the sample.
+	 */
+	public float getSampleValue(int index)
+	{
+		return values[index];
+	}
+
+	/**
+	 * @param index the sample index.
+	 * @return the sample's Munsell color packed as by PackedMunsell.
+	 */
+	public long getSamplePacked(int index)
+	{
+		return packed[index];
+	}
+
+	/**
+	 * @param index the sample index.
+	 * @return the chroma of the sample.
+	 */
+	public float getSampleChroma(int index)
+	{
+		return chromas[index];
+	}
+
+	/**
+	 * @return the number of samples.
+	 */
+	public int getSampleCount()
+	{
+		return samples.length;
+	}
+}
@@ -0,0 +1,514 @@
+package util;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: An image file cut into square tiles at several levels
+ *          of detail, so an image of any size can be viewed at any zoom while
+ *          only the tiles on screen are ever decoded. Level 0 is the image at
+ *          full resolution and each level after it is half the width and
+ *          height of the one before, down to a level that fits in one tile.
+ *
+ *          The coarser levels, up to the first that fits in PYRAMID_PIXELS, are
+ *          a mip-mapped pyramid: averaged down from one pass over the file in
+ *          strips, on a background thread, and kept in memory. Tiles of the
+ *          finer levels, and of the pyramid's levels until it is built, are
+ *          read lazily with ImageIO source regions and subsampling, and the
+ *          most recently used are cached; a viewer should size the cache with
+ *          setCacheSize to hold a few screens of tiles. Tiles are TYPE_INT_RGB,
+ *          with any transparency drawn over white, and must not be changed.
+ */
+public class TiledImage implements Closeable
+{
+	/**
+	 * The width and height of a tile, in pixels of its level. A multiple of the
+	 * Bayer matrix, so that tiles dithered on their own line up.
+	 */
+	public static final int TILE_SIZE = 256;
+
+	/**
+	 * The most pixels in the finest level kept in the pyramid.
+	 */
+	public static final long PYRAMID_PIXELS = 1L << 22;
+
+	/**
+	 * The most tiles read lazily that are kept, unless set otherwise.
+	 */
+	public static final int DEFAULT_CACHED_TILES = 128;
+
+	// Builds pyramids. Daemon threads, so a build never keeps the program open.
+	private static final ExecutorService pyramidExecutor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "Image pyramid");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final File file; // The image file.
+	private final ImageInputStream in; // The file, for the reader.
+	private final ImageReader reader; // Reads tiles lazily. Guarded by itself.
+	private final int width; // The width of the image.
+	private final int height; // The height of the image.
+	private final int levels; // The number of levels.
+	private final int pyramidLevel; // The finest level in the pyramid.
+	private final Map<Long, BufferedImage> cache; // The tiles read lazily, least recently used first.
+	private int cacheSize = DEFAULT_CACHED_TILES; // The most tiles kept in the cache. Guarded by cache.
+	private volatile BufferedImage[] pyramid; // The levels from pyramidLevel on, or null until built.
+	private volatile boolean closed; // Whether close has been called.
+
+	/**
+	 * Opens an image file, reading only its size.
+	 *
+	 * @param file the image, in any format ImageIO reads.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public TiledImage(File file) throws IOException
+	{
+		this.file = file;
+		in = ImageIO.createImageInputStream(file);
+		if (in == null)
+			throw new IOException("Cannot read " + file + "!");
+
+		Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+		if (!readers.hasNext())
+		{
+			in.close();
+			throw new IOException("No reader for " + file + "!");
+		}
+
+		reader = readers.next();
+		try
+		{
+			reader.setInput(in, true, true);
+			width = reader.getWidth(0);
+			height = reader.getHeight(0);
+		} catch (IOException | RuntimeException e)
+		{
+			reader.dispose();
+			in.close();
+			throw e;
+		}
+
+		int count = 1;
+		while (Math.max(getLevelWidth(count - 1), getLevelHeight(count - 1)) > TILE_SIZE)
+			count++;
+		levels = count;
+
+		int level = 0;
+		while ((long) getLevelWidth(level) * getLevelHeight(level) > PYRAMID_PIXELS)
+			level++;
+		pyramidLevel = Math.min(level, levels - 1);
+
+		cache = new LinkedHashMap<>(DEFAULT_CACHED_TILES, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest)
+			{
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Sets how many tiles read lazily are kept, dropping the least recently
+	 * used if there are more.
+	 *
+	 * @param tiles the most tiles to keep.
+	 */
+	public void setCacheSize(int tiles)
+	{
+		if (tiles <= 0)
+			throw new IllegalArgumentException("Cache size must be positive!");
+
+		synchronized (cache)
+		{
+			cacheSize = tiles;
+			Iterator<Long> eldest = cache.keySet().iterator();
+			while (cache.size() > cacheSize)
+			{
+				eldest.next();
+				eldest.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return the most tiles read lazily that are kept.
+	 */
+	public int getCacheSize()
+	{
+		synchronized (cache)
+		{
+			return cacheSize;
+		}
+	}
+
+	/**
+	 * @return the width of the image at full resolution.
+	 */
+	public int getWidth()
+	{
+		return width;
+	}
+
+	/**
+	 * @return the height of the image at full resolution.
+	 */
+	public int getHeight()
+	{
+		return height;
+	}
+
+	/**
+	 * @return the number of levels of detail.
+	 */
+	public int getLevelCount()
+	{
+		return levels;
+	}
+
+	/**
+	 * @param level a level.
+	 * @return the width of the image at the level.
+	 */
+	public int getLevelWidth(int level)
+	{
+		return (int) (((long) width + (1 << level) - 1) >> level);
+	}
+
+	/**
+	 * @param level a level.
+	 * @return the height of the image at the level.
+	 */
+	public int getLevelHeight(int level)
+	{
+		return (int) (((long) height + (1 << level) - 1) >> level);
+	}
+
+	/**
+	 * @param level a level.
+	 * @return the number of columns of tiles at the level.
+	 */
+	public int getColumns(int level)
+	{
+		return (getLevelWidth(level) + TILE_SIZE - 1) / TILE_SIZE;
+	}
+
+	/**
+	 * @param level a level.
+	 * @return the number of rows of tiles at the level.
+	 */
+	public int getRows(int level)
+	{
+		return (getLevelHeight(level) + TILE_SIZE - 1) / TILE_SIZE;
+	}
+
+	/**
+	 * Chooses the level to show the image at a zoom: the coarsest that still
+	 * has at least one pixel for each pixel on screen.
+	 *
+	 * @param scale the size on screen of one full resolution pixel.
+	 * @return the level.
+	 */
+	public int getLevel(double scale)
+	{
+		int level = 0;
+		while (level < levels - 1 && (1 << (level + 1)) * scale <= 1)
+			level++;
+		return level;
+	}
+
+	/**
+	 * @return true once the pyramid is built.
+	 */
+	public boolean isPyramidBuilt()
+	{
+		return pyramid != null;
+	}
+
+	/**
+	 * Gives a tile if it can be had without reading the file: from the pyramid
+	 * or the cache.
+	 *
+	 * @param level  the level.
+	 * @param column the column of the tile.
+	 * @param row    the row of the tile.
+	 * @return the tile, or null if it would have to be read.
+	 */
+	public BufferedImage getLoadedTile(int level, int column, int row)
+	{
+		checkTile(level, column, row);
+
+		BufferedImage[] levelImages = pyramid;
+		if (levelImages != null && level >= pyramidLevel)
+			return pyramidTile(levelImages[level - pyramidLevel], column, row);
+
+		synchronized (cache)
+		{
+			return cache.get(key(level, column, row));
+		}
+	}
+
+	/**
+	 * Gives a tile, reading it if it is not in the pyramid or the cache.
+	 *
+	 * @param level  the level.
+	 * @param column the column of the tile.
+	 * @param row    the row of the tile.
+	 * @return the tile.
+	 * @throws IOException if the tile cannot be read.
+	 */
+	public BufferedImage getTile(int level, int column, int row) throws IOException
+	{
+		BufferedImage tile = getLoadedTile(level, column, row);
+		if (tile != null)
+			return tile;
+
+		int step = 1 << level;
+		int x = column * TILE_SIZE * step;
+		int y = row * TILE_SIZE * step;
+		Rectangle region = new Rectangle(x, y, Math.min(TILE_SIZE * step, width - x),
+				Math.min(TILE_SIZE * step, height - y));
+
+		synchronized (reader)
+		{
+			if (closed)
+				throw new IOException("Image is closed!");
+			tile = RGBRaster.read(reader, region, step);
+		}
+
+		synchronized (cache)
+		{
+			cache.put(key(level, column, row), tile);
+		}
+		return tile;
+	}
+
+	/**
+	 * Gives the color of a pixel at full resolution.
+	 *
+	 * @param x the column of the pixel.
+	 * @param y the row of the pixel.
+	 * @return the packed 0xRRGGBB value of the pixel.
+	 * @throws IOException if the tile holding the pixel cannot be read.
+	 */
+	public int getRGB(int x, int y) throws IOException
+	{
+		if (x < 0 || y < 0 || x >= width || y >= height)
+			throw new IllegalArgumentException("Pixel is outside the image!");
+
+		return getTile(0, x / TILE_SIZE, y / TILE_SIZE).getRGB(x % TILE_SIZE, y % TILE_SIZE) & 0xFFFFFF;
+	}
+
+	/**
+	 * Builds the pyramid on a background thread.
+	 *
+	 * @param listener run on the background thread once the pyramid is built,
+	 *                 or null.
+	 */
+	public void startPyramid(Runnable listener)
+	{
+		pyramidExecutor.execute(() -> {
+			try
+			{
+				buildPyramid();
+				if (listener != null)
+					listener.run();
+			} catch (IOException e)
+			{
+				// Tiles are still read lazily without the pyramid.
+			}
+		});
+	}
+
+	/**
+	 * Builds the pyramid on the current thread, unless it is built. The finest
+	 * level of the pyramid averages each square of full resolution pixels
+	 * from one pass over the file, and each level after it averages squares of
+	 * two by two pixels of the one before.
+	 *
+	 * @throws IOException if the file cannot be read, or the image is closed
+	 *                     while building.
+	 */
+	public void buildPyramid() throws IOException
+	{
+		if (pyramid != null)
+			return;
+
+		int step = 1 << pyramidLevel;
+		int levelWidth = getLevelWidth(pyramidLevel);
+		BufferedImage finest = new BufferedImage(levelWidth, getLevelHeight(pyramidLevel),
+				BufferedImage.TYPE_INT_RGB);
+		int[] out = RGBRaster.getData(finest);
+		int[] sums = new int[levelWidth * 3];
+
+		// Strips are whole squares high, so every square lies in one strip.
+		int stripHeight = step * Math.max(1, TILE_SIZE / step);
+		RGBRaster.readStrips(file, stripHeight, (y, stripWidth, rows, rgb) -> {
+			if (closed)
+				throw new InterruptedIOException("Image is closed!");
+
+			for (int top = 0; top < rows; top += step)
+			{
+				int squareRows = Math.min(step, rows - top);
+				Arrays.fill(sums, 0);
+				for (int i = top * stripWidth; i < (top + squareRows) * stripWidth; i += stripWidth)
+				{
+					for (int x = 0; x < stripWidth; x++)
+					{
+						int pixel = rgb[i + x];
+						int s = (x >> pyramidLevel) * 3;
+						sums[s] += (pixel >> 16) & 0xFF;
+						sums[s + 1] += (pixel >> 8) & 0xFF;
+						sums[s + 2] += pixel & 0xFF;
+					}
+				}
+
+				int o = ((y + top) >> pyramidLevel) * levelWidth;
+				for (int x = 0; x < levelWidth; x++)
+				{
+					int count = squareRows * Math.min(step, stripWidth - x * step);
+					out[o + x] = average(sums[x * 3], count) << 16 | average(sums[x * 3 + 1], count) << 8
+							| average(sums[x * 3 + 2], count);
+				}
+			}
+		});
+
+		BufferedImage[] levelImages = new BufferedImage[levels - pyramidLevel];
+		levelImages[0] = finest;
+		for (int i = 1; i < levelImages.length; i++)
+			levelImages[i] = halve(levelImages[i - 1]);
+		pyramid = levelImages;
+
+		synchronized (cache)
+		{
+			cache.keySet().removeIf(key -> (key >>> 48) >= pyramidLevel);
+		}
+	}
+
+	/**
+	 * Stops any pyramid build and closes the file. Tiles already in the pyramid
+	 * or the cache can still be had.
+	 *
+	 * @throws IOException if the file cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		closed = true;
+		synchronized (reader)
+		{
+			reader.dispose();
+			in.close();
+		}
+	}
+
+	/**
+	 * @param image a level of the pyramid.
+	 * @return the next level, each pixel the average of a square of two by two
+	 *         pixels of image, or of fewer at the right and bottom edges.
+	 */
+	private static BufferedImage halve(BufferedImage image)
+	{
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int halfWidth = (width + 1) / 2;
+		int halfHeight = (height + 1) / 2;
+		BufferedImage half = new BufferedImage(halfWidth, halfHeight, BufferedImage.TYPE_INT_RGB);
+		int[] in = RGBRaster.getData(image);
+		int[] out = RGBRaster.getData(half);
+
+		for (int y = 0; y < halfHeight; y++)
+		{
+			// At the right and bottom edges the last pixel is counted twice, which
+			// averages the same as counting it once.
+			int y0 = 2 * y * width;
+			int y1 = Math.min(2 * y + 1, height - 1) * width;
+			for (int x = 0; x < halfWidth; x++)
+			{
+				int x0 = 2 * x;
+				int x1 = Math.min(2 * x + 1, width - 1);
+				int p00 = in[y0 + x0];
+				int p01 = in[y0 + x1];
+				int p10 = in[y1 + x0];
+				int p11 = in[y1 + x1];
+
+				int red = ((p00 >> 16) & 0xFF) + ((p01 >> 16) & 0xFF) + ((p10 >> 16) & 0xFF) + ((p11 >> 16) & 0xFF);
+				int green = ((p00 >> 8) & 0xFF) + ((p01 >> 8) & 0xFF) + ((p10 >> 8) & 0xFF) + ((p11 >> 8) & 0xFF);
+				int blue = (p00 & 0xFF) + (p01 & 0xFF) + (p10 & 0xFF) + (p11 & 0xFF);
+				out[y * halfWidth + x] = average(red, 4) << 16 | average(green, 4) << 8 | average(blue, 4);
+			}
+		}
+
+		return half;
+	}
+
+	/**
+	 * @param sum   a sum of channel values.
+	 * @param count the number of values summed.
+	 * @return the rounded average.
+	 */
+	private static int average(int sum, int count)
+	{
+		return (sum + count / 2) / count;
+	}
+
+	/**
+	 * @param image  a level of the pyramid.
+	 * @param column the column of a tile.
+	 * @param row    the row of the tile.
+	 * @return the tile, sharing the level's pixels.
+	 */
+	private static BufferedImage pyramidTile(BufferedImage image, int column, int row)
+	{
+		int x = column * TILE_SIZE;
+		int y = row * TILE_SIZE;
+		return image.getSubimage(x, y, Math.min(TILE_SIZE, image.getWidth() - x),
+				Math.min(TILE_SIZE, image.getHeight() - y));
+	}
+
+	/**
+	 * @param level  a level.
+	 * @param column the column of a tile.
+	 * @param row    the row of the tile.
+	 * @return the key of the tile in the cache.
+	 */
+	private static long key(int level, int column, int row)
+	{
+		return (long) level << 48 | (long) row << 24 | column;
+	}
+
+	/**
+	 * Checks that a tile is in the image.
+	 *
+	 * @param level  a level.
+	 * @param column the column of a tile.
+	 * @param row    the row of the tile.
+	 */
+	private void checkTile(int level, int column, int row)
+	{
+		if (level < 0 || level >= levels || column < 0 || row < 0 || column >= getColumns(level)
+				|| row >= getRows(level))
+			throw new IllegalArgumentException("Tile is outside the image!");
+	}
+}
@@ -1,28 +1,36 @@
 package gui;
 
 import java.awt.BorderLayout;
-import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.event.MouseListener;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
 
+import model.DitherMode;
 import model.MunsellColor;
 import model.Palette;
+import model.PosterizePipeline;
+import model.StandardColorMetric;
+import util.TiledImage;
 
 /**
  * Tab for displaying an image, choosing a pixel, and seeing the MunsellColor
@@ -33,24 +41,33 @@ import model.Palette;
  * 
  *          Description: Generates a tab that allows for a picture to be
  *          uploaded into the GUI. Clicking on a pixel in the photo will display
- *          the closest matching Munsell color for that given pixel.
+ *          the closest matching Munsell color for that given pixel. Images of
+ *          any size are shown whole, as tiles at the level of detail that suits
+ *          the zoom, and a click is mapped back to the full resolution pixel.
+ *          Posterizing happens in the background, filling in tile by tile, and
+ *          can be cancelled; it runs again if the palette has changed when the
+ *          tab is shown again.
  */
 public class ImageTab extends JPanel
 {
 
-	private static final int IMAGE_MAX_WIDTH = 600; // The maximum width of the image.
-	private static final int IMAGE_MAX_HEIGHT = 400; // The maximum height of the image.
+	private static final double ZOOM_STEP = 2; // How much each zoom button zooms.
+	private static final double MAX_SCALE = 32; // The closest zoom, in screen pixels per image pixel.
 	private static final String ERROR_MESSAGE_EMPTY = "Error:\nYour palette is empty.\n"
 			+ "Please add colors to your palette.";
+	private static final String ERROR_MESSAGE_READ = "Error:\nThat file could not be read as an image.";
 
 	/**
 	 * The serial ID for this GUI tab.
 	 */
 	private static final long serialVersionUID = 1L;
 
-	JLabel imageLabel; // The labels that displays the image.
+	TiledImageView imageView; // The view that displays the image.
+	JScrollPane imageScrollPane; // Scrolls the image view.
 	JPanel colorPanel; // The panel that displays the MunsellColorBlock.
-	BufferedImage image; // The current image being shown. Null if none.
+	JComboBox<DitherMode> ditherBox; // The choice of dithering.
+	transient TiledImage image; // The current image being shown. Null if none.
+	int posterizedModifications; // The palette's modification count when last posterized.
 
 	/**
 	 * When the tab is initialized, run the creation for the Image tab.
@@ -59,13 +76,21 @@ public class ImageTab extends JPanel
 	{
 		setLayout(new BorderLayout());
 
-		// Initialize the button that will posterize the image.
+		// Initialize the view that shows the image.
+		imageView = new TiledImageView();
+		imageScrollPane = new JScrollPane(imageView);
+		imageScrollPane.setOpaque(false);
+		imageScrollPane.getViewport().setOpaque(false);
+		imageScrollPane.setBorder(null);
+
+		// Initialize the button that will posterize the image, the choice of dithering,
+		// and the button and label for posterizing in progress.
 		JButton posterizeButton = new JButton("Posterize");
-		posterizeButton.setVisible(false);
+		JButton originalButton = new JButton("Original");
+		JButton cancelButton = new JButton("Cancel");
+		JLabel progressLabel = new JLabel();
+		ditherBox = new JComboBox<>(DitherMode.values());
 		posterizeButton.addActionListener(e -> {
-			BufferedImage posterized = new BufferedImage(image.getWidth(), image.getHeight(),
-					BufferedImage.TYPE_INT_RGB);
-
 			// Check if the palette is empty before proceeding.
 			// If so, report an error message and return. Otherwise proceed.
 			if (Palette.getInstance().getColors().isEmpty())
@@ -74,83 +99,99 @@ public class ImageTab extends JPanel
 				return;
 			}
 
-			for (int i = 0; i < image.getWidth(); i++)
+			posterize();
+		});
+		ditherBox.addActionListener(e -> {
+			// Posterize again with the new dithering if already posterized.
+			if (imageView.getPosterizer() != null && !Palette.getInstance().getColors().isEmpty())
+				posterize();
+		});
+		originalButton.addActionListener(e -> imageView.setPosterizer(null));
+		cancelButton.setEnabled(false);
+		cancelButton.addActionListener(e -> imageView.cancelPosterizing());
+		imageView.addPropertyChangeListener("pendingTiles", e -> {
+			int pending = (Integer) e.getNewValue();
+			cancelButton.setEnabled(pending > 0);
+			progressLabel.setText(pending > 0 ? "Posterizing " + pending + " tiles..." : "");
+		});
+
+		// Posterize again if the palette was changed on another tab.
+		addComponentListener(new ComponentAdapter()
+		{
+			@Override
+			public void componentShown(ComponentEvent e)
 			{
-				for (int j = 0; j < image.getHeight(); j++)
-				{
-					posterized.setRGB(i, j, Palette.getInstance()
-							.getClosestColor(MunsellColor.fromRGB(new Color(image.getRGB(i, j)))).toColor().getRGB());
-				}
+				if (imageView.getPosterizer() == null
+						|| Palette.getInstance().getModificationCount() == posterizedModifications)
+					return;
+
+				if (Palette.getInstance().getColors().isEmpty())
+					imageView.setPosterizer(null);
+				else
+					posterize();
 			}
-
-			image = posterized;
-			imageLabel.setIcon(new ImageIcon(image));
-			repaint();
 		});
 
+		// Initialize the zoom buttons.
+		JButton zoomInButton = new JButton("Zoom In");
+		zoomInButton.addActionListener(e -> zoom(Math.min(MAX_SCALE, imageView.getScale() * ZOOM_STEP)));
+		JButton zoomOutButton = new JButton("Zoom Out");
+		zoomOutButton.addActionListener(e -> zoom(Math.max(imageView.getFitScale(imageScrollPane.getViewport()
+				.getExtentSize()) / ZOOM_STEP, imageView.getScale() / ZOOM_STEP)));
+		JButton fitButton = new JButton("Fit");
+		fitButton.addActionListener(e -> zoom(imageView.getFitScale(imageScrollPane.getViewport().getExtentSize())));
+
+		JButton[] imageButtons = { posterizeButton, originalButton, cancelButton, zoomInButton, zoomOutButton,
+				fitButton };
+		for (JButton button : imageButtons)
+			button.setVisible(false);
+		ditherBox.setVisible(false);
+
 		// Initialize the upload button.
 		JButton uploadButton = new JButton("Upload Image...");
 		uploadButton.addActionListener(e -> {
 
 			// Let the user choose an image.
-			BufferedImage newImage = getImage();
+			TiledImage newImage = getImage();
 
 			// Leave if the user did not choose an image.
 			if (newImage == null)
 				return;
 
-			// Set the global variable.
+			// Let go of the old image, and set the global variable.
+			closeImage();
 			image = newImage;
 
-			// Show the new image in the image panel.
-			imageLabel.setIcon(new ImageIcon(image));
-			posterizeButton.setVisible(true);
-
-			imageLabel.addMouseListener(new MouseListener()
-			{
-
-				@Override
-				public void mouseClicked(MouseEvent e)
-				{
+			// Show the new image in the image panel, fitted to it, and build its
+			// levels of detail in the background.
+			imageView.setImage(image);
+			imageView.setScale(imageView.getFitScale(imageScrollPane.getViewport().getExtentSize()));
+			image.startPyramid(() -> SwingUtilities.invokeLater(imageView::repaint));
 
-					// Get the color of the clicked pixel.
-					Color pixelColor = new Color(image.getRGB(e.getX(), e.getY()));
+			for (JButton button : imageButtons)
+				button.setVisible(true);
+			ditherBox.setVisible(true);
+			validate();
+		});
 
+		imageView.addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseClicked(MouseEvent e)
+			{
+				// Get the color shown at the clicked pixel.
+				imageView.pick(e.getPoint(), color -> {
 					// Add the MunsellColorBlock to the panel.
 					colorPanel.removeAll();
-					colorPanel.add(new MunsellColorBlock(MunsellColor.fromRGB(pixelColor)));
+					colorPanel.add(new MunsellColorBlock(color));
 					validate();
 					repaint();
-				}
-
-				@Override
-				public void mouseEntered(MouseEvent e)
-				{
-				}
-
-				@Override
-				public void mouseExited(MouseEvent e)
-				{
-				}
-
-				@Override
-				public void mousePressed(MouseEvent e)
-				{
-				}
-
-				@Override
-				public void mouseReleased(MouseEvent e)
-				{
-				}
-			});
+				});
+			}
 		});
 
-		// Initialize the panel that shows the image.
-		imageLabel = new JLabel((ImageIcon) null);
-		imageLabel.setBackground(Color.black);
-
 		ImageIcon jmulogo = new ImageIcon("JMUicon.png");
-		JPanel imagePanel = new JPanel()
+		JPanel imagePanel = new JPanel(new BorderLayout())
 		{
 			/**
 			 * default serial
@@ -170,7 +211,7 @@ public class ImageTab extends JPanel
 		};
 
 		imagePanel.setOpaque(false);
-		imagePanel.add(imageLabel);
+		imagePanel.add(imageScrollPane, BorderLayout.CENTER);
 
 		// Initialize the panel that displays the color block.
 
@@ -180,6 +221,13 @@ public class ImageTab extends JPanel
 		JPanel top = new JPanel(new FlowLayout());
 		top.add(uploadButton);
 		top.add(posterizeButton);
+		top.add(ditherBox);
+		top.add(originalButton);
+		top.add(cancelButton);
+		top.add(progressLabel);
+		top.add(zoomInButton);
+		top.add(zoomOutButton);
+		top.add(fitButton);
 
 		// Add the components.
 		add(top, BorderLayout.NORTH);
@@ -187,14 +235,73 @@ public class ImageTab extends JPanel
 		add(colorPanel, BorderLayout.SOUTH);
 	}
 
+	/**
+	 * Posterizes the image with the palette as it is now and the chosen
+	 * dithering. The view posterizes each tile in the background as it comes
+	 * on screen, dropping any posterizing still under way. The palette must
+	 * not be empty.
+	 */
+	private void posterize()
+	{
+		// A copy, so tiles posterized after the palette changes still match.
+		posterizedModifications = Palette.getInstance().getModificationCount();
+		Palette palette = new Palette(Palette.getInstance().getColors());
+
+		PosterizePipeline pipeline = new PosterizePipeline(palette, StandardColorMetric.MANHATTAN, true);
+		pipeline.setDitherMode((DitherMode) ditherBox.getSelectedItem());
+		imageView.setPosterizer(pipeline);
+	}
+
+	/**
+	 * Zooms the image view, keeping the pixel at the center of the view at the
+	 * center.
+	 * 
+	 * @param scale the new size on screen of one image pixel.
+	 */
+	private void zoom(double scale)
+	{
+		JViewport viewport = imageScrollPane.getViewport();
+		Rectangle view = viewport.getViewRect();
+		double oldScale = imageView.getScale();
+		double centerX = (view.x + view.width / 2.0) / oldScale;
+		double centerY = (view.y + view.height / 2.0) / oldScale;
+
+		imageView.setScale(scale);
+		imageScrollPane.validate();
+
+		Dimension size = imageView.getPreferredSize();
+		int x = (int) Math.round(centerX * scale - view.width / 2.0);
+		int y = (int) Math.round(centerY * scale - view.height / 2.0);
+		viewport.setViewPosition(new Point(Math.max(0, Math.min(x, size.width - view.width)),
+				Math.max(0, Math.min(y, size.height - view.height))));
+	}
+
+	/**
+	 * Closes the current image, if any.
+	 */
+	private void closeImage()
+	{
+		if (image == null)
+			return;
+
+		try
+		{
+			image.close();
+		} catch (IOException e)
+		{
+			// Nothing more can be done with it.
+		}
+		image = null;
+	}
+
 	/**
 	 * Opens the Swing File Chooser, allows the user to choose an image file, and
-	 * returns the Swing Image of it.
+	 * opens it as a tiled image. Only its size is read until it is shown.
 	 * 
-	 * @return the Image chosen, or null if the user cancelled or if an exception
+	 * @return the image chosen, or null if the user cancelled or if an exception
 	 *         happened.
 	 */
-	private BufferedImage getImage()
+	private TiledImage getImage()
 	{
 		// Allow the user to choose a file.
 		JFileChooser fileChooser = new JFileChooser();
@@ -205,27 +312,15 @@ public class ImageTab extends JPanel
 		if (result == JFileChooser.APPROVE_OPTION)
 		{
 
-			// Get the file and convert it to an image.
+			// Get the file and open it as an image.
 			File file = fileChooser.getSelectedFile();
 			try
 			{
-				BufferedImage imageUpload = ImageIO.read(file);
-
-				// Remove the alpha channel from the image.
-				BufferedImage copy = new BufferedImage(Math.min(imageUpload.getWidth(), IMAGE_MAX_WIDTH),
-						Math.min(imageUpload.getHeight(), IMAGE_MAX_HEIGHT), BufferedImage.TYPE_INT_RGB);
-
-				Graphics2D g2d = copy.createGraphics();
-				g2d.setColor(Color.WHITE);
-				g2d.fillRect(0, 0, copy.getWidth(), copy.getHeight());
-				g2d.drawImage(imageUpload, 0, 0, Math.min(imageUpload.getWidth(), IMAGE_MAX_WIDTH),
-						Math.min(imageUpload.getHeight(), IMAGE_MAX_HEIGHT), null);
-				g2d.dispose();
-
-				return copy;
+				return new TiledImage(file);
 			} catch (IOException e)
 			{
 				// If there was an exception (not a valid image file), return null.
+				JOptionPane.showMessageDialog(new JFrame(), ERROR_MESSAGE_READ);
 				return null;
 			}
 		}
@@ -6,6 +6,7 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.text.DecimalFormat;
 
 import javax.swing.JComponent;
 import javax.swing.JMenuItem;
@@ -342,7 +343,7 @@ public class MunsellColorBlock extends JComponent
 			g2d.drawString(munsellColor.toString(), 0, height - g2d.getFontMetrics().getHeight() / 2);
 		} else if (showWeight)
 		{
-			g2d.drawString(Double.toString(colorWeight) + "x", 0, height - g2d.getFontMetrics().getHeight() / 2);
+			g2d.drawString(new DecimalFormat("0.##").format(colorWeight) + "x", 0, height - g2d.getFontMetrics().getHeight() / 2);
 		}
 	}
 
@@ -100,7 +100,8 @@ public class MunsellWindow
 	 */
 	public static void main(String[] args)
 	{
-		// Build the CSV converter maps before we display the GUI.
+		// Load the converter tables before we display the GUI, so the tabs do not
+		// wait for them on the event thread.
 		ColorConverter.buildCSVMaps();
 
 		/**
@@ -16,13 +16,19 @@ import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
 
+import model.MixingResult;
+import model.MixingSearchTask;
 import model.MunsellColor;
+import model.MunsellColor.MixingModel;
+import model.MunsellColor.MixingSearch;
 import model.Palette;
 
 /**
@@ -37,6 +43,8 @@ public class PaletteTab extends JPanel
 {
 	private static final String ERROR_MESSAGE_CLOESST = "Error:\nThe colors in the Palette can "
 			+ "not be mixed to obtain the wanted " + "color.\nTry adding additional colors to " + "your Palette.";
+	private static final String SEARCHING_MESSAGE = "Searching for mixing weights...";
+	private static final long SEARCH_TIME_BUDGET = 2000; // milliseconds a mixing search may run
 	private static final String ERROR_MESSAGE_EMPTY = "Error:\nThe color mixing array is empty.\n"
 			+ "Please add a color to your mixer.";
 
@@ -52,6 +60,10 @@ public class PaletteTab extends JPanel
 	private static JPanel results; // container for the result color
 	private static JPanel wantedColor; // container for the specified desired color
 	private static List<Double> mixingWeights; // mixing the palette to acheive a certain color
+	private static MixingSearchTask mixingSearch; // the running search for mixing weights, if any
+	private static int mixingGeneration; // counts searches, so results of old ones are dropped
+	private static JLabel searchStatus; // how far along the mixing search is
+	private static JComboBox<MixingModel> mixingModelBox; // how the palette colors mix
 	private static JPanel buttonPanel;
 	private static JButton mix;
 	private static JButton clearMixer;
@@ -339,10 +351,15 @@ public class PaletteTab extends JPanel
 		JPanel paletteGrid; // a grid layout for the colors array
 		JPanel weightsGrid; // a grid for laying out the needed color weights
 		JButton mixingButton; // when used, display how to mix colors
+		JPanel mixingOptions; // the mixing button and the choice of mixing model
 		ImageIcon jmulogo = new ImageIcon("JMUicon.png");
 
-		// Clear the current tab to rebuild it.
+		// Clear the current tab to rebuild it, dropping the results of any running
+		// search.
 		desiredColorTab.removeAll();
+		mixingGeneration++;
+		if (mixingSearch != null)
+			mixingSearch.cancel();
 
 		// Initialize all components for this tab.
 		wantedColor = new JPanel();
@@ -350,6 +367,10 @@ public class PaletteTab extends JPanel
 		weightsGrid = new JPanel();
 		mixingButton = new JButton("Find Mixing Weights");
 		upperGUI = new JPanel();
+		searchStatus = new JLabel(" ");
+		mixingOptions = new JPanel(new BorderLayout());
+		if (mixingModelBox == null)
+			mixingModelBox = new JComboBox<>(MixingModel.values());
 		middleGUI = new JPanel()
 		{
 			/**
@@ -411,9 +432,12 @@ public class PaletteTab extends JPanel
 				// Clear the current grid display to refresh it.
 				weightsGrid.removeAll();
 
-				// Obtain the needed mixing weights for obtaining a desired color from the
-				// palette.
-				mixingWeights = MunsellColor.getMixingWeights(Palette.getInstance().getColors(), wanted);
+				// Stop the search of any earlier click; its results are no longer wanted.
+				int generation = ++mixingGeneration;
+				if (mixingSearch != null)
+					mixingSearch.cancel();
+
+				searchStatus.setText(" ");
 
 				// Check if the size of the palette is equal to one.
 				// If so, and that color matches the
@@ -421,6 +445,9 @@ public class PaletteTab extends JPanel
 				if (Palette.getInstance().getColors().size() == 1
 						&& Palette.getInstance().getColors().get(0).equals(wanted))
 				{
+					mixingWeights = new ArrayList<>();
+					mixingWeights.add(1.0);
+
 					// Initialize the new values
 					weightCell = new JPanel();
 					resultCell = new JPanel();
@@ -446,46 +473,25 @@ public class PaletteTab extends JPanel
 					desiredColorTab.validate();
 					desiredColorTab.repaint();
 				}
-				// If a mixture can not be obtained, print an error message.
-				else if (mixingWeights == null)
+				// If there is nothing to mix, print an error message.
+				else if (Palette.getInstance().getColors().isEmpty())
 				{
+					mixingWeights = null;
 					JOptionPane.showMessageDialog(new JFrame(), ERROR_MESSAGE_CLOESST);
 				}
-				// Otherwise, initialize the display for the needed mixtures, weights, and the
-				// resulting color.
+				// Otherwise, search for the needed mixtures in the background, and display
+				// each closer mix as it is found.
 				else
 				{
-					// Initialize the new values
-					resultCell = new JPanel();
-					resultColorChip = new MunsellColorBlock(
-							MunsellColor.mix(Palette.getInstance().getColors(), mixingWeights), 50, 50, false, true,
-							false, 0.0);
-
-					// Built the layout for how to mix colors to obtain the desired color.
-					for (int i = 0; i < Palette.getInstance().getColors().size(); i++)
-					{
-						weightCell = new JPanel();
-						mixColorChip = new MunsellColorBlock(Palette.getInstance().getColors().get(i), 50, 50, false,
-								true, true, mixingWeights.get(i));
-
-						weightCell.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-						mixColorChip.add(weightCell);
-
-						weightsGrid.add(mixColorChip);
-					}
-
-					// Add the new color cell to layout with borders.
-					resultCell.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-					resultCell.add(resultColorChip);
-
-					// Add the cell to the grid layout, and add the results to the container tab.
-					middleGUI.add(weightsGrid, BorderLayout.CENTER);
-					middleGUI.add(resultCell, BorderLayout.SOUTH);
-					desiredColorTab.add(middleGUI, BorderLayout.CENTER);
-
-					// Refresh the tab.
-					desiredColorTab.validate();
-					desiredColorTab.repaint();
+					ArrayList<MunsellColor> colors = new ArrayList<>(Palette.getInstance().getColors());
+					MixingModel model = (MixingModel) mixingModelBox.getSelectedItem();
+					searchStatus.setText(SEARCHING_MESSAGE);
+
+					mixingSearch = MixingSearchTask.start(colors, wanted, MixingSearch.SOLVER, model,
+							SEARCH_TIME_BUDGET, MixingSearchTask.UNLIMITED, found -> SwingUtilities.invokeLater(() -> {
+								if (generation == mixingGeneration)
+									showMixingResult(found, colors, model, weightsGrid, middleGUI);
+							}));
 				}
 			}
 
@@ -516,8 +522,11 @@ public class PaletteTab extends JPanel
 		padding.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 140));
 
 		upperGUI.add(paletteGrid, BorderLayout.CENTER);
-		upperGUI.add(mixingButton, BorderLayout.EAST);
+		mixingOptions.add(mixingButton, BorderLayout.CENTER);
+		mixingOptions.add(mixingModelBox, BorderLayout.SOUTH);
+		upperGUI.add(mixingOptions, BorderLayout.EAST);
 		upperGUI.add(padding, BorderLayout.WEST);
+		upperGUI.add(searchStatus, BorderLayout.SOUTH);
 		middleGUI.add(wantedColor, BorderLayout.NORTH);
 
 		// Add the completed GUI components to the main tab.
@@ -529,6 +538,74 @@ public class PaletteTab extends JPanel
 		desiredColorTab.repaint();
 	}
 
+	/**
+	 * Displays the needed mixtures, weights, and the resulting color of a mixing
+	 * search result, and how far along the search is. Called on the event
+	 * dispatch thread for each result as it arrives.
+	 * 
+	 * @param found       the search result to display
+	 * @param colors      the palette colors the search mixed
+	 * @param model       how the palette colors mix
+	 * @param weightsGrid the grid for laying out the needed color weights
+	 * @param middleGUI   the center portion of the tab's GUI
+	 */
+	private static void showMixingResult(MixingResult found, List<MunsellColor> colors, MixingModel model,
+			JPanel weightsGrid, JPanel middleGUI)
+	{
+		MunsellColorBlock mixColorChip; // the mixing color chips for display
+		MunsellColorBlock resultColorChip; // the result from mixing color chip
+		JPanel weightCell; // mixing color display
+		JPanel resultCell; // result color display
+		String distance = " (distance " + Math.round(found.getDistance()) + ")";
+
+		mixingWeights = found.getWeightList();
+
+		// Show whether a closer mix may still come.
+		if (!found.isLast())
+		{
+			searchStatus.setText(SEARCHING_MESSAGE + distance);
+		} else if (found.isComplete())
+		{
+			searchStatus.setText("Closest mix found" + distance);
+		} else
+		{
+			searchStatus.setText("Search stopped early, showing the closest mix so far" + distance);
+		}
+
+		// Clear the current grid display to refresh it.
+		weightsGrid.removeAll();
+
+		// Initialize the new values
+		resultCell = new JPanel();
+		resultColorChip = new MunsellColorBlock(MunsellColor.mix(colors, mixingWeights, model), 50, 50, false, true, false,
+				0.0);
+
+		// Built the layout for how to mix colors to obtain the desired color.
+		for (int i = 0; i < colors.size(); i++)
+		{
+			weightCell = new JPanel();
+			mixColorChip = new MunsellColorBlock(colors.get(i), 50, 50, false, true, true, mixingWeights.get(i));
+
+			weightCell.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+			mixColorChip.add(weightCell);
+
+			weightsGrid.add(mixColorChip);
+		}
+
+		// Add the new color cell to layout with borders.
+		resultCell.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+		resultCell.add(resultColorChip);
+
+		// Add the cell to the grid layout, and add the results to the container tab.
+		middleGUI.add(weightsGrid, BorderLayout.CENTER);
+		middleGUI.add(resultCell, BorderLayout.SOUTH);
+		desiredColorTab.add(middleGUI, BorderLayout.CENTER);
+
+		// Refresh the tab.
+		desiredColorTab.validate();
+		desiredColorTab.repaint();
+	}
+
 	/**
 	 * Actionlistener for mix button.
 	 */
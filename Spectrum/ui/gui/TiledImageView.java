@@ -0,0 +1,647 @@
+package gui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import model.MunsellColor;
+import model.Palette;
+import model.PaletteCache;
+import model.PosterizePipeline;
+import util.TiledImage;
+
+/**
+ *
+ * @author David An
+ * @version 1, (10/17/2026)
+ *
+ *          Description: A JComponent that shows a TiledImage at any zoom. Each
+ *          paint shows the tiles of the level that suits the zoom that fall in
+ *          the clip, and asks a background thread for any it does not have, so
+ *          only tiles that are on screen are ever decoded (or posterized, when
+ *          a posterizer is set). Until a tile arrives the best coarser tile
+ *          already on hand is stretched over its place. Tiles are decoded one
+ *          at a time, since the file can only be read one place at a time, and
+ *          posterized in parallel on the common fork/join pool, so the image
+ *          fills in tile by tile while the event thread stays free. All the
+ *          tiles posterized for one posterizer share one PaletteCache, so each
+ *          color is looked up once however many tiles it is in. Each tile is
+ *          posterized on its own, so error diffusion starts afresh at every
+ *          tile's top and left edges and shows faint seams along them; ordered
+ *          dithering lines up, since tiles start on multiples of the Bayer
+ *          matrix. Seeding each tile with its neighbors' error would make tiles
+ *          wait on one another in order, which lazily posterizing only what is
+ *          on screen cannot do. Tiles come back to the event thread through
+ *          SwingUtilities.invokeLater, and every other field is only touched on
+ *          the event thread, so nothing here is locked. Changing the image or
+ *          posterizer, or cancelling, cancels the work asked for before: work
+ *          not yet started is skipped and work already running is thrown away
+ *          when it arrives. A tile that cannot be read or posterized is not
+ *          asked for again until the image or posterizer changes. The image's
+ *          cache and the posterized tiles are sized to hold a few screens of
+ *          tiles of the level shown, so even a large window at a small zoom
+ *          never evicts tiles it is still showing.
+ */
+public class TiledImageView extends JComponent
+{
+	/**
+	 * default serial version ID number.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private static final int SHOWN_TILES = 256; // The fewest posterized or decoded tiles kept.
+	private static final int SCREENS_KEPT = 4; // The screens of tiles kept, so panning back is quick.
+
+	// Decodes and posterizes tiles. One daemon thread, so tiles are read one at
+	// a time in the order asked for and never keep the program open.
+	private static final ExecutorService tileExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Image tiles");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private transient TiledImage image; // The image shown, or null.
+	private transient PosterizePipeline posterizer; // Posterizes the tiles shown, or null.
+	private transient PaletteCache posterizerCache; // Shared by every tile posterizer maps, or null until needed.
+	private boolean stopped; // Whether posterizing was cancelled.
+	private double scale = 1; // The size on screen of one full resolution pixel.
+	private transient Job job = new Job(); // The work asked for since the last change.
+	private int pendingTiles; // The tiles waiting to be posterized, as last told to listeners.
+	private final transient Map<Long, BufferedImage> posterized; // Posterized tiles, least recently shown first.
+	private int shownTiles = SHOWN_TILES; // The most posterized tiles kept.
+	private final transient Set<Long> requested = new HashSet<>(); // Tiles asked for and not yet arrived.
+	private final transient Set<Long> failed = new HashSet<>(); // Tiles that could not be read or posterized.
+	private volatile Rectangle visible = new Rectangle(); // The part of the view on screen at the last paint.
+	private volatile int visibleLevel; // The level shown at the last paint.
+
+	/**
+	 * Creates a view with no image.
+	 */
+	public TiledImageView()
+	{
+		posterized = new LinkedHashMap<>(SHOWN_TILES, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest)
+			{
+				return size() > shownTiles;
+			}
+		};
+	}
+
+	/**
+	 * Shows an image, at the same zoom and without posterizing.
+	 *
+	 * @param image the image, or null for none.
+	 */
+	public void setImage(TiledImage image)
+	{
+		this.image = image;
+		posterizer = null;
+		reset();
+	}
+
+	/**
+	 * @return the image shown, or null.
+	 */
+	public TiledImage getImage()
+	{
+		return image;
+	}
+
+	/**
+	 * Posterizes the tiles shown, as they come on screen.
+	 *
+	 * @param posterizer posterizes each tile, or null to show the image as it
+	 *                   is.
+	 */
+	public void setPosterizer(PosterizePipeline posterizer)
+	{
+		this.posterizer = posterizer;
+		reset();
+	}
+
+	/**
+	 * @return what posterizes the tiles shown, or null.
+	 */
+	public PosterizePipeline getPosterizer()
+	{
+		return posterizer;
+	}
+
+	/**
+	 * Stops posterizing. Tiles already posterized stay; the rest are shown as
+	 * they are until a posterizer is set again.
+	 */
+	public void cancelPosterizing()
+	{
+		if (posterizer == null || stopped)
+			return;
+
+		stopped = true;
+		job.cancelled = true;
+		job = new Job();
+		requested.clear();
+		updatePendingTiles();
+		repaint();
+	}
+
+	/**
+	 * The number of tiles waiting to be posterized. Listeners to the
+	 * "pendingTiles" property are told when it changes.
+	 *
+	 * @return the number of tiles, 0 if none are being posterized.
+	 */
+	public int getPendingTiles()
+	{
+		return pendingTiles;
+	}
+
+	/**
+	 * Sets the zoom.
+	 *
+	 * @param scale the size on screen of one full resolution pixel.
+	 */
+	public void setScale(double scale)
+	{
+		if (!(scale > 0))
+			throw new IllegalArgumentException("Scale must be positive!");
+
+		this.scale = scale;
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * @return the size on screen of one full resolution pixel.
+	 */
+	public double getScale()
+	{
+		return scale;
+	}
+
+	/**
+	 * @param size the space to fit the image in.
+	 * @return the largest scale, at most 1, at which the whole image fits.
+	 */
+	public double getFitScale(Dimension size)
+	{
+		if (image == null || size.width <= 0 || size.height <= 0)
+			return 1;
+
+		return Math.min(1, Math.min(size.getWidth() / image.getWidth(), size.getHeight() / image.getHeight()));
+	}
+
+	/**
+	 * @param point a point in the view.
+	 * @return the full resolution pixel under the point, or null if it is not
+	 *         over the image.
+	 */
+	public Point toImagePoint(Point point)
+	{
+		if (image == null)
+			return null;
+
+		int x = (int) Math.floor(point.x / scale);
+		int y = (int) Math.floor(point.y / scale);
+		if (x < 0 || y < 0 || x >= image.getWidth() || y >= image.getHeight())
+			return null;
+
+		return new Point(x, y);
+	}
+
+	/**
+	 * Finds the color shown under a point. Once the tile there is posterized,
+	 * that is the palette color of its pixel, dithering and all. While it is
+	 * still being posterized, the full resolution pixel is read in the
+	 * background and mapped through the posterizer's cache and palette, as it
+	 * would be without dithering. Otherwise it is the full resolution pixel's
+	 * own color.
+	 *
+	 * @param point    a point in the view.
+	 * @param listener given the color on the event thread, if the point is
+	 *                 over the image and it can be read.
+	 */
+	public void pick(Point point, Consumer<MunsellColor> listener)
+	{
+		Point pixel = toImagePoint(point);
+		if (pixel == null)
+			return;
+
+		if (posterizer != null)
+		{
+			int level = image.getLevel(scale);
+			int x = Math.min(pixel.x >> level, image.getLevelWidth(level) - 1);
+			int y = Math.min(pixel.y >> level, image.getLevelHeight(level) - 1);
+			BufferedImage tile = posterized.get(key(level, x / TiledImage.TILE_SIZE, y / TiledImage.TILE_SIZE));
+			if (tile != null && posterizerCache != null)
+			{
+				int rgb = tile.getRGB(x % TiledImage.TILE_SIZE, y % TiledImage.TILE_SIZE);
+				listener.accept(paletteColor(posterizerCache, rgb));
+				return;
+			}
+		}
+
+		TiledImage picked = image;
+		PaletteCache cache = posterizer == null || stopped ? null : posterizerCache(posterizer);
+		tileExecutor.execute(() -> {
+			try
+			{
+				int rgb = picked.getRGB(pixel.x, pixel.y);
+				MunsellColor color = cache == null ? MunsellColor.fromRGB(new Color(rgb))
+						: cache.getPalette().getColors().get(cache.getClosestIndex(rgb));
+				SwingUtilities.invokeLater(() -> {
+					if (image == picked)
+						listener.accept(color);
+				});
+			} catch (IOException e)
+			{
+				// Nothing to show.
+			}
+		});
+	}
+
+	/**
+	 * @param cache the cache tiles were posterized with.
+	 * @param rgb   the packed 0xRRGGBB value of a posterized pixel.
+	 * @return the palette color the pixel was given, or the closest one if
+	 *         none has exactly its value.
+	 */
+	private static MunsellColor paletteColor(PaletteCache cache, int rgb)
+	{
+		Palette palette = cache.getPalette();
+		for (MunsellColor color : palette.getColors())
+		{
+			if (((color.toColor().getRGB() ^ rgb) & 0xFFFFFF) == 0)
+				return color;
+		}
+
+		return palette.getColors().get(cache.getClosestIndex(rgb));
+	}
+
+	@Override
+	public Dimension getPreferredSize()
+	{
+		if (image == null)
+			return new Dimension(0, 0);
+
+		return new Dimension((int) Math.ceil(image.getWidth() * scale), (int) Math.ceil(image.getHeight() * scale));
+	}
+
+	@Override
+	protected void paintComponent(Graphics g)
+	{
+		super.paintComponent(g);
+		if (image == null)
+			return;
+
+		int level = image.getLevel(scale);
+		double levelScale = scale * (1 << level); // The size on screen of one pixel of the level.
+		visible = getVisibleRect();
+		visibleLevel = level;
+		sizeCaches(TiledImage.TILE_SIZE * levelScale);
+
+		Graphics2D g2d = (Graphics2D) g.create();
+		g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, levelScale > 1
+				? RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+				: RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+		Rectangle clip = g2d.getClipBounds();
+		if (clip == null)
+			clip = new Rectangle(getPreferredSize());
+
+		double tileOnScreen = TiledImage.TILE_SIZE * levelScale;
+		int firstColumn = Math.max(0, (int) (clip.x / tileOnScreen));
+		int firstRow = Math.max(0, (int) (clip.y / tileOnScreen));
+		int lastColumn = Math.min(image.getColumns(level) - 1, (int) ((clip.x + clip.width) / tileOnScreen));
+		int lastRow = Math.min(image.getRows(level) - 1, (int) ((clip.y + clip.height) / tileOnScreen));
+
+		for (int row = firstRow; row <= lastRow; row++)
+		{
+			for (int column = firstColumn; column <= lastColumn; column++)
+			{
+				Rectangle place = tileRectangle(level, column, row);
+				BufferedImage tile = shownTile(level, column, row);
+				if (tile != null)
+				{
+					g2d.drawImage(tile, place.x, place.y, place.width, place.height, null);
+					continue;
+				}
+
+				// Once posterizing is cancelled, only tiles not yet decoded are asked for.
+				if (posterizer == null || !stopped || image.getLoadedTile(level, column, row) == null)
+					request(level, column, row);
+				drawStandIn(g2d, level, column, row, place);
+			}
+		}
+
+		g2d.dispose();
+	}
+
+	/**
+	 * Makes room in the image's cache and among the posterized tiles for
+	 * SCREENS_KEPT screens of tiles of the size shown, and no fewer than
+	 * SHOWN_TILES.
+	 *
+	 * @param tileOnScreen the width and height of a tile on screen.
+	 */
+	private void sizeCaches(double tileOnScreen)
+	{
+		// A screen may show part of a tile more than fits in it at each edge.
+		long columns = (long) Math.ceil(visible.width / tileOnScreen) + 1;
+		long rows = (long) Math.ceil(visible.height / tileOnScreen) + 1;
+		int tiles = (int) Math.min(Integer.MAX_VALUE, Math.max(SHOWN_TILES, SCREENS_KEPT * columns * rows));
+
+		if (image.getCacheSize() != tiles)
+			image.setCacheSize(tiles);
+
+		if (shownTiles != tiles)
+		{
+			shownTiles = tiles;
+			Iterator<Long> eldest = posterized.keySet().iterator();
+			while (posterized.size() > shownTiles)
+			{
+				eldest.next();
+				eldest.remove();
+			}
+		}
+	}
+
+	/**
+	 * Forgets the tiles on hand and everything asked for, and shows the view
+	 * again.
+	 */
+	private void reset()
+	{
+		job.cancelled = true;
+		job = new Job();
+		stopped = false;
+		posterizerCache = null;
+		posterized.clear();
+		requested.clear();
+		failed.clear();
+		updatePendingTiles();
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * Tells listeners to the "pendingTiles" property if the number of tiles
+	 * waiting to be posterized has changed.
+	 */
+	private void updatePendingTiles()
+	{
+		int old = pendingTiles;
+		pendingTiles = posterizer != null && !stopped ? requested.size() : 0;
+		firePropertyChange("pendingTiles", old, pendingTiles);
+	}
+
+	/**
+	 * @param level  a level.
+	 * @param column the column of a tile.
+	 * @param row    the row of the tile.
+	 * @return the tile as it should be shown, or null if it is not on hand.
+	 */
+	private BufferedImage shownTile(int level, int column, int row)
+	{
+		if (posterizer != null)
+			return posterized.get(key(level, column, row));
+
+		return image.getLoadedTile(level, column, row);
+	}
+
+	/**
+	 * Stands in for a tile not yet on hand with the tile as it is, while it is
+	 * posterized, or else with the best coarser tile on hand.
+	 *
+	 * @param g2d    where to draw.
+	 * @param level  the level of the tile.
+	 * @param column the column of the tile.
+	 * @param row    the row of the tile.
+	 * @param place  where the tile goes.
+	 */
+	private void drawStandIn(Graphics2D g2d, int level, int column, int row, Rectangle place)
+	{
+		if (posterizer != null)
+		{
+			BufferedImage original = image.getLoadedTile(level, column, row);
+			if (original != null)
+			{
+				g2d.drawImage(original, place.x, place.y, place.width, place.height, null);
+				return;
+			}
+		}
+
+		for (int coarser = level + 1; coarser < image.getLevelCount(); coarser++)
+		{
+			int shift = coarser - level;
+			BufferedImage tile = shownTile(coarser, column >> shift, row >> shift);
+			if (tile != null)
+			{
+				Rectangle coarserPlace = tileRectangle(coarser, column >> shift, row >> shift);
+				Shape clip = g2d.getClip();
+				g2d.clip(place);
+				g2d.drawImage(tile, coarserPlace.x, coarserPlace.y, coarserPlace.width, coarserPlace.height, null);
+				g2d.setClip(clip);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Asks the background thread for a tile, unless it already has been or
+	 * could not be had before.
+	 *
+	 * @param level  the level.
+	 * @param column the column of the tile.
+	 * @param row    the row of the tile.
+	 */
+	private void request(int level, int column, int row)
+	{
+		long key = key(level, column, row);
+		if (failed.contains(key) || !requested.add(key))
+			return;
+		updatePendingTiles();
+
+		Job requestJob = job;
+		TiledImage source = image;
+		PosterizePipeline pipeline = stopped ? null : posterizer;
+		PaletteCache cache = pipeline == null ? null : posterizerCache(pipeline);
+		Rectangle place = tileRectangle(level, column, row);
+
+		tileExecutor.execute(() -> {
+			// Cancelled, or scrolled or zoomed away, while waiting.
+			if (requestJob.cancelled)
+				return;
+			if (visibleLevel != level || !visible.intersects(place))
+			{
+				publish(requestJob, key, null, place);
+				return;
+			}
+
+			BufferedImage tile;
+			try
+			{
+				tile = source.getTile(level, column, row);
+			} catch (IOException | RuntimeException e)
+			{
+				fail(requestJob, key, place);
+				return;
+			}
+
+			if (pipeline == null)
+			{
+				publish(requestJob, key, null, place);
+				return;
+			}
+			if (cache == null)
+			{
+				fail(requestJob, key, place);
+				return;
+			}
+
+			ForkJoinPool.commonPool().execute(() -> {
+				if (requestJob.cancelled)
+					return;
+
+				BufferedImage shown;
+				try
+				{
+					shown = pipeline.posterize(tile, cache);
+				} catch (RuntimeException e)
+				{
+					fail(requestJob, key, place);
+					return;
+				}
+				publish(requestJob, key, shown, place);
+			});
+		});
+	}
+
+	/**
+	 * Hands the result of a request to the event thread, where it is shown
+	 * unless the work it was asked for has been cancelled.
+	 *
+	 * @param requestJob the work the tile was asked for as part of.
+	 * @param key        the key of the tile.
+	 * @param shown      the posterized tile, or null if it was only decoded
+	 *                   or was not needed after all.
+	 * @param place      where the tile goes.
+	 */
+	private void publish(Job requestJob, long key, BufferedImage shown, Rectangle place)
+	{
+		SwingUtilities.invokeLater(() -> {
+			if (requestJob != job)
+				return;
+
+			requested.remove(key);
+			if (shown != null)
+				posterized.put(key, shown);
+			updatePendingTiles();
+			repaint(place);
+		});
+	}
+
+	/**
+	 * Gives the cache shared by every tile the posterizer maps, made for the
+	 * palette as it is the first time a tile is asked for.
+	 *
+	 * @param pipeline the posterizer.
+	 * @return the cache, or null if the palette is empty.
+	 */
+	private PaletteCache posterizerCache(PosterizePipeline pipeline)
+	{
+		if (posterizerCache == null)
+		{
+			try
+			{
+				posterizerCache = pipeline.createCache((long) image.getWidth() * image.getHeight());
+			} catch (IllegalArgumentException e)
+			{
+				return null;
+			}
+		}
+		return posterizerCache;
+	}
+
+	/**
+	 * Tells the event thread that a tile could not be read or posterized, so
+	 * it is no longer waited for or asked for again, unless the work it was
+	 * asked for has been cancelled.
+	 *
+	 * @param requestJob the work the tile was asked for as part of.
+	 * @param key        the key of the tile.
+	 * @param place      where the tile goes.
+	 */
+	private void fail(Job requestJob, long key, Rectangle place)
+	{
+		SwingUtilities.invokeLater(() -> {
+			if (requestJob != job)
+				return;
+
+			requested.remove(key);
+			failed.add(key);
+			updatePendingTiles();
+			repaint(place);
+		});
+	}
+
+	/**
+	 * @param level  a level.
+	 * @param column the column of a tile.
+	 * @param row    the row of the tile.
+	 * @return where the tile goes in the view. Neighboring tiles meet without
+	 *         gaps or overlap.
+	 */
+	private Rectangle tileRectangle(int level, int column, int row)
+	{
+		double levelScale = scale * (1 << level);
+		int left = (int) Math.floor(column * TiledImage.TILE_SIZE * levelScale);
+		int top = (int) Math.floor(row * TiledImage.TILE_SIZE * levelScale);
+		int right = (int) Math.floor(Math.min((column + 1) * TiledImage.TILE_SIZE, image.getLevelWidth(level))
+				* levelScale);
+		int bottom = (int) Math.floor(Math.min((row + 1) * TiledImage.TILE_SIZE, image.getLevelHeight(level))
+				* levelScale);
+		return new Rectangle(left, top, Math.max(1, right - left), Math.max(1, bottom - top));
+	}
+
+	/**
+	 * @param level  a level.
+	 * @param column the column of a tile.
+	 * @param row    the row of the tile.
+	 * @return a key naming the tile.
+	 */
+	private static long key(int level, int column, int row)
+	{
+		return (long) level << 48 | (long) row << 24 | column;
+	}
+
+	/**
+	 * The work asked for between two changes of image or posterizer.
+	 */
+	private static final class Job
+	{
+		private volatile boolean cancelled; // Whether the work is no longer wanted.
+	}
+}